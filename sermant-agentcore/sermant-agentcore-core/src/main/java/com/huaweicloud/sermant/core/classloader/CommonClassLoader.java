@@ -18,8 +18,6 @@ package com.huaweicloud.sermant.core.classloader;
 
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 公共类加载器
@@ -28,11 +26,14 @@ import java.util.Map;
  * @since 2022-11-25
  */
 public class CommonClassLoader extends URLClassLoader {
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
 
     /**
      * 对CommonClassLoader已经加载的类进行管理
      */
-    private final Map<String, Class<?>> commonClassMap = new HashMap<>();
+    private final LocalClassCache commonClassCache;
 
     /**
      * 构造方法，CommonClassLoader默认以AppClassloader为父类加载器
@@ -41,6 +42,7 @@ public class CommonClassLoader extends URLClassLoader {
      */
     public CommonClassLoader(URL[] urls) {
         super(urls);
+        commonClassCache = new LocalClassCache(urls);
     }
 
     @Override
@@ -50,6 +52,13 @@ public class CommonClassLoader extends URLClassLoader {
 
     @Override
     public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        final Class<?> loadedClass = commonClassCache.getLoadedClass(name);
+        if (loadedClass != null) {
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
         synchronized (getClassLoadingLock(name)) {
             // 破坏双亲委派，先从自身加载，再从父类加载，保持Sermant插件服务的第三方依赖和宿主依赖隔离
             Class<?> clazz = loadCommonClass(name);
@@ -72,14 +81,7 @@ public class CommonClassLoader extends URLClassLoader {
      * @return Class<?>
      */
     private Class<?> loadCommonClass(String name) {
-        if (!commonClassMap.containsKey(name)) {
-            try {
-                commonClassMap.put(name, findClass(name));
-            } catch (ClassNotFoundException ignored) {
-                // 若自身无法加载则把类名放入缓存，后续不再尝试加载
-                commonClassMap.put(name, null);
-            }
-        }
-        return commonClassMap.get(name);
+        // 若自身无法加载则把类名放入缓存，后续不再尝试加载
+        return commonClassCache.findLocalClass(name, this::findClass);
     }
 }
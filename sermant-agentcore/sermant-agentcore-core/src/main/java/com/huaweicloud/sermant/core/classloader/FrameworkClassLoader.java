@@ -25,8 +25,6 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 框架核心能力实现的类加载器
@@ -35,10 +33,14 @@ import java.util.Map;
  * @since 2022-06-18
  */
 public class FrameworkClassLoader extends URLClassLoader {
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
     /**
      * 对FrameClassLoader已经加载的类进行管理
      */
-    private final Map<String, Class<?>> frameworkClassMap = new HashMap<>();
+    private final LocalClassCache frameworkClassCache;
 
     /**
      * Constructor.
@@ -48,17 +50,11 @@ public class FrameworkClassLoader extends URLClassLoader {
      */
     public FrameworkClassLoader(URL[] urls, ClassLoader parent) {
         super(urls, parent);
+        frameworkClassCache = new LocalClassCache(urls);
     }
 
     private Class<?> findFrameworkClass(String name) {
-        if (!frameworkClassMap.containsKey(name)) {
-            try {
-                frameworkClassMap.put(name, findClass(name));
-            } catch (ClassNotFoundException ignored) {
-                frameworkClassMap.put(name, null);
-            }
-        }
-        return frameworkClassMap.get(name);
+        return frameworkClassCache.findLocalClass(name, this::findClass);
     }
 
     @Override
@@ -68,6 +64,13 @@ public class FrameworkClassLoader extends URLClassLoader {
 
     @Override
     public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        final Class<?> loadedClass = frameworkClassCache.getLoadedClass(name);
+        if (loadedClass != null) {
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
         synchronized (getClassLoadingLock(name)) {
             Class<?> clazz = null;
 
@@ -80,7 +83,7 @@ public class FrameworkClassLoader extends URLClassLoader {
 
                 // 通过FrameworkClassLoader的super.loadClass方法把从自身加载的类放入缓存
                 if (clazz != null && clazz.getClassLoader() == this) {
-                    frameworkClassMap.put(name, clazz);
+                    frameworkClassCache.putLoadedClass(name, clazz);
                 }
             }
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.classloader;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * 类加载器自身加载的类的缓存，可被并发访问：
+ * <pre>
+ *     1.已加载的类，数量受类加载器自身的jar包内容限制
+ *     2.找不到的类，数量超过上限时清空
+ *     3.jar包内容的包名索引，不在索引中的包直接视为找不到，无需调用findClass
+ * </pre>
+ * 包含非jar包的url时，包名索引失效，总是尝试findClass
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-14
+ */
+public class LocalClassCache {
+    /**
+     * 找不到的类的缓存上限
+     */
+    private static final int MAX_MISSING_SIZE = 4096;
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private static final String VERSIONS_PREFIX = "META-INF/versions/";
+
+    private final Map<String, Class<?>> loadedClasses = new ConcurrentHashMap<>();
+
+    private final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> packages = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean isPackageIndexed = true;
+
+    /**
+     * 构造函数
+     *
+     * @param urls 类加载器的url
+     */
+    public LocalClassCache(URL[] urls) {
+        for (URL url : urls) {
+            addUrl(url);
+        }
+    }
+
+    /**
+     * 将url中的包加入包名索引，在类加载器添加url时调用
+     *
+     * @param url url
+     */
+    public void addUrl(URL url) {
+        missingClasses.clear();
+        if (!isPackageIndexed) {
+            return;
+        }
+        final File file = toFile(url);
+        if (file == null || !file.isFile()) {
+            isPackageIndexed = false;
+            return;
+        }
+        try (JarFile jarFile = new JarFile(file)) {
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final String entryName = entries.nextElement().getName();
+                if (entryName.endsWith(CLASS_FILE_SUFFIX)) {
+                    final String classPath = stripVersion(entryName);
+                    packages.add(getPackageName(
+                            classPath.substring(0, classPath.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.')));
+                }
+            }
+        } catch (IOException ignored) {
+            // 类加载器可能先于日志初始化，此处不打印日志，索引失效后回退为总是调用findClass
+            isPackageIndexed = false;
+        }
+    }
+
+    /**
+     * 获取已加载的类，无需加锁
+     *
+     * @param name 全限定名
+     * @return 已加载的类，不存在时返回null
+     */
+    public Class<?> getLoadedClass(String name) {
+        return loadedClasses.get(name);
+    }
+
+    /**
+     * 记录类加载器自身加载的类
+     *
+     * @param name  全限定名
+     * @param clazz 类
+     */
+    public void putLoadedClass(String name, Class<?> clazz) {
+        loadedClasses.put(name, clazz);
+    }
+
+    /**
+     * 从类加载器自身查找类，结果被缓存，需在类加载锁内调用
+     *
+     * @param name   全限定名
+     * @param finder 类加载器自身的查找方法，通常为findClass
+     * @return 类，找不到时返回null
+     */
+    public Class<?> findLocalClass(String name, ClassFinder finder) {
+        final Class<?> loadedClass = loadedClasses.get(name);
+        if (loadedClass != null) {
+            return loadedClass;
+        }
+        if ((isPackageIndexed && !packages.contains(getPackageName(name))) || missingClasses.contains(name)) {
+            return null;
+        }
+        try {
+            final Class<?> clazz = finder.find(name);
+            loadedClasses.put(name, clazz);
+            return clazz;
+        } catch (ClassNotFoundException ignored) {
+            if (missingClasses.size() >= MAX_MISSING_SIZE) {
+                missingClasses.clear();
+            }
+            missingClasses.add(name);
+            return null;
+        }
+    }
+
+    private static String getPackageName(String className) {
+        final int index = className.lastIndexOf('.');
+        return index < 0 ? "" : className.substring(0, index);
+    }
+
+    private static String stripVersion(String entryName) {
+        if (!entryName.startsWith(VERSIONS_PREFIX)) {
+            return entryName;
+        }
+        final int index = entryName.indexOf('/', VERSIONS_PREFIX.length());
+        return index < 0 ? entryName : entryName.substring(index + 1);
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 类加载器自身的查找方法
+     *
+     * @since 2023-08-14
+     */
+    public interface ClassFinder {
+        /**
+         * 查找类
+         *
+         * @param name 全限定名
+         * @return 类
+         * @throws ClassNotFoundException 找不到类
+         */
+        Class<?> find(String name) throws ClassNotFoundException;
+    }
+}
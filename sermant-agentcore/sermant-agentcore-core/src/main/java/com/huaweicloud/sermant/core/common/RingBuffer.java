@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.common;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形缓冲区，写入和读取均不加锁，满时写入失败而不阻塞业务线程
+ * <p>每个槽位维护一个序号，生产者通过CAS竞争写入位置，消费者通过CAS竞争读取位置，支持多生产者多消费者
+ *
+ * @param <E> 元素类型
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-16
+ */
+public class RingBuffer<E> {
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public RingBuffer(int capacity) {
+        final int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入元素
+     *
+     * @param element 元素
+     * @return 是否写入成功，缓冲区已满时返回false
+     */
+    public boolean offer(E element) {
+        while (true) {
+            final long position = tail.get();
+            final int index = (int) position & mask;
+            final long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 读取并移除最早写入的元素
+     *
+     * @return 元素，缓冲区为空时返回null
+     */
+    public E poll() {
+        while (true) {
+            final long position = head.get();
+            final int index = (int) position & mask;
+            final long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    final E element = elements.get(index);
+                    elements.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 将缓冲区中的元素全部读取到集合中
+     *
+     * @param collection 集合
+     * @return 读取的元素数量
+     */
+    public int drainTo(Collection<? super E> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 从缓冲区中读取至多maxElements个元素到集合中
+     *
+     * @param collection 集合
+     * @param maxElements 最大读取数量
+     * @return 读取的元素数量
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            final E element = poll();
+            if (element == null) {
+                break;
+            }
+            collection.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 获取缓冲区中的元素数量，并发读写时为近似值
+     *
+     * @return 元素数量
+     */
+    public int size() {
+        return (int) Math.max(0L, tail.get() - head.get());
+    }
+
+    /**
+     * 获取缓冲区容量
+     *
+     * @return 容量
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -39,6 +39,11 @@ public class Event {
 
     private LogInfo logInfo;
 
+    /**
+     * 事件发生次数，在事件记录时间间隔内重复的事件被聚合为一个事件
+     */
+    private int count = 1;
+
     /**
      * 用于事件的构造函数
      *
@@ -72,6 +77,21 @@ public class Event {
         this.logInfo = logInfo;
     }
 
+    /**
+     * 用于聚合事件的构造函数，复制原事件的元数据与事件信息，发生时间与次数由聚合窗口设置
+     *
+     * @param event 原事件
+     */
+    Event(Event event) {
+        this.metaHash = event.getMetaHash();
+        this.time = event.getTime();
+        this.scope = event.getScope();
+        this.eventLevel = event.getEventLevel();
+        this.eventType = event.getEventType();
+        this.eventInfo = event.getEventInfo();
+        this.logInfo = event.getLogInfo();
+    }
+
     public String getMetaHash() {
         return metaHash;
     }
@@ -128,10 +148,18 @@ public class Event {
         this.logInfo = logInfo;
     }
 
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
     @Override
     public String toString() {
         return "Event{" + "metaHash='" + metaHash + '\'' + ", time=" + time + ", scope='" + scope + '\''
                 + ", eventLevel=" + eventLevel + ", eventType=" + eventType + ", eventInfo=" + eventInfo + ", logInfo="
-                + logInfo + '}';
+                + logInfo + ", count=" + count + '}';
     }
 }
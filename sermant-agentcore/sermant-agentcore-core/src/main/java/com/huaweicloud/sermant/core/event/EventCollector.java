@@ -16,33 +16,37 @@
 
 package com.huaweicloud.sermant.core.event;
 
-import com.huaweicloud.sermant.core.common.BootArgsIndexer;
-import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.common.RingBuffer;
 import com.huaweicloud.sermant.core.config.ConfigManager;
 import com.huaweicloud.sermant.core.event.config.EventConfig;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Logger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 事件采集器
+ * <pre>
+ *     1.事件缓存在有界无锁环形缓冲区中，写入不阻塞业务线程，缓冲区已满时按{@link EventConfig#getDropPolicy}丢弃并计数
+ *     2.缓冲区中的事件数量达到{@link EventConfig#getBatchSize}时，通知{@link EventManager}提前异步发送
+ *     3.事件记录时间间隔内重复的事件被聚合，时间窗口结束后以一个计数事件上报重复次数
+ * </pre>
  *
  * @author luanwenfei
  * @since 2023-03-02
  */
 public class EventCollector {
-    private static final Logger LOGGER = LoggerFactory.getLogger();
+    private final EventConfig eventConfig = ConfigManager.getConfig(EventConfig.class);
 
-    // 有界阻塞队列 缓存事件，未满则定时上报，已满则主动上报
-    private final BlockingQueue<Event> eventQueue = new ArrayBlockingQueue<>(100);
+    // 有界无锁环形缓冲区缓存事件，定时或积攒到批量大小时由事件采集线程上报
+    private final RingBuffer<Event> eventBuffer = new RingBuffer<>(eventConfig.getQueueCapacity());
 
-    private final EventConfig eventConfig = ConfigManager.getConfig(EventConfig.class);
+    // 事件聚合窗口，以事件信息或日志信息为键
+    private final ConcurrentHashMap<Object, EventAggregation> eventAggregations = new ConcurrentHashMap<>();
+
+    private final LongAdder droppedCount = new LongAdder();
 
-    private final ConcurrentHashMap<EventInfo, Long> eventInfoOfferTimeCache = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCount = new LongAdder();
 
     /**
      * 构造方法
@@ -51,77 +55,172 @@ public class EventCollector {
     }
 
     /**
-     * 用于事件采集管理器获取当前缓存事件，采集时清理日志及事件上报事件的缓存
+     * 用于事件采集管理器获取当前缓存事件，采集时结束已过期的聚合窗口，并上报窗口内重复的事件
+     *
+     * @param events 用于存放事件的集合
+     * @return 采集的事件数量
+     */
+    public final int collect(Collection<Event> events) {
+        return collect(events, false);
+    }
+
+    /**
+     * 用于事件采集管理器获取当前缓存事件，强制采集时结束所有聚合窗口，用于程序终止时上报尚未过期窗口内的重复事件
      *
-     * @return 返回当前事件缓存队列
+     * @param events 用于存放事件的集合
+     * @param isForce 是否强制结束所有聚合窗口
+     * @return 采集的事件数量
      */
-    public final BlockingQueue<Event> collect() {
-        cleanOfferTimeCacheMap();
-        return eventQueue;
+    public final int collect(Collection<Event> events, boolean isForce) {
+        return collectAggregatedEvents(events, isForce) + eventBuffer.drainTo(events);
     }
 
     /**
-     * 用于向事件采集器添加事件, 如果满了就会主动发送事件信息
+     * 用于向事件采集器添加事件，缓冲区积攒到批量大小时会通知事件采集管理器异步发送事件信息
      *
      * @param event 事件
-     * @return 事件添加状态
+     * @return 事件添加状态，事件被聚合时也视为添加成功
      */
     public boolean offerEvent(Event event) {
         if (!eventConfig.isEnable()) {
             return false;
         }
-        if (event.getEventInfo() != null) {
-            if (checkEventInfoOfferInterval(event.getEventInfo())) {
-                eventInfoOfferTimeCache.put(event.getEventInfo(), System.currentTimeMillis());
-            } else {
-                return false;
-            }
+        final Object aggregationKey = event.getEventInfo() != null ? event.getEventInfo() : event.getLogInfo();
+        if (aggregationKey != null && aggregate(aggregationKey, event)) {
+            coalescedCount.increment();
+            return true;
         }
         return doOffer(event);
     }
 
+    /**
+     * 获取并重置因缓冲区已满被丢弃的事件数量
+     *
+     * @return 被丢弃的事件数量
+     */
+    public long getAndResetDroppedCount() {
+        return droppedCount.sumThenReset();
+    }
+
+    /**
+     * 获取被聚合的重复事件数量
+     *
+     * @return 被聚合的事件数量
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
     private boolean doOffer(Event event) {
-        if (eventQueue.offer(event)) {
+        if (eventBuffer.offer(event)) {
+            if (eventBuffer.size() >= eventConfig.getBatchSize()) {
+                EventManager.requestFlush();
+            }
             return true;
         }
-        LOGGER.info("Event queue is full when offer new event, send events initiative.");
-        sendEventInitiative();
-        return eventQueue.offer(event);
-    }
-
-    private void sendEventInitiative() {
-        if (eventQueue.isEmpty()) {
-            LOGGER.severe("Event queue is empty when send events initiative.");
-            return;
+        EventManager.requestFlush();
+        if (eventConfig.getDropPolicy() == EventConfig.DropPolicy.DROP_OLDEST) {
+            if (eventBuffer.poll() != null) {
+                droppedCount.increment();
+            }
+            if (eventBuffer.offer(event)) {
+                return true;
+            }
         }
-        List<Event> events = new ArrayList<>();
-        eventQueue.drainTo(events);
-        EventSender.sendEvent(new EventMessage(BootArgsIndexer.getInstanceId(), events));
+        droppedCount.increment();
+        return false;
     }
 
     /**
-     * 通过上报时间间隔，检查是否可以再次上报该事件
+     * 尝试将事件聚合到当前时间窗口，窗口不存在或已过期时开启新窗口，旧窗口内的重复事件转为计数事件
+     * <p>窗口的聚合、替换与采集均在{@link ConcurrentHashMap#compute}中对同一键串行执行，重复次数不会丢失
      *
-     * @param eventInfo 事件信息
-     * @return boolean 是否可以再次上报
+     * @param aggregationKey 聚合键
+     * @param event 事件
+     * @return 是否被聚合
      */
-    private boolean checkEventInfoOfferInterval(EventInfo eventInfo) {
-        Long lastOfferTime = eventInfoOfferTimeCache.get(eventInfo);
-        if (lastOfferTime == null) {
-            return true;
+    private boolean aggregate(Object aggregationKey, Event event) {
+        final long currentTime = System.currentTimeMillis();
+        final Event[] expiredEvent = new Event[1];
+        final EventAggregation aggregation = eventAggregations.compute(aggregationKey, (key, oldAggregation) -> {
+            if (oldAggregation != null) {
+                if (oldAggregation.tryAggregate(currentTime, eventConfig.getOfferInterval())) {
+                    return oldAggregation;
+                }
+                expiredEvent[0] = oldAggregation.toAggregatedEvent();
+            }
+            return new EventAggregation(event, currentTime);
+        });
+        if (expiredEvent[0] != null) {
+            doOffer(expiredEvent[0]);
         }
-        return System.currentTimeMillis() - lastOfferTime > eventConfig.getOfferInterval();
+        return aggregation.firstEvent != event;
+    }
+
+    private int collectAggregatedEvents(Collection<Event> events, boolean isForce) {
+        final long currentTime = System.currentTimeMillis();
+        final int originSize = events.size();
+        for (Object aggregationKey : eventAggregations.keySet()) {
+            eventAggregations.computeIfPresent(aggregationKey, (key, aggregation) -> {
+                if (!isForce && !aggregation.isExpired(currentTime, eventConfig.getOfferInterval())) {
+                    return aggregation;
+                }
+                final Event aggregatedEvent = aggregation.toAggregatedEvent();
+                if (aggregatedEvent != null) {
+                    events.add(aggregatedEvent);
+                }
+                return null;
+            });
+        }
+        return events.size() - originSize;
     }
 
     /**
-     * 定时清理事件的上报时间缓存
+     * 重复事件的聚合窗口
+     *
+     * @since 2023-08-16
      */
-    protected void cleanOfferTimeCacheMap() {
-        long currentTime = System.currentTimeMillis();
-        for (EventInfo eventInfo : eventInfoOfferTimeCache.keySet()) {
-            if (currentTime - eventInfoOfferTimeCache.get(eventInfo) > eventConfig.getOfferInterval()) {
-                eventInfoOfferTimeCache.remove(eventInfo);
+    private static class EventAggregation {
+        private final Event firstEvent;
+
+        private final long startTime;
+
+        private int repeatCount;
+
+        private long lastTime;
+
+        EventAggregation(Event firstEvent, long startTime) {
+            this.firstEvent = firstEvent;
+            this.startTime = startTime;
+            this.lastTime = startTime;
+        }
+
+        boolean tryAggregate(long currentTime, long interval) {
+            if (isExpired(currentTime, interval)) {
+                return false;
+            }
+            repeatCount++;
+            lastTime = currentTime;
+            return true;
+        }
+
+        boolean isExpired(long currentTime, long interval) {
+            return currentTime - startTime > interval;
+        }
+
+        /**
+         * 将窗口内的重复事件转为一个计数事件
+         *
+         * @return 计数事件，窗口内没有重复事件时返回null
+         */
+        Event toAggregatedEvent() {
+            if (repeatCount <= 0) {
+                return null;
             }
+            final Event event = new Event(firstEvent);
+            event.setTime(lastTime);
+            event.setCount(repeatCount);
+            return event;
         }
     }
 }
@@ -30,6 +30,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
 /**
@@ -50,6 +51,10 @@ public class EventManager {
 
     private static final long INITIAL_DELAY = 30000L;
 
+    private static final AtomicBoolean IS_FLUSH_REQUESTED = new AtomicBoolean();
+
+    private static volatile boolean isInitialized = false;
+
     private EventManager() {
     }
 
@@ -72,15 +77,30 @@ public class EventManager {
         EventManager.registerCollector(LogEventCollector.getInstance());
 
         // 开启定时采集上报事件消息
-        EXECUTOR_SERVICE.scheduleAtFixedRate(EventManager::collectAll, INITIAL_DELAY, EVENT_CONFIG.getSendInterval(),
+        EXECUTOR_SERVICE.scheduleAtFixedRate(() -> collectAll(false), INITIAL_DELAY, EVENT_CONFIG.getSendInterval(),
                 TimeUnit.MILLISECONDS);
+        isInitialized = true;
+    }
+
+    /**
+     * 请求提前发送事件，由事件采集器在缓冲区积攒到批量大小或已满时调用，发送在事件采集线程中异步执行，不阻塞调用线程
+     * <p>已有待执行的发送请求时忽略
+     */
+    public static void requestFlush() {
+        if (!isInitialized || !IS_FLUSH_REQUESTED.compareAndSet(false, true)) {
+            return;
+        }
+        EXECUTOR_SERVICE.execute(() -> {
+            IS_FLUSH_REQUESTED.set(false);
+            collectAll(false);
+        });
     }
 
     /**
-     * 在程序终止时上报在内存中的事件
+     * 在程序终止时上报在内存中的事件，尚未过期的聚合窗口也一并结束并上报
      */
     public static void shutdown() {
-        collectAll();
+        collectAll(true);
     }
 
     /**
@@ -108,15 +128,24 @@ public class EventManager {
         return true;
     }
 
-    private static void collectAll() {
+    private static void collectAll(boolean isForce) {
         List<Event> events = new ArrayList<>();
+        long droppedCount = 0L;
         for (EventCollector eventCollector : EVENT_COLLECTORS.values()) {
-            eventCollector.collect().drainTo(events);
+            eventCollector.collect(events, isForce);
+            droppedCount += eventCollector.getAndResetDroppedCount();
+        }
+        if (droppedCount > 0) {
+            LOGGER.warning("Event buffer is full, " + droppedCount + " events are dropped since last report.");
         }
         if (events.isEmpty()) {
             LOGGER.info("No event needs to be reported.");
             return;
         }
-        EventSender.sendEvent(new EventMessage(BootArgsIndexer.getInstanceId(), events));
+        final int batchSize = Math.max(1, EVENT_CONFIG.getBatchSize());
+        for (int start = 0; start < events.size(); start += batchSize) {
+            EventSender.sendEvent(new EventMessage(BootArgsIndexer.getInstanceId(),
+                    new ArrayList<>(events.subList(start, Math.min(start + batchSize, events.size())))));
+        }
     }
 }
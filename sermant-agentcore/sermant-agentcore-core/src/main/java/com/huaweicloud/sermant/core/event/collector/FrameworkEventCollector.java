@@ -153,4 +153,19 @@ public class FrameworkEventCollector extends EventCollector {
                 FrameworkEventDefinitions.SERMANT_TRANSFORM_FAILURE.getEventType(),
                 new EventInfo(FrameworkEventDefinitions.SERMANT_TRANSFORM_FAILURE.getName(), transformDescription)));
     }
+
+    /**
+     * 采集拦截器运行指标事件
+     *
+     * @param metricDescription 拦截器运行指标描述
+     */
+    public void collectInterceptorMetricEvent(String metricDescription) {
+        if (!eventConfig.isEnable()) {
+            return;
+        }
+        offerEvent(new Event(FrameworkEventDefinitions.SERMANT_INTERCEPTOR_METRIC.getScope(),
+                FrameworkEventDefinitions.SERMANT_INTERCEPTOR_METRIC.getEventLevel(),
+                FrameworkEventDefinitions.SERMANT_INTERCEPTOR_METRIC.getEventType(),
+                new EventInfo(FrameworkEventDefinitions.SERMANT_INTERCEPTOR_METRIC.getName(), metricDescription)));
+    }
 }
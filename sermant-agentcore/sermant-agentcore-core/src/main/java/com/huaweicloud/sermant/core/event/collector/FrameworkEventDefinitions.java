@@ -59,7 +59,12 @@ public enum FrameworkEventDefinitions {
     /**
      * Sermant停止事件信息定义
      */
-    SERMANT_STOP("SERMANT_STOP", EventType.OPERATION, EventLevel.NORMAL);
+    SERMANT_STOP("SERMANT_STOP", EventType.OPERATION, EventLevel.NORMAL),
+
+    /**
+     * Sermant拦截器运行指标事件信息定义
+     */
+    SERMANT_INTERCEPTOR_METRIC("SERMANT_INTERCEPTOR_METRIC", EventType.OPERATION, EventLevel.NORMAL);
 
     /**
      * 事件
@@ -24,7 +24,6 @@ import com.huaweicloud.sermant.core.event.EventType;
 import com.huaweicloud.sermant.core.event.LogInfo;
 import com.huaweicloud.sermant.core.event.config.EventConfig;
 
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.LogRecord;
 
 /**
@@ -38,8 +37,6 @@ public class LogEventCollector extends EventCollector {
 
     private final EventConfig eventConfig = ConfigManager.getConfig(EventConfig.class);
 
-    private final ConcurrentHashMap<LogInfo, Long> logInfoOfferTimeCache = new ConcurrentHashMap<>();
-
     private LogEventCollector() {
     }
 
@@ -64,11 +61,7 @@ public class LogEventCollector extends EventCollector {
         if (!eventConfig.isEnable() || !eventConfig.isOfferWarnLog()) {
             return;
         }
-        LogInfo logInfo = new LogInfo(record);
-        if (checkLogInfoOfferInterval(logInfo)) {
-            logInfoOfferTimeCache.put(logInfo, System.currentTimeMillis());
-            offerEvent(new Event(EventLevel.IMPORTANT, EventType.LOG, logInfo));
-        }
+        offerEvent(new Event(EventLevel.IMPORTANT, EventType.LOG, new LogInfo(record)));
     }
 
     /**
@@ -80,37 +73,6 @@ public class LogEventCollector extends EventCollector {
         if (!eventConfig.isEnable() || !eventConfig.isOfferErrorLog()) {
             return;
         }
-        LogInfo logInfo = new LogInfo(record);
-        if (checkLogInfoOfferInterval(logInfo)) {
-            logInfoOfferTimeCache.put(logInfo, System.currentTimeMillis());
-            offerEvent(new Event(EventLevel.EMERGENCY, EventType.LOG, logInfo));
-        }
-    }
-
-    /**
-     * 通过上报时间间隔，检查是否可以再次上报该日志
-     *
-     * @param logInfo 事件信息
-     * @return boolean 是否可以再次上报
-     */
-    private boolean checkLogInfoOfferInterval(LogInfo logInfo) {
-        Long lastOfferTime = logInfoOfferTimeCache.get(logInfo);
-        if (lastOfferTime == null) {
-            return true;
-        }
-        return System.currentTimeMillis() - lastOfferTime > eventConfig.getOfferInterval();
-    }
-
-    /**
-     * 定时清理日志的上报时间缓存
-     */
-    @Override
-    protected void cleanOfferTimeCacheMap() {
-        long currentTime = System.currentTimeMillis();
-        for (LogInfo logInfo : logInfoOfferTimeCache.keySet()) {
-            if (currentTime - logInfoOfferTimeCache.get(logInfo) > eventConfig.getOfferInterval()) {
-                logInfoOfferTimeCache.remove(logInfo);
-            }
-        }
+        offerEvent(new Event(EventLevel.EMERGENCY, EventType.LOG, new LogInfo(record)));
     }
-}
\ No newline at end of file
+}
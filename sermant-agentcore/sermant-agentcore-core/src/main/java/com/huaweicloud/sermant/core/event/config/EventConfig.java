@@ -37,6 +37,16 @@ public class EventConfig implements BaseConfig {
      */
     private static final long DEFAULT_OFFER_INTERVAL = 60000L;
 
+    /**
+     * 默认事件缓冲区容量
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * 默认单次发送的事件数量
+     */
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
     /**
      * 事件开关
      */
@@ -62,6 +72,21 @@ public class EventConfig implements BaseConfig {
      */
     private long offerInterval = DEFAULT_OFFER_INTERVAL;
 
+    /**
+     * 每个事件采集器的事件缓冲区容量
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * 单个事件消息包含的最大事件数量，缓冲区中的事件达到该数量时提前发送
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * 事件缓冲区已满时的丢弃策略
+     */
+    private DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+
     public boolean isEnable() {
         return enable;
     }
@@ -101,4 +126,45 @@ public class EventConfig implements BaseConfig {
     public void setOfferInterval(long offerInterval) {
         this.offerInterval = offerInterval;
     }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public DropPolicy getDropPolicy() {
+        return dropPolicy;
+    }
+
+    public void setDropPolicy(DropPolicy dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
+    /**
+     * 事件缓冲区已满时的丢弃策略，被丢弃的事件数量会被统计并在发送事件时打印
+     *
+     * @since 2023-08-16
+     */
+    public enum DropPolicy {
+        /**
+         * 丢弃新事件，保留缓冲区中已有的事件
+         */
+        DROP_NEWEST,
+
+        /**
+         * 丢弃缓冲区中最早的事件，写入新事件
+         */
+        DROP_OLDEST
+    }
 }
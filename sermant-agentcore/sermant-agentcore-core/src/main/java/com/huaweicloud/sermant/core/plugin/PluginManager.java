@@ -23,9 +23,12 @@ import com.huaweicloud.sermant.core.event.collector.FrameworkEventCollector;
 import com.huaweicloud.sermant.core.exception.SchemaException;
 import com.huaweicloud.sermant.core.plugin.classloader.PluginClassLoader;
 import com.huaweicloud.sermant.core.plugin.common.PluginConstant;
+import com.huaweicloud.sermant.core.plugin.common.PluginJarIndex;
+import com.huaweicloud.sermant.core.plugin.common.PluginJarIndex.JarSchema;
 import com.huaweicloud.sermant.core.plugin.common.PluginSchemaValidator;
 import com.huaweicloud.sermant.core.plugin.config.PluginConfigManager;
 import com.huaweicloud.sermant.core.plugin.service.PluginServiceManager;
+import com.huaweicloud.sermant.core.utils.ThreadFactoryUtils;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -36,9 +39,15 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -77,17 +86,91 @@ public class PluginManager {
             LOGGER.warning("Resolve plugin package failed. ");
             return false;
         }
+        final PluginJarIndex jarIndex =
+                PluginJarIndex.load(new File(pluginPackage, PluginConstant.PLUGIN_INDEX_FILE_NAME));
+        final Map<String, Future<PluginJars>> scanResults = scanPlugins(pluginNames, pluginPackage, jarIndex);
         for (String pluginName : pluginNames) {
             try {
-                initPlugin(pluginName, pluginPackage, instrumentation);
+                initPlugin(pluginName, pluginPackage, scanResults.get(pluginName).get(), instrumentation);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                LOGGER.log(Level.SEVERE, String.format(Locale.ENGLISH,
+                        "load plugin interrupted, plugin name: %s", pluginName), ex);
+            } catch (ExecutionException ex) {
+                LOGGER.log(Level.SEVERE, String.format(Locale.ENGLISH,
+                        "load plugin failed, plugin name: %s", pluginName), ex.getCause());
             } catch (Exception ex) {
                 LOGGER.log(Level.SEVERE, String.format(Locale.ENGLISH,
                         "load plugin failed, plugin name: %s", pluginName), ex);
             }
         }
+        jarIndex.store();
         return true;
     }
 
+    /**
+     * 并行扫描所有插件的插件包和插件服务包，读取jar包的插件元信息，扫描结果按插件名称返回
+     * <p>扫描过程不修改任何全局状态，元信息校验、插件包加载等有副作用的操作仍按插件顺序在{@link #initPlugin}中执行
+     *
+     * @param pluginNames   插件名称集
+     * @param pluginPackage 插件包路径
+     * @param jarIndex      插件jar包索引
+     * @return 插件名称与扫描结果的关系
+     */
+    private static Map<String, Future<PluginJars>> scanPlugins(Set<String> pluginNames, String pluginPackage,
+            PluginJarIndex jarIndex) {
+        final ExecutorService executorService = Executors.newFixedThreadPool(
+                Math.min(pluginNames.size(), Runtime.getRuntime().availableProcessors()),
+                new ThreadFactoryUtils("plugin-scan-task"));
+        final Map<String, Future<PluginJars>> scanResults = new HashMap<>();
+        try {
+            for (String pluginName : pluginNames) {
+                scanResults.put(pluginName,
+                        executorService.submit(() -> scanPlugin(pluginPackage + File.separatorChar + pluginName,
+                                jarIndex)));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        return scanResults;
+    }
+
+    /**
+     * 扫描一个插件的插件包和插件服务包
+     *
+     * @param pluginPath 插件路径
+     * @param jarIndex   插件jar包索引
+     * @return 扫描结果，插件目录不存在时返回null
+     */
+    private static PluginJars scanPlugin(String pluginPath, PluginJarIndex jarIndex) {
+        if (!new File(pluginPath).exists()) {
+            return null;
+        }
+        final File[] pluginJars = listJars(getPluginDir(pluginPath));
+        final File[] serviceJars = listJars(getServiceDir(pluginPath));
+        return new PluginJars(pluginJars, getSchemas(pluginJars, jarIndex), serviceJars,
+                getSchemas(serviceJars, jarIndex));
+    }
+
+    /**
+     * 获取jar包的插件元信息，读取失败的jar包对应的元信息为null
+     *
+     * @param jars     jar包集
+     * @param jarIndex 插件jar包索引
+     * @return 插件元信息集
+     */
+    private static JarSchema[] getSchemas(File[] jars, PluginJarIndex jarIndex) {
+        final JarSchema[] schemas = new JarSchema[jars.length];
+        for (int i = 0; i < jars.length; i++) {
+            try {
+                schemas[i] = jarIndex.getSchema(jars[i]);
+            } catch (IOException ignored) {
+                schemas[i] = null;
+            }
+        }
+        return schemas;
+    }
+
     /**
      * 获取插件包目录
      *
@@ -113,16 +196,18 @@ public class PluginManager {
      *
      * @param pluginName 插件名称
      * @param pluginPackage 插件包路径
+     * @param pluginJars 插件的扫描结果
      * @param instrumentation Instrumentation对象
      */
-    private static void initPlugin(String pluginName, String pluginPackage, Instrumentation instrumentation) {
+    private static void initPlugin(String pluginName, String pluginPackage, PluginJars pluginJars,
+            Instrumentation instrumentation) {
         final String pluginPath = pluginPackage + File.separatorChar + pluginName;
-        if (!new File(pluginPath).exists()) {
+        if (pluginJars == null) {
             LOGGER.severe(String.format(Locale.ROOT,
                     "Plugin directory %s does not exist, so skip initializing %s. ", pluginPath, pluginName));
             return;
         }
-        doInitPlugin(pluginName, pluginPath, instrumentation);
+        doInitPlugin(pluginName, pluginPath, pluginJars, instrumentation);
     }
 
     /**
@@ -137,11 +222,13 @@ public class PluginManager {
      *
      * @param pluginName 插件名称
      * @param pluginPath 插件路径
+     * @param pluginJars 插件的扫描结果
      * @param instrumentation Instrumentation对象
      */
-    private static void doInitPlugin(String pluginName, String pluginPath, Instrumentation instrumentation) {
-        loadPlugins(pluginName, getPluginDir(pluginPath), instrumentation);
-        final ClassLoader classLoader = loadServices(pluginName, getServiceDir(pluginPath));
+    private static void doInitPlugin(String pluginName, String pluginPath, PluginJars pluginJars,
+            Instrumentation instrumentation) {
+        loadPlugins(pluginName, pluginJars.pluginJars, pluginJars.pluginSchemas, instrumentation);
+        final ClassLoader classLoader = loadServices(pluginJars.serviceJars, pluginJars.serviceSchemas);
         loadConfig(PluginConstant.getPluginConfigFile(pluginPath), classLoader);
         initService(classLoader);
         setDefaultVersion(pluginName);
@@ -208,12 +295,12 @@ public class PluginManager {
     /**
      * 创建自定义类加载器加载所有插件服务包，若无插件服务包，则不会创建类加载器
      *
-     * @param pluginName 插件名称
-     * @param serviceDir 插件服务文件夹
+     * @param serviceJars 插件服务包集
+     * @param schemas 插件服务包的插件元信息集
      * @return 自定义类加载器
      */
-    private static ClassLoader loadServices(String pluginName, File serviceDir) {
-        final URL[] urls = toUrls(pluginName, listJars(serviceDir));
+    private static ClassLoader loadServices(File[] serviceJars, JarSchema[] schemas) {
+        final URL[] urls = toUrls(serviceJars, schemas);
         if (urls.length > 0) {
             return new PluginClassLoader(urls, ClassLoaderManager.getCommonClassLoader());
         }
@@ -221,20 +308,22 @@ public class PluginManager {
     }
 
     /**
-     * 获取插件所有jar包的URL，将进行jar包的校验和版本的校验
+     * 获取插件所有可读jar包的URL
      *
-     * @param pluginName 插件名称
      * @param jars jar包集
+     * @param schemas jar包的插件元信息集，为null表示jar包读取失败
      * @return jar包的URL集
      */
-    private static URL[] toUrls(String pluginName, File[] jars) {
+    private static URL[] toUrls(File[] jars, JarSchema[] schemas) {
         final List<URL> urls = new ArrayList<URL>();
-        for (File jar : jars) {
-            if (processByJarFile(pluginName, jar, false, null)) {
-                final URL url = toUrl(jar);
-                if (url != null) {
-                    urls.add(url);
-                }
+        for (int i = 0; i < jars.length; i++) {
+            if (schemas[i] == null) {
+                LOGGER.warning(String.format(Locale.ROOT, "Check schema of %s failed. ", jars[i].getPath()));
+                continue;
+            }
+            final URL url = toUrl(jars[i]);
+            if (url != null) {
+                urls.add(url);
             }
         }
         return urls.toArray(new URL[0]);
@@ -258,27 +347,16 @@ public class PluginManager {
     /**
      * 将插件包文件转换为jar包，再做处理
      *
-     * @param pluginName 插件名称
      * @param jar 插件包文件
-     * @param ifCheckSchema 是否做jar包元数据检查
      * @param consumer jar包消费者
-     * @return 是否无异常处理完毕
      */
-    private static boolean processByJarFile(String pluginName, File jar, boolean ifCheckSchema,
-            JarFileConsumer consumer) {
+    private static void processByJarFile(File jar, JarFileConsumer consumer) {
         JarFile jarFile = null;
         try {
             jarFile = new JarFile(jar);
-            if (ifCheckSchema && !PluginSchemaValidator.checkSchema(pluginName, jarFile)) {
-                throw new SchemaException(SchemaException.UNEXPECTED_EXT_JAR, jar.getPath());
-            }
-            if (consumer != null) {
-                consumer.consume(jarFile);
-            }
-            return true;
+            consumer.consume(jarFile);
         } catch (IOException ignored) {
             LOGGER.warning(String.format(Locale.ROOT, "Check schema of %s failed. ", jar.getPath()));
-            return false;
         } finally {
             if (jarFile != null) {
                 try {
@@ -291,15 +369,26 @@ public class PluginManager {
     }
 
     /**
-     * 加载所有插件包
+     * 校验并加载所有插件包
      *
      * @param pluginName 插件名称
-     * @param pluginDir 插件包目录
+     * @param pluginJars 插件包集
+     * @param schemas 插件包的插件元信息集
      * @param instrumentation Instrumentation对象
      */
-    private static void loadPlugins(String pluginName, File pluginDir, Instrumentation instrumentation) {
-        for (File jar : listJars(pluginDir)) {
-            processByJarFile(pluginName, jar, true, new JarFileConsumer() {
+    private static void loadPlugins(String pluginName, File[] pluginJars, JarSchema[] schemas,
+            Instrumentation instrumentation) {
+        for (int i = 0; i < pluginJars.length; i++) {
+            final File jar = pluginJars[i];
+            if (schemas[i] == null) {
+                LOGGER.warning(String.format(Locale.ROOT, "Check schema of %s failed. ", jar.getPath()));
+                continue;
+            }
+            if (!PluginSchemaValidator.checkSchema(pluginName, schemas[i].getPluginName(),
+                    schemas[i].getPluginVersion())) {
+                throw new SchemaException(SchemaException.UNEXPECTED_EXT_JAR, jar.getPath());
+            }
+            processByJarFile(jar, new JarFileConsumer() {
                 @Override
                 public void consume(JarFile jarFile) {
                     instrumentation.appendToSystemClassLoaderSearch(jarFile);
@@ -321,4 +410,26 @@ public class PluginManager {
          */
         void consume(JarFile jarFile);
     }
+
+    /**
+     * 插件的扫描结果
+     *
+     * @since 2023-08-10
+     */
+    private static class PluginJars {
+        private final File[] pluginJars;
+
+        private final JarSchema[] pluginSchemas;
+
+        private final File[] serviceJars;
+
+        private final JarSchema[] serviceSchemas;
+
+        PluginJars(File[] pluginJars, JarSchema[] pluginSchemas, File[] serviceJars, JarSchema[] serviceSchemas) {
+            this.pluginJars = pluginJars;
+            this.pluginSchemas = pluginSchemas;
+            this.serviceJars = serviceJars;
+            this.serviceSchemas = serviceSchemas;
+        }
+    }
 }
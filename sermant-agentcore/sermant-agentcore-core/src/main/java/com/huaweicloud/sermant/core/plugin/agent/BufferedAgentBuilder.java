@@ -79,6 +79,11 @@ public class BufferedAgentBuilder {
      */
     private final List<BuilderAction> actions = new ArrayList<>();
 
+    /**
+     * 插件描述列表，按加入顺序存放
+     */
+    private final List<PluginDescription> plugins = new ArrayList<>();
+
     private BufferedAgentBuilder() {
     }
 
@@ -244,6 +249,9 @@ public class BufferedAgentBuilder {
      * @return BufferedAgentBuilder本身
      */
     public BufferedAgentBuilder addPlugins(Iterable<PluginDescription> plugins) {
+        for (PluginDescription plugin : plugins) {
+            this.plugins.add(plugin);
+        }
         return addAction(new BuilderAction() {
             @Override
             public AgentBuilder process(AgentBuilder builder) {
@@ -269,6 +277,7 @@ public class BufferedAgentBuilder {
 
     /**
      * 构建{@link AgentBuilder}，执行所有{@link BuilderAction}并执行{@link AgentBuilder#installOn(Instrumentation)}
+     * <p>若{@link AgentConfig#isTransformCacheEnable()}开启，则使用{@link TransformCache}缓存增强结果
      *
      * @param instrumentation Instrumentation对象
      * @return 安装结果，可重置的转换器，若无类元信息改动，调用其reset方法即可重置
@@ -278,6 +287,12 @@ public class BufferedAgentBuilder {
         for (BuilderAction action : actions) {
             builder = action.process(builder);
         }
+        if (config.isTransformCacheEnable()) {
+            final TransformCache transformCache = TransformCache.create(config, plugins, new IgnoredMatcher(config));
+            if (transformCache != null) {
+                builder = builder.with(transformCache.getListener()).with(transformCache);
+            }
+        }
         builder.disableClassFormatChanges();
         return builder.installOn(instrumentation);
     }
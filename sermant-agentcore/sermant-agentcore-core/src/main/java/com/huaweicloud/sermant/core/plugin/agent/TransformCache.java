@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent;
+
+import com.huaweicloud.sermant.core.common.BootArgsIndexer;
+import com.huaweicloud.sermant.core.common.CommonConstant;
+import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.plugin.agent.config.AgentConfig;
+import com.huaweicloud.sermant.core.plugin.agent.declarer.PluginDescription;
+import com.huaweicloud.sermant.core.utils.FileUtils;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.JavaModule;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.instrument.IllegalClassFormatException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 增强结果缓存，以原始字节码和插件集版本为键持久化增强后的字节码，再次启动时直接返回缓存的字节码，省去字节码的重新生成
+ * <pre>
+ *     1.命中缓存时，仍对匹配的插件执行一次{@link AgentBuilder.Transformer#transform}，用于注册拦截器等运行时状态，但不生成字节码
+ *     2.匹配的插件与缓存时不一致，或增强结果依赖运行时初始化器、辅助类时，使用实时增强
+ *     3.启动类加载器加载的类和重定义中的类，总是使用实时增强
+ * </pre>
+ * 缓存读写失败时仅打印日志，不影响增强
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-12
+ */
+public class TransformCache implements AgentBuilder.TransformerDecorator {
+    private static final Logger LOGGER = LoggerFactory.getLogger();
+
+    /**
+     * 缓存根目录名
+     */
+    private static final String CACHE_DIR_NAME = "transformCache";
+
+    private static final String CACHE_FILE_SUFFIX = ".cache";
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final int VERSION_LENGTH = 16;
+
+    private static final int HEX_RADIX = 16;
+
+    private static final int BYTE_MASK = 0xff;
+
+    private static final int HALF_BYTE_SHIFT = 4;
+
+    private static final int HALF_BYTE_MASK = 0x0f;
+
+    private final File cacheDir;
+
+    private final List<PluginDescription> plugins;
+
+    private final AgentBuilder.RawMatcher ignoredMatcher;
+
+    private final Set<String> cachedDigests = ConcurrentHashMap.newKeySet();
+
+    private final ThreadLocal<DynamicType> transformedType = new ThreadLocal<>();
+
+    /**
+     * 构造函数
+     *
+     * @param cacheDir       当前插件集版本的缓存目录
+     * @param plugins        插件描述列表，顺序与插件加入{@link AgentBuilder}的顺序一致
+     * @param ignoredMatcher 增强忽略规则
+     */
+    public TransformCache(File cacheDir, List<PluginDescription> plugins, AgentBuilder.RawMatcher ignoredMatcher) {
+        this.cacheDir = cacheDir;
+        this.plugins = plugins;
+        this.ignoredMatcher = ignoredMatcher;
+        final String[] names = cacheDir.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            if (name.endsWith(CACHE_FILE_SUFFIX)) {
+                cachedDigests.add(name.substring(0, name.length() - CACHE_FILE_SUFFIX.length()));
+            }
+        }
+    }
+
+    /**
+     * 创建增强结果缓存，缓存目录按插件集版本划分，版本由核心包、插件目录下所有文件及增强配置决定，其他版本的缓存将被清理
+     *
+     * @param config         增强配置
+     * @param plugins        插件描述列表
+     * @param ignoredMatcher 增强忽略规则
+     * @return 增强结果缓存，缓存目录创建失败时返回null
+     */
+    public static TransformCache create(AgentConfig config, List<PluginDescription> plugins,
+            AgentBuilder.RawMatcher ignoredMatcher) {
+        final String cachePath = config.getTransformCachePath();
+        final File rootDir = cachePath == null || cachePath.isEmpty()
+                ? new File(FileUtils.getAgentPath(), CACHE_DIR_NAME) : new File(cachePath, CACHE_DIR_NAME);
+        final String version;
+        try {
+            version = computeVersion(config);
+        } catch (NoSuchAlgorithmException | IOException e) {
+            LOGGER.log(Level.WARNING, "Compute transform cache version failed. ", e);
+            return null;
+        }
+        final File cacheDir = new File(rootDir, version);
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            LOGGER.warning(String.format(Locale.ROOT, "Create transform cache directory %s failed. ",
+                    cacheDir.getPath()));
+            return null;
+        }
+        final File[] staleDirs = rootDir.listFiles(file -> file.isDirectory() && !file.getName().equals(version));
+        if (staleDirs != null) {
+            for (File staleDir : staleDirs) {
+                FileUtils.deleteDirs(staleDir);
+            }
+        }
+        return new TransformCache(cacheDir, plugins, ignoredMatcher);
+    }
+
+    /**
+     * 获取监听器，用于判断实时增强的结果是否可以缓存
+     *
+     * @return 监听器
+     */
+    public AgentBuilder.Listener getListener() {
+        return new AgentBuilder.Listener.Adapter() {
+            @Override
+            public void onTransformation(TypeDescription typeDescription, ClassLoader classLoader,
+                    JavaModule module, boolean loaded, DynamicType dynamicType) {
+                if (!loaded && !dynamicType.hasAliveLoadedTypeInitializers()
+                        && dynamicType.getAuxiliaryTypes().isEmpty()) {
+                    transformedType.set(dynamicType);
+                }
+            }
+        };
+    }
+
+    @Override
+    public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
+        return new CachedClassFileTransformer(classFileTransformer);
+    }
+
+    private byte[] transform(ResettableClassFileTransformer delegate, ClassLoader loader, String internalName,
+            Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer)
+            throws IllegalClassFormatException {
+        if (loader == null || internalName == null || classBeingRedefined != null) {
+            return delegate.transform(loader, internalName, classBeingRedefined, protectionDomain, classfileBuffer);
+        }
+        final String className = internalName.replace('/', '.');
+        final String digest = digest(className, classfileBuffer);
+        if (digest == null) {
+            return delegate.transform(loader, internalName, null, protectionDomain, classfileBuffer);
+        }
+        if (cachedDigests.contains(digest)) {
+            final byte[] cachedBytes = replay(className, digest, loader, protectionDomain, classfileBuffer);
+            if (cachedBytes != null) {
+                return cachedBytes;
+            }
+        }
+        try {
+            transformedType.remove();
+            final byte[] transformedBytes =
+                    delegate.transform(loader, internalName, null, protectionDomain, classfileBuffer);
+            final DynamicType dynamicType = transformedType.get();
+            if (transformedBytes != null && dynamicType != null
+                    && className.equals(dynamicType.getTypeDescription().getName())) {
+                store(digest, matchPlugins(dynamicType.getTypeDescription(), loader, protectionDomain),
+                        transformedBytes);
+            }
+            return transformedBytes;
+        } finally {
+            transformedType.remove();
+        }
+    }
+
+    /**
+     * 重放缓存的增强：匹配的插件与缓存时一致时，在临时构建器上执行插件的增强以注册运行时状态，并返回缓存的字节码
+     *
+     * @param className        类名
+     * @param digest           原始字节码摘要
+     * @param loader           类加载器
+     * @param protectionDomain 保护域
+     * @param classfileBuffer  原始字节码
+     * @return 缓存的字节码，无法使用缓存时返回null
+     */
+    private byte[] replay(String className, String digest, ClassLoader loader, ProtectionDomain protectionDomain,
+            byte[] classfileBuffer) {
+        final CacheEntry entry = load(digest);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            final ClassFileLocator locator = new ClassFileLocator.Compound(
+                    ClassFileLocator.Simple.of(className, classfileBuffer),
+                    ClassFileLocator.ForClassLoader.of(loader));
+            final TypeDescription typeDesc = TypePool.Default.of(locator).describe(className).resolve();
+            if (ignoredMatcher.matches(typeDesc, loader, null, null, protectionDomain)) {
+                return null;
+            }
+            final int[] matchedIndexes = matchPlugins(typeDesc, loader, protectionDomain);
+            if (!Arrays.equals(matchedIndexes, entry.matchedIndexes)) {
+                return null;
+            }
+            DynamicType.Builder<?> builder = new ByteBuddy().redefine(typeDesc, locator);
+            for (int index : matchedIndexes) {
+                builder = plugins.get(index).transform(builder, typeDesc, loader, null);
+            }
+            return entry.transformedBytes;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, String.format(Locale.ROOT, "Replay transform cache of [%s] failed. ",
+                    className), e);
+            return null;
+        }
+    }
+
+    private int[] matchPlugins(TypeDescription typeDesc, ClassLoader loader, ProtectionDomain protectionDomain) {
+        final List<Integer> matchedIndexes = new ArrayList<>();
+        for (int i = 0; i < plugins.size(); i++) {
+            if (plugins.get(i).matches(typeDesc, loader, null, null, protectionDomain)) {
+                matchedIndexes.add(i);
+            }
+        }
+        final int[] result = new int[matchedIndexes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = matchedIndexes.get(i);
+        }
+        return result;
+    }
+
+    private CacheEntry load(String digest) {
+        final File cacheFile = new File(cacheDir, digest + CACHE_FILE_SUFFIX);
+        try (DataInputStream inputStream = new DataInputStream(new FileInputStream(cacheFile))) {
+            final int[] matchedIndexes = new int[inputStream.readInt()];
+            for (int i = 0; i < matchedIndexes.length; i++) {
+                matchedIndexes[i] = inputStream.readInt();
+            }
+            final byte[] transformedBytes = new byte[inputStream.readInt()];
+            inputStream.readFully(transformedBytes);
+            return new CacheEntry(matchedIndexes, transformedBytes);
+        } catch (IOException | RuntimeException ignored) {
+            LOGGER.warning(String.format(Locale.ROOT, "Read transform cache %s failed. ", cacheFile.getPath()));
+            cachedDigests.remove(digest);
+            return null;
+        }
+    }
+
+    private void store(String digest, int[] matchedIndexes, byte[] transformedBytes) {
+        final File cacheFile = new File(cacheDir, digest + CACHE_FILE_SUFFIX);
+        final File tempFile = new File(cacheDir, digest + '.' + Thread.currentThread().getId() + TEMP_FILE_SUFFIX);
+        try {
+            try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(tempFile))) {
+                outputStream.writeInt(matchedIndexes.length);
+                for (int index : matchedIndexes) {
+                    outputStream.writeInt(index);
+                }
+                outputStream.writeInt(transformedBytes.length);
+                outputStream.write(transformedBytes);
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            cachedDigests.add(digest);
+        } catch (IOException ignored) {
+            LOGGER.warning(String.format(Locale.ROOT, "Write transform cache %s failed. ", cacheFile.getPath()));
+            if (tempFile.exists() && !tempFile.delete()) {
+                LOGGER.warning(String.format(Locale.ROOT, "Delete %s failed. ", tempFile.getPath()));
+            }
+        }
+    }
+
+    private static String digest(String className, byte[] classfileBuffer) {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ignored) {
+            return null;
+        }
+        messageDigest.update(className.getBytes(CommonConstant.DEFAULT_CHARSET));
+        messageDigest.update(classfileBuffer);
+        return toHex(messageDigest.digest());
+    }
+
+    private static String computeVersion(AgentConfig config) throws NoSuchAlgorithmException, IOException {
+        final MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        updateFileStat(messageDigest, getCoreJar());
+        updateFileStat(messageDigest, BootArgsIndexer.getConfigFile());
+        updateFileStat(messageDigest, BootArgsIndexer.getPluginSettingFile());
+        updateFileStat(messageDigest, BootArgsIndexer.getPluginPackageDir());
+        final String configDesc = config.getIgnoredPrefixes() + "|" + config.getIgnoredInterfaces() + "|"
+                + config.getServiceInjectList() + "|" + config.getCombineStrategy() + "|"
+                + config.isEnhanceBootStrapEnable() + "|" + config.isReuseExecuteContext();
+        messageDigest.update(configDesc.getBytes(CommonConstant.DEFAULT_CHARSET));
+        return toHex(messageDigest.digest()).substring(0, VERSION_LENGTH);
+    }
+
+    private static File getCoreJar() {
+        final CodeSource codeSource = TransformCache.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return null;
+        }
+        try {
+            return new File(codeSource.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    private static void updateFileStat(MessageDigest messageDigest, File file) throws IOException {
+        if (file == null || !file.exists()) {
+            return;
+        }
+        final String stat = file.getCanonicalPath() + "|" + file.length() + "|" + file.lastModified() + "\n";
+        messageDigest.update(stat.getBytes(CommonConstant.DEFAULT_CHARSET));
+        final File[] children = file.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            updateFileStat(messageDigest, child);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            final int value = b & BYTE_MASK;
+            builder.append(Character.forDigit(value >> HALF_BYTE_SHIFT, HEX_RADIX))
+                    .append(Character.forDigit(value & HALF_BYTE_MASK, HEX_RADIX));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 缓存项
+     *
+     * @since 2023-08-12
+     */
+    private static class CacheEntry {
+        private final int[] matchedIndexes;
+
+        private final byte[] transformedBytes;
+
+        CacheEntry(int[] matchedIndexes, byte[] transformedBytes) {
+            this.matchedIndexes = matchedIndexes;
+            this.transformedBytes = transformedBytes;
+        }
+    }
+
+    /**
+     * 优先使用缓存的类文件转换器
+     *
+     * @since 2023-08-12
+     */
+    private class CachedClassFileTransformer extends ResettableClassFileTransformer.WithDelegation {
+        CachedClassFileTransformer(ResettableClassFileTransformer classFileTransformer) {
+            super(classFileTransformer);
+        }
+
+        @Override
+        public byte[] transform(ClassLoader loader, String internalName, Class<?> classBeingRedefined,
+                ProtectionDomain protectionDomain, byte[] classfileBuffer) throws IllegalClassFormatException {
+            return TransformCache.this.transform(classFileTransformer, loader, internalName, classBeingRedefined,
+                    protectionDomain, classfileBuffer);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.huaweicloud.sermant.core.plugin.agent.declarer.PluginDeclarer;
 import com.huaweicloud.sermant.core.plugin.agent.declarer.PluginDescription;
 import com.huaweicloud.sermant.core.plugin.agent.declarer.SuperTypeDeclarer;
 import com.huaweicloud.sermant.core.plugin.agent.matcher.ClassMatcher;
+import com.huaweicloud.sermant.core.plugin.agent.matcher.ClassMatcherIndex;
 import com.huaweicloud.sermant.core.plugin.agent.matcher.ClassTypeMatcher;
 import com.huaweicloud.sermant.core.plugin.agent.transformer.AdviceTransformer;
 import com.huaweicloud.sermant.core.plugin.agent.transformer.BootstrapTransformer;
@@ -32,6 +33,7 @@ import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.utility.JavaModule;
 
+import java.security.ProtectionDomain;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -166,6 +168,12 @@ public class PluginCollectorManager {
                 return declarer.getClassMatcher().matches(target);
             }
 
+            @Override
+            public boolean matches(TypeDescription target, ClassLoader classLoader, JavaModule module,
+                Class<?> classBeingRedefined, ProtectionDomain protectionDomain) {
+                return declarer.getClassMatcher().matches(target, classLoader);
+            }
+
             @Override
             public DynamicType.Builder<?> transform(DynamicType.Builder<?> builder, TypeDescription typeDescription,
                 ClassLoader classLoader, JavaModule module) {
@@ -261,7 +269,7 @@ public class PluginCollectorManager {
     }
 
     /**
-     * 创建合并全部插件声明器的插件描述器
+     * 创建合并全部插件声明器的插件描述器，模糊匹配的插件声明器将被编译为{@link ClassMatcherIndex}，通过类名排除不相关的声明器
      *
      * @param nameCombinedMap 插件声明器及其声明的被增强类名集
      * @param combinedList    其他模糊匹配的插件声明器列表
@@ -269,6 +277,8 @@ public class PluginCollectorManager {
      */
     private static PluginDescription createAllCombinedDescription(Map<String, List<PluginDeclarer>> nameCombinedMap,
         List<PluginDeclarer> combinedList) {
+        final ClassMatcherIndex<PluginDeclarer> matcherIndex =
+            new ClassMatcherIndex<>(combinedList, PluginDeclarer::getClassMatcher);
         return new AbstractPluginDescription() {
             @Override
             public DynamicType.Builder<?> transform(DynamicType.Builder<?> builder, TypeDescription typeDescription,
@@ -276,18 +286,25 @@ public class PluginCollectorManager {
                 return nameCombinedTransform(builder, typeDescription, classLoader, module, nameCombinedMap);
             }
 
+            @Override
+            public boolean matches(TypeDescription target, ClassLoader classLoader, JavaModule module,
+                Class<?> classBeingRedefined, ProtectionDomain protectionDomain) {
+                return combine(target.getActualName(), matcherIndex.match(target, classLoader));
+            }
+
             @Override
             public boolean matches(TypeDescription target) {
-                final String typeName = target.getActualName();
-                for (PluginDeclarer pluginDeclarer : combinedList) {
-                    if (pluginDeclarer.getClassMatcher().matches(target)) {
-                        List<PluginDeclarer> declarers = nameCombinedMap.get(typeName);
-                        if (declarers == null) {
-                            declarers = new ArrayList<>();
-                            nameCombinedMap.put(typeName, declarers);
-                        }
-                        declarers.add(pluginDeclarer);
+                return combine(target.getActualName(), matcherIndex.match(target));
+            }
+
+            private boolean combine(String typeName, List<PluginDeclarer> matchedDeclarers) {
+                if (!matchedDeclarers.isEmpty()) {
+                    List<PluginDeclarer> declarers = nameCombinedMap.get(typeName);
+                    if (declarers == null) {
+                        declarers = new ArrayList<>();
+                        nameCombinedMap.put(typeName, declarers);
                     }
+                    declarers.addAll(matchedDeclarers);
                 }
                 return nameCombinedMap.containsKey(typeName);
             }
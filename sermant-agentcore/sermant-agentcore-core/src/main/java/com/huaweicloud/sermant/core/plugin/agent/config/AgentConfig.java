@@ -63,6 +63,21 @@ public class AgentConfig implements BaseConfig {
      */
     private String enhancedClassesOutputPath;
 
+    /**
+     * 是否复用被增强方法的执行上下文，开启后拦截器不能在方法调用结束后继续持有执行上下文
+     */
+    private boolean isReuseExecuteContext = false;
+
+    /**
+     * 是否缓存增强后的字节码，开启后再次启动时直接使用缓存的增强结果
+     */
+    private boolean isTransformCacheEnable = false;
+
+    /**
+     * 增强结果的缓存路径，如果为空，则使用agent所在路径
+     */
+    private String transformCachePath;
+
     /**
      * 插件的合并策略，定义{@link PluginDeclarer}插件声明器的合并策略
      */
@@ -121,6 +136,30 @@ public class AgentConfig implements BaseConfig {
         this.enhancedClassesOutputPath = enhancedClassesOutputPath;
     }
 
+    public boolean isReuseExecuteContext() {
+        return isReuseExecuteContext;
+    }
+
+    public void setReuseExecuteContext(boolean reuseExecuteContext) {
+        isReuseExecuteContext = reuseExecuteContext;
+    }
+
+    public boolean isTransformCacheEnable() {
+        return isTransformCacheEnable;
+    }
+
+    public void setTransformCacheEnable(boolean transformCacheEnable) {
+        isTransformCacheEnable = transformCacheEnable;
+    }
+
+    public String getTransformCachePath() {
+        return transformCachePath;
+    }
+
+    public void setTransformCachePath(String transformCachePath) {
+        this.transformCachePath = transformCachePath;
+    }
+
     public Set<String> getServiceInjectList() {
         return serviceInjectList;
     }
@@ -23,6 +23,7 @@ import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * 插件的执行上下文，封装拦截器运作所需的所有参数
@@ -32,18 +33,23 @@ import java.util.Map;
  * @since 2022-01-25
  */
 public class ExecuteContext {
+    /**
+     * 局部属性的固定槽位数，超出部分存放于{@link #localFields}中
+     */
+    private static final int LOCAL_FIELD_SLOT_SIZE = 4;
+
     /**
      * 被增强的类
      */
-    private final Class<?> rawCls;
+    private Class<?> rawCls;
     /**
      * 被增强的构造函数，注意：增强方法时为空
      */
-    private final Constructor<?> constructor;
+    private Constructor<?> constructor;
     /**
      * 被增强的方法，注意：增强构造函数时为空
      */
-    private final Method method;
+    private Method method;
     /**
      * 被增强的对象，注意：
      * <pre>
@@ -88,7 +94,22 @@ public class ExecuteContext {
     private Map<String, Object> extMemberFields;
 
     /**
-     * 贯穿调用流程的本地局部属性集
+     * 贯穿调用流程的本地局部属性名槽位
+     */
+    private String[] localFieldNames;
+
+    /**
+     * 贯穿调用流程的本地局部属性值槽位
+     */
+    private Object[] localFieldValues;
+
+    /**
+     * 已使用的局部属性槽位数量
+     */
+    private int localFieldNum;
+
+    /**
+     * 局部属性槽位用尽后，存放其余局部属性的集合
      */
     private Map<String, Object> localFields;
 
@@ -97,18 +118,76 @@ public class ExecuteContext {
      */
     private Map<String, Field> rawFields;
 
+    /**
+     * 前置触发点中已执行的拦截器数量，后置触发点将从该位置开始逆序执行拦截器
+     */
+    private int enteredInterceptorNum;
+
+    /**
+     * 供{@link ExecuteContextRecycler}创建可复用的执行上下文
+     */
+    ExecuteContext() {
+    }
+
     private ExecuteContext(Object object, Class<?> rawCls, Constructor<?> constructor, Method method,
             Object[] arguments, Map<String, Object> extStaticFields, Map<String, Object> extMemberFields) {
-        this.object = object;
-        this.rawCls = rawCls;
-        this.constructor = constructor;
-        this.method = method;
-        this.arguments = arguments;
+        reset(object, rawCls, constructor, method, arguments, extStaticFields, extMemberFields);
+    }
+
+    /**
+     * 重置执行上下文的所有状态，复用的执行上下文在每次调用开始时通过该方法初始化
+     *
+     * @param thisObj             被增强的对象
+     * @param thisRawCls          被增强的类
+     * @param thisConstructor     被增强的构造函数
+     * @param thisMethod          被增强的方法
+     * @param thisArguments       入参
+     * @param thisExtStaticFields 额外的静态属性集
+     * @param thisExtMemberFields 额外的成员属性集
+     * @return 执行上下文
+     */
+    ExecuteContext reset(Object thisObj, Class<?> thisRawCls, Constructor<?> thisConstructor, Method thisMethod,
+            Object[] thisArguments, Map<String, Object> thisExtStaticFields,
+            Map<String, Object> thisExtMemberFields) {
+        this.object = thisObj;
+        this.rawCls = thisRawCls;
+        this.constructor = thisConstructor;
+        this.method = thisMethod;
+        this.arguments = thisArguments;
         this.isSkip = false;
         this.result = null;
         this.throwable = null;
-        this.extStaticFields = extStaticFields;
-        this.extMemberFields = extMemberFields;
+        this.throwableOut = null;
+        this.extStaticFields = thisExtStaticFields;
+        this.extMemberFields = thisExtMemberFields;
+        this.rawFields = null;
+        this.enteredInterceptorNum = 0;
+        clearLocalFields();
+        return this;
+    }
+
+    /**
+     * 回收执行上下文，释放调用过程中的对象引用
+     * <p>被增强方法的后置触发点在回收后仍需读取结果和额外属性集，因此这些引用保留至下次{@link #reset}
+     */
+    void recycle() {
+        this.object = null;
+        this.arguments = null;
+        this.throwable = null;
+        this.throwableOut = null;
+        this.rawFields = null;
+        clearLocalFields();
+    }
+
+    /**
+     * 清空局部属性，槽位数组保留以供复用
+     */
+    private void clearLocalFields() {
+        for (int i = 0; i < localFieldNum; i++) {
+            localFieldNames[i] = null;
+            localFieldValues[i] = null;
+        }
+        this.localFieldNum = 0;
         this.localFields = null;
     }
 
@@ -225,6 +304,14 @@ public class ExecuteContext {
         return extMemberFields;
     }
 
+    public int getEnteredInterceptorNum() {
+        return enteredInterceptorNum;
+    }
+
+    public void setEnteredInterceptorNum(int enteredInterceptorNum) {
+        this.enteredInterceptorNum = enteredInterceptorNum;
+    }
+
     /**
      * 检索属性，静态和成员属性都在此检索，仅检索被增强类定义的属性及其公有的属性，超类protected的属性将不会被获取
      *
@@ -470,6 +557,22 @@ public class ExecuteContext {
      * @param value     属性值
      */
     public void setLocalFieldValue(String fieldName, Object value) {
+        if (localFieldNames == null) {
+            localFieldNames = new String[LOCAL_FIELD_SLOT_SIZE];
+            localFieldValues = new Object[LOCAL_FIELD_SLOT_SIZE];
+        }
+        for (int i = 0; i < localFieldNum; i++) {
+            if (Objects.equals(localFieldNames[i], fieldName)) {
+                localFieldValues[i] = value;
+                return;
+            }
+        }
+        if (localFieldNum < LOCAL_FIELD_SLOT_SIZE) {
+            localFieldNames[localFieldNum] = fieldName;
+            localFieldValues[localFieldNum] = value;
+            localFieldNum++;
+            return;
+        }
         if (localFields == null) {
             localFields = new HashMap<>();
         }
@@ -483,6 +586,11 @@ public class ExecuteContext {
      * @return 属性值
      */
     public Object getLocalFieldValue(String fieldName) {
+        for (int i = 0; i < localFieldNum; i++) {
+            if (Objects.equals(localFieldNames[i], fieldName)) {
+                return localFieldValues[i];
+            }
+        }
         return localFields == null ? null : localFields.get(fieldName);
     }
 
@@ -539,6 +647,25 @@ public class ExecuteContext {
         return this;
     }
 
+    /**
+     * 汇总所有局部属性，仅用于{@link #toString}
+     *
+     * @return 局部属性集
+     */
+    private Map<String, Object> getLocalFieldsForString() {
+        if (localFieldNum == 0) {
+            return localFields;
+        }
+        final Map<String, Object> allLocalFields = new HashMap<>();
+        for (int i = 0; i < localFieldNum; i++) {
+            allLocalFields.put(localFieldNames[i], localFieldValues[i]);
+        }
+        if (localFields != null) {
+            allLocalFields.putAll(localFields);
+        }
+        return allLocalFields;
+    }
+
     @Override
     public String toString() {
         return "ExecuteContext{"
@@ -552,7 +679,7 @@ public class ExecuteContext {
                 + ", throwable=" + throwable
                 + ", extStaticFields=" + extStaticFields
                 + ", extMemberFields=" + extMemberFields
-                + ", localFields=" + localFields
+                + ", localFields=" + getLocalFieldsForString()
                 + ", rawFields=" + rawFields
                 + '}';
     }
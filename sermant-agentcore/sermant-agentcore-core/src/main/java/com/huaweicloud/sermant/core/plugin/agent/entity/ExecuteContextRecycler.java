@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent.entity;
+
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.plugin.agent.config.AgentConfig;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 执行上下文回收器，开启{@link AgentConfig#isReuseExecuteContext()}后，为被增强的成员方法和静态方法提供线程封闭的可复用
+ * 执行上下文，同一线程中嵌套调用的被增强方法按调用深度使用各自的执行上下文
+ * <p>注意，开启后拦截器不能在被增强方法调用结束后继续持有执行上下文
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-03
+ */
+public class ExecuteContextRecycler {
+    /**
+     * 每个线程可复用的最大调用深度，超出的部分将创建新的执行上下文
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * 初始的执行上下文栈容量
+     */
+    private static final int INIT_CAPACITY = 4;
+
+    /**
+     * 是否复用执行上下文
+     */
+    private static final boolean IS_REUSE = isReuseExecuteContext();
+
+    /**
+     * 线程封闭的执行上下文栈
+     */
+    private static final ThreadLocal<ContextStack> CONTEXT_STACK = ThreadLocal.withInitial(ContextStack::new);
+
+    private ExecuteContextRecycler() {
+    }
+
+    /**
+     * 获取成员方法的执行上下文，未开启复用时等同于{@link ExecuteContext#forMemberMethod}
+     *
+     * @param object          被增强的对象
+     * @param method          被增强的方法
+     * @param arguments       方法的入参
+     * @param extStaticFields 额外的静态属性集
+     * @param extMemberFields 额外的成员属性集
+     * @return 执行上下文
+     */
+    public static ExecuteContext forMemberMethod(Object object, Method method, Object[] arguments,
+            Map<String, Object> extStaticFields, Map<String, Object> extMemberFields) {
+        if (!IS_REUSE) {
+            return ExecuteContext.forMemberMethod(object, method, arguments, extStaticFields, extMemberFields);
+        }
+        return CONTEXT_STACK.get().push()
+                .reset(object, object.getClass(), null, method, arguments, extStaticFields, extMemberFields);
+    }
+
+    /**
+     * 获取静态方法的执行上下文，未开启复用时等同于{@link ExecuteContext#forStaticMethod}
+     *
+     * @param cls             被增强的类
+     * @param method          被增强的方法
+     * @param arguments       方法的入参
+     * @param extStaticFields 额外的静态属性集
+     * @return 执行上下文
+     */
+    public static ExecuteContext forStaticMethod(Class<?> cls, Method method, Object[] arguments,
+            Map<String, Object> extStaticFields) {
+        if (!IS_REUSE) {
+            return ExecuteContext.forStaticMethod(cls, method, arguments, extStaticFields);
+        }
+        return CONTEXT_STACK.get().push().reset(null, cls, null, method, arguments, extStaticFields, null);
+    }
+
+    /**
+     * 回收当前线程最近获取的执行上下文，每次{@link #forMemberMethod}或{@link #forStaticMethod}都需要对应一次回收
+     */
+    public static void recycle() {
+        if (IS_REUSE) {
+            CONTEXT_STACK.get().pop();
+        }
+    }
+
+    private static boolean isReuseExecuteContext() {
+        final AgentConfig agentConfig = ConfigManager.getConfig(AgentConfig.class);
+        return agentConfig != null && agentConfig.isReuseExecuteContext();
+    }
+
+    /**
+     * 执行上下文栈
+     *
+     * @since 2023-08-03
+     */
+    private static class ContextStack {
+        private ExecuteContext[] contexts = new ExecuteContext[INIT_CAPACITY];
+
+        private int depth;
+
+        /**
+         * 入栈，获取当前深度的执行上下文
+         *
+         * @return 执行上下文
+         */
+        ExecuteContext push() {
+            final int index = depth++;
+            if (index >= MAX_DEPTH) {
+                return new ExecuteContext();
+            }
+            if (index >= contexts.length) {
+                contexts = Arrays.copyOf(contexts, Math.min(contexts.length * 2, MAX_DEPTH));
+            }
+            ExecuteContext context = contexts[index];
+            if (context == null) {
+                context = new ExecuteContext();
+                contexts[index] = context;
+            }
+            return context;
+        }
+
+        /**
+         * 出栈，回收当前深度的执行上下文
+         */
+        void pop() {
+            if (depth <= 0) {
+                return;
+            }
+            final int index = --depth;
+            if (index < MAX_DEPTH) {
+                contexts[index].recycle();
+            }
+        }
+    }
+}
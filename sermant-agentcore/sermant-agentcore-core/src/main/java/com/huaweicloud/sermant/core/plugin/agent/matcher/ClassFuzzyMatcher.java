@@ -39,6 +39,11 @@ public abstract class ClassFuzzyMatcher extends ClassMatcher {
             public boolean matches(TypeDescription typeDescription) {
                 return !thisMatcher.matches(typeDescription);
             }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
+                return !thisMatcher.matches(typeDescription, classLoader);
+            }
         };
     }
 
@@ -49,12 +54,25 @@ public abstract class ClassFuzzyMatcher extends ClassMatcher {
      * @return 类的模糊匹配器
      */
     public ClassFuzzyMatcher and(ElementMatcher<TypeDescription> matcher) {
+        if (matcher instanceof ClassMatcher) {
+            return ClassMatcher.and(this, (ClassMatcher) matcher);
+        }
         final ClassFuzzyMatcher thisMatcher = this;
         return new ClassFuzzyMatcher() {
             @Override
             public boolean matches(TypeDescription typeDescription) {
                 return thisMatcher.matches(typeDescription) && matcher.matches(typeDescription);
             }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
+                return thisMatcher.matches(typeDescription, classLoader) && matcher.matches(typeDescription);
+            }
+
+            @Override
+            ClassNameMatcher getNameCondition() {
+                return thisMatcher.getNameCondition();
+            }
         };
     }
 
@@ -71,6 +89,12 @@ public abstract class ClassFuzzyMatcher extends ClassMatcher {
             public boolean matches(TypeDescription typeDescription) {
                 return thisMatcher.matches(typeDescription) || matcher.matches(typeDescription);
             }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
+                return thisMatcher.matches(typeDescription, classLoader)
+                        || matches(matcher, typeDescription, classLoader);
+            }
         };
     }
 }
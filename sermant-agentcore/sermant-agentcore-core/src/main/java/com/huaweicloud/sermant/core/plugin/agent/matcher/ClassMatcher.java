@@ -18,18 +18,13 @@ package com.huaweicloud.sermant.core.plugin.agent.matcher;
 
 import net.bytebuddy.description.annotation.AnnotationDescription;
 import net.bytebuddy.description.annotation.AnnotationList;
-import net.bytebuddy.description.type.TypeDefinition;
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.description.type.TypeList;
 import net.bytebuddy.matcher.ElementMatcher;
 
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
 import java.util.Set;
 
 /**
@@ -44,6 +39,26 @@ import java.util.Set;
  * @since 2022-01-24
  */
 public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
+    /**
+     * 结合类加载器进行匹配，类加载器用于区分同名类，使匹配过程中解析的类信息可被缓存，默认忽略类加载器
+     *
+     * @param typeDescription 类型描述
+     * @param classLoader     加载该类的类加载器
+     * @return 是否匹配
+     */
+    public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
+        return matches(typeDescription);
+    }
+
+    /**
+     * 获取类名的必要条件，类名不满足该条件时本匹配器必不匹配，供{@link ClassMatcherIndex}在匹配前通过类名排除不相关的类
+     *
+     * @return 类名的模糊匹配器，没有类名条件时返回null
+     */
+    ClassNameMatcher getNameCondition() {
+        return null;
+    }
+
     /**
      * 匹配名称完全一致的类
      *
@@ -101,12 +116,7 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
      * @return 类的模糊匹配器
      */
     public static ClassFuzzyMatcher namePrefixedWith(String prefix) {
-        return new ClassFuzzyMatcher() {
-            @Override
-            public boolean matches(TypeDescription typeDescription) {
-                return typeDescription.getActualName().startsWith(prefix);
-            }
-        };
+        return new ClassNameMatcher(ClassNameMatcher.Mode.PREFIX, prefix);
     }
 
     /**
@@ -116,12 +126,7 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
      * @return 类的模糊匹配器
      */
     public static ClassFuzzyMatcher nameSuffixedWith(String suffix) {
-        return new ClassFuzzyMatcher() {
-            @Override
-            public boolean matches(TypeDescription typeDescription) {
-                return typeDescription.getActualName().endsWith(suffix);
-            }
-        };
+        return new ClassNameMatcher(ClassNameMatcher.Mode.SUFFIX, suffix);
     }
 
     /**
@@ -131,12 +136,7 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
      * @return 类的模糊匹配器
      */
     public static ClassFuzzyMatcher nameInfixedWith(String infix) {
-        return new ClassFuzzyMatcher() {
-            @Override
-            public boolean matches(TypeDescription typeDescription) {
-                return typeDescription.getActualName().contains(infix);
-            }
-        };
+        return new ClassNameMatcher(ClassNameMatcher.Mode.INFIX, infix);
     }
 
     /**
@@ -203,12 +203,7 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
      * @return 类的模糊匹配器
      */
     public static ClassFuzzyMatcher isExtendedFrom(String... superTypes) {
-        return new ClassFuzzyMatcher() {
-            @Override
-            public boolean matches(TypeDescription typeDescription) {
-                return superTypeCheck(typeDescription, Arrays.asList(superTypes));
-            }
-        };
+        return superTypeMatcher(new HashSet<>(Arrays.asList(superTypes)));
     }
 
     /**
@@ -222,10 +217,25 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
         for (Class<?> superType : superTypes) {
             superTypeNames.add(superType.getName());
         }
+        return superTypeMatcher(superTypeNames);
+    }
+
+    /**
+     * 创建超类匹配器，已知类加载器时使用{@link SuperTypeCache}缓存解析所得的超类
+     *
+     * @param superTypeNames 超类名称集
+     * @return 类的模糊匹配器
+     */
+    private static ClassFuzzyMatcher superTypeMatcher(Set<String> superTypeNames) {
         return new ClassFuzzyMatcher() {
             @Override
             public boolean matches(TypeDescription typeDescription) {
-                return superTypeCheck(typeDescription, superTypeNames);
+                return superTypeCheck(typeDescription, superTypeNames, null, false);
+            }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
+                return superTypeCheck(typeDescription, superTypeNames, classLoader, true);
             }
         };
     }
@@ -235,29 +245,19 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
      *
      * @param typeDescription 类型描述
      * @param superTypeNames  超类名称集
+     * @param classLoader     类加载器
+     * @param isCached        是否使用超类缓存
      * @return 检查是否通过
      */
-    private static boolean superTypeCheck(TypeDescription typeDescription, Collection<String> superTypeNames) {
-        final Set<String> superTypeNameSet = new HashSet<String>(superTypeNames);
-        if (superTypeNameSet.contains(typeDescription.asErasure().getActualName())) {
+    private static boolean superTypeCheck(TypeDescription typeDescription, Set<String> superTypeNames,
+            ClassLoader classLoader, boolean isCached) {
+        if (superTypeNames.contains(typeDescription.asErasure().getActualName())) {
             return false;
         }
-        final Queue<TypeDefinition> queue = new LinkedList<TypeDefinition>();
-        queue.add(typeDescription);
-        for (TypeDefinition current = queue.poll();
-             current != null && !superTypeNameSet.isEmpty();
-             current = queue.poll()) {
-            superTypeNameSet.remove(current.getActualName());
-            final TypeList.Generic interfaces = current.getInterfaces();
-            if (!interfaces.isEmpty()) {
-                queue.addAll(interfaces.asErasures());
-            }
-            final TypeDefinition superClass = current.getSuperClass();
-            if (superClass != null) {
-                queue.add(superClass.asErasure());
-            }
-        }
-        return superTypeNameSet.isEmpty();
+        final Set<String> resolvedNames = isCached
+                ? SuperTypeCache.getSuperTypeNames(typeDescription, classLoader)
+                : SuperTypeCache.resolveSuperTypeNames(typeDescription);
+        return resolvedNames.containsAll(superTypeNames);
     }
 
     /**
@@ -285,8 +285,13 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
         return new ClassFuzzyMatcher() {
             @Override
             public boolean matches(TypeDescription typeDescription) {
+                return matches(typeDescription, null);
+            }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
                 for (ClassMatcher matcher : matchers) {
-                    if (matcher.matches(typeDescription)) {
+                    if (matcher.matches(typeDescription, classLoader)) {
                         return false;
                     }
                 }
@@ -302,16 +307,27 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
      * @return 类的模糊匹配器
      */
     public static ClassFuzzyMatcher and(ClassMatcher... matchers) {
+        final ClassMatcher[] sortedMatchers = sortByNameCondition(matchers);
         return new ClassFuzzyMatcher() {
             @Override
             public boolean matches(TypeDescription typeDescription) {
-                for (ClassMatcher matcher : matchers) {
-                    if (!matcher.matches(typeDescription)) {
+                return matches(typeDescription, null);
+            }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
+                for (ClassMatcher matcher : sortedMatchers) {
+                    if (!matcher.matches(typeDescription, classLoader)) {
                         return false;
                     }
                 }
                 return true;
             }
+
+            @Override
+            ClassNameMatcher getNameCondition() {
+                return sortedMatchers.length == 0 ? null : sortedMatchers[0].getNameCondition();
+            }
         };
     }
 
@@ -325,8 +341,13 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
         return new ClassFuzzyMatcher() {
             @Override
             public boolean matches(TypeDescription typeDescription) {
+                return matches(typeDescription, null);
+            }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader) {
                 for (ClassMatcher matcher : matchers) {
-                    if (matcher.matches(typeDescription)) {
+                    if (matcher.matches(typeDescription, classLoader)) {
                         return true;
                     }
                 }
@@ -334,4 +355,42 @@ public abstract class ClassMatcher implements ElementMatcher<TypeDescription> {
             }
         };
     }
+
+    /**
+     * 将具有类名条件的匹配器排在前面，使{@code and}操作在解析类的层级结构之前，先通过类名排除不匹配的类
+     *
+     * @param matchers 类的匹配器集
+     * @return 排序后的类的匹配器集
+     */
+    private static ClassMatcher[] sortByNameCondition(ClassMatcher[] matchers) {
+        final ClassMatcher[] sortedMatchers = new ClassMatcher[matchers.length];
+        int index = 0;
+        for (ClassMatcher matcher : matchers) {
+            if (matcher.getNameCondition() != null) {
+                sortedMatchers[index++] = matcher;
+            }
+        }
+        for (ClassMatcher matcher : matchers) {
+            if (matcher.getNameCondition() == null) {
+                sortedMatchers[index++] = matcher;
+            }
+        }
+        return sortedMatchers;
+    }
+
+    /**
+     * 使用类加载器信息进行匹配，非{@link ClassMatcher}的元素匹配器将忽略类加载器
+     *
+     * @param matcher         元素匹配器
+     * @param typeDescription 类型描述
+     * @param classLoader     类加载器
+     * @return 是否匹配
+     */
+    static boolean matches(ElementMatcher<TypeDescription> matcher, TypeDescription typeDescription,
+            ClassLoader classLoader) {
+        if (matcher instanceof ClassMatcher) {
+            return ((ClassMatcher) matcher).matches(typeDescription, classLoader);
+        }
+        return matcher.matches(typeDescription);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent.matcher;
+
+import net.bytebuddy.description.type.TypeDescription;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 类的匹配器索引，将一组类的匹配器编译为前缀树，用于从大量匹配器中快速找出与类匹配的部分：
+ * <pre>
+ *     1.具有类名条件{@link ClassNameMatcher}的匹配器，按前缀、后缀或内缀编入前缀树，类名不满足条件时不再执行
+ *     2.类名条件即为匹配器本身时，命中前缀树即视为匹配
+ *     3.其余匹配器对每个类都执行匹配
+ * </pre>
+ * 匹配结果保持元素被添加时的顺序
+ *
+ * @param <T> 元素类型
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-09
+ */
+public class ClassMatcherIndex<T> {
+    private final List<T> elements = new ArrayList<>();
+
+    private final List<ClassMatcher> matchers = new ArrayList<>();
+
+    /**
+     * 命中前缀树后无需再次匹配的元素下标
+     */
+    private final BitSet exactIndexes = new BitSet();
+
+    /**
+     * 无类名条件的元素下标
+     */
+    private final BitSet genericIndexes = new BitSet();
+
+    private final TrieNode prefixTrie = new TrieNode();
+
+    private final TrieNode suffixTrie = new TrieNode();
+
+    private final TrieNode infixTrie = new TrieNode();
+
+    /**
+     * 构造函数
+     *
+     * @param elements      元素集
+     * @param matcherGetter 获取元素对应类的匹配器的方法
+     */
+    public ClassMatcherIndex(Iterable<? extends T> elements, Function<? super T, ClassMatcher> matcherGetter) {
+        for (T element : elements) {
+            add(element, matcherGetter.apply(element));
+        }
+    }
+
+    private void add(T element, ClassMatcher matcher) {
+        final int index = elements.size();
+        elements.add(element);
+        matchers.add(matcher);
+        final ClassNameMatcher nameCondition = matcher.getNameCondition();
+        if (nameCondition == null) {
+            genericIndexes.set(index);
+            return;
+        }
+        if (nameCondition == matcher) {
+            exactIndexes.set(index);
+        }
+        final String pattern = nameCondition.getPattern();
+        switch (nameCondition.getMode()) {
+            case PREFIX:
+                prefixTrie.put(pattern, false, index);
+                break;
+            case SUFFIX:
+                suffixTrie.put(pattern, true, index);
+                break;
+            default:
+                infixTrie.put(pattern, false, index);
+                break;
+        }
+    }
+
+    /**
+     * 获取与类匹配的所有元素，类加载器未知，匹配过程不使用超类缓存
+     *
+     * @param typeDescription 类型描述
+     * @return 匹配的元素列表，按添加顺序排列
+     */
+    public List<T> match(TypeDescription typeDescription) {
+        return match(typeDescription, null, false);
+    }
+
+    /**
+     * 获取与类匹配的所有元素
+     *
+     * @param typeDescription 类型描述
+     * @param classLoader     加载该类的类加载器
+     * @return 匹配的元素列表，按添加顺序排列
+     */
+    public List<T> match(TypeDescription typeDescription, ClassLoader classLoader) {
+        return match(typeDescription, classLoader, true);
+    }
+
+    private List<T> match(TypeDescription typeDescription, ClassLoader classLoader, boolean isCached) {
+        final String typeName = typeDescription.getActualName();
+        final BitSet candidates = (BitSet) genericIndexes.clone();
+        prefixTrie.collect(typeName, 0, false, candidates);
+        suffixTrie.collect(typeName, typeName.length() - 1, true, candidates);
+        for (int i = 0; i < typeName.length(); i++) {
+            infixTrie.collect(typeName, i, false, candidates);
+        }
+        final List<T> result = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (exactIndexes.get(i) || matches(matchers.get(i), typeDescription, classLoader, isCached)) {
+                result.add(elements.get(i));
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(ClassMatcher matcher, TypeDescription typeDescription, ClassLoader classLoader,
+            boolean isCached) {
+        return isCached ? matcher.matches(typeDescription, classLoader) : matcher.matches(typeDescription);
+    }
+
+    /**
+     * 前缀树节点，后缀匹配时以倒序的字符构建
+     *
+     * @since 2023-08-09
+     */
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+
+        private final BitSet indexes = new BitSet();
+
+        /**
+         * 添加模式串
+         *
+         * @param pattern   模式串
+         * @param isReverse 是否倒序添加
+         * @param index     元素下标
+         */
+        void put(String pattern, boolean isReverse, int index) {
+            TrieNode node = this;
+            final int length = pattern.length();
+            for (int i = 0; i < length; i++) {
+                final char ch = pattern.charAt(isReverse ? length - 1 - i : i);
+                node = node.children.computeIfAbsent(ch, key -> new TrieNode());
+            }
+            node.indexes.set(index);
+        }
+
+        /**
+         * 从类名的指定位置开始沿前缀树行进，收集途经节点上的元素下标
+         *
+         * @param typeName  类名
+         * @param start     起始位置
+         * @param isReverse 是否倒序行进
+         * @param result    元素下标集
+         */
+        void collect(String typeName, int start, boolean isReverse, BitSet result) {
+            TrieNode node = this;
+            result.or(node.indexes);
+            final int step = isReverse ? -1 : 1;
+            for (int i = start; i >= 0 && i < typeName.length(); i += step) {
+                node = node.children.get(typeName.charAt(i));
+                if (node == null) {
+                    return;
+                }
+                result.or(node.indexes);
+            }
+        }
+    }
+}
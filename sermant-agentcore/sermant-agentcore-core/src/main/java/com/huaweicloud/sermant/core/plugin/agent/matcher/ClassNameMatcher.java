@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent.matcher;
+
+import net.bytebuddy.description.type.TypeDescription;
+
+/**
+ * 类名的模糊匹配器，仅通过类的全限定名判断是否匹配，可被{@link ClassMatcherIndex}编入前缀树
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-09
+ */
+public class ClassNameMatcher extends ClassFuzzyMatcher {
+    private final Mode mode;
+
+    private final String pattern;
+
+    /**
+     * 构造函数
+     *
+     * @param mode    匹配方式
+     * @param pattern 前缀、后缀或内缀
+     */
+    public ClassNameMatcher(Mode mode, String pattern) {
+        this.mode = mode;
+        this.pattern = pattern;
+    }
+
+    @Override
+    public boolean matches(TypeDescription typeDescription) {
+        final String typeName = typeDescription.getActualName();
+        switch (mode) {
+            case PREFIX:
+                return typeName.startsWith(pattern);
+            case SUFFIX:
+                return typeName.endsWith(pattern);
+            default:
+                return typeName.contains(pattern);
+        }
+    }
+
+    @Override
+    ClassNameMatcher getNameCondition() {
+        return this;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 类名的匹配方式
+     *
+     * @since 2023-08-09
+     */
+    public enum Mode {
+        /**
+         * 前缀匹配
+         */
+        PREFIX,
+
+        /**
+         * 后缀匹配
+         */
+        SUFFIX,
+
+        /**
+         * 内缀匹配
+         */
+        INFIX
+    }
+}
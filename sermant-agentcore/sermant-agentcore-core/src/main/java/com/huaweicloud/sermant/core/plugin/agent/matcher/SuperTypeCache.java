@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent.matcher;
+
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * 超类缓存，以(类加载器, 类名)为键缓存类的全部超类及接口名称，解析新类时复用其父类和接口已解析的结果
+ * <p>每个类加载器缓存的类数量有上限，超出时淘汰最久未使用的类；类加载器以弱引用持有，不影响其卸载
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-09
+ */
+public class SuperTypeCache {
+    /**
+     * 每个类加载器缓存的最大类数量
+     */
+    private static final int MAX_TYPE_NUM_PER_LOADER = 8192;
+
+    /**
+     * 缓存集，键为类加载器，值为该类加载器下类名与其超类名称集的关系
+     */
+    private static final Map<ClassLoader, Map<String, Set<String>>> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private SuperTypeCache() {
+    }
+
+    /**
+     * 获取类的全部超类及接口名称，包括类本身
+     *
+     * @param typeDefinition 类型定义
+     * @param classLoader    加载该类的类加载器，用于区分同名类
+     * @return 超类及接口名称集
+     */
+    public static Set<String> getSuperTypeNames(TypeDefinition typeDefinition, ClassLoader classLoader) {
+        return resolve(typeDefinition, CACHE.computeIfAbsent(classLoader, key -> createLruMap()));
+    }
+
+    /**
+     * 获取类的全部超类及接口名称，包括类本身，不使用缓存
+     *
+     * @param typeDefinition 类型定义
+     * @return 超类及接口名称集
+     */
+    public static Set<String> resolveSuperTypeNames(TypeDefinition typeDefinition) {
+        return resolve(typeDefinition, new HashMap<>());
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static Set<String> resolve(TypeDefinition typeDefinition, Map<String, Set<String>> cache) {
+        final String typeName = typeDefinition.getActualName();
+        Set<String> superTypeNames = get(cache, typeName);
+        if (superTypeNames != null) {
+            return superTypeNames;
+        }
+        superTypeNames = new HashSet<>();
+        superTypeNames.add(typeName);
+        final TypeDescription.Generic superClass = typeDefinition.getSuperClass();
+        if (superClass != null) {
+            superTypeNames.addAll(resolve(superClass.asErasure(), cache));
+        }
+        for (TypeDescription interfaceType : typeDefinition.getInterfaces().asErasures()) {
+            superTypeNames.addAll(resolve(interfaceType, cache));
+        }
+        superTypeNames = Collections.unmodifiableSet(superTypeNames);
+        synchronized (cache) {
+            cache.put(typeName, superTypeNames);
+        }
+        return superTypeNames;
+    }
+
+    private static Set<String> get(Map<String, Set<String>> cache, String typeName) {
+        synchronized (cache) {
+            return cache.get(typeName);
+        }
+    }
+
+    private static Map<String, Set<String>> createLruMap() {
+        return new LinkedHashMap<String, Set<String>>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2463278402925184498L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Set<String>> eldest) {
+                return size() > MAX_TYPE_NUM_PER_LOADER;
+            }
+        };
+    }
+}
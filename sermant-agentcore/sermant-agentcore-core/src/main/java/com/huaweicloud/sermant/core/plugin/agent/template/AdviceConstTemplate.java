@@ -23,8 +23,6 @@ import net.bytebuddy.asm.Advice;
 import net.bytebuddy.implementation.bytecode.assign.Assigner;
 
 import java.lang.reflect.Constructor;
-import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 
 /**
@@ -43,11 +41,11 @@ public class AdviceConstTemplate {
      *
      * @param cls             被增强的类
      * @param constructor     构造函数
-     * @param methodKey       方法键，用于查找模板类
+     * @param index           拦截器下标
      * @param arguments       方法入参
-     * @param interceptorMap  拦截器集
+     * @param interceptorArr  拦截器数组集
      * @param extStaticFields 额外静态属性集
-     * @param interceptorItr  拦截器迭代器
+     * @param interceptors    拦截器数组
      * @param context         执行上下文
      * @throws Throwable      抛给宿主的异常
      */
@@ -55,16 +53,16 @@ public class AdviceConstTemplate {
     public static void onMethodEnter(
             @Advice.Origin Class<?> cls,
             @Advice.Origin Constructor<?> constructor,
-            @Advice.Origin("#t\\##m#s") String methodKey,
+            @InterceptorIndex int index,
             @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
-            @Advice.FieldValue(value = "_INTERCEPTOR_MAP_$SERMANT") Map<String, List<Interceptor>> interceptorMap,
+            @Advice.FieldValue(value = "_INTERCEPTOR_ARR_$SERMANT") Interceptor[][] interceptorArr,
             @Advice.FieldValue(value = "_EXT_STATIC_FIELDS_$SERMANT",
                     readOnly = false, typing = Assigner.Typing.DYNAMIC) Map<String, Object> extStaticFields,
-            @Advice.Local(value = "_INTERCEPTOR_ITR_$SERMANT_LOCAL") ListIterator<Interceptor> interceptorItr,
+            @Advice.Local(value = "_INTERCEPTORS_$SERMANT_LOCAL") Interceptor[] interceptors,
             @Advice.Local(value = "_EXECUTE_CONTEXT_$SERMANT_LOCAL") ExecuteContext context) throws Throwable {
-        interceptorItr = interceptorMap.get(methodKey).listIterator();
+        interceptors = interceptorArr[index];
         context = ExecuteContext.forConstructor(cls, constructor, arguments, extStaticFields);
-        context = CommonConstAdviser.onMethodEnter(context, interceptorItr);
+        context = CommonConstAdviser.onMethodEnter(context, interceptors);
         arguments = context.getArguments();
         extStaticFields = context.getExtStaticFields();
     }
@@ -75,7 +73,7 @@ public class AdviceConstTemplate {
      * @param obj             被增强的对象
      * @param extStaticFields 额外静态属性集
      * @param extMemberFields 额外成员属性集
-     * @param interceptorItr  拦截器迭代器
+     * @param interceptors    拦截器数组
      * @param context         执行上下文
      * @throws Throwable      抛给宿主的异常
      */
@@ -86,9 +84,9 @@ public class AdviceConstTemplate {
                     readOnly = false, typing = Assigner.Typing.DYNAMIC) Map<String, Object> extStaticFields,
             @Advice.FieldValue(value = "_EXT_MEMBER_FIELDS_$SERMANT",
                     readOnly = false, typing = Assigner.Typing.DYNAMIC) Map<String, Object> extMemberFields,
-            @Advice.Local(value = "_INTERCEPTOR_ITR_$SERMANT_LOCAL") ListIterator<Interceptor> interceptorItr,
+            @Advice.Local(value = "_INTERCEPTORS_$SERMANT_LOCAL") Interceptor[] interceptors,
             @Advice.Local(value = "_EXECUTE_CONTEXT_$SERMANT_LOCAL") ExecuteContext context) throws Throwable {
-        context = CommonConstAdviser.onMethodExit(context.afterConstructor(obj, extMemberFields), interceptorItr);
+        context = CommonConstAdviser.onMethodExit(context.afterConstructor(obj, extMemberFields), interceptors);
         extStaticFields = context.getExtStaticFields();
         extMemberFields = context.getExtMemberFields();
     }
@@ -17,14 +17,13 @@
 package com.huaweicloud.sermant.core.plugin.agent.template;
 
 import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContext;
+import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContextRecycler;
 import com.huaweicloud.sermant.core.plugin.agent.interceptor.Interceptor;
 
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.implementation.bytecode.assign.Assigner;
 
 import java.lang.reflect.Method;
-import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 
 /**
@@ -43,11 +42,11 @@ public class AdviceStaticTemplate {
      *
      * @param cls             被增强的类
      * @param method          被增强的方法
-     * @param methodKey       方法键，用于查找模板类
+     * @param index           拦截器下标
      * @param arguments       方法入参
-     * @param interceptorMap  拦截器集
+     * @param interceptorArr  拦截器数组集
      * @param extStaticFields 额外静态属性集
-     * @param interceptorItr  拦截器迭代器
+     * @param interceptors    拦截器数组
      * @param context         执行上下文
      * @return 是否跳过主要方法
      * @throws Throwable      抛给宿主的异常
@@ -56,16 +55,16 @@ public class AdviceStaticTemplate {
     public static boolean onMethodEnter(
             @Advice.Origin Class<?> cls,
             @Advice.Origin Method method,
-            @Advice.Origin("#t\\##m#s") String methodKey,
+            @InterceptorIndex int index,
             @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
-            @Advice.FieldValue(value = "_INTERCEPTOR_MAP_$SERMANT") Map<String, List<Interceptor>> interceptorMap,
+            @Advice.FieldValue(value = "_INTERCEPTOR_ARR_$SERMANT") Interceptor[][] interceptorArr,
             @Advice.FieldValue(value = "_EXT_STATIC_FIELDS_$SERMANT",
                     readOnly = false, typing = Assigner.Typing.DYNAMIC) Map<String, Object> extStaticFields,
-            @Advice.Local(value = "_INTERCEPTOR_ITR_$SERMANT_LOCAL") ListIterator<Interceptor> interceptorItr,
+            @Advice.Local(value = "_INTERCEPTORS_$SERMANT_LOCAL") Interceptor[] interceptors,
             @Advice.Local(value = "_EXECUTE_CONTEXT_$SERMANT_LOCAL") ExecuteContext context) throws Throwable {
-        interceptorItr = interceptorMap.get(methodKey).listIterator();
-        context = ExecuteContext.forStaticMethod(cls, method, arguments, extStaticFields);
-        context = CommonMethodAdviser.onMethodEnter(context, interceptorItr);
+        interceptors = interceptorArr[index];
+        context = ExecuteContextRecycler.forStaticMethod(cls, method, arguments, extStaticFields);
+        context = CommonMethodAdviser.onMethodEnter(context, interceptors);
         arguments = context.getArguments();
         extStaticFields = context.getExtStaticFields();
         return context.isSkip();
@@ -77,7 +76,7 @@ public class AdviceStaticTemplate {
      * @param result          方法调用结果
      * @param throwable       方法调用异常
      * @param extStaticFields 额外静态属性集
-     * @param interceptorItr  拦截器迭代器
+     * @param interceptors    拦截器数组
      * @param context         执行上下文
      * @throws Throwable      抛给宿主的异常
      */
@@ -87,10 +86,10 @@ public class AdviceStaticTemplate {
             @Advice.Thrown Throwable throwable,
             @Advice.FieldValue(value = "_EXT_STATIC_FIELDS_$SERMANT",
                     readOnly = false, typing = Assigner.Typing.DYNAMIC) Map<String, Object> extStaticFields,
-            @Advice.Local(value = "_INTERCEPTOR_ITR_$SERMANT_LOCAL") ListIterator<Interceptor> interceptorItr,
+            @Advice.Local(value = "_INTERCEPTORS_$SERMANT_LOCAL") Interceptor[] interceptors,
             @Advice.Local(value = "_EXECUTE_CONTEXT_$SERMANT_LOCAL") ExecuteContext context) throws Throwable {
         context = context.isSkip() ? context : context.afterMethod(result, throwable);
-        context = CommonMethodAdviser.onMethodExit(context, interceptorItr);
+        context = CommonMethodAdviser.onMethodExit(context, interceptors);
         result = context.getResult();
         extStaticFields = context.getExtStaticFields();
     }
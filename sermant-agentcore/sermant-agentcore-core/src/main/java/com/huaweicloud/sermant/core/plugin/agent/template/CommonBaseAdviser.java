@@ -19,6 +19,7 @@ package com.huaweicloud.sermant.core.plugin.agent.template;
 import com.huaweicloud.sermant.core.common.LoggerFactory;
 import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContext;
 import com.huaweicloud.sermant.core.plugin.agent.interceptor.Interceptor;
+import com.huaweicloud.sermant.core.service.metric.common.InterceptorMetricRecorder;
 
 import java.util.ListIterator;
 import java.util.Locale;
@@ -51,26 +52,35 @@ public class CommonBaseAdviser {
             ExceptionHandler beforeHandler) throws Throwable {
         ExecuteContext newContext = context;
         while (interceptorItr.hasNext()) {
-            final Interceptor interceptor = interceptorItr.next();
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, String.format(Locale.ROOT, "Method[%s] had been entered, interceptor is [%s].",
-                    MethodKeyCreator.getMethodKey(context.getMethod()), interceptor.getClass().getName()));
+            newContext = doBefore(context, newContext, interceptorItr.next(), beforeHandler);
+            if (newContext.isSkip()) {
+                return newContext;
             }
-            try {
-                final ExecuteContext tempContext = interceptor.before(newContext);
-                if (tempContext != null) {
-                    newContext = tempContext;
-                }
-                if (newContext.isSkip()) {
-                    return newContext;
-                }
-            } catch (Throwable t) {
-                beforeHandler.handle(context, interceptor, t);
-            }
-            if (newContext.getThrowableOut() != null) {
-                throw newContext.getThrowableOut();
+        }
+        return newContext;
+    }
+
+    /**
+     * 前置触发点，按下标顺序执行拦截器数组，并将已执行的拦截器数量记录在执行上下文中，供{@link #onMethodExit(
+     * ExecuteContext, Interceptor[], ExceptionHandler, ExceptionHandler)}逆序执行
+     *
+     * @param context       执行上下文
+     * @param interceptors  拦截器数组
+     * @param beforeHandler before的异常处理器
+     * @return 执行上下文
+     * @throws Throwable    抛给宿主的异常
+     */
+    public static ExecuteContext onMethodEnter(ExecuteContext context, Interceptor[] interceptors,
+            ExceptionHandler beforeHandler) throws Throwable {
+        ExecuteContext newContext = context;
+        int index = 0;
+        while (index < interceptors.length) {
+            newContext = doBefore(context, newContext, interceptors[index++], beforeHandler);
+            if (newContext.isSkip()) {
+                break;
             }
         }
+        newContext.setEnteredInterceptorNum(index);
         return newContext;
     }
 
@@ -88,36 +98,110 @@ public class CommonBaseAdviser {
             ExceptionHandler onThrowHandler, ExceptionHandler afterHandler) throws Throwable {
         ExecuteContext newContext = context;
         while (interceptorItr.hasPrevious()) {
-            final Interceptor interceptor = interceptorItr.previous();
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, String.format(Locale.ROOT, "Method[%s] had been exited, interceptor is [%s].",
-                    MethodKeyCreator.getMethodKey(context.getMethod()), interceptor.getClass().getName()));
+            newContext = doAfter(newContext, interceptorItr.previous(), onThrowHandler, afterHandler);
+        }
+        return newContext;
+    }
+
+    /**
+     * 后置触发点，从前置触发点中已执行的最后一个拦截器开始，逆序执行拦截器数组
+     *
+     * @param context        执行上下文
+     * @param interceptors   拦截器数组
+     * @param onThrowHandler onThrow的异常处理器
+     * @param afterHandler   after的的异常处理器
+     * @return 执行上下文
+     * @throws Throwable     抛给宿主的异常
+     */
+    public static ExecuteContext onMethodExit(ExecuteContext context, Interceptor[] interceptors,
+            ExceptionHandler onThrowHandler, ExceptionHandler afterHandler) throws Throwable {
+        ExecuteContext newContext = context;
+        for (int i = context.getEnteredInterceptorNum() - 1; i >= 0; i--) {
+            newContext = doAfter(newContext, interceptors[i], onThrowHandler, afterHandler);
+        }
+        return newContext;
+    }
+
+    /**
+     * 执行单个拦截器的before方法
+     *
+     * @param context       原始执行上下文，用于异常处理
+     * @param newContext    当前执行上下文
+     * @param interceptor   拦截器
+     * @param beforeHandler before的异常处理器
+     * @return 执行上下文
+     * @throws Throwable    抛给宿主的异常
+     */
+    private static ExecuteContext doBefore(ExecuteContext context, ExecuteContext newContext, Interceptor interceptor,
+            ExceptionHandler beforeHandler) throws Throwable {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, String.format(Locale.ROOT, "Method[%s] had been entered, interceptor is [%s].",
+                MethodKeyCreator.getMethodKey(context.getMethod()), interceptor.getClass().getName()));
+        }
+        ExecuteContext resultContext = newContext;
+        try {
+            final ExecuteContext tempContext = InterceptorMetricRecorder.IS_ENABLE
+                    ? InterceptorMetricRecorder.before(interceptor, resultContext)
+                    : interceptor.before(resultContext);
+            if (tempContext != null) {
+                resultContext = tempContext;
             }
-            if (newContext.getThrowable() != null && onThrowHandler != null) {
-                try {
-                    final ExecuteContext tempContext = interceptor.onThrow(newContext);
-                    if (tempContext != null) {
-                        newContext = tempContext;
-                    }
-                } catch (Throwable t) {
-                    onThrowHandler.handle(newContext, interceptor, t);
-                }
-                if (newContext.getThrowableOut() != null) {
-                    throw newContext.getThrowableOut();
-                }
+            if (resultContext.isSkip()) {
+                return resultContext;
             }
+        } catch (Throwable t) {
+            beforeHandler.handle(context, interceptor, t);
+        }
+        if (resultContext.getThrowableOut() != null) {
+            throw resultContext.getThrowableOut();
+        }
+        return resultContext;
+    }
+
+    /**
+     * 执行单个拦截器的onThrow及after方法
+     *
+     * @param context        执行上下文
+     * @param interceptor    拦截器
+     * @param onThrowHandler onThrow的异常处理器
+     * @param afterHandler   after的的异常处理器
+     * @return 执行上下文
+     * @throws Throwable     抛给宿主的异常
+     */
+    private static ExecuteContext doAfter(ExecuteContext context, Interceptor interceptor,
+            ExceptionHandler onThrowHandler, ExceptionHandler afterHandler) throws Throwable {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, String.format(Locale.ROOT, "Method[%s] had been exited, interceptor is [%s].",
+                MethodKeyCreator.getMethodKey(context.getMethod()), interceptor.getClass().getName()));
+        }
+        ExecuteContext newContext = context;
+        if (newContext.getThrowable() != null && onThrowHandler != null) {
             try {
-                final ExecuteContext tempContext = interceptor.after(newContext);
+                final ExecuteContext tempContext = InterceptorMetricRecorder.IS_ENABLE
+                        ? InterceptorMetricRecorder.onThrow(interceptor, newContext)
+                        : interceptor.onThrow(newContext);
                 if (tempContext != null) {
                     newContext = tempContext;
                 }
             } catch (Throwable t) {
-                afterHandler.handle(newContext, interceptor, t);
+                onThrowHandler.handle(newContext, interceptor, t);
             }
             if (newContext.getThrowableOut() != null) {
                 throw newContext.getThrowableOut();
             }
         }
+        try {
+            final ExecuteContext tempContext = InterceptorMetricRecorder.IS_ENABLE
+                    ? InterceptorMetricRecorder.after(interceptor, newContext) : interceptor.after(newContext);
+            if (tempContext != null) {
+                newContext = tempContext;
+            }
+        } catch (Throwable t) {
+            afterHandler.handle(newContext, interceptor, t);
+        }
+        if (newContext.getThrowableOut() != null) {
+            throw newContext.getThrowableOut();
+        }
         return newContext;
     }
 
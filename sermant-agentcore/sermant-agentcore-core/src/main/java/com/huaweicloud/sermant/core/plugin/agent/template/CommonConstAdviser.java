@@ -19,6 +19,7 @@ package com.huaweicloud.sermant.core.plugin.agent.template;
 import com.huaweicloud.sermant.core.common.LoggerFactory;
 import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContext;
 import com.huaweicloud.sermant.core.plugin.agent.interceptor.Interceptor;
+import com.huaweicloud.sermant.core.plugin.agent.template.CommonBaseAdviser.ExceptionHandler;
 
 import java.util.ListIterator;
 import java.util.Locale;
@@ -38,6 +39,26 @@ public class CommonConstAdviser {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger();
 
+    /**
+     * before的异常处理器
+     */
+    private static final ExceptionHandler BEFORE_HANDLER = new ExceptionHandler() {
+        @Override
+        public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
+            logError("before initialize", context, interceptor, throwable);
+        }
+    };
+
+    /**
+     * after的异常处理器
+     */
+    private static final ExceptionHandler AFTER_HANDLER = new ExceptionHandler() {
+        @Override
+        public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
+            logError("after initialize", context, interceptor, throwable);
+        }
+    };
+
     private CommonConstAdviser() {
     }
 
@@ -65,13 +86,20 @@ public class CommonConstAdviser {
      */
     public static ExecuteContext onMethodEnter(ExecuteContext context, ListIterator<Interceptor> interceptorItr)
         throws Throwable {
-        return CommonBaseAdviser.onMethodEnter(context, interceptorItr,
-                new CommonBaseAdviser.ExceptionHandler() {
-                    @Override
-                    public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
-                        logError("before initialize", context, interceptor, throwable);
-                    }
-                });
+        return CommonBaseAdviser.onMethodEnter(context, interceptorItr, BEFORE_HANDLER);
+    }
+
+    /**
+     * 调用构造函数的前置触发点
+     *
+     * @param context      执行上下文
+     * @param interceptors 拦截器数组
+     * @return 执行上下文
+     * @throws Throwable   抛给宿主的异常
+     */
+    public static ExecuteContext onMethodEnter(ExecuteContext context, Interceptor[] interceptors)
+        throws Throwable {
+        return CommonBaseAdviser.onMethodEnter(context, interceptors, BEFORE_HANDLER);
     }
 
     /**
@@ -84,12 +112,19 @@ public class CommonConstAdviser {
      */
     public static ExecuteContext onMethodExit(ExecuteContext context, ListIterator<Interceptor> interceptorItr)
         throws Throwable {
-        return CommonBaseAdviser.onMethodExit(context, interceptorItr, null,
-                new CommonBaseAdviser.ExceptionHandler() {
-                    @Override
-                    public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
-                        logError("after initialize", context, interceptor, throwable);
-                    }
-                });
+        return CommonBaseAdviser.onMethodExit(context, interceptorItr, null, AFTER_HANDLER);
+    }
+
+    /**
+     * 调用构造函数的后置触发点
+     *
+     * @param context      执行上下文
+     * @param interceptors 拦截器数组
+     * @return 执行上下文
+     * @throws Throwable   抛给宿主的异常
+     */
+    public static ExecuteContext onMethodExit(ExecuteContext context, Interceptor[] interceptors)
+        throws Throwable {
+        return CommonBaseAdviser.onMethodExit(context, interceptors, null, AFTER_HANDLER);
     }
 }
@@ -18,7 +18,9 @@ package com.huaweicloud.sermant.core.plugin.agent.template;
 
 import com.huaweicloud.sermant.core.common.LoggerFactory;
 import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContext;
+import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContextRecycler;
 import com.huaweicloud.sermant.core.plugin.agent.interceptor.Interceptor;
+import com.huaweicloud.sermant.core.plugin.agent.template.CommonBaseAdviser.ExceptionHandler;
 
 import java.util.ListIterator;
 import java.util.Locale;
@@ -38,6 +40,36 @@ public class CommonMethodAdviser {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger();
 
+    /**
+     * before的异常处理器
+     */
+    private static final ExceptionHandler BEFORE_HANDLER = new ExceptionHandler() {
+        @Override
+        public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
+            logError("before executing", context, interceptor, throwable);
+        }
+    };
+
+    /**
+     * onThrow的异常处理器
+     */
+    private static final ExceptionHandler ON_THROW_HANDLER = new ExceptionHandler() {
+        @Override
+        public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
+            logError("while handling error from", context, interceptor, throwable);
+        }
+    };
+
+    /**
+     * after的异常处理器
+     */
+    private static final ExceptionHandler AFTER_HANDLER = new ExceptionHandler() {
+        @Override
+        public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
+            logError("after executing", context, interceptor, throwable);
+        }
+    };
+
     private CommonMethodAdviser() {
     }
 
@@ -65,13 +97,26 @@ public class CommonMethodAdviser {
      */
     public static ExecuteContext onMethodEnter(ExecuteContext context, ListIterator<Interceptor> interceptorItr)
         throws Throwable {
-        return CommonBaseAdviser.onMethodEnter(context, interceptorItr,
-                new CommonBaseAdviser.ExceptionHandler() {
-                    @Override
-                    public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
-                        logError("before executing", context, interceptor, throwable);
-                    }
-                });
+        return CommonBaseAdviser.onMethodEnter(context, interceptorItr, BEFORE_HANDLER);
+    }
+
+    /**
+     * 调用方法的前置触发点
+     *
+     * @param context      执行上下文
+     * @param interceptors 拦截器数组
+     * @return 执行上下文
+     * @throws Throwable   抛给宿主的异常
+     */
+    public static ExecuteContext onMethodEnter(ExecuteContext context, Interceptor[] interceptors)
+        throws Throwable {
+        try {
+            return CommonBaseAdviser.onMethodEnter(context, interceptors, BEFORE_HANDLER);
+        } catch (Throwable t) {
+            // 抛出异常时后置触发点不会执行，需在此回收执行上下文
+            ExecuteContextRecycler.recycle();
+            throw t;
+        }
     }
 
     /**
@@ -84,18 +129,23 @@ public class CommonMethodAdviser {
      */
     public static ExecuteContext onMethodExit(ExecuteContext context, ListIterator<Interceptor> interceptorItr)
         throws Throwable {
-        return CommonBaseAdviser.onMethodExit(context, interceptorItr,
-                new CommonBaseAdviser.ExceptionHandler() {
-                    @Override
-                    public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
-                        logError("while handling error from", context, interceptor, throwable);
-                    }
-                },
-                new CommonBaseAdviser.ExceptionHandler() {
-                    @Override
-                    public void handle(ExecuteContext context, Interceptor interceptor, Throwable throwable) {
-                        logError("after executing", context, interceptor, throwable);
-                    }
-                });
+        return CommonBaseAdviser.onMethodExit(context, interceptorItr, ON_THROW_HANDLER, AFTER_HANDLER);
+    }
+
+    /**
+     * 调用方法的后置触发点
+     *
+     * @param context      执行上下文
+     * @param interceptors 拦截器数组
+     * @return 执行上下文
+     * @throws Throwable   抛给宿主的异常
+     */
+    public static ExecuteContext onMethodExit(ExecuteContext context, Interceptor[] interceptors)
+        throws Throwable {
+        try {
+            return CommonBaseAdviser.onMethodExit(context, interceptors, ON_THROW_HANDLER, AFTER_HANDLER);
+        } finally {
+            ExecuteContextRecycler.recycle();
+        }
     }
 }
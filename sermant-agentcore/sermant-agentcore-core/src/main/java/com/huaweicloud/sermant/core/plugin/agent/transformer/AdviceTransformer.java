@@ -22,27 +22,34 @@ import com.huaweicloud.sermant.core.plugin.agent.interceptor.Interceptor;
 import com.huaweicloud.sermant.core.plugin.agent.template.AdviceConstTemplate;
 import com.huaweicloud.sermant.core.plugin.agent.template.AdviceMemberTemplate;
 import com.huaweicloud.sermant.core.plugin.agent.template.AdviceStaticTemplate;
-import com.huaweicloud.sermant.core.plugin.agent.template.MethodKeyCreator;
+import com.huaweicloud.sermant.core.plugin.agent.template.InterceptorIndex;
 
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.MethodList;
 import net.bytebuddy.description.modifier.Ownership;
 import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
-import net.bytebuddy.implementation.LoadedTypeInitializer;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.constant.ClassConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
 import net.bytebuddy.matcher.ElementMatchers;
 import net.bytebuddy.utility.JavaModule;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 增强普通类的Transformer，advice风格
@@ -52,6 +59,16 @@ import java.util.Set;
  * @since 2022-01-24
  */
 public class AdviceTransformer implements AgentBuilder.Transformer {
+    /**
+     * 被增强类中存放拦截器数组的静态属性名
+     */
+    public static final String INTERCEPTOR_ARR_FIELD_NAME = "_INTERCEPTOR_ARR_$SERMANT";
+
+    /**
+     * 被增强类获取拦截器数组集的方法
+     */
+    private static final MethodDescription GET_INTERCEPTOR_ARR_METHOD = getInterceptorArrMethod();
+
     /**
      * 超类校验集
      */
@@ -60,7 +77,7 @@ public class AdviceTransformer implements AgentBuilder.Transformer {
     /**
      * 拦截器全局集
      */
-    private static final Map<Integer, Map<String, List<Interceptor>>> INTERCEPTOR_GLOBAL_MAP = new HashMap<>();
+    private static final Map<Integer, Interceptor[][]> INTERCEPTOR_GLOBAL_MAP = new ConcurrentHashMap<>();
 
     /**
      * 拦截声明器数组
@@ -77,6 +94,17 @@ public class AdviceTransformer implements AgentBuilder.Transformer {
         this.superTypeDeclarers = superTypeDeclarers;
     }
 
+    /**
+     * 获取被增强类的拦截器数组集，由被增强类的类初始化器调用，以类加载器和类名定位，不依赖增强时生成的随机标识，
+     * 使增强后的字节码在不同的jvm中保持一致
+     *
+     * @param cls 被增强类
+     * @return 拦截器数组集
+     */
+    public static Interceptor[][] getInterceptorArr(Class<?> cls) {
+        return INTERCEPTOR_GLOBAL_MAP.get(Objects.hash(cls.getClassLoader(), cls.getName()));
+    }
+
     @Override
     public DynamicType.Builder<?> transform(DynamicType.Builder<?> builder, TypeDescription typeDesc,
             ClassLoader classLoader, JavaModule module) {
@@ -125,6 +153,7 @@ public class AdviceTransformer implements AgentBuilder.Transformer {
      *     2.遍历所有定义的方法，并尝试增强，见{@link #enhanceMethod}
      * </pre>
      * 注意，native方法，抽象方法，及父类定义的方法不会被检查
+     * <p>方法在类定义中的位置即为其拦截器下标，同一个类的多次增强中保持不变
      *
      * @param builder     构建器
      * @param typeDesc    类定义
@@ -138,17 +167,19 @@ public class AdviceTransformer implements AgentBuilder.Transformer {
             return builder;
         }
         DynamicType.Builder<?> newBuilder = builder;
-        Map<String, List<Interceptor>> interceptorMap = INTERCEPTOR_GLOBAL_MAP.get(verifiedKey);
-        if (interceptorMap == null) {
-            interceptorMap = new HashMap<>();
-            INTERCEPTOR_GLOBAL_MAP.put(verifiedKey, interceptorMap);
-            newBuilder = defineEssentialFields(newBuilder, interceptorMap);
+        final MethodList<MethodDescription.InDefinedShape> declaredMethods = typeDesc.getDeclaredMethods();
+        Interceptor[][] interceptorArr = INTERCEPTOR_GLOBAL_MAP.get(verifiedKey);
+        if (interceptorArr == null) {
+            interceptorArr = new Interceptor[declaredMethods.size()][];
+            INTERCEPTOR_GLOBAL_MAP.put(verifiedKey, interceptorArr);
+            newBuilder = defineEssentialFields(newBuilder, typeDesc);
         }
-        for (MethodDescription.InDefinedShape methodDesc : typeDesc.getDeclaredMethods()) {
+        for (int index = 0; index < declaredMethods.size(); index++) {
+            final MethodDescription.InDefinedShape methodDesc = declaredMethods.get(index);
             if (methodDesc.isNative() || methodDesc.isAbstract()) {
                 continue;
             }
-            newBuilder = enhanceMethod(newBuilder, methodDesc, classLoader, interceptorMap);
+            newBuilder = enhanceMethod(newBuilder, methodDesc, classLoader, interceptorArr, index);
         }
         return newBuilder;
     }
@@ -156,53 +187,69 @@ public class AdviceTransformer implements AgentBuilder.Transformer {
     /**
      * 为被增强类添加必要参数：
      * <pre>
-     *     1.用于存放拦截器的集合
+     *     1.用于存放拦截器的数组，按方法下标存放每个被增强方法的拦截器，在类初始化时通过{@link #getInterceptorArr}赋值
      *     2.用于存放额外静态属性的集合
      *     3.用于存放额外成员属性的集合
      * </pre>
      *
-     * @param builder        构建器
-     * @param interceptorMap 拦截器集合
+     * @param builder  构建器
+     * @param typeDesc 类定义
      * @return 构建器
      */
-    private DynamicType.Builder<?> defineEssentialFields(DynamicType.Builder<?> builder,
-            Map<String, List<Interceptor>> interceptorMap) {
-        return builder.defineField("_INTERCEPTOR_MAP_$SERMANT", Map.class, Visibility.PRIVATE, Ownership.STATIC)
-                .initializer(new LoadedTypeInitializer.ForStaticField("_INTERCEPTOR_MAP_$SERMANT", interceptorMap))
+    private DynamicType.Builder<?> defineEssentialFields(DynamicType.Builder<?> builder, TypeDescription typeDesc) {
+        final FieldDescription interceptorArrField = new FieldDescription.Latent(typeDesc, INTERCEPTOR_ARR_FIELD_NAME,
+                Visibility.PRIVATE.getMask() | Ownership.STATIC.getMask(),
+                TypeDescription.Generic.OfNonGenericType.ForLoadedType.of(Interceptor[][].class),
+                Collections.emptyList());
+        return builder.defineField(INTERCEPTOR_ARR_FIELD_NAME, Interceptor[][].class, Visibility.PRIVATE,
+                        Ownership.STATIC)
+                .initializer(new ByteCodeAppender.Simple(ClassConstant.of(typeDesc),
+                        MethodInvocation.invoke(GET_INTERCEPTOR_ARR_METHOD),
+                        FieldAccess.forField(interceptorArrField).write()))
                 .defineField("_EXT_STATIC_FIELDS_$SERMANT", Map.class, Visibility.PRIVATE, Ownership.STATIC)
                 .defineField("_EXT_MEMBER_FIELDS_$SERMANT", Map.class, Visibility.PRIVATE, Ownership.MEMBER);
     }
 
     /**
-     * 对单个方法进行增强
+     * 对单个方法进行增强，advice中的{@link InterceptorIndex}参数将被绑定为该方法的拦截器下标常量
+     * <p>同一方法被多次增强时，仅首次织入advice，之后的拦截器以拷贝的方式追加到拦截器数组中
      *
      * @param builder        构建器
      * @param methodDesc     方法定义
      * @param classLoader    加载被增强类的类加载器
-     * @param interceptorMap 拦截器集合
+     * @param interceptorArr 拦截器数组
+     * @param index          拦截器下标
      * @return 构建器
      */
     private DynamicType.Builder<?> enhanceMethod(DynamicType.Builder<?> builder,
-            MethodDescription.InDefinedShape methodDesc, ClassLoader classLoader,
-            Map<String, List<Interceptor>> interceptorMap) {
+            MethodDescription.InDefinedShape methodDesc, ClassLoader classLoader, Interceptor[][] interceptorArr,
+            int index) {
         final List<Interceptor> declaredInterceptors = getInterceptors(methodDesc, classLoader);
         if (declaredInterceptors.isEmpty()) {
             return builder;
         }
-        final String methodKey = MethodKeyCreator.getMethodDescKey(methodDesc);
-        final List<Interceptor> interceptors = interceptorMap.get(methodKey);
+        final Interceptor[] interceptors = interceptorArr[index];
         DynamicType.Builder<?> newBuilder = builder;
         if (interceptors == null) {
+            final Advice.WithCustomMapping mapping = Advice.withCustomMapping().bind(InterceptorIndex.class, index);
             if (methodDesc.isStatic()) {
-                newBuilder = newBuilder.visit(Advice.to(AdviceStaticTemplate.class).on(ElementMatchers.is(methodDesc)));
+                newBuilder = newBuilder.visit(mapping.to(AdviceStaticTemplate.class)
+                        .on(ElementMatchers.is(methodDesc)));
             } else if (methodDesc.isConstructor()) {
-                newBuilder = newBuilder.visit(Advice.to(AdviceConstTemplate.class).on(ElementMatchers.is(methodDesc)));
+                newBuilder = newBuilder.visit(mapping.to(AdviceConstTemplate.class)
+                        .on(ElementMatchers.is(methodDesc)));
             } else {
-                newBuilder = newBuilder.visit(Advice.to(AdviceMemberTemplate.class).on(ElementMatchers.is(methodDesc)));
+                newBuilder = newBuilder.visit(mapping.to(AdviceMemberTemplate.class)
+                        .on(ElementMatchers.is(methodDesc)));
             }
-            interceptorMap.put(methodKey, declaredInterceptors);
+            interceptorArr[index] = declaredInterceptors.toArray(new Interceptor[0]);
         } else {
-            interceptors.addAll(declaredInterceptors);
+            final Interceptor[] newInterceptors = Arrays.copyOf(interceptors,
+                    interceptors.length + declaredInterceptors.size());
+            for (int i = 0; i < declaredInterceptors.size(); i++) {
+                newInterceptors[interceptors.length + i] = declaredInterceptors.get(i);
+            }
+            interceptorArr[index] = newInterceptors;
         }
         return newBuilder;
     }
@@ -224,4 +271,13 @@ public class AdviceTransformer implements AgentBuilder.Transformer {
         }
         return interceptors;
     }
+
+    private static MethodDescription getInterceptorArrMethod() {
+        try {
+            return new MethodDescription.ForLoadedMethod(
+                    AdviceTransformer.class.getMethod("getInterceptorArr", Class.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.huaweicloud.sermant.core.plugin.classloader;
 
+import com.huaweicloud.sermant.core.classloader.LocalClassCache;
 import com.huaweicloud.sermant.core.common.BootArgsIndexer;
 import com.huaweicloud.sermant.core.common.CommonConstant;
 import com.huaweicloud.sermant.core.config.ConfigManager;
@@ -25,8 +26,6 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -37,6 +36,10 @@ import java.util.Set;
  * @since 2021-11-12
  */
 public class PluginClassLoader extends URLClassLoader {
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
     /**
      * 不优先使用PluginClassLoader加载的全限定名前缀
      */
@@ -45,7 +48,7 @@ public class PluginClassLoader extends URLClassLoader {
     /**
      * 对ClassLoader内部已加载的Class的管理
      */
-    private final Map<String, Class<?>> pluginClassMap = new HashMap<>();
+    private final LocalClassCache pluginClassCache;
 
     /**
      * Constructor.
@@ -55,6 +58,7 @@ public class PluginClassLoader extends URLClassLoader {
      */
     public PluginClassLoader(URL[] urls, ClassLoader parent) {
         super(urls, parent);
+        pluginClassCache = new LocalClassCache(urls);
     }
 
     /**
@@ -64,14 +68,7 @@ public class PluginClassLoader extends URLClassLoader {
      * @return Class对象
      */
     private Class<?> loadPluginClass(String name) {
-        if (!pluginClassMap.containsKey(name)) {
-            try {
-                pluginClassMap.put(name, findClass(name));
-            } catch (ClassNotFoundException ignored) {
-                pluginClassMap.put(name, null);
-            }
-        }
-        return pluginClassMap.get(name);
+        return pluginClassCache.findLocalClass(name, this::findClass);
     }
 
     private boolean ifExclude(String name) {
@@ -90,6 +87,13 @@ public class PluginClassLoader extends URLClassLoader {
 
     @Override
     public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        final Class<?> loadedClass = pluginClassCache.getLoadedClass(name);
+        if (loadedClass != null) {
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
         synchronized (getClassLoadingLock(name)) {
             Class<?> clazz = null;
             if (!ifExclude(name)) {
@@ -100,7 +104,7 @@ public class PluginClassLoader extends URLClassLoader {
 
                 // 通过PluginClassLoader的super.loadClass方法把从自身加载的类放入缓存
                 if (clazz != null && clazz.getClassLoader() == this) {
-                    pluginClassMap.put(name, clazz);
+                    pluginClassCache.putLoadedClass(name, clazz);
                 }
             }
             if (resolve) {
@@ -136,5 +140,6 @@ public class PluginClassLoader extends URLClassLoader {
     @Override
     public void addURL(URL url) {
         super.addURL(url);
+        pluginClassCache.addUrl(url);
     }
 }
@@ -46,6 +46,11 @@ public class PluginConstant {
      */
     public static final String CONFIG_FILE_NAME = "config.yaml";
 
+    /**
+     * 插件jar包索引文件名，位于插件包根目录
+     */
+    public static final String PLUGIN_INDEX_FILE_NAME = ".plugin-index.properties";
+
     /**
      * sermant插件名称配置键，于manifest中获取
      */
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.common;
+
+import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.utils.JarFileUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+
+/**
+ * 插件jar包索引，以jar包的路径、大小和修改时间为键，持久化jar包manifest中的插件名称和版本，重启时未变化的jar包无需再次打开读取
+ * <p>索引文件读写失败时仅打印日志，不影响插件加载
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-10
+ */
+public class PluginJarIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger();
+
+    private static final String SEPARATOR = ",";
+
+    private static final int FIELD_NUM = 4;
+
+    private final File indexFile;
+
+    private final Map<String, JarSchema> schemas = new ConcurrentHashMap<>();
+
+    private volatile boolean isChanged = false;
+
+    private PluginJarIndex(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * 读取索引文件，文件不存在或读取失败时返回空索引
+     *
+     * @param indexFile 索引文件
+     * @return 插件jar包索引
+     */
+    public static PluginJarIndex load(File indexFile) {
+        final PluginJarIndex index = new PluginJarIndex(indexFile);
+        if (!indexFile.isFile()) {
+            return index;
+        }
+        final Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(indexFile)) {
+            properties.load(inputStream);
+        } catch (IOException ignored) {
+            LOGGER.warning(String.format(Locale.ROOT, "Read plugin index %s failed. ", indexFile.getPath()));
+            return index;
+        }
+        for (String path : properties.stringPropertyNames()) {
+            final JarSchema schema = JarSchema.parse(properties.getProperty(path));
+            if (schema != null) {
+                index.schemas.put(path, schema);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 获取jar包的插件元信息，jar包未变化时直接使用索引中的结果，否则读取jar包的manifest并更新索引，可被并发调用
+     *
+     * @param jar jar包文件
+     * @return jar包的插件元信息
+     * @throws IOException 读取manifest失败
+     */
+    public JarSchema getSchema(File jar) throws IOException {
+        final String path = jar.getCanonicalPath();
+        final long size = jar.length();
+        final long lastModified = jar.lastModified();
+        final JarSchema cachedSchema = schemas.get(path);
+        if (cachedSchema != null && cachedSchema.size == size && cachedSchema.lastModified == lastModified) {
+            return cachedSchema;
+        }
+        final JarSchema schema;
+        try (JarFile jarFile = new JarFile(jar)) {
+            schema = new JarSchema(size, lastModified,
+                    toString(JarFileUtils.getManifestAttr(jarFile, PluginConstant.PLUGIN_NAME_KEY)),
+                    toString(JarFileUtils.getManifestAttr(jarFile, PluginConstant.PLUGIN_VERSION_KEY)));
+        }
+        schemas.put(path, schema);
+        isChanged = true;
+        return schema;
+    }
+
+    /**
+     * 索引有变化时写入索引文件
+     */
+    public void store() {
+        if (!isChanged) {
+            return;
+        }
+        final Properties properties = new Properties();
+        for (Map.Entry<String, JarSchema> entry : schemas.entrySet()) {
+            if (new File(entry.getKey()).isFile()) {
+                properties.setProperty(entry.getKey(), entry.getValue().format());
+            }
+        }
+        try (OutputStream outputStream = new FileOutputStream(indexFile)) {
+            properties.store(outputStream, "Sermant plugin jar index, generated automatically.");
+            isChanged = false;
+        } catch (IOException ignored) {
+            LOGGER.warning(String.format(Locale.ROOT, "Write plugin index %s failed. ", indexFile.getPath()));
+        }
+    }
+
+    private static String toString(Object attr) {
+        return attr == null ? null : attr.toString();
+    }
+
+    /**
+     * jar包的插件元信息
+     *
+     * @since 2023-08-10
+     */
+    public static class JarSchema {
+        private final long size;
+
+        private final long lastModified;
+
+        private final String pluginName;
+
+        private final String pluginVersion;
+
+        JarSchema(long size, long lastModified, String pluginName, String pluginVersion) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.pluginName = pluginName;
+            this.pluginVersion = pluginVersion;
+        }
+
+        /**
+         * 获取manifest中的插件名称
+         *
+         * @return 插件名称，不存在时返回null
+         */
+        public String getPluginName() {
+            return pluginName;
+        }
+
+        /**
+         * 获取manifest中的插件版本
+         *
+         * @return 插件版本，不存在时返回null
+         */
+        public String getPluginVersion() {
+            return pluginVersion;
+        }
+
+        private String format() {
+            return size + SEPARATOR + lastModified + SEPARATOR + (pluginName == null ? "" : pluginName) + SEPARATOR
+                    + (pluginVersion == null ? "" : pluginVersion);
+        }
+
+        private static JarSchema parse(String value) {
+            final String[] fields = value.split(SEPARATOR, FIELD_NUM);
+            if (fields.length != FIELD_NUM) {
+                return null;
+            }
+            try {
+                return new JarSchema(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        fields[2].isEmpty() ? null : fields[2], fields[3].isEmpty() ? null : fields[3]);
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+    }
+}
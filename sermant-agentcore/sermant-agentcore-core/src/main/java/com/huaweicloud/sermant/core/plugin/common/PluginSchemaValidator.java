@@ -71,15 +71,27 @@ public class PluginSchemaValidator {
      */
     public static boolean checkSchema(String name, JarFile jarFile) throws IOException {
         final Object nameAttr = JarFileUtils.getManifestAttr(jarFile, PluginConstant.PLUGIN_NAME_KEY);
+        final Object versionAttr = JarFileUtils.getManifestAttr(jarFile, PluginConstant.PLUGIN_VERSION_KEY);
+        return checkSchema(name, nameAttr == null ? null : nameAttr.toString(),
+                versionAttr == null ? null : versionAttr.toString());
+    }
+
+    /**
+     * 检查名称和版本
+     *
+     * @param name        插件名称
+     * @param nameAttr    manifest中的插件名称
+     * @param versionAttr manifest中的插件版本
+     * @return 为真时经过名称和版本校验，为插件包或插件服务包，为假时表示第三方jar包
+     */
+    public static boolean checkSchema(String name, String nameAttr, String versionAttr) {
         if (nameAttr == null) {
             return false;
         }
-        if (!nameAttr.toString().equals(name)) {
-            throw new SchemaException(SchemaException.UNEXPECTED_NAME, nameAttr.toString(), name);
+        if (!nameAttr.equals(name)) {
+            throw new SchemaException(SchemaException.UNEXPECTED_NAME, nameAttr, name);
         }
-        final Object versionAttr = JarFileUtils.getManifestAttr(jarFile, PluginConstant.PLUGIN_VERSION_KEY);
-        final String givingVersion =
-                versionAttr == null ? PluginConstant.PLUGIN_DEFAULT_VERSION : versionAttr.toString();
+        final String givingVersion = versionAttr == null ? PluginConstant.PLUGIN_DEFAULT_VERSION : versionAttr;
         final String expectingVersion = PLUGIN_VERSION_MAP.get(name);
         if (expectingVersion == null) {
             PLUGIN_VERSION_MAP.put(name, givingVersion);
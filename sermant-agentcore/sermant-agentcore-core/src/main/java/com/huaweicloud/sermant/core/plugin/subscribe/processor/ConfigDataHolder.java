@@ -40,6 +40,14 @@ public class ConfigDataHolder implements Comparable<ConfigDataHolder> {
      */
     private final Map<String, Map<String, Object>> holder = new HashMap<>();
 
+    /**
+     * 当前该group的所有数据持有，值为已展开全键名的数据
+     * <p>
+     * key: 配置键 value: 该配置键展开后的所有值
+     * </p>
+     */
+    private final Map<String, Map<String, Object>> flattenedHolder = new HashMap<>();
+
     private final String group;
 
     /**
@@ -65,4 +73,8 @@ public class ConfigDataHolder implements Comparable<ConfigDataHolder> {
     public Map<String, Map<String, Object>> getHolder() {
         return holder;
     }
+
+    public Map<String, Map<String, Object>> getFlattenedHolder() {
+        return flattenedHolder;
+    }
 }
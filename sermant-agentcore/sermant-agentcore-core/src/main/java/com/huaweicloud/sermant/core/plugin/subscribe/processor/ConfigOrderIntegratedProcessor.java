@@ -34,6 +34,8 @@ import java.util.Optional;
 
 /**
  * 多个标签场景, 根据指定优先级集中处理, 基于优先级覆盖配置顺序
+ * <p>维护展开全键名后按优先级分层的索引, 每次事件仅更新该配置键涉及的全键名, 不再每次重新展开全部配置;
+ * yaml解析在锁外进行, 索引更新与事件分发在同一把锁内, 监听器按索引更新的顺序收到事件及当时全量数据的副本
  *
  * @author zhouss
  * @since 2022-04-22
@@ -50,9 +52,19 @@ public class ConfigOrderIntegratedProcessor implements ConfigProcessor {
     private final DynamicConfigListener originListener;
 
     /**
-     * 配置持有
+     * 全键名索引, key: 全键名 value: 各优先级下各配置键的值
      */
-    private List<ConfigDataHolder> dataHolders;
+    private final Map<String, KeyLayers> keyIndex = new HashMap<>();
+
+    /**
+     * 按优先级覆盖后的全量数据
+     */
+    private final Map<String, Object> orderData = new HashMap<>();
+
+    /**
+     * 配置持有, 按优先级由低到高排列, 修改时整体替换
+     */
+    private volatile List<ConfigDataHolder> dataHolders;
 
     private final YamlConverter yamlConverter = OperationManager.getOperation(YamlConverter.class);
 
@@ -72,88 +84,231 @@ public class ConfigOrderIntegratedProcessor implements ConfigProcessor {
      */
     @Override
     public final void addHolder(ConfigDataHolder dataHolder) {
-        if (this.dataHolders == null) {
-            this.dataHolders = new ArrayList<>(CAP_SIZE);
+        synchronized (this) {
+            final List<ConfigDataHolder> holders =
+                this.dataHolders == null ? new ArrayList<>(CAP_SIZE) : new ArrayList<>(this.dataHolders);
+            holders.add(dataHolder);
+            Collections.sort(holders);
+            this.dataHolders = holders;
+            rebuildIndex();
         }
-        this.dataHolders.add(dataHolder);
-        Collections.sort(dataHolders);
     }
 
     @Override
     public final void process(String rawGroup, DynamicConfigEvent event) {
         final Optional<ConfigDataHolder> targetHolder = findTargetHolder(rawGroup);
+        final Optional<Map<String, Object>> rawData = targetHolder.isPresent() ? parseEvent(event) : Optional.empty();
         synchronized (this) {
-            originListener.process(targetHolder.map(dataHolder -> rebuildEvent(dataHolder, event)).orElse(event));
+            originListener.process(rawData.isPresent() ? rebuildEvent(targetHolder.get(), event, rawData.get())
+                : event);
+        }
+    }
+
+    /**
+     * 解析事件内容
+     *
+     * @param originEvent 原始事件
+     * @return 解析后的数据, 解析失败时返回空
+     */
+    private Optional<Map<String, Object>> parseEvent(DynamicConfigEvent originEvent) {
+        final Map<String, Object> rawData = new HashMap<>(CAP_SIZE);
+        if (originEvent.getEventType() != DynamicConfigEventType.DELETE) {
+            Optional<Object> convert = yamlConverter.convert(originEvent.getContent(), Object.class);
+            if (!convert.isPresent()) {
+                return Optional.empty();
+            }
+            Object obj = convert.get();
+            if (obj instanceof Map) {
+                rawData.putAll((Map<String, Object>) obj);
+            } else {
+                rawData.put(originEvent.getKey(), obj);
+            }
         }
+        return Optional.of(rawData);
     }
 
     /**
-     * 重构事件
+     * 重构事件, 需持有锁
      *
      * @param targetHolder 目标数据持有器
      * @param originEvent 原始事件
+     * @param rawData 解析后的数据
      * @return DynamicConfigEvent
      */
-    private DynamicConfigEvent rebuildEvent(ConfigDataHolder targetHolder, DynamicConfigEvent originEvent) {
-        if (updateHolder(targetHolder, originEvent)) {
-            return new OrderConfigEvent(originEvent.getKey(), originEvent.getGroup(),
-                yamlConverter.dump(buildOrderData(originEvent)), originEvent.getEventType(), buildOrderData());
-        }
-        return originEvent;
+    private DynamicConfigEvent rebuildEvent(ConfigDataHolder targetHolder, DynamicConfigEvent originEvent,
+        Map<String, Object> rawData) {
+        final Map<String, Object> flattenedData = new HashMap<>(rawData.size());
+        MapUtils.resolveNestMap(flattenedData, rawData, null);
+        updateHolder(targetHolder, originEvent.getKey(), rawData, flattenedData);
+        return new OrderConfigEvent(originEvent.getKey(), originEvent.getGroup(),
+            yamlConverter.dump(buildOrderData(originEvent.getKey())), originEvent.getEventType(),
+            new HashMap<>(orderData));
     }
 
     /**
-     * 构建按照优先级覆盖的数据
+     * 构建该配置键按照优先级覆盖的数据
      *
+     * @param key 配置键
      * @return orderData
      */
-    private Map<String, Object> buildOrderData() {
+    private Map<String, Object> buildOrderData(String key) {
         final Map<String, Object> result = new HashMap<>(CAP_SIZE);
         for (ConfigDataHolder dataHolder : dataHolders) {
-            for (Map<String, Object> data : dataHolder.getHolder().values()) {
-                // 为避免多个层次配置相互覆盖, 此处直接将全键名解析出来
-                final HashMap<String, Object> resolveData = new HashMap<>(data.size());
-                MapUtils.resolveNestMap(resolveData, data, null);
-                result.putAll(resolveData);
+            final Map<String, Object> curContent = dataHolder.getFlattenedHolder().get(key);
+            if (curContent != null) {
+                result.putAll(curContent);
             }
         }
         return result;
     }
 
-    private Map<String, Object> buildOrderData(DynamicConfigEvent originEvent) {
-        final Map<String, Object> result = new HashMap<>(CAP_SIZE);
-        dataHolders.forEach(dataHolder -> {
-            final Map<String, Object> curContent = dataHolder.getHolder().get(originEvent.getKey());
-            if (curContent != null) {
-                final HashMap<String, Object> resolveData = new HashMap<>(curContent.size());
-                MapUtils.resolveNestMap(resolveData, curContent, null);
-                result.putAll(resolveData);
+    /**
+     * 更新数据持有器, 并仅更新该配置键新旧数据涉及的全键名
+     *
+     * @param targetHolder 目标数据持有器
+     * @param key 配置键
+     * @param rawData 原始数据
+     * @param flattenedData 展开全键名后的数据
+     */
+    private void updateHolder(ConfigDataHolder targetHolder, String key, Map<String, Object> rawData,
+        Map<String, Object> flattenedData) {
+        targetHolder.getHolder().put(key, rawData);
+        final Map<String, Object> oldData = targetHolder.getFlattenedHolder().put(key, flattenedData);
+        final int rank = dataHolders.indexOf(targetHolder);
+        if (oldData != null) {
+            for (String fullKey : oldData.keySet()) {
+                if (!flattenedData.containsKey(fullKey)) {
+                    removeFromIndex(fullKey, rank, key);
+                }
             }
-        });
-        return result;
+        }
+        for (Map.Entry<String, Object> entry : flattenedData.entrySet()) {
+            keyIndex.computeIfAbsent(entry.getKey(), fullKey -> new KeyLayers()).put(rank, key, entry.getValue());
+            refreshOrderData(entry.getKey());
+        }
     }
 
-    private boolean updateHolder(ConfigDataHolder targetHolder, DynamicConfigEvent originEvent) {
-        final Map<String, Object> olderDataMap =
-            targetHolder.getHolder().getOrDefault(originEvent.getKey(), new HashMap<>(CAP_SIZE));
-        olderDataMap.clear();
-        if (originEvent.getEventType() != DynamicConfigEventType.DELETE) {
-            Optional<Object> convert = yamlConverter.convert(originEvent.getContent(), Object.class);
-            if (!convert.isPresent()) {
-                return false;
-            }
-            Object obj = convert.get();
-            if (obj instanceof Map) {
-                olderDataMap.putAll((Map<String, Object>) obj);
-            } else {
-                olderDataMap.put(originEvent.getKey(), obj);
+    private void removeFromIndex(String fullKey, int rank, String key) {
+        final KeyLayers layers = keyIndex.get(fullKey);
+        if (layers == null) {
+            return;
+        }
+        layers.remove(rank, key);
+        if (layers.isEmpty()) {
+            keyIndex.remove(fullKey);
+        }
+        refreshOrderData(fullKey);
+    }
+
+    private void refreshOrderData(String fullKey) {
+        final KeyLayers layers = keyIndex.get(fullKey);
+        if (layers == null) {
+            orderData.remove(fullKey);
+        } else {
+            orderData.put(fullKey, layers.getEffectiveValue(dataHolders));
+        }
+    }
+
+    /**
+     * 优先级变化时全量重建索引
+     */
+    private void rebuildIndex() {
+        keyIndex.clear();
+        orderData.clear();
+        for (int rank = 0; rank < dataHolders.size(); rank++) {
+            for (Map.Entry<String, Map<String, Object>> entry
+                : dataHolders.get(rank).getFlattenedHolder().entrySet()) {
+                for (Map.Entry<String, Object> data : entry.getValue().entrySet()) {
+                    keyIndex.computeIfAbsent(data.getKey(), fullKey -> new KeyLayers())
+                        .put(rank, entry.getKey(), data.getValue());
+                }
             }
         }
-        targetHolder.getHolder().put(originEvent.getKey(), olderDataMap);
-        return true;
+        for (Map.Entry<String, KeyLayers> entry : keyIndex.entrySet()) {
+            orderData.put(entry.getKey(), entry.getValue().getEffectiveValue(dataHolders));
+        }
     }
 
     private Optional<ConfigDataHolder> findTargetHolder(String group) {
-        return dataHolders.stream().filter(dataHolder -> StringUtils.equals(dataHolder.getGroup(), group)).findAny();
+        final List<ConfigDataHolder> holders = dataHolders;
+        if (holders == null) {
+            return Optional.empty();
+        }
+        for (ConfigDataHolder dataHolder : holders) {
+            if (StringUtils.equals(dataHolder.getGroup(), group)) {
+                return Optional.of(dataHolder);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 单个全键名在各优先级下的值, 同一优先级中可能有多个配置键配置了同一全键名
+     *
+     * @since 2023-08-23
+     */
+    private static class KeyLayers {
+        /**
+         * 下标为优先级, 值为该优先级中各配置键的值
+         */
+        private final List<Map<String, Object>> layers = new ArrayList<>(CAP_SIZE);
+
+        void put(int rank, String key, Object value) {
+            while (layers.size() <= rank) {
+                layers.add(null);
+            }
+            Map<String, Object> layer = layers.get(rank);
+            if (layer == null) {
+                layer = new HashMap<>(CAP_SIZE);
+                layers.set(rank, layer);
+            }
+            layer.put(key, value);
+        }
+
+        void remove(int rank, String key) {
+            if (rank >= layers.size() || layers.get(rank) == null) {
+                return;
+            }
+            final Map<String, Object> layer = layers.get(rank);
+            layer.remove(key);
+            if (layer.isEmpty()) {
+                layers.set(rank, null);
+            }
+        }
+
+        boolean isEmpty() {
+            for (Map<String, Object> layer : layers) {
+                if (layer != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 获取优先级最高的值, 同一优先级中多个配置键配置了该全键名时, 与逐个覆盖配置键一致, 取数据持有器中最后一个配置键的值
+         *
+         * @param holders 数据持有器, 下标与优先级一致
+         * @return 生效的值
+         */
+        Object getEffectiveValue(List<ConfigDataHolder> holders) {
+            for (int rank = layers.size() - 1; rank >= 0; rank--) {
+                final Map<String, Object> layer = layers.get(rank);
+                if (layer == null) {
+                    continue;
+                }
+                if (layer.size() == 1) {
+                    return layer.values().iterator().next();
+                }
+                String lastKey = null;
+                for (String key : holders.get(rank).getHolder().keySet()) {
+                    if (layer.containsKey(key)) {
+                        lastKey = key;
+                    }
+                }
+                return layer.get(lastKey);
+            }
+            return null;
+        }
     }
 }
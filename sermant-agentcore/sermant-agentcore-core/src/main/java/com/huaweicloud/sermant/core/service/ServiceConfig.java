@@ -46,6 +46,9 @@ public class ServiceConfig implements BaseConfig {
     @ConfigFieldKey("dynamic.config.enable")
     private boolean dynamicConfigEnable = false;
 
+    @ConfigFieldKey("interceptor.metric.enable")
+    private boolean interceptorMetricEnable = false;
+
     public boolean isHeartBeatEnable() {
         return heartBeatEnable;
     }
@@ -94,6 +97,14 @@ public class ServiceConfig implements BaseConfig {
         this.dynamicConfigEnable = dynamicConfigEnable;
     }
 
+    public boolean isInterceptorMetricEnable() {
+        return interceptorMetricEnable;
+    }
+
+    public void setInterceptorMetricEnable(boolean interceptorMetricEnable) {
+        this.interceptorMetricEnable = interceptorMetricEnable;
+    }
+
     /**
      * 通过服务的类名来检查该类型服务是否开启
      *
@@ -119,6 +130,9 @@ public class ServiceConfig implements BaseConfig {
         if (ServiceManager.INJECT_SERVICE_IMPL.equals(serviceName)) {
             return isInjectEnable();
         }
+        if (ServiceManager.INTERCEPTOR_METRIC_SERVICE_IMPL.equals(serviceName)) {
+            return isInterceptorMetricEnable();
+        }
         return false;
     }
 }
@@ -84,6 +84,12 @@ public class ServiceManager {
     public static final String VISIBILITY_SERVICE_IMPL = "com.huaweicloud.sermant.implement.service.visibility"
             + ".VisibilityServiceImpl";
 
+    /**
+     * 拦截器运行指标服务类名
+     */
+    public static final String INTERCEPTOR_METRIC_SERVICE_IMPL = "com.huaweicloud.sermant.implement.service.metric"
+            + ".InterceptorMetricServiceImpl";
+
     /**
      * 日志
      */
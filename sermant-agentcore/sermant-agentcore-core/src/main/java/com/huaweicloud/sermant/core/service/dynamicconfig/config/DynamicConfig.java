@@ -80,6 +80,16 @@ public class DynamicConfig implements BaseConfig {
 
     private boolean enableAuth = false;
 
+    /**
+     * 是否开启本地配置快照，开启后启动时优先使用快照中的配置，连接配置中心后在后台校准
+     */
+    private boolean isSnapshotEnable = false;
+
+    /**
+     * 本地配置快照目录，为空时使用agent所在目录
+     */
+    private String snapshotPath;
+
     public int getTimeoutValue() {
         return timeoutValue;
     }
@@ -159,4 +169,20 @@ public class DynamicConfig implements BaseConfig {
     public void setEnableAuth(boolean enableAuth) {
         this.enableAuth = enableAuth;
     }
+
+    public boolean isSnapshotEnable() {
+        return isSnapshotEnable;
+    }
+
+    public void setSnapshotEnable(boolean snapshotEnable) {
+        isSnapshotEnable = snapshotEnable;
+    }
+
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public void setSnapshotPath(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
 }
@@ -33,7 +33,20 @@ public class KieDynamicConfig implements BaseConfig {
      */
     private String project = "default";
 
+    /**
+     * 是否合并订阅，开启后所有标签组共用一个长轮询请求，按标签在本地分发
+     */
+    private boolean isMergedSubscribeEnable = false;
+
     public String getProject() {
         return project;
     }
+
+    public boolean isMergedSubscribeEnable() {
+        return isMergedSubscribeEnable;
+    }
+
+    public void setMergedSubscribeEnable(boolean mergedSubscribeEnable) {
+        isMergedSubscribeEnable = mergedSubscribeEnable;
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.metric.api;
+
+import com.huaweicloud.sermant.core.service.BaseService;
+import com.huaweicloud.sermant.core.service.metric.common.InterceptorMetric;
+
+import java.util.Collection;
+
+/**
+ * 拦截器运行指标服务，提供各被增强方法上各拦截器的调用次数、耗时及异常次数
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-08
+ */
+public interface InterceptorMetricService extends BaseService {
+    /**
+     * 获取当前所有的拦截器运行指标
+     *
+     * @return 拦截器运行指标集
+     */
+    Collection<InterceptorMetric> getMetrics();
+
+    /**
+     * 重置所有的拦截器运行指标
+     */
+    void reset();
+
+    /**
+     * 立即通过事件上报自上次上报以来有调用的拦截器运行指标增量
+     */
+    void report();
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.metric.common;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个被增强方法上单个拦截器的运行指标，计数器均为无锁的分段计数器，耗时以纳秒计
+ * <p>耗时分布使用以2为底的对数分桶记录，分位数取所在分桶的上界，为近似值
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-08
+ */
+public class InterceptorMetric {
+    /**
+     * 耗时分桶数量，最后一个分桶记录所有超过2^(BUCKET_NUM-2)纳秒的耗时
+     */
+    private static final int BUCKET_NUM = 40;
+
+    private static final int BITS_OF_LONG = 64;
+
+    private final String methodKey;
+
+    private final String interceptorName;
+
+    private final LongAdder invokeCount = new LongAdder();
+
+    private final LongAdder exceptionCount = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_NUM];
+
+    /**
+     * 构造函数
+     *
+     * @param methodKey       被增强方法的方法键
+     * @param interceptorName 拦截器类名
+     */
+    public InterceptorMetric(String methodKey, String interceptorName) {
+        this.methodKey = methodKey;
+        this.interceptorName = interceptorName;
+        for (int i = 0; i < BUCKET_NUM; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次拦截器方法的调用，before、onThrow和after各记录一次
+     *
+     * @param nanos   调用耗时
+     * @param isError 拦截器方法是否抛出异常
+     */
+    public void record(long nanos, boolean isError) {
+        final long cost = Math.max(nanos, 0L);
+        invokeCount.increment();
+        totalNanos.add(cost);
+        maxNanos.accumulate(cost);
+        buckets[Math.min(BITS_OF_LONG - Long.numberOfLeadingZeros(cost), BUCKET_NUM - 1)].increment();
+        if (isError) {
+            exceptionCount.increment();
+        }
+    }
+
+    /**
+     * 获取耗时的近似分位数
+     *
+     * @param percentile 分位，取值范围为(0, 1]
+     * @return 耗时分位数，无调用记录时返回0
+     */
+    public long getPercentileNanos(double percentile) {
+        final long[] counts = new long[BUCKET_NUM];
+        long total = 0L;
+        for (int i = 0; i < BUCKET_NUM; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        final long threshold = (long) Math.ceil(total * Math.min(Math.max(percentile, 0d), 1d));
+        long accumulated = 0L;
+        for (int i = 0; i < BUCKET_NUM - 1; i++) {
+            accumulated += counts[i];
+            if (accumulated >= threshold) {
+                return i == 0 ? 0L : Math.min(1L << i, getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * 重置所有计数器
+     */
+    public void reset() {
+        invokeCount.reset();
+        exceptionCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    public String getMethodKey() {
+        return methodKey;
+    }
+
+    public String getInterceptorName() {
+        return interceptorName;
+    }
+
+    public long getInvokeCount() {
+        return invokeCount.sum();
+    }
+
+    public long getExceptionCount() {
+        return exceptionCount.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "InterceptorMetric{"
+                + "methodKey='" + methodKey + '\''
+                + ", interceptorName='" + interceptorName + '\''
+                + ", invokeCount=" + getInvokeCount()
+                + ", exceptionCount=" + getExceptionCount()
+                + ", totalNanos=" + getTotalNanos()
+                + ", maxNanos=" + getMaxNanos()
+                + ", p50Nanos=" + getPercentileNanos(0.5d)
+                + ", p99Nanos=" + getPercentileNanos(0.99d)
+                + '}';
+    }
+}
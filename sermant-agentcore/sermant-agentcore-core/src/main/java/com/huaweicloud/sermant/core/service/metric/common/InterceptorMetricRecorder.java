@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.metric.common;
+
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContext;
+import com.huaweicloud.sermant.core.plugin.agent.interceptor.Interceptor;
+import com.huaweicloud.sermant.core.plugin.agent.template.MethodKeyCreator;
+import com.huaweicloud.sermant.core.service.ServiceConfig;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 拦截器运行指标记录器，开启{@link ServiceConfig#isInterceptorMetricEnable()}后，由CommonBaseAdviser在调用拦截器的
+ * before、onThrow和after方法时记录调用次数、耗时及异常次数
+ * <p>开关在类初始化时确定，关闭时调用方仅多出一次常量判断
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-08
+ */
+public class InterceptorMetricRecorder {
+    /**
+     * 是否记录拦截器运行指标
+     */
+    public static final boolean IS_ENABLE = isInterceptorMetricEnable();
+
+    /**
+     * 指标集，键为被增强的方法或构造函数，值为该方法上各拦截器类的指标
+     */
+    private static final Map<Member, Map<Class<?>, InterceptorMetric>> METRICS = new ConcurrentHashMap<>();
+
+    private InterceptorMetricRecorder() {
+    }
+
+    /**
+     * 调用拦截器的before方法并记录指标
+     *
+     * @param interceptor 拦截器
+     * @param context     执行上下文
+     * @return before方法的返回值
+     * @throws Exception  before方法抛出的异常
+     */
+    public static ExecuteContext before(Interceptor interceptor, ExecuteContext context) throws Exception {
+        final long startTime = System.nanoTime();
+        boolean isError = true;
+        try {
+            final ExecuteContext result = interceptor.before(context);
+            isError = false;
+            return result;
+        } finally {
+            getMetric(context, interceptor).record(System.nanoTime() - startTime, isError);
+        }
+    }
+
+    /**
+     * 调用拦截器的onThrow方法并记录指标
+     *
+     * @param interceptor 拦截器
+     * @param context     执行上下文
+     * @return onThrow方法的返回值
+     * @throws Exception  onThrow方法抛出的异常
+     */
+    public static ExecuteContext onThrow(Interceptor interceptor, ExecuteContext context) throws Exception {
+        final long startTime = System.nanoTime();
+        boolean isError = true;
+        try {
+            final ExecuteContext result = interceptor.onThrow(context);
+            isError = false;
+            return result;
+        } finally {
+            getMetric(context, interceptor).record(System.nanoTime() - startTime, isError);
+        }
+    }
+
+    /**
+     * 调用拦截器的after方法并记录指标
+     *
+     * @param interceptor 拦截器
+     * @param context     执行上下文
+     * @return after方法的返回值
+     * @throws Exception  after方法抛出的异常
+     */
+    public static ExecuteContext after(Interceptor interceptor, ExecuteContext context) throws Exception {
+        final long startTime = System.nanoTime();
+        boolean isError = true;
+        try {
+            final ExecuteContext result = interceptor.after(context);
+            isError = false;
+            return result;
+        } finally {
+            getMetric(context, interceptor).record(System.nanoTime() - startTime, isError);
+        }
+    }
+
+    /**
+     * 获取当前所有的拦截器运行指标
+     *
+     * @return 拦截器运行指标集
+     */
+    public static Collection<InterceptorMetric> getMetrics() {
+        final List<InterceptorMetric> result = new ArrayList<>();
+        for (Map<Class<?>, InterceptorMetric> metrics : METRICS.values()) {
+            result.addAll(metrics.values());
+        }
+        return result;
+    }
+
+    /**
+     * 重置所有的拦截器运行指标
+     */
+    public static void reset() {
+        for (InterceptorMetric metric : getMetrics()) {
+            metric.reset();
+        }
+    }
+
+    /**
+     * 获取被增强方法上拦截器类对应的指标，先尝试无锁读取，不存在时再创建
+     *
+     * @param context     执行上下文
+     * @param interceptor 拦截器
+     * @return 拦截器运行指标
+     */
+    private static InterceptorMetric getMetric(ExecuteContext context, Interceptor interceptor) {
+        final Member member = context.getMethod() != null ? context.getMethod() : context.getConstructor();
+        Map<Class<?>, InterceptorMetric> metrics = METRICS.get(member);
+        if (metrics == null) {
+            metrics = METRICS.computeIfAbsent(member, key -> new ConcurrentHashMap<>());
+        }
+        final Class<?> interceptorCls = interceptor.getClass();
+        final InterceptorMetric metric = metrics.get(interceptorCls);
+        if (metric != null) {
+            return metric;
+        }
+        return metrics.computeIfAbsent(interceptorCls,
+                key -> new InterceptorMetric(getMemberKey(member), key.getName()));
+    }
+
+    private static String getMemberKey(Member member) {
+        if (member instanceof Method) {
+            return MethodKeyCreator.getMethodKey((Method) member);
+        }
+        return MethodKeyCreator.getConstKey((Constructor<?>) member);
+    }
+
+    private static boolean isInterceptorMetricEnable() {
+        final ServiceConfig serviceConfig = ConfigManager.getConfig(ServiceConfig.class);
+        return serviceConfig != null && serviceConfig.isInterceptorMetricEnable();
+    }
+}
@@ -41,6 +41,8 @@ public class GatewayConfig implements BaseConfig {
 
     private static final int DEFAULT_SEND_INTERNAL_TIME = 10;
 
+    private static final int DEFAULT_SEND_QUEUE_CAPACITY = 100;
+
     /**
      * netty服务端的地址
      */
@@ -56,6 +58,16 @@ public class GatewayConfig implements BaseConfig {
      */
     private int sendInternalTime = DEFAULT_SEND_INTERNAL_TIME;
 
+    /**
+     * netty非即时消息的缓存队列容量，队列已满时新消息被丢弃
+     */
+    private int sendQueueCapacity = DEFAULT_SEND_QUEUE_CAPACITY;
+
+    /**
+     * 是否将一次发送的所有非即时消息整体压缩，关闭时逐条压缩，需要服务端支持
+     */
+    private boolean isBatchCompressEnable = false;
+
     /**
      * netty连接后断开的初始重连时间，单位：秒
      */
@@ -128,4 +140,20 @@ public class GatewayConfig implements BaseConfig {
     public void setMaxReconnectInternalTime(int maxReconnectInternalTime) {
         this.maxReconnectInternalTime = maxReconnectInternalTime;
     }
+
+    public int getSendQueueCapacity() {
+        return sendQueueCapacity;
+    }
+
+    public void setSendQueueCapacity(int sendQueueCapacity) {
+        this.sendQueueCapacity = sendQueueCapacity;
+    }
+
+    public boolean isBatchCompressEnable() {
+        return isBatchCompressEnable;
+    }
+
+    public void setBatchCompressEnable(boolean batchCompressEnable) {
+        isBatchCompressEnable = batchCompressEnable;
+    }
 }
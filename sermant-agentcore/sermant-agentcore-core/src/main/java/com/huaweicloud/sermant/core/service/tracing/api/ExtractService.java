@@ -17,6 +17,7 @@
 package com.huaweicloud.sermant.core.service.tracing.api;
 
 import com.huaweicloud.sermant.core.service.tracing.common.TracingRequest;
+import com.huaweicloud.sermant.core.utils.TracingUtils;
 
 /**
  * 将Span上下文提取出载体的函数式接口
@@ -29,7 +30,8 @@ import com.huaweicloud.sermant.core.service.tracing.common.TracingRequest;
 public interface ExtractService<T> {
     /**
      * 跨进程链路追踪，需要将SpanContext从协议载体中取出，
-     * TRACE_ID->TraceId、PARENT_SPAN_ID->ParentSpanId、SPAN_ID_PREFIX->SpanIdPrefix为必选项
+     * TRACE_ID->TraceId、PARENT_SPAN_ID->ParentSpanId、SPAN_ID_PREFIX->SpanIdPrefix为必选项，
+     * SAMPLED->Sampled为可选项，通过{@link TracingUtils#parseSampledValue}解析，用于沿用上游的采样决策
      *
      * @param tracingRequest SpanStart生命周期所需构建数据
      * @param carrier 协议载体
@@ -17,6 +17,7 @@
 package com.huaweicloud.sermant.core.service.tracing.api;
 
 import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
+import com.huaweicloud.sermant.core.utils.TracingUtils;
 
 /**
  * 将Span上下文注入载体的函数式接口
@@ -29,7 +30,8 @@ import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
 public interface InjectService<T> {
     /**
      * 跨进程链路追踪，需要将SpanContext内容放入协议载体，
-     * TraceId->TRACE_ID、ParentSpanId->PARENT_SPAN_ID、NextSpanIdPrefix->SPAN_ID_PREFIX为必选项
+     * TraceId->TRACE_ID、ParentSpanId->PARENT_SPAN_ID、NextSpanIdPrefix->SPAN_ID_PREFIX为必选项，
+     * Sampled->SAMPLED通过{@link TracingUtils#toSampledValue}转换后放入，使下游沿用当前链路的采样决策
      *
      * @param spanEvent span信息
      * @param carrier SpanContext携带载体
@@ -16,8 +16,11 @@
 
 package com.huaweicloud.sermant.core.service.tracing.common;
 
+import com.huaweicloud.sermant.core.utils.StringUtils;
+
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Span实体数据
@@ -26,10 +29,17 @@ import java.util.Map;
  * @since 2022-02-28
  */
 public class SpanEvent {
+    private static final char SPAN_ID_SEPARATOR = '-';
+
     private String traceId;
 
     private String spanId;
 
+    /**
+     * 当前Span在所属进程同一前缀下的序号，spanId由spanIdPrefix和该序号在首次获取时拼接，小于0表示直接使用spanId
+     */
+    private transient int spanIndex = -1;
+
     private String parentSpanId;
 
     private transient String spanIdPrefix;
@@ -59,6 +69,16 @@ public class SpanEvent {
 
     private long endTime;
 
+    /**
+     * 开始时的单调时钟，单位：纳秒
+     */
+    private transient long startNanos;
+
+    /**
+     * 基于单调时钟计算的耗时，单位：微秒
+     */
+    private long duration;
+
     private boolean isError;
 
     private String errorInfo;
@@ -78,7 +98,15 @@ public class SpanEvent {
      */
     private TargetInfo targetInfo;
 
-    private Map<String, String> tags = new LinkedHashMap<>();
+    /**
+     * 标签，首次添加时创建
+     */
+    private Map<String, String> tags;
+
+    /**
+     * 当前链路是否被采样，未采样的Span仅用于向下游传递链路信息，不会被发送
+     */
+    private transient boolean isSampled = true;
 
     /**
      * 无参构造方法
@@ -94,8 +122,8 @@ public class SpanEvent {
     public SpanEvent(SpanEvent spanEvent) {
         this.parentSpan = spanEvent;
         this.traceId = spanEvent.getTraceId();
-        this.parentSpanId = spanEvent.getSpanId();
         this.spanIdPrefix = spanEvent.getSpanIdPrefix();
+        this.isSampled = spanEvent.isSampled();
     }
 
     /**
@@ -108,7 +136,24 @@ public class SpanEvent {
         if (key == null || value == null) {
             return;
         }
-        this.tags.put(key, value);
+        getTags().put(key, value);
+    }
+
+    /**
+     * 记录开始时间，墙上时间由单调时钟换算，避免毫秒级时钟的精度问题
+     */
+    public void markStart() {
+        this.startNanos = System.nanoTime();
+        this.startTime = TracingClock.toEpochMillis(startNanos);
+    }
+
+    /**
+     * 记录结束时间和耗时
+     */
+    public void markEnd() {
+        final long endNanos = System.nanoTime();
+        this.endTime = TracingClock.toEpochMillis(endNanos);
+        this.duration = TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos);
     }
 
     public String getTraceId() {
@@ -119,15 +164,47 @@ public class SpanEvent {
         this.traceId = traceId;
     }
 
+    /**
+     * 获取SpanId，通过序号生成的SpanId在首次获取时拼接
+     *
+     * @return SpanId
+     */
     public String getSpanId() {
+        if (spanId == null && spanIndex >= 0) {
+            spanId = StringUtils.isBlank(spanIdPrefix) ? String.valueOf(spanIndex)
+                : spanIdPrefix + SPAN_ID_SEPARATOR + spanIndex;
+        }
         return spanId;
     }
 
     public void setSpanId(String spanId) {
         this.spanId = spanId;
+        this.spanIndex = -1;
     }
 
+    public int getSpanIndex() {
+        return spanIndex;
+    }
+
+    /**
+     * 设置当前Span的序号，SpanId延迟到首次获取时生成
+     *
+     * @param spanIndex 序号
+     */
+    public void setSpanIndex(int spanIndex) {
+        this.spanIndex = spanIndex;
+        this.spanId = null;
+    }
+
+    /**
+     * 获取父SpanId，子Span的父SpanId在首次获取时从父Span取得
+     *
+     * @return 父SpanId
+     */
     public String getParentSpanId() {
+        if (parentSpanId == null && parentSpan != null) {
+            parentSpanId = parentSpan.getSpanId();
+        }
         return parentSpanId;
     }
 
@@ -247,11 +324,44 @@ public class SpanEvent {
         this.targetInfo = targetInfo;
     }
 
+    /**
+     * 获取标签
+     *
+     * @return 标签
+     */
     public Map<String, String> getTags() {
+        if (tags == null) {
+            tags = new LinkedHashMap<>();
+        }
         return tags;
     }
 
+    /**
+     * 是否存在标签，不会创建标签集合
+     *
+     * @return 是否存在标签
+     */
+    public boolean hasTags() {
+        return tags != null && !tags.isEmpty();
+    }
+
     public void setTags(Map<String, String> tags) {
         this.tags = tags;
     }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public boolean isSampled() {
+        return isSampled;
+    }
+
+    public void setSampled(boolean sampled) {
+        isSampled = sampled;
+    }
 }
@@ -43,15 +43,15 @@ public class SpanEventContext {
     private AtomicInteger nextSpanIdCount = new AtomicInteger(0);
 
     /**
-     * 通过TracingRequest创建SpanEventContext
+     * 通过TracingRequest创建SpanEventContext，SpanId延迟到首次获取时生成
      *
      * @param tracingRequest 传递Span信息
      */
     public SpanEventContext(TracingRequest tracingRequest) {
         checkAndSetTraceId(tracingRequest.getTraceId());
-        checkAndSetSpanId(tracingRequest.getSpanIdPrefix());
-        this.spanEvent.setParentSpanId(tracingRequest.getParentSpanId());
         this.spanEvent.setSpanIdPrefix(tracingRequest.getSpanIdPrefix());
+        this.spanEvent.setSpanIndex(this.spanIdCount.getAndIncrement());
+        this.spanEvent.setParentSpanId(tracingRequest.getParentSpanId());
         this.spanEvent.setClassName(tracingRequest.getClassName());
         this.spanEvent.setMethod(tracingRequest.getMethod());
         this.spanEvent.setSourceInfo(tracingRequest.getSourceInfo());
@@ -66,26 +66,12 @@ public class SpanEventContext {
         }
     }
 
-    private void checkAndSetSpanId(String spanIdPrefix) {
-        // 校验SpanId前缀是否为空，如果没有前缀则代表当前深度为第一层需要不需要添加前缀
-        if (StringUtils.isBlank(spanIdPrefix)) {
-            this.spanEvent.setSpanId(String.valueOf(this.spanIdCount.getAndIncrement()));
-        } else {
-            this.spanEvent.setSpanId(spanIdPrefix + SPAN_ID_SEPARATOR + this.spanIdCount.getAndIncrement());
-        }
-    }
-
     /**
-     * 当触发非onEntry事件时添加的span均为子span
+     * 当触发非onEntry事件时添加的span均为子span，SpanId延迟到首次获取时生成
      */
     public void addChildrenSpan() {
         this.spanEvent = new SpanEvent(this.spanEvent);
-        if (StringUtils.isBlank(this.spanEvent.getSpanIdPrefix())) {
-            this.spanEvent.setSpanId(String.valueOf(this.spanIdCount.getAndIncrement()));
-            return;
-        }
-        this.spanEvent
-            .setSpanId(this.spanEvent.getSpanIdPrefix() + SPAN_ID_SEPARATOR + this.spanIdCount.getAndIncrement());
+        this.spanEvent.setSpanIndex(this.spanIdCount.getAndIncrement());
     }
 
     /**
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.tracing.common;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 链路追踪时钟，以启动时的墙上时间为锚点，通过{@link System#nanoTime()}换算墙上时间
+ * <p>同一进程内的时间戳单调递增且精度不受{@link System#currentTimeMillis()}的粒度限制，但不会跟随系统时间的调整
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-21
+ */
+public class TracingClock {
+    private static final long ANCHOR_MILLIS = System.currentTimeMillis();
+
+    private static final long ANCHOR_NANOS = System.nanoTime();
+
+    private TracingClock() {
+    }
+
+    /**
+     * 将单调时钟换算为墙上时间
+     *
+     * @param nanoTime {@link System#nanoTime()}的返回值
+     * @return 墙上时间，单位：毫秒
+     */
+    public static long toEpochMillis(long nanoTime) {
+        return ANCHOR_MILLIS + TimeUnit.NANOSECONDS.toMillis(nanoTime - ANCHOR_NANOS);
+    }
+}
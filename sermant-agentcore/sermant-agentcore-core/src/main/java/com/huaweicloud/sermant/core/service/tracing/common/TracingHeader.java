@@ -34,7 +34,11 @@ public enum TracingHeader {
     /**
      * 标识下一进程的SpanId生成前缀
      */
-    SPAN_ID_PREFIX("sermant-span-id-prefix");
+    SPAN_ID_PREFIX("sermant-span-id-prefix"),
+    /**
+     * 标识上游的采样决策，取值为"1"或"0"，不存在时由当前进程决定
+     */
+    SAMPLED("sermant-sampled");
 
     private final String value;
 
@@ -43,6 +43,11 @@ public class TracingRequest {
 
     private TargetInfo targetInfo;
 
+    /**
+     * 上游传递的采样决策，为null时由当前进程决定
+     */
+    private Boolean sampled;
+
     /**
      * 构造函数
      *
@@ -126,4 +131,12 @@ public class TracingRequest {
     public void setTargetInfo(TargetInfo targetInfo) {
         this.targetInfo = targetInfo;
     }
+
+    public Boolean getSampled() {
+        return sampled;
+    }
+
+    public void setSampled(Boolean sampled) {
+        this.sampled = sampled;
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.tracing.config;
+
+/**
+ * 头部采样策略
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-20
+ */
+public enum SamplingType {
+    /**
+     * 全部采样
+     */
+    ALWAYS,
+
+    /**
+     * 按概率采样
+     */
+    PROBABILISTIC,
+
+    /**
+     * 按每秒最大链路数量采样
+     */
+    RATE_LIMITING
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.tracing.config;
+
+import com.huaweicloud.sermant.core.config.common.BaseConfig;
+import com.huaweicloud.sermant.core.config.common.ConfigTypeKey;
+
+/**
+ * 链路追踪配置
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-19
+ */
+@ConfigTypeKey("tracing")
+public class TracingConfig implements BaseConfig {
+    private static final int DEFAULT_QUEUE_CAPACITY = 512;
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final long DEFAULT_BATCH_TIMEOUT = 1000L;
+
+    private static final int DEFAULT_SAMPLING_LIMIT = 100;
+
+    private static final long DEFAULT_TAIL_SLOW_THRESHOLD = 1000L;
+
+    private static final int DEFAULT_TAIL_BUFFER_SIZE = 1024;
+
+    /**
+     * 待发送span队列的容量，队列满时丢弃新的span
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * 一次发送的最大span数量
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * 未攒满一批时的最长等待时间，单位：毫秒
+     */
+    private long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+
+    /**
+     * 头部采样策略，在链路入口决定是否采样，并通过协议载体传递给下游
+     */
+    private SamplingType samplingType = SamplingType.ALWAYS;
+
+    /**
+     * 采样概率，samplingType为PROBABILISTIC时生效，取值范围[0, 1]
+     */
+    private double samplingRate = 1.0d;
+
+    /**
+     * 每秒最多采样的链路数量，samplingType为RATE_LIMITING时生效
+     */
+    private int samplingLimit = DEFAULT_SAMPLING_LIMIT;
+
+    /**
+     * 是否开启尾部采样，开启后仅发送包含错误或耗时超过阈值的链路
+     */
+    private boolean isTailSamplingEnable = false;
+
+    /**
+     * 尾部采样的慢链路阈值，单位：毫秒
+     */
+    private long tailSlowThreshold = DEFAULT_TAIL_SLOW_THRESHOLD;
+
+    /**
+     * 尾部采样缓存的最大链路数量，超出时丢弃最早的链路
+     */
+    private int tailBufferSize = DEFAULT_TAIL_BUFFER_SIZE;
+
+    /**
+     * 动态配置中采样规则的key，采样规则为yaml格式，可动态修改头部采样和尾部采样配置
+     */
+    private String samplingConfigKey = "sermant.tracing.sampling";
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public SamplingType getSamplingType() {
+        return samplingType;
+    }
+
+    public void setSamplingType(SamplingType samplingType) {
+        this.samplingType = samplingType;
+    }
+
+    public double getSamplingRate() {
+        return samplingRate;
+    }
+
+    public void setSamplingRate(double samplingRate) {
+        this.samplingRate = samplingRate;
+    }
+
+    public int getSamplingLimit() {
+        return samplingLimit;
+    }
+
+    public void setSamplingLimit(int samplingLimit) {
+        this.samplingLimit = samplingLimit;
+    }
+
+    public boolean isTailSamplingEnable() {
+        return isTailSamplingEnable;
+    }
+
+    public void setTailSamplingEnable(boolean tailSamplingEnable) {
+        isTailSamplingEnable = tailSamplingEnable;
+    }
+
+    public long getTailSlowThreshold() {
+        return tailSlowThreshold;
+    }
+
+    public void setTailSlowThreshold(long tailSlowThreshold) {
+        this.tailSlowThreshold = tailSlowThreshold;
+    }
+
+    public int getTailBufferSize() {
+        return tailBufferSize;
+    }
+
+    public void setTailBufferSize(int tailBufferSize) {
+        this.tailBufferSize = tailBufferSize;
+    }
+
+    public String getSamplingConfigKey() {
+        return samplingConfigKey;
+    }
+
+    public void setSamplingConfigKey(String samplingConfigKey) {
+        this.samplingConfigKey = samplingConfigKey;
+    }
+}
@@ -17,6 +17,7 @@
 package com.huaweicloud.sermant.core.utils;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 链路追踪工具类
@@ -25,15 +26,57 @@ import java.util.UUID;
  * @since 2022-03-02
  */
 public class TracingUtils {
+    private static final long VERSION_MASK = 0xFFFFFFFFFFFF0FFFL;
+
+    private static final long VERSION_4 = 0x0000000000004000L;
+
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private static final long VARIANT_IETF = 0x8000000000000000L;
+
+    private static final String SAMPLED = "1";
+
+    private static final String NOT_SAMPLED = "0";
+
     private TracingUtils() {
     }
 
     /**
-     * 生成TraceId
+     * 生成TraceId，格式与{@link UUID#randomUUID()}一致
+     * <p>TraceId不需要密码学安全的随机数，使用{@link ThreadLocalRandom}避免SecureRandom的锁竞争
      *
      * @return TraceId
      */
     public static String generateTraceId() {
-        return UUID.randomUUID().toString();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long mostSigBits = random.nextLong() & VERSION_MASK | VERSION_4;
+        final long leastSigBits = random.nextLong() & VARIANT_MASK | VARIANT_IETF;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    /**
+     * 将采样决策转为{@link com.huaweicloud.sermant.core.service.tracing.common.TracingHeader#SAMPLED}的取值
+     *
+     * @param isSampled 是否采样
+     * @return "1"或"0"
+     */
+    public static String toSampledValue(boolean isSampled) {
+        return isSampled ? SAMPLED : NOT_SAMPLED;
+    }
+
+    /**
+     * 解析{@link com.huaweicloud.sermant.core.service.tracing.common.TracingHeader#SAMPLED}的取值
+     *
+     * @param value 载体中的取值
+     * @return 采样决策，取值不存在或无法识别时返回null，由当前进程决定
+     */
+    public static Boolean parseSampledValue(String value) {
+        if (SAMPLED.equals(value)) {
+            return Boolean.TRUE;
+        }
+        if (NOT_SAMPLED.equals(value)) {
+            return Boolean.FALSE;
+        }
+        return null;
     }
 }
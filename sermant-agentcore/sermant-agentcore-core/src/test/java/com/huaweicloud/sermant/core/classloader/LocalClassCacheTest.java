@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.classloader;
+
+import com.huaweicloud.sermant.core.utils.FileUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * 类加载器缓存测试
+ *
+ * @author HapThorin
+ * @since 2023-08-14
+ */
+public class LocalClassCacheTest {
+    private final AtomicInteger findCount = new AtomicInteger();
+
+    private File tempDir;
+
+    private File jar;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("local-class-cache").toFile();
+        jar = new File(tempDir, "test.jar");
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jar))) {
+            outputStream.putNextEntry(new ZipEntry("com/example/Found.class"));
+            outputStream.closeEntry();
+            outputStream.putNextEntry(new ZipEntry("META-INF/versions/9/com/example/versioned/Found.class"));
+            outputStream.closeEntry();
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FileUtils.deleteDirs(tempDir);
+    }
+
+    @Test
+    public void testPackageIndex() throws Exception {
+        final LocalClassCache cache = new LocalClassCache(new URL[]{jar.toURI().toURL()});
+        Assertions.assertNull(cache.findLocalClass("org.other.Missing", this::find));
+        Assertions.assertEquals(0, findCount.get());
+        Assertions.assertNull(cache.findLocalClass("Missing", this::find));
+        Assertions.assertEquals(0, findCount.get());
+        Assertions.assertSame(String.class, cache.findLocalClass("com.example.Found", this::find));
+        Assertions.assertSame(String.class, cache.findLocalClass("com.example.versioned.Found", this::find));
+        Assertions.assertEquals(2, findCount.get());
+        Assertions.assertSame(String.class, cache.findLocalClass("com.example.Found", this::find));
+        Assertions.assertSame(String.class, cache.getLoadedClass("com.example.Found"));
+        Assertions.assertEquals(2, findCount.get());
+    }
+
+    @Test
+    public void testMissingClass() throws Exception {
+        final LocalClassCache cache = new LocalClassCache(new URL[]{jar.toURI().toURL()});
+        Assertions.assertNull(cache.findLocalClass("com.example.Missing", this::find));
+        Assertions.assertNull(cache.findLocalClass("com.example.Missing", this::find));
+        Assertions.assertEquals(1, findCount.get());
+
+        // 新增url后，找不到的类需要重新查找
+        cache.addUrl(jar.toURI().toURL());
+        Assertions.assertNull(cache.findLocalClass("com.example.Missing", this::find));
+        Assertions.assertEquals(2, findCount.get());
+    }
+
+    @Test
+    public void testDirectoryUrl() throws Exception {
+        final LocalClassCache cache = new LocalClassCache(new URL[]{tempDir.toURI().toURL()});
+        Assertions.assertNull(cache.findLocalClass("org.other.Missing", this::find));
+        Assertions.assertEquals(1, findCount.get());
+    }
+
+    private Class<?> find(String name) throws ClassNotFoundException {
+        findCount.incrementAndGet();
+        if (name.endsWith("Found")) {
+            return String.class;
+        }
+        throw new ClassNotFoundException(name);
+    }
+}
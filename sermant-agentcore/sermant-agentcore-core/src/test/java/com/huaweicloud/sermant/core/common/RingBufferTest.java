@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 环形缓冲区测试
+ *
+ * @author HapThorin
+ * @since 2023-08-16
+ */
+public class RingBufferTest {
+    private static final int PRODUCER_NUM = 4;
+
+    private static final int ELEMENT_NUM_PER_PRODUCER = 10000;
+
+    @Test
+    public void testOfferAndPoll() {
+        final RingBuffer<Long> buffer = new RingBuffer<>(3);
+        Assertions.assertEquals(4, buffer.capacity());
+        for (long i = 0; i < buffer.capacity(); i++) {
+            Assertions.assertTrue(buffer.offer(i));
+        }
+        Assertions.assertFalse(buffer.offer(-1L));
+        Assertions.assertEquals(4, buffer.size());
+        Assertions.assertEquals(0L, buffer.poll());
+        Assertions.assertTrue(buffer.offer(4L));
+        final List<Long> drained = new ArrayList<>();
+        Assertions.assertEquals(4, buffer.drainTo(drained));
+        Assertions.assertEquals(Arrays.asList(1L, 2L, 3L, 4L), drained);
+        Assertions.assertNull(buffer.poll());
+        Assertions.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testDrainToWithLimit() {
+        final RingBuffer<Long> buffer = new RingBuffer<>(4);
+        for (long i = 0; i < buffer.capacity(); i++) {
+            Assertions.assertTrue(buffer.offer(i));
+        }
+        final List<Long> drained = new ArrayList<>();
+        Assertions.assertEquals(0, buffer.drainTo(drained, 0));
+        Assertions.assertEquals(3, buffer.drainTo(drained, 3));
+        Assertions.assertEquals(Arrays.asList(0L, 1L, 2L), drained);
+        Assertions.assertEquals(1, buffer.size());
+        Assertions.assertEquals(1, buffer.drainTo(drained, 3));
+        Assertions.assertEquals(Arrays.asList(0L, 1L, 2L, 3L), drained);
+        Assertions.assertEquals(0, buffer.drainTo(drained, 3));
+    }
+
+    @Test
+    @Timeout(30)
+    public void testConcurrentOffer() throws InterruptedException {
+        final RingBuffer<Long> buffer = new RingBuffer<>(256);
+        final ExecutorService executor = Executors.newFixedThreadPool(PRODUCER_NUM);
+        final CountDownLatch latch = new CountDownLatch(PRODUCER_NUM);
+        for (int producer = 0; producer < PRODUCER_NUM; producer++) {
+            final long base = (long) producer * ELEMENT_NUM_PER_PRODUCER;
+            executor.execute(() -> {
+                for (int i = 0; i < ELEMENT_NUM_PER_PRODUCER; i++) {
+                    final long element = base + i;
+                    while (!buffer.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        final Set<Long> received = new HashSet<>();
+        while (received.size() < PRODUCER_NUM * ELEMENT_NUM_PER_PRODUCER) {
+            final Long element = buffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            Assertions.assertTrue(received.add(element));
+        }
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assertions.assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.event;
+
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.config.common.BaseConfig;
+import com.huaweicloud.sermant.core.config.common.ConfigTypeKey;
+import com.huaweicloud.sermant.core.event.config.EventConfig;
+import com.huaweicloud.sermant.core.utils.ReflectUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 事件采集器测试
+ *
+ * @author HapThorin
+ * @since 2023-08-16
+ */
+public class EventCollectorTest {
+    private static final String SCOPE = "test";
+
+    private final EventConfig eventConfig = new EventConfig();
+
+    private MockedStatic<EventManager> eventManagerMockedStatic;
+
+    @BeforeEach
+    public void setUp() {
+        eventConfig.setEnable(true);
+        eventConfig.setQueueCapacity(2);
+        eventConfig.setBatchSize(2);
+        Optional<?> optional = ReflectUtils.getStaticFieldValue(ConfigManager.class, "CONFIG_MAP");
+        Assertions.assertTrue(optional.isPresent());
+        Map<String, BaseConfig> configMap = (Map<String, BaseConfig>) optional.get();
+        configMap.put(EventConfig.class.getAnnotation(ConfigTypeKey.class).value(), eventConfig);
+        eventManagerMockedStatic = Mockito.mockStatic(EventManager.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventManagerMockedStatic.close();
+    }
+
+    /**
+     * 重复事件被聚合，强制采集时上报未过期窗口内的重复次数
+     */
+    @Test
+    public void testAggregation() {
+        final EventCollector collector = new EventCollector();
+        final Event firstEvent = buildEvent("repeat");
+        Assertions.assertTrue(collector.offerEvent(firstEvent));
+        Assertions.assertTrue(collector.offerEvent(buildEvent("repeat")));
+        Assertions.assertTrue(collector.offerEvent(buildEvent("repeat")));
+        Assertions.assertEquals(2L, collector.getCoalescedCount());
+
+        // 聚合窗口尚未过期，仅采集首个事件
+        final List<Event> events = new ArrayList<>();
+        Assertions.assertEquals(1, collector.collect(events));
+        Assertions.assertSame(firstEvent, events.get(0));
+
+        // 强制采集结束聚合窗口，以一个计数事件上报重复次数
+        events.clear();
+        Assertions.assertEquals(1, collector.collect(events, true));
+        Assertions.assertEquals(2, events.get(0).getCount());
+        Assertions.assertEquals("repeat", events.get(0).getEventInfo().getName());
+        Assertions.assertEquals(SCOPE, events.get(0).getScope());
+
+        events.clear();
+        Assertions.assertEquals(0, collector.collect(events, true));
+    }
+
+    /**
+     * 聚合窗口过期后，再次出现的事件开启新窗口并作为普通事件缓存
+     */
+    @Test
+    public void testAggregationExpired() {
+        eventConfig.setOfferInterval(-1L);
+        final EventCollector collector = new EventCollector();
+        final Event firstEvent = buildEvent("repeat");
+        final Event secondEvent = buildEvent("repeat");
+        Assertions.assertTrue(collector.offerEvent(firstEvent));
+        Assertions.assertTrue(collector.offerEvent(secondEvent));
+
+        // 窗口内没有重复事件，过期时不产生计数事件
+        final List<Event> events = new ArrayList<>();
+        Assertions.assertEquals(2, collector.collect(events));
+        Assertions.assertSame(firstEvent, events.get(0));
+        Assertions.assertSame(secondEvent, events.get(1));
+        Assertions.assertEquals(0L, collector.getCoalescedCount());
+    }
+
+    /**
+     * 缓冲区已满时丢弃最新事件
+     */
+    @Test
+    public void testDropNewest() {
+        final EventCollector collector = new EventCollector();
+        Assertions.assertTrue(collector.offerEvent(buildEvent("first")));
+        Assertions.assertTrue(collector.offerEvent(buildEvent("second")));
+        Assertions.assertFalse(collector.offerEvent(buildEvent("third")));
+        Assertions.assertEquals(1L, collector.getAndResetDroppedCount());
+        Assertions.assertEquals(0L, collector.getAndResetDroppedCount());
+        final List<Event> events = new ArrayList<>();
+        collector.collect(events);
+        Assertions.assertEquals("first", events.get(0).getEventInfo().getName());
+        Assertions.assertEquals("second", events.get(1).getEventInfo().getName());
+    }
+
+    /**
+     * 缓冲区已满时丢弃最旧事件
+     */
+    @Test
+    public void testDropOldest() {
+        eventConfig.setDropPolicy(EventConfig.DropPolicy.DROP_OLDEST);
+        final EventCollector collector = new EventCollector();
+        Assertions.assertTrue(collector.offerEvent(buildEvent("first")));
+        Assertions.assertTrue(collector.offerEvent(buildEvent("second")));
+        Assertions.assertTrue(collector.offerEvent(buildEvent("third")));
+        Assertions.assertEquals(1L, collector.getAndResetDroppedCount());
+        final List<Event> events = new ArrayList<>();
+        collector.collect(events);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals("second", events.get(0).getEventInfo().getName());
+        Assertions.assertEquals("third", events.get(1).getEventInfo().getName());
+    }
+
+    /**
+     * 缓冲区积攒到批量大小或已满时请求提前发送
+     */
+    @Test
+    public void testRequestFlush() {
+        final EventCollector collector = new EventCollector();
+        Assertions.assertTrue(collector.offerEvent(buildEvent("first")));
+        eventManagerMockedStatic.verify(EventManager::requestFlush, Mockito.never());
+        Assertions.assertTrue(collector.offerEvent(buildEvent("second")));
+        eventManagerMockedStatic.verify(EventManager::requestFlush, Mockito.times(1));
+        Assertions.assertFalse(collector.offerEvent(buildEvent("third")));
+        eventManagerMockedStatic.verify(EventManager::requestFlush, Mockito.times(2));
+    }
+
+    /**
+     * 事件开关关闭时不采集事件
+     */
+    @Test
+    public void testDisable() {
+        eventConfig.setEnable(false);
+        final EventCollector collector = new EventCollector();
+        Assertions.assertFalse(collector.offerEvent(buildEvent("first")));
+        Assertions.assertEquals(0, collector.collect(new ArrayList<>()));
+    }
+
+    private Event buildEvent(String name) {
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.getScope()).thenReturn(SCOPE);
+        Mockito.when(event.getEventLevel()).thenReturn(EventLevel.NORMAL);
+        Mockito.when(event.getEventType()).thenReturn(EventType.OPERATION);
+        Mockito.when(event.getEventInfo()).thenReturn(new EventInfo(name, name));
+        return event;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent;
+
+import com.huaweicloud.sermant.core.plugin.agent.declarer.PluginDescription;
+import com.huaweicloud.sermant.core.utils.FileUtils;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.utility.JavaModule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 增强结果缓存测试
+ *
+ * @author HapThorin
+ * @since 2023-08-12
+ */
+public class TransformCacheTest {
+    private static final String INTERNAL_NAME = Target.class.getName().replace('.', '/');
+
+    private final AtomicInteger transformCount = new AtomicInteger();
+
+    private final AtomicInteger generateCount = new AtomicInteger();
+
+    private File cacheDir;
+
+    private byte[] originBytes;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        cacheDir = Files.createTempDirectory("transform-cache").toFile();
+        originBytes = ClassFileLocator.ForClassLoader.read(Target.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FileUtils.deleteDirs(cacheDir);
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        final ClassLoader loader = getClass().getClassLoader();
+        final byte[] transformedBytes = createTransformer(Target.class.getName())
+                .transform(loader, INTERNAL_NAME, null, null, originBytes);
+        Assertions.assertNotNull(transformedBytes);
+        Assertions.assertEquals(1, transformCount.get());
+        Assertions.assertEquals(1, generateCount.get());
+
+        final byte[] cachedBytes = createTransformer(Target.class.getName())
+                .transform(loader, INTERNAL_NAME, null, null, originBytes);
+        Assertions.assertEquals(1, generateCount.get());
+        Assertions.assertEquals(2, transformCount.get());
+        Assertions.assertArrayEquals(transformedBytes, cachedBytes);
+    }
+
+    @Test
+    public void testPluginChanged() throws Exception {
+        final ClassLoader loader = getClass().getClassLoader();
+        Assertions.assertNotNull(createTransformer(Target.class.getName())
+                .transform(loader, INTERNAL_NAME, null, null, originBytes));
+        Assertions.assertNull(createTransformer("not.exists.Target")
+                .transform(loader, INTERNAL_NAME, null, null, originBytes));
+        Assertions.assertEquals(1, transformCount.get());
+    }
+
+    @Test
+    public void testBootstrapClass() throws Exception {
+        Assertions.assertNull(createTransformer(Target.class.getName())
+                .transform(null, INTERNAL_NAME, null, null, originBytes));
+        final String[] cacheFiles = cacheDir.list();
+        Assertions.assertNotNull(cacheFiles);
+        Assertions.assertEquals(0, cacheFiles.length);
+    }
+
+    private ResettableClassFileTransformer createTransformer(String targetName) {
+        final PluginDescription plugin = new PluginDescription() {
+            @Override
+            public boolean matches(TypeDescription typeDesc, ClassLoader classLoader, JavaModule module,
+                    Class<?> classBeingRedefined, ProtectionDomain protectionDomain) {
+                return classLoader != null && typeDesc.getName().equals(targetName);
+            }
+
+            @Override
+            public DynamicType.Builder<?> transform(DynamicType.Builder<?> builder, TypeDescription typeDesc,
+                    ClassLoader classLoader, JavaModule module) {
+                transformCount.incrementAndGet();
+                return builder.defineField("cached", int.class, Visibility.PRIVATE);
+            }
+        };
+        final TransformCache transformCache = new TransformCache(cacheDir, Collections.singletonList(plugin),
+                new AgentBuilder.RawMatcher.ForElementMatchers(ElementMatchers.none()));
+        return transformCache.decorate((ResettableClassFileTransformer) new AgentBuilder.Default()
+                .with(new AgentBuilder.Listener.Adapter() {
+                    @Override
+                    public void onTransformation(TypeDescription typeDescription, ClassLoader classLoader,
+                            JavaModule module, boolean loaded, DynamicType dynamicType) {
+                        generateCount.incrementAndGet();
+                    }
+                })
+                .with(transformCache.getListener())
+                .type(plugin)
+                .transform(plugin)
+                .makeRaw());
+    }
+
+    /**
+     * 被增强类
+     *
+     * @since 2023-08-12
+     */
+    public static class Target {
+        /**
+         * 测试方法
+         *
+         * @return 结果
+         */
+        public String hello() {
+            return "hello";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent.entity;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 执行上下文测试
+ *
+ * @author HapThorin
+ * @since 2023-08-03
+ */
+public class ExecuteContextTest {
+    private static final int FIELD_NUM = 10;
+
+    @Test
+    public void testLocalFields() throws NoSuchMethodException {
+        final ExecuteContext context = ExecuteContext.forStaticMethod(ExecuteContextTest.class,
+                ExecuteContextTest.class.getMethod("testLocalFields"), new Object[0], null);
+        for (int i = 0; i < FIELD_NUM; i++) {
+            context.setLocalFieldValue("field" + i, i);
+        }
+        context.setLocalFieldValue("field1", "one");
+        context.setLocalFieldValue("field8", "eight");
+        for (int i = 0; i < FIELD_NUM; i++) {
+            final Object expected = i == 1 ? "one" : (i == 8 ? "eight" : Integer.valueOf(i));
+            Assertions.assertEquals(expected, context.getLocalFieldValue("field" + i));
+        }
+        Assertions.assertNull(context.getLocalFieldValue("field" + FIELD_NUM));
+    }
+
+    @Test
+    public void testResetAndRecycle() throws NoSuchMethodException {
+        final ExecuteContext context = new ExecuteContext().reset(null, ExecuteContextTest.class, null,
+                ExecuteContextTest.class.getMethod("testResetAndRecycle"), new Object[]{"arg"}, null, null);
+        context.setLocalFieldValue("local", "value");
+        context.skip("result");
+        context.setEnteredInterceptorNum(1);
+        context.recycle();
+        Assertions.assertNull(context.getArguments());
+        Assertions.assertNull(context.getLocalFieldValue("local"));
+        Assertions.assertEquals("result", context.getResult());
+        context.reset(null, ExecuteContextTest.class, null, null, null, null, null);
+        Assertions.assertFalse(context.isSkip());
+        Assertions.assertNull(context.getResult());
+        Assertions.assertEquals(0, context.getEnteredInterceptorNum());
+    }
+}
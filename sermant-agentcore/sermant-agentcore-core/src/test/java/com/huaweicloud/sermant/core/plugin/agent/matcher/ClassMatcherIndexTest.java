@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent.matcher;
+
+import net.bytebuddy.description.type.TypeDescription;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * 类的匹配器索引测试
+ *
+ * @author HapThorin
+ * @since 2023-08-09
+ */
+public class ClassMatcherIndexTest {
+    private static final TypeDescription ARRAY_LIST = TypeDescription.ForLoadedType.of(ArrayList.class);
+
+    private static final TypeDescription HASH_MAP = TypeDescription.ForLoadedType.of(HashMap.class);
+
+    @Test
+    public void testMatch() {
+        final Map<String, ClassMatcher> matchers = new HashMap<>();
+        matchers.put("prefix", ClassMatcher.namePrefixedWith("java.util.Array"));
+        matchers.put("suffix", ClassMatcher.nameSuffixedWith("List"));
+        matchers.put("infix", ClassMatcher.nameInfixedWith("util.Hash"));
+        matchers.put("emptyInfix", ClassMatcher.nameInfixedWith(""));
+        matchers.put("regex", ClassMatcher.nameMatches(".*Map"));
+        matchers.put("superType", ClassMatcher.isExtendedFrom(AbstractList.class, RandomAccess.class));
+        matchers.put("prefixAndSuperType",
+                ClassMatcher.isExtendedFrom(Collection.class).and(ClassMatcher.namePrefixedWith("java.util.Hash")));
+        matchers.put("notSuffix", ClassMatcher.nameSuffixedWith("Map").not());
+        final List<String> names = Arrays.asList("prefix", "suffix", "infix", "emptyInfix", "regex", "superType",
+                "prefixAndSuperType", "notSuffix");
+        final ClassMatcherIndex<String> index = new ClassMatcherIndex<>(names, matchers::get);
+        final ClassLoader classLoader = ClassMatcherIndexTest.class.getClassLoader();
+        Assertions.assertEquals(Arrays.asList("prefix", "suffix", "emptyInfix", "superType", "notSuffix"),
+                index.match(ARRAY_LIST, classLoader));
+        Assertions.assertEquals(Arrays.asList("infix", "emptyInfix", "regex"), index.match(HASH_MAP, classLoader));
+        for (String name : names) {
+            Assertions.assertEquals(matchers.get(name).matches(HASH_MAP),
+                    index.match(HASH_MAP).contains(name));
+        }
+    }
+
+    @Test
+    public void testSuperTypeCache() {
+        final ClassLoader classLoader = ClassMatcherIndexTest.class.getClassLoader();
+        Assertions.assertTrue(SuperTypeCache.getSuperTypeNames(ARRAY_LIST, classLoader).containsAll(
+                Arrays.asList(ArrayList.class.getName(), AbstractList.class.getName(), List.class.getName(),
+                        Collection.class.getName(), Serializable.class.getName(), Object.class.getName())));
+        Assertions.assertSame(SuperTypeCache.getSuperTypeNames(ARRAY_LIST, classLoader),
+                SuperTypeCache.getSuperTypeNames(ARRAY_LIST, classLoader));
+        Assertions.assertEquals(SuperTypeCache.getSuperTypeNames(ARRAY_LIST, classLoader),
+                SuperTypeCache.resolveSuperTypeNames(ARRAY_LIST));
+        Assertions.assertFalse(ClassMatcher.isExtendedFrom(ArrayList.class).matches(ARRAY_LIST, classLoader));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.agent.transformer;
+
+import com.huaweicloud.sermant.core.plugin.agent.declarer.InterceptDeclarer;
+import com.huaweicloud.sermant.core.plugin.agent.declarer.SuperTypeDeclarer;
+import com.huaweicloud.sermant.core.plugin.agent.entity.ExecuteContext;
+import com.huaweicloud.sermant.core.plugin.agent.interceptor.AbstractInterceptor;
+import com.huaweicloud.sermant.core.plugin.agent.matcher.MethodMatcher;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 增强类转换器测试，校验按下标分发拦截器的增强结果
+ *
+ * @author HapThorin
+ * @since 2023-08-01
+ */
+public class AdviceTransformerTest {
+    private static final List<String> RECORDS = new ArrayList<>();
+
+    @Test
+    public void testEnhance() throws Exception {
+        final Class<?> enhancedCls = enhance(
+                InterceptDeclarer.build(MethodMatcher.nameEquals("hello"), new RecordInterceptor("first", false)),
+                InterceptDeclarer.build(MethodMatcher.nameEquals("hello"), new RecordInterceptor("second", false)),
+                InterceptDeclarer.build(MethodMatcher.nameEquals("world"), new RecordInterceptor("static", false)));
+        final Object target = enhancedCls.newInstance();
+        RECORDS.clear();
+        Assertions.assertEquals("hello", enhancedCls.getMethod("hello").invoke(target));
+        Assertions.assertArrayEquals(new String[]{"before-first", "before-second", "after-second", "after-first"},
+                RECORDS.toArray(new String[0]));
+        RECORDS.clear();
+        Assertions.assertEquals("world", enhancedCls.getMethod("world").invoke(null));
+        Assertions.assertArrayEquals(new String[]{"before-static", "after-static"}, RECORDS.toArray(new String[0]));
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        final Class<?> enhancedCls = enhance(
+                InterceptDeclarer.build(MethodMatcher.nameEquals("hello"), new RecordInterceptor("first", false)),
+                InterceptDeclarer.build(MethodMatcher.nameEquals("hello"), new RecordInterceptor("skip", true)),
+                InterceptDeclarer.build(MethodMatcher.nameEquals("hello"), new RecordInterceptor("third", false)));
+        final Object target = enhancedCls.newInstance();
+        RECORDS.clear();
+        Assertions.assertEquals("skip", enhancedCls.getMethod("hello").invoke(target));
+        Assertions.assertArrayEquals(new String[]{"before-first", "before-skip", "after-skip", "after-first"},
+                RECORDS.toArray(new String[0]));
+    }
+
+    private Class<?> enhance(InterceptDeclarer... declarers) {
+        final TargetClassLoader targetLoader = new TargetClassLoader(getClass().getClassLoader());
+        final TypeDescription typeDesc = TypeDescription.ForLoadedType.of(Target.class);
+        DynamicType.Builder<?> builder = new ByteBuddy().redefine(Target.class);
+        for (InterceptDeclarer declarer : declarers) {
+            builder = new AdviceTransformer(new InterceptDeclarer[]{declarer}, new SuperTypeDeclarer[0])
+                    .transform(builder, typeDesc, targetLoader, null);
+        }
+        return targetLoader.define(Target.class.getName(), builder.make().getBytes());
+    }
+
+    /**
+     * 定义被增强类的类加载器，拦截器数组集以被增强类的实际类加载器定位
+     *
+     * @since 2023-08-01
+     */
+    private static class TargetClassLoader extends ClassLoader {
+        TargetClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * 被增强类
+     *
+     * @since 2023-08-01
+     */
+    public static class Target {
+        /**
+         * 成员方法
+         *
+         * @return 结果
+         */
+        public String hello() {
+            return "hello";
+        }
+
+        /**
+         * 静态方法
+         *
+         * @return 结果
+         */
+        public static String world() {
+            return "world";
+        }
+    }
+
+    /**
+     * 记录调用顺序的拦截器
+     *
+     * @since 2023-08-01
+     */
+    public static class RecordInterceptor extends AbstractInterceptor {
+        private final String name;
+
+        private final boolean isSkip;
+
+        RecordInterceptor(String name, boolean isSkip) {
+            this.name = name;
+            this.isSkip = isSkip;
+        }
+
+        @Override
+        public ExecuteContext before(ExecuteContext context) {
+            RECORDS.add("before-" + name);
+            return isSkip ? context.skip(name) : context;
+        }
+
+        @Override
+        public ExecuteContext after(ExecuteContext context) {
+            RECORDS.add("after-" + name);
+            return context;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * 插件jar包索引测试
+ *
+ * @author HapThorin
+ * @since 2023-08-10
+ */
+public class PluginJarIndexTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testIndex() throws IOException {
+        final File jar = createJar("plugin.jar", "demo", "1.0.0");
+        final File thirdPartyJar = createJar("third.jar", null, null);
+        final File indexFile = new File(tempDir.toFile(), PluginConstant.PLUGIN_INDEX_FILE_NAME);
+        final PluginJarIndex index = PluginJarIndex.load(indexFile);
+        Assertions.assertEquals("demo", index.getSchema(jar).getPluginName());
+        Assertions.assertEquals("1.0.0", index.getSchema(jar).getPluginVersion());
+        Assertions.assertNull(index.getSchema(thirdPartyJar).getPluginName());
+        index.store();
+        Assertions.assertTrue(indexFile.isFile());
+
+        // 索引命中时不再读取jar包，因此内容被破坏但大小和修改时间不变的jar包仍返回索引中的结果
+        final long lastModified = jar.lastModified();
+        final byte[] brokenContent = new byte[(int) jar.length()];
+        try (FileOutputStream outputStream = new FileOutputStream(jar)) {
+            outputStream.write(brokenContent);
+        }
+        Assertions.assertTrue(jar.setLastModified(lastModified));
+        final PluginJarIndex reloadedIndex = PluginJarIndex.load(indexFile);
+        Assertions.assertEquals("1.0.0", reloadedIndex.getSchema(jar).getPluginVersion());
+        Assertions.assertNull(reloadedIndex.getSchema(thirdPartyJar).getPluginName());
+
+        // jar包变化后重新读取
+        createJar("plugin.jar", "demo", "2.0.0");
+        Assertions.assertTrue(jar.setLastModified(lastModified + 1000L));
+        Assertions.assertEquals("2.0.0", reloadedIndex.getSchema(jar).getPluginVersion());
+    }
+
+    private File createJar(String fileName, String pluginName, String pluginVersion) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (pluginName != null) {
+            manifest.getMainAttributes().putValue(PluginConstant.PLUGIN_NAME_KEY, pluginName);
+            manifest.getMainAttributes().putValue(PluginConstant.PLUGIN_VERSION_KEY, pluginVersion);
+        }
+        final File jar = new File(tempDir.toFile(), fileName);
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+            outputStream.flush();
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.plugin.subscribe.processor;
+
+import com.huaweicloud.sermant.core.operation.OperationManager;
+import com.huaweicloud.sermant.core.operation.converter.api.YamlConverter;
+import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigEvent;
+import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigEventType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * 按优先级集中处理配置测试
+ *
+ * @author HapThorin
+ * @since 2023-08-23
+ */
+public class ConfigOrderIntegratedProcessorTest {
+    private static final String SERVICE_GROUP = "service=demo";
+
+    private static final String APP_GROUP = "app=default";
+
+    private final List<DynamicConfigEvent> events = new ArrayList<>();
+
+    private final Map<String, Object> yamlData = new HashMap<>();
+
+    private MockedStatic<OperationManager> operationManagerMockedStatic;
+
+    private ConfigOrderIntegratedProcessor processor;
+
+    private ConfigDataHolder appHolder;
+
+    @BeforeEach
+    public void setUp() {
+        final YamlConverter yamlConverter = Mockito.mock(YamlConverter.class);
+        Mockito.when(yamlConverter.convert(Mockito.anyString(), Mockito.any()))
+            .thenAnswer(invocation -> Optional.ofNullable(yamlData.get(invocation.getArgument(0))));
+        Mockito.when(yamlConverter.dump(Mockito.any()))
+            .thenAnswer(invocation -> new TreeMap<>((Map<String, Object>) invocation.getArgument(0)).toString());
+        operationManagerMockedStatic = Mockito.mockStatic(OperationManager.class);
+        operationManagerMockedStatic.when(() -> OperationManager.getOperation(YamlConverter.class))
+            .thenReturn(yamlConverter);
+        processor = new ConfigOrderIntegratedProcessor(events::add);
+        processor.addHolder(new ConfigDataHolder(SERVICE_GROUP, 0));
+        appHolder = new ConfigDataHolder(APP_GROUP, 1);
+        processor.addHolder(appHolder);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        operationManagerMockedStatic.close();
+    }
+
+    @Test
+    public void testPriorityOverride() {
+        yamlData.put("app", Collections.singletonMap("servicecomb", buildMap("timeout", 1, "retry", 2)));
+        yamlData.put("service", Collections.singletonMap("servicecomb", buildMap("timeout", 3)));
+        process(APP_GROUP, "key", "app", DynamicConfigEventType.CREATE);
+        Assertions.assertEquals(1, getAllData().get("servicecomb.timeout"));
+        process(SERVICE_GROUP, "key", "service", DynamicConfigEventType.CREATE);
+        Assertions.assertEquals(3, getAllData().get("servicecomb.timeout"));
+        Assertions.assertEquals(2, getAllData().get("servicecomb.retry"));
+        Assertions.assertEquals(new TreeMap<>(buildMap("servicecomb.timeout", 3, "servicecomb.retry", 2)).toString(),
+            events.get(events.size() - 1).getContent());
+
+        // 删除高优先级配置后，恢复低优先级的值
+        process(SERVICE_GROUP, "key", null, DynamicConfigEventType.DELETE);
+        Assertions.assertEquals(1, getAllData().get("servicecomb.timeout"));
+
+        // 修改仅移除不再配置的全键名
+        yamlData.put("app2", Collections.singletonMap("servicecomb", buildMap("retry", 4)));
+        process(APP_GROUP, "key", "app2", DynamicConfigEventType.MODIFY);
+        Assertions.assertNull(getAllData().get("servicecomb.timeout"));
+        Assertions.assertEquals(4, getAllData().get("servicecomb.retry"));
+        Assertions.assertEquals(1, getAllData().size());
+    }
+
+    @Test
+    public void testSameLayerOverride() {
+        yamlData.put("first", Collections.singletonMap("servicecomb", buildMap("timeout", 1)));
+        yamlData.put("second", Collections.singletonMap("servicecomb", buildMap("timeout", 2)));
+        process(APP_GROUP, "key1", "first", DynamicConfigEventType.CREATE);
+        process(APP_GROUP, "key2", "second", DynamicConfigEventType.CREATE);
+
+        // 同一优先级中多个配置键配置了同一全键名时, 与逐个覆盖配置键一致, 最后一个配置键生效
+        final Map<String, Object> expected = new HashMap<>();
+        for (Map<String, Object> data : appHolder.getHolder().values()) {
+            expected.putAll((Map<String, Object>) data.get("servicecomb"));
+        }
+        Assertions.assertEquals(expected.get("timeout"), getAllData().get("servicecomb.timeout"));
+
+        // 事件中的全量数据为副本, 不受后续事件影响
+        final Map<String, Object> allData = getAllData();
+        process(APP_GROUP, "key1", null, DynamicConfigEventType.DELETE);
+        process(APP_GROUP, "key2", null, DynamicConfigEventType.DELETE);
+        Assertions.assertEquals(expected.get("timeout"), allData.get("servicecomb.timeout"));
+        Assertions.assertTrue(getAllData().isEmpty());
+    }
+
+    @Test
+    public void testUnknownGroup() {
+        final DynamicConfigEvent event = DynamicConfigEvent.createEvent("key", "other", "content");
+        processor.process("other", event);
+        Assertions.assertSame(event, events.get(0));
+    }
+
+    private void process(String group, String key, String content, DynamicConfigEventType eventType) {
+        processor.process(group, new DynamicConfigEvent(key, group, content, eventType));
+    }
+
+    private Map<String, Object> getAllData() {
+        return ((OrderConfigEvent) events.get(events.size() - 1)).getAllData();
+    }
+
+    private Map<String, Object> buildMap(Object... keyValues) {
+        final Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.metric.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 拦截器运行指标测试
+ *
+ * @author HapThorin
+ * @since 2023-08-08
+ */
+public class InterceptorMetricTest {
+    @Test
+    public void testRecord() {
+        final InterceptorMetric metric = new InterceptorMetric("method", "interceptor");
+        Assertions.assertEquals(0L, metric.getPercentileNanos(0.5d));
+        for (int i = 0; i < 98; i++) {
+            metric.record(100L, false);
+        }
+        metric.record(5000L, true);
+        metric.record(-1L, true);
+        Assertions.assertEquals(100L, metric.getInvokeCount());
+        Assertions.assertEquals(2L, metric.getExceptionCount());
+        Assertions.assertEquals(98L * 100L + 5000L, metric.getTotalNanos());
+        Assertions.assertEquals(5000L, metric.getMaxNanos());
+
+        // 100纳秒位于[64, 128)分桶，取分桶上界
+        Assertions.assertEquals(128L, metric.getPercentileNanos(0.5d));
+        Assertions.assertEquals(5000L, metric.getPercentileNanos(1d));
+        metric.reset();
+        Assertions.assertEquals(0L, metric.getInvokeCount());
+        Assertions.assertEquals(0L, metric.getMaxNanos());
+    }
+}
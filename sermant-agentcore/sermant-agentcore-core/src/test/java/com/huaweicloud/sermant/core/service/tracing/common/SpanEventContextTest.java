@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.service.tracing.common;
+
+import com.huaweicloud.sermant.core.utils.TracingUtils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+/**
+ * SpanEventContext单元测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-21
+ */
+public class SpanEventContextTest {
+    /**
+     * 测试SpanId的延迟生成
+     */
+    @Test
+    public void testSpanId() {
+        final SpanEventContext context = new SpanEventContext(new TracingRequest("trace", "0", "0-0", "cls", "m"));
+        final SpanEvent root = context.getSpanEvent();
+        Assertions.assertEquals("0-0-0", root.getSpanId());
+        Assertions.assertEquals("0", root.getParentSpanId());
+        context.addChildrenSpan();
+        final SpanEvent child = context.getSpanEvent();
+        Assertions.assertEquals("trace", child.getTraceId());
+        Assertions.assertEquals("0-0-1", child.getSpanId());
+        Assertions.assertEquals("0-0-0", child.getParentSpanId());
+        context.configNextSpanIdPrefix();
+        Assertions.assertEquals("0-0-1-0", child.getNextSpanIdPrefix());
+        Assertions.assertEquals(2, context.getSpanIdCount().get());
+        Assertions.assertEquals(1, context.getNextSpanIdCount().get());
+
+        final SpanEventContext newContext = new SpanEventContext(new TracingRequest("", "", "", "cls", "m"));
+        Assertions.assertEquals("0", newContext.getSpanEvent().getSpanId());
+        Assertions.assertEquals(1, newContext.getSpanIdCount().get());
+        Assertions.assertEquals(4, UUID.fromString(newContext.getSpanEvent().getTraceId()).version());
+    }
+
+    /**
+     * 测试基于单调时钟的耗时
+     *
+     * @throws InterruptedException 中断
+     */
+    @Test
+    public void testDuration() throws InterruptedException {
+        final SpanEvent spanEvent = new SpanEvent();
+        spanEvent.markStart();
+        Thread.sleep(2L);
+        spanEvent.markEnd();
+        Assertions.assertTrue(spanEvent.getDuration() >= 2000L);
+        Assertions.assertTrue(spanEvent.getEndTime() >= spanEvent.getStartTime());
+        Assertions.assertTrue(Math.abs(spanEvent.getStartTime() - System.currentTimeMillis()) < 1000L);
+    }
+
+    /**
+     * 测试TraceId格式
+     */
+    @Test
+    public void testGenerateTraceId() {
+        final UUID uuid = UUID.fromString(TracingUtils.generateTraceId());
+        Assertions.assertEquals(4, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+    }
+}
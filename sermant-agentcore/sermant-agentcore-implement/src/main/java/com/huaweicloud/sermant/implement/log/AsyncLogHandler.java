@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.log;
+
+import com.huaweicloud.sermant.core.common.RingBuffer;
+import com.huaweicloud.sermant.core.utils.ThreadFactoryUtils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.CallerData;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * 异步日志处理器
+ * <p>业务线程仅做限流判断并将日志记录写入无锁环形缓冲区，缓冲区满或超出调用点限额时直接丢弃，不会阻塞；
+ * 消息格式化及logback输出均在独立的写线程中完成
+ * <p>日志事件需要记录业务线程的调用点，因此警告及以上级别的日志事件仍在业务线程中上报
+ * <p>调用点信息需要在业务线程中遍历堆栈获取，默认不采集；此时限流以日志名称及级别区分，不读取日志记录的来源类与方法，
+ * 避免jul在业务线程中推断调用方。预先格式化的消息内容各不相同，不能作为限流的键
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-23
+ */
+public class AsyncLogHandler extends Handler {
+    private static final String FQCN = java.util.logging.Logger.class.getName();
+
+    private static final String JUL_PACKAGE_PREFIX = "java.util.logging.";
+
+    private static final String UNKNOWN_LOGGER_NAME = "unknown.jul.logger";
+
+    private static final char RATE_LIMIT_KEY_SEPARATOR = '#';
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final long CLOSE_WAIT_MS = 3000L;
+
+    private final RingBuffer<PendingRecord> queue;
+
+    /**
+     * 限流器，不限流时为null
+     */
+    private final LogRateLimiter rateLimiter;
+
+    private final boolean isCallerDataEnable;
+
+    private final SLF4JBridgeHandler fallbackHandler = new SLF4JBridgeHandler();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final Thread writer;
+
+    private long lastDropReportTime = System.nanoTime();
+
+    private volatile boolean isRunning = true;
+
+    private volatile boolean isWaiting;
+
+    /**
+     * 构造函数
+     *
+     * @param queueSize 缓冲区容量
+     * @param rateLimit 每个调用点每秒最多输出的日志数量，仅限制警告以下级别，不大于0时不限制
+     * @param isCallerDataEnable 是否采集调用点信息
+     */
+    public AsyncLogHandler(int queueSize, int rateLimit, boolean isCallerDataEnable) {
+        this.queue = new RingBuffer<>(queueSize);
+        this.rateLimiter = rateLimit > 0 ? new LogRateLimiter(rateLimit) : null;
+        this.isCallerDataEnable = isCallerDataEnable;
+        this.writer = new ThreadFactoryUtils("sermant-log-writer").newThread(this::writeLoop);
+        this.writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (record == null || !isRunning || !isLoggable(record)) {
+            return;
+        }
+        final StackTraceElement caller = isCallerDataEnable ? inferCaller() : null;
+        if (record.getLevel().intValue() < java.util.logging.Level.WARNING.intValue()) {
+            if (rateLimiter != null && !rateLimiter.tryAcquire(caller == null ? getRateLimitKey(record) : caller)) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+        } else {
+            SermantBridgeHandler.collectEvent(record);
+        }
+        if (!queue.offer(new PendingRecord(record, Thread.currentThread().getName(), caller))) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (isWaiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * 未采集调用点时，以日志名称及级别作为限流的键，两者均可直接读取，获取来源类与方法会触发jul遍历堆栈
+     *
+     * @param record 日志记录
+     * @return 限流的键
+     */
+    private static String getRateLimitKey(LogRecord record) {
+        return record.getLoggerName() + RATE_LIMIT_KEY_SEPARATOR + record.getLevel().getName();
+    }
+
+    /**
+     * 获取调用点，即最后一个jul帧之后的第一个帧，未经过jul直接调用时取处理器之外的第一个帧
+     *
+     * @return 调用点
+     */
+    private StackTraceElement inferCaller() {
+        final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        StackTraceElement directCaller = null;
+        boolean isLoggerFound = false;
+        for (StackTraceElement element : stackTrace) {
+            final String className = element.getClassName();
+            if (className.startsWith(JUL_PACKAGE_PREFIX)) {
+                isLoggerFound = true;
+            } else if (isLoggerFound) {
+                return element;
+            } else if (directCaller == null && !className.equals(AsyncLogHandler.class.getName())) {
+                directCaller = element;
+            }
+        }
+        return directCaller;
+    }
+
+    @Override
+    public void flush() {
+        // 写线程持续输出，无需主动刷新
+    }
+
+    @Override
+    public void close() {
+        if (!isRunning) {
+            return;
+        }
+        isRunning = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(CLOSE_WAIT_MS);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 获取丢弃的日志数量，包括被限流及缓冲区满时丢弃的日志
+     *
+     * @return 尚未报告的丢弃数量
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void writeLoop() {
+        final List<PendingRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            if (queue.drainTo(batch, BATCH_SIZE) > 0) {
+                for (PendingRecord pendingRecord : batch) {
+                    write(pendingRecord);
+                }
+                batch.clear();
+                continue;
+            }
+            reportDropped();
+            if (!isRunning) {
+                return;
+            }
+            isWaiting = true;
+            if (queue.size() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            isWaiting = false;
+        }
+    }
+
+    private void reportDropped() {
+        final long now = System.nanoTime();
+        if (now - lastDropReportTime < DROP_REPORT_INTERVAL_NANOS && isRunning) {
+            return;
+        }
+        lastDropReportTime = now;
+        final long dropped = droppedCount.getAndSet(0L);
+        if (dropped <= 0L) {
+            return;
+        }
+        final LogRecord record = new LogRecord(java.util.logging.Level.WARNING, String.format(Locale.ROOT,
+                "Dropped [%d] log records because of rate limiting or full buffer. ", dropped));
+        record.setLoggerName(LoggerFactoryImpl.LOGGER_NAME);
+        write(new PendingRecord(record, Thread.currentThread().getName(), null));
+    }
+
+    private void write(PendingRecord pendingRecord) {
+        final LogRecord record = pendingRecord.record;
+        try {
+            final String loggerName = record.getLoggerName() == null ? UNKNOWN_LOGGER_NAME : record.getLoggerName();
+            final org.slf4j.Logger slf4jLogger = org.slf4j.LoggerFactory.getLogger(loggerName);
+            if (!(slf4jLogger instanceof ch.qos.logback.classic.Logger)) {
+                fallbackHandler.publish(record);
+                return;
+            }
+            final ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) slf4jLogger;
+            final Level level = toLogbackLevel(record.getLevel());
+            if (!logger.isEnabledFor(level)) {
+                return;
+            }
+            final LoggingEvent event = new LoggingEvent(FQCN, logger, level, formatMessage(record), record.getThrown(),
+                    null);
+            event.setTimeStamp(record.getMillis());
+            event.setThreadName(pendingRecord.threadName);
+            event.setCallerData(pendingRecord.caller == null ? CallerData.EMPTY_CALLER_DATA_ARRAY
+                    : new StackTraceElement[]{pendingRecord.caller});
+            logger.callAppenders(event);
+        } catch (RuntimeException ignored) {
+            // 写线程不因单条日志异常而退出
+        }
+    }
+
+    private static Level toLogbackLevel(java.util.logging.Level julLevel) {
+        final int value = julLevel.intValue();
+        if (value <= java.util.logging.Level.FINEST.intValue()) {
+            return Level.TRACE;
+        }
+        if (value <= java.util.logging.Level.FINE.intValue()) {
+            return Level.DEBUG;
+        }
+        if (value <= java.util.logging.Level.INFO.intValue()) {
+            return Level.INFO;
+        }
+        if (value <= java.util.logging.Level.WARNING.intValue()) {
+            return Level.WARN;
+        }
+        return Level.ERROR;
+    }
+
+    private static String formatMessage(LogRecord record) {
+        String message = record.getMessage();
+        if (message == null) {
+            return null;
+        }
+        final ResourceBundle bundle = record.getResourceBundle();
+        if (bundle != null) {
+            try {
+                message = bundle.getString(message);
+            } catch (MissingResourceException ignored) {
+                // 使用原始消息
+            }
+        }
+        final Object[] params = record.getParameters();
+        if (params != null && params.length > 0) {
+            try {
+                message = MessageFormat.format(message, params);
+            } catch (IllegalArgumentException ignored) {
+                // 使用未格式化的消息
+            }
+        }
+        return message;
+    }
+
+    /**
+     * 待输出的日志记录
+     *
+     * @since 2023-08-23
+     */
+    private static class PendingRecord {
+        private final LogRecord record;
+
+        private final String threadName;
+
+        private final StackTraceElement caller;
+
+        PendingRecord(LogRecord record, String threadName, StackTraceElement caller) {
+            this.record = record;
+            this.threadName = threadName;
+            this.caller = caller;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按调用点限制每秒日志数量
+ * <p>调用点散列到固定数量的槽位，每个槽位高32位记录当前秒，低32位记录当前秒内已输出的数量，通过CAS无锁更新；
+ * 槽位数量固定，散列冲突的调用点共享限额，避免调用点过多时占用内存无限增长
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-23
+ */
+public class LogRateLimiter {
+    private static final int SLOT_COUNT = 1024;
+
+    private static final int SECOND_SHIFT = 32;
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final int limit;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SLOT_COUNT);
+
+    /**
+     * 构造函数
+     *
+     * @param limit 每个调用点每秒最多输出的日志数量，不大于0时不限制
+     */
+    public LogRateLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * 尝试获取输出许可
+     *
+     * @param callSite 调用点
+     * @return 是否允许输出
+     */
+    public boolean tryAcquire(Object callSite) {
+        if (limit <= 0) {
+            return true;
+        }
+        final int hash = callSite == null ? 0 : callSite.hashCode();
+        final int index = (hash ^ (hash >>> 16)) & (SLOT_COUNT - 1);
+        final long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime()) & COUNT_MASK;
+        while (true) {
+            final long current = slots.get(index);
+            if (current >>> SECOND_SHIFT != second) {
+                if (slots.compareAndSet(index, current, second << SECOND_SHIFT | 1L)) {
+                    return true;
+                }
+            } else if ((current & COUNT_MASK) >= limit) {
+                return false;
+            } else if (slots.compareAndSet(index, current, current + 1L)) {
+                return true;
+            }
+        }
+    }
+}
@@ -29,8 +29,25 @@ import java.util.logging.Logger;
  * @since 2022-06-20
  */
 public class LoggerFactoryImpl {
+    /**
+     * sermant日志名称
+     */
+    static final String LOGGER_NAME = "sermant";
+
     private static final String LOG_LEVEL_KEY = "sermant_log_level";
 
+    private static final String LOG_ASYNC_ENABLE_KEY = "sermant_log_async_enable";
+
+    private static final String LOG_ASYNC_QUEUE_SIZE_KEY = "sermant_log_async_queue_size";
+
+    private static final String LOG_RATE_LIMIT_KEY = "sermant_log_rate_limit";
+
+    private static final String LOG_CALLER_DATA_ENABLE_KEY = "sermant_log_caller_data_enable";
+
+    private static final int DEFAULT_ASYNC_QUEUE_SIZE = 8192;
+
+    private static final int DEFAULT_RATE_LIMIT = 100;
+
     private LoggerFactoryImpl() {
     }
 
@@ -40,20 +57,43 @@ public class LoggerFactoryImpl {
      * @return logger logger for sermant
      */
     public static Logger init() {
-        Logger logger = java.util.logging.Logger.getLogger("sermant");
-        logger.addHandler(new SermantBridgeHandler());
+        Logger logger = java.util.logging.Logger.getLogger(LOGGER_NAME);
+        if (Boolean.parseBoolean(getConfig(LOG_ASYNC_ENABLE_KEY, Boolean.FALSE.toString()))) {
+            final AsyncLogHandler handler = new AsyncLogHandler(
+                    getIntConfig(LOG_ASYNC_QUEUE_SIZE_KEY, DEFAULT_ASYNC_QUEUE_SIZE),
+                    getIntConfig(LOG_RATE_LIMIT_KEY, DEFAULT_RATE_LIMIT),
+                    Boolean.parseBoolean(getConfig(LOG_CALLER_DATA_ENABLE_KEY, Boolean.FALSE.toString())));
+            logger.addHandler(handler);
+
+            // 退出时输出缓冲区中剩余的日志
+            Runtime.getRuntime().addShutdownHook(new Thread(handler::close, "sermant-log-shutdown"));
+        } else {
+            logger.addHandler(new SermantBridgeHandler());
+        }
         logger.setUseParentHandlers(false);
         logger.setLevel(getLevel());
         return logger;
     }
 
-    private static Level getLevel() {
+    private static String getConfig(String key, String defaultValue) {
         // 环境变量 > 启动参数
-        String level = System.getenv(LOG_LEVEL_KEY);
-        if (StringUtils.isBlank(level)) {
-            level = System.getProperty(LOG_LEVEL_KEY, "info");
+        String value = System.getenv(key);
+        if (StringUtils.isBlank(value)) {
+            value = System.getProperty(key, defaultValue);
         }
-        level = level.toLowerCase(Locale.ROOT);
+        return value;
+    }
+
+    private static int getIntConfig(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getConfig(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException ignored) {
+            return defaultValue;
+        }
+    }
+
+    private static Level getLevel() {
+        String level = getConfig(LOG_LEVEL_KEY, "info").toLowerCase(Locale.ROOT);
         switch (level) {
             case "all":
                 return Level.ALL;
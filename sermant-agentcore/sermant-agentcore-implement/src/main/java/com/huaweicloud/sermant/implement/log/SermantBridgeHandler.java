@@ -34,6 +34,16 @@ public class SermantBridgeHandler extends SLF4JBridgeHandler {
     @Override
     protected void callLocationAwareLogger(LocationAwareLogger lal, LogRecord record) {
         // 覆写SLF4JBridgeHandler的日志转换方法，上报日志事件
+        collectEvent(record);
+        super.callLocationAwareLogger(lal, record);
+    }
+
+    /**
+     * 上报警告及错误级别的日志事件
+     *
+     * @param record 日志记录
+     */
+    static void collectEvent(LogRecord record) {
         int julLevelValue = record.getLevel().intValue();
 
         if (julLevelValue > Level.INFO.intValue() && julLevelValue <= Level.WARNING.intValue()) {
@@ -43,6 +53,5 @@ public class SermantBridgeHandler extends SLF4JBridgeHandler {
             // 记录错误级别日志
             LogEventCollector.getInstance().offerError(record);
         }
-        super.callLocationAwareLogger(lal, record);
     }
 }
@@ -60,6 +60,11 @@ public class KieDynamicConfigService extends DynamicConfigService {
         subscriberManager = new SubscriberManager(serverAddress, project, CONFIG.getTimeoutValue());
     }
 
+    @Override
+    public void stop() {
+        subscriberManager.shutdown();
+    }
+
     @Override
     public boolean doRemoveGroupListener(String group) {
         return updateGroupListener(group, null, false, false);
@@ -108,9 +108,10 @@ public class KieClient extends AbstractClient {
             return null;
         }
         final StringBuilder requestUrl = new StringBuilder().append(clientUrlManager.getUrl()).append(kieApi);
-        requestUrl.append(formatNullString(request.getLabelCondition()))
-            .append("&revision=")
-            .append(formatNullString(request.getRevision()));
+        if (request.getLabelCondition() != null && !request.getLabelCondition().isEmpty()) {
+            requestUrl.append(request.getLabelCondition()).append('&');
+        }
+        requestUrl.append("revision=").append(formatNullString(request.getRevision()));
         if (request.isAccurateMatchLabel()) {
             requestUrl.append("&match=exact");
         }
@@ -19,21 +19,42 @@ package com.huaweicloud.sermant.implement.service.dynamicconfig.kie.listener;
 import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.client.kie.KieConfigEntity;
 import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.client.kie.KieResponse;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * 监听键响应数据
  * 用于对比新旧数据并保留旧数据
+ * <p>版本未变化时直接跳过对比；对比时逐个查找已有键，不再重建全量数据及临时副本，仅变化的键会生成事件数据
  *
  * @author zhouss
  * @since 2021-11-18
  */
 public class KvDataHolder {
     /**
-     * 当前数据
+     * 当前数据，值中记录最近一次出现的对比轮次，用于无副本地识别删除的键
      */
-    private Map<String, String> currentData;
+    private final Map<String, KvEntry> currentData = new HashMap<>();
+
+    /**
+     * 当前数据的只读快照，数据未变化时各事件共享同一快照，变化后按需重建
+     */
+    private Map<String, String> snapshot;
+
+    /**
+     * 当前数据的版本
+     */
+    private String currentRevision;
+
+    /**
+     * 对比轮次
+     */
+    private int round;
 
     /**
      * 分析最新的数据
@@ -46,43 +67,88 @@ public class KvDataHolder {
         if (isFirst) {
             clear();
         }
-        final Map<String, String> latestData = formatKieResponse(response);
-        final EventDataHolder eventDataHolder = new EventDataHolder(formatRevision(response.getRevision()), latestData);
-        if (currentData != null) {
-            if (latestData.isEmpty()) {
-                eventDataHolder.deleted.putAll(currentData);
-            } else {
-                Map<String, String> temp = new HashMap<String, String>(currentData);
-                for (Map.Entry<String, String> entry : latestData.entrySet()) {
-                    final String value = currentData.get(entry.getKey());
-                    if (value == null) {
-                        // 增加的键
-                        eventDataHolder.added.put(entry.getKey(), entry.getValue());
-                    } else {
-                        // 如果存在该键，则比对值是否相等
-                        if (!value.equals(entry.getValue())) {
-                            // 修改
-                            eventDataHolder.modified.put(entry.getKey(), entry.getValue());
-                        }
-                    }
-                    temp.remove(entry.getKey());
+        final String revision = response.getRevision();
+        final EventDataHolder eventDataHolder = new EventDataHolder(formatRevision(revision), this::getSnapshot);
+        if (!isFirst && revision != null && revision.equals(currentRevision)) {
+            // 版本未变化，数据必然一致
+            return eventDataHolder;
+        }
+        currentRevision = revision;
+        final int curRound = ++round;
+        int hitCount = 0;
+        final List<KieConfigEntity> data = response.getData();
+        if (data != null) {
+            for (KieConfigEntity entity : data) {
+                if (analyzeEntity(entity.getKey(), entity.getValue(), curRound, eventDataHolder)) {
+                    hitCount++;
                 }
-
-                // temp留下的键即为删除的
-                eventDataHolder.deleted.putAll(temp);
             }
-        } else {
-            eventDataHolder.added.putAll(latestData);
         }
-        currentData = latestData;
+        if (hitCount < currentData.size() - eventDataHolder.added.size()) {
+            // 存在本轮未出现的旧键，即为删除的
+            final Iterator<Map.Entry<String, KvEntry>> iterator = currentData.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, KvEntry> entry = iterator.next();
+                if (entry.getValue().round != curRound) {
+                    eventDataHolder.deleted.put(entry.getKey(), entry.getValue().value);
+                    iterator.remove();
+                }
+            }
+        }
+        if (eventDataHolder.isChanged()) {
+            snapshot = null;
+        }
         return eventDataHolder;
     }
 
-    private void clear() {
-        if (currentData != null) {
-            currentData.clear();
-            currentData = null;
+    /**
+     * 对比单个键
+     *
+     * @param key 键
+     * @param value 最新值
+     * @param curRound 当前轮次
+     * @param eventDataHolder 事件数据
+     * @return 是否为本轮首次出现的已有键
+     */
+    private boolean analyzeEntity(String key, String value, int curRound, EventDataHolder eventDataHolder) {
+        final KvEntry entry = currentData.get(key);
+        if (entry == null) {
+            // 增加的键
+            currentData.put(key, new KvEntry(value, curRound));
+            eventDataHolder.added.put(key, value);
+            return false;
         }
+        final boolean isFirstHit = entry.round != curRound;
+        entry.round = curRound;
+        if (Objects.equals(entry.value, value)) {
+            return isFirstHit;
+        }
+        entry.value = value;
+        if (eventDataHolder.added.containsKey(key)) {
+            // 同一响应中重复的新增键，以最后一个为准
+            eventDataHolder.added.put(key, value);
+        } else {
+            // 修改
+            eventDataHolder.modified.put(key, value);
+        }
+        return isFirstHit;
+    }
+
+    private Map<String, String> getSnapshot() {
+        if (snapshot == null) {
+            final Map<String, String> data = new HashMap<>(currentData.size());
+            for (Map.Entry<String, KvEntry> entry : currentData.entrySet()) {
+                data.put(entry.getKey(), entry.getValue().value);
+            }
+            snapshot = Collections.unmodifiableMap(data);
+        }
+        return snapshot;
+    }
+
+    private void clear() {
+        currentData.clear();
+        snapshot = null;
+        currentRevision = null;
     }
 
     private long formatRevision(String revision) {
@@ -96,15 +162,20 @@ public class KvDataHolder {
         }
     }
 
-    private Map<String, String> formatKieResponse(KieResponse response) {
-        final HashMap<String, String> latestData = new HashMap<String, String>();
-        if (response == null || response.getData() == null || response.getData().isEmpty()) {
-            return latestData;
-        }
-        for (KieConfigEntity entity : response.getData()) {
-            latestData.put(entity.getKey(), entity.getValue());
+    /**
+     * 当前值及其最近一次出现的轮次
+     *
+     * @since 2023-08-23
+     */
+    private static class KvEntry {
+        private String value;
+
+        private int round;
+
+        KvEntry(String value, int round) {
+            this.value = value;
+            this.round = round;
         }
-        return latestData;
     }
 
     /**
@@ -121,7 +192,12 @@ public class KvDataHolder {
         /**
          * 最新的全量数据
          */
-        private final Map<String, String> latestData;
+        private Map<String, String> latestData;
+
+        /**
+         * 按需获取最新的全量数据，仅在事件通知期间有效
+         */
+        private Supplier<Map<String, String>> latestDataSupplier;
 
         /**
          * 修改的key
@@ -152,7 +228,15 @@ public class KvDataHolder {
             this.latestData = latestData;
         }
 
+        EventDataHolder(long version, Supplier<Map<String, String>> latestDataSupplier) {
+            this(version, (Map<String, String>) null);
+            this.latestDataSupplier = latestDataSupplier;
+        }
+
         public Map<String, String> getLatestData() {
+            if (latestData == null && latestDataSupplier != null) {
+                latestData = latestDataSupplier.get();
+            }
             return latestData;
         }
 
@@ -23,6 +23,8 @@
 package com.huaweicloud.sermant.implement.service.dynamicconfig.kie.listener;
 
 import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.service.dynamicconfig.config.KieDynamicConfig;
 import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigListener;
 import com.huaweicloud.sermant.core.utils.LabelGroupUtils;
 import com.huaweicloud.sermant.core.utils.StringUtils;
@@ -37,8 +39,16 @@ import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.client.kie.Ki
 import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.client.kie.ResultHandler;
 import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.constants.KieConstants;
 
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+
 import org.apache.http.client.config.RequestConfig;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -91,6 +101,31 @@ public class SubscriberManager {
      */
     private static final long LONG_CONNECTION_REQUEST_INTERVAL_MS = 2000L;
 
+    /**
+     * 失败重试最大等待时间
+     */
+    private static final long MAX_RETRY_WAIT_MS = 60 * 1000 * 60L;
+
+    /**
+     * 失败重试基础等待时间
+     */
+    private static final long BASE_RETRY_WAIT_MS = 3000L;
+
+    /**
+     * 时间轮刻度
+     */
+    private static final long TIMER_TICK_MS = 100L;
+
+    /**
+     * 标签条件前缀
+     */
+    private static final String LABEL_PREFIX = "label=";
+
+    /**
+     * 标签键值分隔符
+     */
+    private static final char LABEL_SEPARATOR = ':';
+
     /**
      * 当前长连接请求数 要求最大连接数必须小于 MAX_THREAD_SIZE
      */
@@ -118,6 +153,26 @@ public class SubscriberManager {
     private final ThreadPoolExecutor longRequestExecutor = new ThreadPoolExecutor(THREAD_SIZE, MAX_THREAD_SIZE, 0,
         TimeUnit.MILLISECONDS, new SynchronousQueue<>(), new ThreadFactoryUtils("kie-subscribe-long-task"));
 
+    /**
+     * 长轮询间隔及失败重试的定时器，以时间轮代替休眠线程，等待期间不占用订阅线程；无订阅时停止，再次使用时重新创建
+     */
+    private Timer retryTimer;
+
+    /**
+     * 是否已关闭
+     */
+    private boolean isShutdown;
+
+    /**
+     * 是否合并订阅
+     */
+    private final boolean isMergedSubscribeEnable;
+
+    /**
+     * 合并订阅的长轮询任务，所有标签组共用
+     */
+    private volatile MergedPullTask mergedPullTask;
+
     /**
      * 快速返回的请求
      */
@@ -131,6 +186,7 @@ public class SubscriberManager {
      */
     public SubscriberManager(String serverAddress, int timeout) {
         kieClient = new KieClient(new ClientUrlManager(serverAddress), timeout);
+        isMergedSubscribeEnable = isMergedSubscribeEnable();
     }
 
     /**
@@ -142,6 +198,12 @@ public class SubscriberManager {
      */
     public SubscriberManager(String serverAddress, String project, int timeout) {
         kieClient = new KieClient(new ClientUrlManager(serverAddress), project, timeout);
+        isMergedSubscribeEnable = isMergedSubscribeEnable();
+    }
+
+    private static boolean isMergedSubscribeEnable() {
+        final KieDynamicConfig config = ConfigManager.getConfig(KieDynamicConfig.class);
+        return config != null && config.isMergedSubscribeEnable();
     }
 
     /**
@@ -306,6 +368,8 @@ public class SubscriberManager {
             new KieListenerWrapper(key, dynamicConfigListener, new KvDataHolder(), kieRequest, ifNotify);
         if (!kieSubscriber.isLongConnectionRequest()) {
             task = new ShortTimerTask(kieSubscriber, kieListenerWrapper);
+        } else if (isMergedSubscribeEnable) {
+            return mergedSubscribe(kieListenerWrapper, ifNotify);
         } else {
             if (exceedMaxLongRequestCount()) {
                 LOGGER.warning(String.format(Locale.ENGLISH,
@@ -323,6 +387,182 @@ public class SubscriberManager {
         return true;
     }
 
+    /**
+     * 合并订阅，标签组不再单独发起长轮询，由共用的长轮询任务按标签分发
+     *
+     * @param kieListenerWrapper 监听器
+     * @param ifNotify 是否在第一次添加时，将所有数据查询返回给调用者
+     * @return 是否添加成功
+     */
+    private boolean mergedSubscribe(KieListenerWrapper kieListenerWrapper, boolean ifNotify) {
+        final KieRequest kieRequest = kieListenerWrapper.getKieRequest();
+        kieListenerWrapper.setTask(new MergedMemberTask(resolveConditionLabels(kieRequest.getLabelCondition())));
+        listenerMap.put(kieRequest, kieListenerWrapper);
+        if (ifNotify) {
+            firstRequest(kieRequest, kieListenerWrapper);
+        } else {
+            // 与独立订阅保持一致，首次拉取的已有数据作为新增事件通知
+            final KieResponse kieResponse = queryConfigurations(null, kieRequest.getLabelCondition());
+            if (kieResponse != null && kieResponse.isChanged()) {
+                tryPublishEvent(kieResponse, kieListenerWrapper, false);
+            }
+        }
+        // 与无订阅时的停止在同一把锁内判断，避免新的标签组沿用即将停止的长轮询任务
+        synchronized (this) {
+            if (mergedPullTask == null && !isShutdown) {
+                mergedPullTask = new MergedPullTask();
+                executeTask(mergedPullTask);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将标签条件解析为标签键值对, 如label=app:sc&label=service:helloService
+     *
+     * @param labelCondition 标签条件
+     * @return 标签键值对
+     */
+    static Map<String, String> resolveConditionLabels(String labelCondition) {
+        final Map<String, String> labels = new HashMap<>();
+        if (StringUtils.isEmpty(labelCondition)) {
+            return labels;
+        }
+        for (String condition : labelCondition.split("&")) {
+            if (!condition.startsWith(LABEL_PREFIX)) {
+                continue;
+            }
+            final String label;
+            try {
+                label = URLDecoder.decode(condition.substring(LABEL_PREFIX.length()), "UTF-8");
+            } catch (UnsupportedEncodingException ignored) {
+                continue;
+            }
+            final int index = label.indexOf(LABEL_SEPARATOR);
+            if (index < 0) {
+                labels.put(label, "");
+            } else {
+                labels.put(label.substring(0, index), label.substring(index + 1));
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * 将合并订阅的响应按标签分发给各标签组
+     *
+     * @param kieResponse 全量响应
+     */
+    private void dispatchMergedResponse(KieResponse kieResponse) {
+        final List<KieConfigEntity> data = kieResponse.getData();
+        for (KieListenerWrapper wrapper : listenerMap.values()) {
+            final Task task = wrapper.getTask();
+            if (!(task instanceof MergedMemberTask) || !((MergedMemberTask) task).isContinue) {
+                continue;
+            }
+            final MergedMemberTask memberTask = (MergedMemberTask) task;
+            final boolean isAccurate = wrapper.getKieRequest().isAccurateMatchLabel();
+            final List<KieConfigEntity> groupData = new ArrayList<>();
+            if (data != null) {
+                for (KieConfigEntity entity : data) {
+                    if (memberTask.isMatch(entity, isAccurate)) {
+                        groupData.add(entity);
+                    }
+                }
+            }
+            final KieResponse groupResponse = new KieResponse();
+            groupResponse.setRevision(kieResponse.getRevision());
+            groupResponse.setData(groupData);
+            groupResponse.setTotal(groupData.size());
+            tryPublishEvent(groupResponse, wrapper, false);
+        }
+    }
+
+    /**
+     * 通过时间轮延迟执行任务
+     *
+     * @param task 任务
+     * @param delayMs 延迟时间
+     */
+    private void scheduleTask(Task task, long delayMs) {
+        final Timer timer = getRetryTimer();
+        if (timer == null) {
+            return;
+        }
+        try {
+            timer.newTimeout(timeout -> {
+                if (task instanceof AbstractTask && !((AbstractTask) task).isContinue) {
+                    return;
+                }
+                executeTask(task);
+            }, Math.min(delayMs, MAX_RETRY_WAIT_MS), TimeUnit.MILLISECONDS);
+        } catch (IllegalStateException ex) {
+            LOGGER.warning(String.format(Locale.ENGLISH, "The subscribe timer has stopped, %s", ex.getMessage()));
+        }
+    }
+
+    private synchronized Timer getRetryTimer() {
+        if (retryTimer == null && !isShutdown) {
+            retryTimer = new HashedWheelTimer(new ThreadFactoryUtils("kie-subscribe-timer"), TIMER_TICK_MS,
+                TimeUnit.MILLISECONDS);
+        }
+        return retryTimer;
+    }
+
+    /**
+     * 所有标签组均已取消订阅时，停止合并订阅的长轮询任务及定时器
+     */
+    private synchronized void releaseIfIdle() {
+        for (KieListenerWrapper wrapper : listenerMap.values()) {
+            final Task task = wrapper.getTask();
+            if (task instanceof AbstractTask && ((AbstractTask) task).isContinue) {
+                return;
+            }
+        }
+        stopMergedPullTask();
+        if (retryTimer != null) {
+            retryTimer.stop();
+            retryTimer = null;
+        }
+    }
+
+    private void stopMergedPullTask() {
+        if (mergedPullTask != null) {
+            mergedPullTask.stop();
+            mergedPullTask = null;
+        }
+    }
+
+    /**
+     * 关闭订阅管理器，停止所有订阅任务、定时器及线程池
+     */
+    public void shutdown() {
+        synchronized (this) {
+            isShutdown = true;
+            for (KieListenerWrapper wrapper : listenerMap.values()) {
+                if (wrapper.getTask() != null) {
+                    wrapper.getTask().stop();
+                }
+            }
+            stopMergedPullTask();
+            if (retryTimer != null) {
+                retryTimer.stop();
+                retryTimer = null;
+            }
+        }
+        longRequestExecutor.shutdownNow();
+        synchronized (SubscriberManager.class) {
+            if (scheduledExecutorService != null) {
+                scheduledExecutorService.shutdownNow();
+                scheduledExecutorService = null;
+            }
+        }
+    }
+
+    private long getRetryWaitMs(int failCount) {
+        return Math.min(MAX_RETRY_WAIT_MS, BASE_RETRY_WAIT_MS * failCount * failCount);
+    }
+
     /**
      * 是否超过最大限制长连接任务数
      *
@@ -392,6 +632,7 @@ public class SubscriberManager {
             }
             if (dynamicConfigListener == null) {
                 listenerMap.remove(next.getKey());
+                releaseIfIdle();
                 return true;
             } else {
                 final KieListenerWrapper wrapper = next.getValue();
@@ -399,6 +640,7 @@ public class SubscriberManager {
                     if (wrapper.isEmpty()) {
                         // 若监听器均已清空，则停止改标签组的任务
                         wrapper.getTask().stop();
+                        releaseIfIdle();
                     }
                     return true;
                 }
@@ -439,10 +681,13 @@ public class SubscriberManager {
     }
 
     private void tryPublishEvent(KieResponse kieResponse, KieListenerWrapper kieListenerWrapper, boolean isFirst) {
-        final KvDataHolder kvDataHolder = kieListenerWrapper.getKvDataHolder();
-        final KvDataHolder.EventDataHolder eventDataHolder = kvDataHolder.analyzeLatestData(kieResponse, isFirst);
-        if (eventDataHolder.isChanged() || isFirst) {
-            kieListenerWrapper.notifyListeners(eventDataHolder, isFirst);
+        // 首次拉取与长轮询可能在不同线程中同时分发同一标签组
+        synchronized (kieListenerWrapper) {
+            final KvDataHolder kvDataHolder = kieListenerWrapper.getKvDataHolder();
+            final KvDataHolder.EventDataHolder eventDataHolder = kvDataHolder.analyzeLatestData(kieResponse, isFirst);
+            if (eventDataHolder.isChanged() || isFirst) {
+                kieListenerWrapper.notifyListeners(eventDataHolder, isFirst);
+            }
         }
     }
 
@@ -578,12 +823,12 @@ public class SubscriberManager {
 
                 // 间隔一段时间拉取，减轻服务压力;如果在间隔时间段内有键变更，服务可以通过传入的revision判断是否需要将最新的数据立刻返回，不会存在键监听不到的问题
                 this.failCount = 0;
-                SubscriberManager.this.executeTask(new SleepCallBackTask(this, LONG_CONNECTION_REQUEST_INTERVAL_MS));
+                scheduleTask(this, LONG_CONNECTION_REQUEST_INTERVAL_MS);
             } catch (Exception ex) {
                 LOGGER.warning(
                     String.format(Locale.ENGLISH, "pull kie config failed, %s, it will rePull", ex.getMessage()));
                 ++failCount;
-                SubscriberManager.this.executeTask(new SleepCallBackTask(this, failCount));
+                scheduleTask(this, getRetryWaitMs(failCount));
             }
         }
 
@@ -594,55 +839,87 @@ public class SubscriberManager {
     }
 
     /**
-     * SleepCallBackTask
+     * 合并订阅的长轮询任务，不带标签条件拉取命名空间下的全部配置，再按标签分发给各标签组
      *
-     * @since 2021-11-17
+     * @since 2023-08-22
      */
-    class SleepCallBackTask extends AbstractTask {
-        private static final long MAX_WAIT_MS = 60 * 1000 * 60L;
-
-        private static final long BASE_MS = 3000L;
+    class MergedPullTask extends AbstractTask {
+        private final KieRequest kieRequest = new KieRequest().setWait(WAIT);
 
-        private final Task nextTask;
+        private int failCount;
 
-        private int failedCount;
+        MergedPullTask() {
+            kieRequest.setAccurateMatchLabel(false);
+            buildRequestConfig(kieRequest);
+        }
 
-        private long waitTimeMs;
+        @Override
+        public void executeInner() {
+            try {
+                final KieResponse kieResponse = kieClient.queryConfigurations(kieRequest);
+                if (kieResponse != null && kieResponse.isChanged()) {
+                    dispatchMergedResponse(kieResponse);
+                    kieRequest.setRevision(kieResponse.getRevision());
+                }
+                this.failCount = 0;
+                scheduleTask(this, LONG_CONNECTION_REQUEST_INTERVAL_MS);
+            } catch (Exception ex) {
+                LOGGER.warning(String.format(Locale.ENGLISH, "pull merged kie config failed, %s, it will rePull",
+                    ex.getMessage()));
+                ++failCount;
+                scheduleTask(this, getRetryWaitMs(failCount));
+            }
+        }
 
-        SleepCallBackTask(Task nextTask, int failedCount) {
-            this.nextTask = nextTask;
-            this.failedCount = failedCount;
+        @Override
+        public boolean isLongConnectionRequest() {
+            return true;
         }
+    }
 
-        SleepCallBackTask(Task nextTask, long waitTimeMs) {
-            this.nextTask = nextTask;
-            this.waitTimeMs = waitTimeMs;
+    /**
+     * 合并订阅中的标签组，自身不发起请求，停止后不再接收分发
+     *
+     * @since 2023-08-22
+     */
+    static class MergedMemberTask extends AbstractTask {
+        private final Map<String, String> labels;
+
+        MergedMemberTask(Map<String, String> labels) {
+            this.labels = labels;
         }
 
         @Override
         public void executeInner() {
-            long wait;
-            if (waitTimeMs != 0) {
-                wait = Math.min(waitTimeMs, MAX_WAIT_MS);
-            } else {
-                wait = Math.min(MAX_WAIT_MS, BASE_MS * failedCount * failedCount);
-            }
-            try {
-                Thread.sleep(wait);
-                SubscriberManager.this.executeTask(nextTask);
-            } catch (InterruptedException ignored) {
-                // ignored
-            }
+            // 数据由合并订阅的长轮询任务统一分发
         }
 
         @Override
         public boolean isLongConnectionRequest() {
-            return nextTask.isLongConnectionRequest();
+            return true;
         }
 
-        @Override
-        public void stop() {
-            nextTask.stop();
+        /**
+         * 配置是否属于该标签组
+         *
+         * @param entity 配置
+         * @param isAccurate 是否精确匹配标签
+         * @return 是否匹配
+         */
+        boolean isMatch(KieConfigEntity entity, boolean isAccurate) {
+            final Map<String, String> entityLabels = entity.getLabels();
+            if (entityLabels == null) {
+                return labels.isEmpty();
+            }
+            if (isAccurate && entityLabels.size() != labels.size()) {
+                return false;
+            }
+            for (Map.Entry<String, String> entry : labels.entrySet()) {
+                if (!StringUtils.equals(entityLabels.get(entry.getKey()), entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
-}
\ No newline at end of file
+}
@@ -26,18 +26,27 @@ import com.huaweicloud.sermant.core.service.dynamicconfig.config.DynamicConfig;
 import com.huaweicloud.sermant.core.utils.AesUtil;
 
 import org.apache.zookeeper.AddWatchMode;
+import org.apache.zookeeper.AsyncCallback;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 /**
@@ -73,7 +82,12 @@ public class ZooKeeperBufferedClient implements Closeable {
     /**
      * zk客户端对象
      */
-    private ZooKeeper zkClient;
+    private volatile ZooKeeper zkClient;
+
+    /**
+     * 连接成功后的回调，包括首次连接和重连
+     */
+    private volatile Runnable connectedHandler;
 
     /**
      * 新建ZooKeeperBufferedClient，初始化zk客户端，并提供过期重连机制
@@ -83,6 +97,18 @@ public class ZooKeeperBufferedClient implements Closeable {
      * @throws ZooKeeperInitException 依赖动态配置情况下，zookeeper初始化失败，需要中断Sermant
      */
     public ZooKeeperBufferedClient(String connectString, int sessionTimeout) {
+        this(connectString, sessionTimeout, true);
+    }
+
+    /**
+     * 新建ZooKeeperBufferedClient，初始化zk客户端，并提供过期重连机制
+     *
+     * @param connectString 连接字符串，必须形如：{@code host:port[(,host:port)...]}
+     * @param sessionTimeout 会话超时时间
+     * @param isWaitConnect 是否阻塞等待连接成功，为false时连接在后台建立，连接成功后回调{@link #setConnectedHandler}
+     * @throws ZooKeeperInitException 依赖动态配置情况下，zookeeper初始化失败，需要中断Sermant
+     */
+    public ZooKeeperBufferedClient(String connectString, int sessionTimeout, boolean isWaitConnect) {
         zkClient = newZkClient(connectString, sessionTimeout, new Watcher() {
             @Override
             public void process(WatchedEvent event) {
@@ -91,9 +117,12 @@ public class ZooKeeperBufferedClient implements Closeable {
                     zkClient = newZkClient(connectString, sessionTimeout, this);
                 }
                 postZookeeperConnectNotification(event);
+                notifyConnected(event);
             }
         });
-        checkConnect();
+        if (isWaitConnect) {
+            checkConnect();
+        }
     }
 
     /**
@@ -107,6 +136,21 @@ public class ZooKeeperBufferedClient implements Closeable {
      */
     public ZooKeeperBufferedClient(String connectString, int sessionTimeout, String userName,
                                    String password, String key) {
+        this(connectString, sessionTimeout, userName, password, key, true);
+    }
+
+    /**
+     * 新建ZooKeeperBufferedClient，初始化zk客户端，并提供过期重连机制
+     *
+     * @param connectString 链接地址
+     * @param sessionTimeout 超市时间
+     * @param userName 用户名
+     * @param password 用户密码
+     * @param key 用户密钥
+     * @param isWaitConnect 是否阻塞等待连接成功，为false时连接在后台建立，连接成功后回调{@link #setConnectedHandler}
+     */
+    public ZooKeeperBufferedClient(String connectString, int sessionTimeout, String userName,
+                                   String password, String key, boolean isWaitConnect) {
         String authInfo = userName + ZK_AUTH_SEPARATOR + AesUtil.decrypt(key, password).orElse(null);
         zkClient = newZkClient(connectString, sessionTimeout, new Watcher() {
             @Override
@@ -118,9 +162,12 @@ public class ZooKeeperBufferedClient implements Closeable {
                     zkClient.addAuthInfo(SCHEME, authInfo.getBytes(CommonConstant.DEFAULT_CHARSET));
                 }
                 postZookeeperConnectNotification(event);
+                notifyConnected(event);
             }
         });
-        checkConnect();
+        if (isWaitConnect) {
+            checkConnect();
+        }
         zkClient.addAuthInfo(SCHEME, authInfo.getBytes(CommonConstant.DEFAULT_CHARSET));
     }
 
@@ -139,6 +186,33 @@ public class ZooKeeperBufferedClient implements Closeable {
         }
     }
 
+    private void notifyConnected(WatchedEvent event) {
+        final Runnable handler = connectedHandler;
+        if (handler != null && event.getType() == Watcher.Event.EventType.None
+                && event.getState() == Watcher.Event.KeeperState.SyncConnected) {
+            handler.run();
+        }
+    }
+
+    /**
+     * 设置连接成功后的回调，回调在zk事件线程中执行，不能阻塞等待zk的异步回调
+     *
+     * @param connectedHandler 回调
+     */
+    public void setConnectedHandler(Runnable connectedHandler) {
+        this.connectedHandler = connectedHandler;
+    }
+
+    /**
+     * 是否已连接
+     *
+     * @return 是否已连接
+     */
+    public boolean isConnected() {
+        final ZooKeeper.States state = zkClient.getState();
+        return state == ZooKeeper.States.CONNECTED || state == ZooKeeper.States.CONNECTEDREADONLY;
+    }
+
     /**
      * 检验链接情况
      *
@@ -220,19 +294,39 @@ public class ZooKeeperBufferedClient implements Closeable {
      * @return 节点内容
      */
     public String getNode(String path) {
-        if (!ifNodeExist(path)) {
-            return "";
-        }
+        return getNodeData(path).map(NodeData::getContent).orElse("");
+    }
+
+    /**
+     * 查询节点内容及版本，仅需一次请求
+     *
+     * @param path 节点路径
+     * @return 节点内容及版本，节点不存在或查询失败时返回空
+     */
+    public Optional<NodeData> getNodeData(String path) {
+        final Stat stat = new Stat();
         final byte[] data;
         try {
-            data = getZkClient().getData(path, false, null);
+            data = getZkClient().getData(path, false, stat);
         } catch (KeeperException | InterruptedException ignored) {
-            return "";
-        }
-        if (data == null) {
-            return "";
+            return Optional.empty();
         }
-        return new String(data, CommonConstant.DEFAULT_CHARSET);
+        return Optional.of(new NodeData(data, stat.getVersion()));
+    }
+
+    /**
+     * 流水线方式查询节点下所有子孙节点的内容及版本，所有请求异步发出后统一等待结果，避免逐个节点的往返等待
+     * <p>已知版本的节点先查询版本，版本未变化时沿用已知内容，不再重复获取数据
+     * <p>结果通过zk事件线程回调，因此不能在zk监听器或{@link #setConnectedHandler}的回调中调用该方法
+     *
+     * @param path 节点路径
+     * @param knownNodes 已知的节点内容及版本，key为节点路径
+     * @return 子孙节点路径及其内容，查询失败或超时时返回空
+     */
+    public Optional<Map<String, NodeData>> getAllNodeData(String path, Map<String, NodeData> knownNodes) {
+        final BulkFetcher fetcher = new BulkFetcher(getZkClient(), knownNodes);
+        fetcher.fetchChildren(path);
+        return fetcher.await(CONFIG.getTimeoutValue());
     }
 
     /**
@@ -417,6 +511,143 @@ public class ZooKeeperBufferedClient implements Closeable {
         }
     }
 
+    /**
+     * 节点内容及版本
+     *
+     * @since 2023-08-22
+     */
+    public static class NodeData {
+        private final String content;
+
+        private final int version;
+
+        /**
+         * 构造函数
+         *
+         * @param content 节点内容
+         * @param version 节点版本
+         */
+        public NodeData(String content, int version) {
+            this.content = content;
+            this.version = version;
+        }
+
+        private NodeData(byte[] data, int version) {
+            this(data == null ? "" : new String(data, CommonConstant.DEFAULT_CHARSET), version);
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+    }
+
+    /**
+     * 流水线查询器，待完成的请求数归零时结束
+     *
+     * @since 2023-08-22
+     */
+    private static class BulkFetcher
+            implements AsyncCallback.ChildrenCallback, AsyncCallback.DataCallback, AsyncCallback.StatCallback {
+        private final ZooKeeper client;
+
+        private final Map<String, NodeData> knownNodes;
+
+        private final Map<String, NodeData> result = new ConcurrentHashMap<>();
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        BulkFetcher(ZooKeeper client, Map<String, NodeData> knownNodes) {
+            this.client = client;
+            this.knownNodes = knownNodes;
+        }
+
+        void fetchChildren(String path) {
+            pending.incrementAndGet();
+            client.getChildren(path, false, this, null);
+        }
+
+        private void fetchNode(String path) {
+            pending.incrementAndGet();
+            if (knownNodes.containsKey(path)) {
+                client.exists(path, false, this, null);
+            } else {
+                client.getData(path, false, this, null);
+            }
+        }
+
+        @Override
+        public void processResult(int rc, String path, Object ctx, List<String> children) {
+            if (rc == KeeperException.Code.OK.intValue()) {
+                for (String child : children) {
+                    final String childPath = path + ZK_PATH_SEPARATOR + child;
+                    fetchNode(childPath);
+                    fetchChildren(childPath);
+                }
+            } else if (rc != KeeperException.Code.NONODE.intValue()) {
+                fail();
+            }
+            finish();
+        }
+
+        @Override
+        public void processResult(int rc, String path, Object ctx, byte[] data, Stat stat) {
+            if (rc == KeeperException.Code.OK.intValue()) {
+                result.put(path, new NodeData(data, stat.getVersion()));
+            } else if (rc != KeeperException.Code.NONODE.intValue()) {
+                fail();
+            }
+            finish();
+        }
+
+        @Override
+        public void processResult(int rc, String path, Object ctx, Stat stat) {
+            if (rc == KeeperException.Code.OK.intValue()) {
+                final NodeData known = knownNodes.get(path);
+                if (known.getVersion() == stat.getVersion()) {
+                    result.put(path, known);
+                } else {
+                    // 版本变化时再获取数据
+                    pending.incrementAndGet();
+                    client.getData(path, false, this, null);
+                }
+            } else if (rc != KeeperException.Code.NONODE.intValue()) {
+                fail();
+            }
+            finish();
+        }
+
+        private void fail() {
+            failed.set(true);
+            latch.countDown();
+        }
+
+        private void finish() {
+            if (pending.decrementAndGet() == 0) {
+                latch.countDown();
+            }
+        }
+
+        Optional<Map<String, NodeData>> await(long timeout) {
+            try {
+                if (!latch.await(timeout, TimeUnit.MILLISECONDS) || failed.get()) {
+                    return Optional.empty();
+                }
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            return Optional.of(result);
+        }
+    }
+
     /**
      * 循环跳出处理器，目前用于处理循环注册被意外终止的情况
      *
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.dynamicconfig.zookeeper;
+
+import com.huaweicloud.sermant.core.common.CommonConstant;
+import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.implement.service.dynamicconfig.zookeeper.ZooKeeperBufferedClient.NodeData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * zookeeper配置快照，记录节点内容及版本
+ * <p>内存中的快照用于按版本判断节点是否变化，开启持久化时写入本地文件，启动时可在连接配置中心前直接使用
+ * <p>文件格式：魔数、格式版本、服务器地址、节点数，随后依次为节点路径、节点版本、内容长度及内容
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-22
+ */
+public class ZooKeeperConfigSnapshot {
+    /**
+     * 日志
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger();
+
+    /**
+     * 文件魔数
+     */
+    private static final int MAGIC = 0x5A4B534E;
+
+    /**
+     * 文件格式版本，格式变化时递增，版本不一致的快照将被忽略
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<String, NodeData> nodes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final File file;
+
+    private final String serverAddress;
+
+    /**
+     * 构造函数
+     *
+     * @param file 快照文件，为空时仅在内存中记录
+     * @param serverAddress 服务器地址，与快照记录的地址不一致时忽略快照
+     */
+    public ZooKeeperConfigSnapshot(File file, String serverAddress) {
+        this.file = file;
+        this.serverAddress = serverAddress == null ? "" : serverAddress;
+    }
+
+    /**
+     * 从快照文件加载节点
+     *
+     * @return 是否加载成功
+     */
+    public boolean load() {
+        if (file == null || !file.isFile()) {
+            return false;
+        }
+        final Map<String, NodeData> loaded = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION
+                    || !serverAddress.equals(input.readUTF())) {
+                LOGGER.info(String.format(Locale.ROOT, "Ignore incompatible config snapshot [%s]. ", file));
+                return false;
+            }
+            final int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                final String path = input.readUTF();
+                final int version = input.readInt();
+                final byte[] content = new byte[input.readInt()];
+                input.readFully(content);
+                loaded.put(path, new NodeData(new String(content, CommonConstant.DEFAULT_CHARSET), version));
+            }
+        } catch (IOException ignored) {
+            LOGGER.warning(String.format(Locale.ROOT, "Load config snapshot [%s] failed. ", file));
+            return false;
+        }
+        nodes.putAll(loaded);
+        return true;
+    }
+
+    /**
+     * 将快照写入文件，先写临时文件再替换，避免进程中断时留下不完整的快照
+     */
+    public synchronized void save() {
+        if (file == null || !dirty.compareAndSet(true, false)) {
+            return;
+        }
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            LOGGER.warning(String.format(Locale.ROOT, "Create config snapshot directory [%s] failed. ", parent));
+            return;
+        }
+        final File tempFile = new File(parent, file.getName() + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                final Map<String, NodeData> copy = new HashMap<>(nodes);
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(serverAddress);
+                output.writeInt(copy.size());
+                for (Map.Entry<String, NodeData> entry : copy.entrySet()) {
+                    final byte[] content = entry.getValue().getContent().getBytes(CommonConstant.DEFAULT_CHARSET);
+                    output.writeUTF(entry.getKey());
+                    output.writeInt(entry.getValue().getVersion());
+                    output.writeInt(content.length);
+                    output.write(content);
+                }
+            }
+            move(tempFile, file);
+        } catch (IOException ignored) {
+            dirty.set(true);
+            LOGGER.warning(String.format(Locale.ROOT, "Save config snapshot [%s] failed. ", file));
+        }
+    }
+
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 是否有未写入文件的修改
+     *
+     * @return 是否有未写入文件的修改
+     */
+    public boolean isDirty() {
+        return file != null && dirty.get();
+    }
+
+    /**
+     * 获取节点
+     *
+     * @param path 节点路径
+     * @return 节点内容及版本
+     */
+    public Optional<NodeData> get(String path) {
+        return Optional.ofNullable(nodes.get(path));
+    }
+
+    /**
+     * 更新节点，版本及内容均未变化时不做修改
+     *
+     * @param path 节点路径
+     * @param node 节点内容及版本
+     * @return 节点是否变化
+     */
+    public boolean update(String path, NodeData node) {
+        final NodeData old = nodes.put(path, node);
+        if (old != null && old.getVersion() == node.getVersion() && old.getContent().equals(node.getContent())) {
+            return false;
+        }
+        dirty.set(true);
+        return true;
+    }
+
+    /**
+     * 移除节点
+     *
+     * @param path 节点路径
+     * @return 节点是否存在
+     */
+    public boolean remove(String path) {
+        if (nodes.remove(path) == null) {
+            return false;
+        }
+        dirty.set(true);
+        return true;
+    }
+
+    /**
+     * 获取路径下所有子孙节点
+     *
+     * @param path 节点路径
+     * @return 子孙节点，key为节点路径
+     */
+    public Map<String, NodeData> getChildren(String path) {
+        final String prefix = path + ZooKeeperBufferedClient.ZK_PATH_SEPARATOR;
+        final Map<String, NodeData> children = new HashMap<>();
+        for (Map.Entry<String, NodeData> entry : nodes.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                children.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return children;
+    }
+}
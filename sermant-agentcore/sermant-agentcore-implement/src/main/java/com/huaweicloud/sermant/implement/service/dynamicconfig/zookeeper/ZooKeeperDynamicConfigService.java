@@ -20,14 +20,25 @@ import com.huaweicloud.sermant.core.common.LoggerFactory;
 import com.huaweicloud.sermant.core.service.dynamicconfig.DynamicConfigService;
 import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigEvent;
 import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigListener;
+import com.huaweicloud.sermant.core.utils.FileUtils;
+import com.huaweicloud.sermant.core.utils.ThreadFactoryUtils;
+import com.huaweicloud.sermant.implement.service.dynamicconfig.zookeeper.ZooKeeperBufferedClient.NodeData;
 
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 /**
@@ -48,24 +59,98 @@ public class ZooKeeperDynamicConfigService extends DynamicConfigService {
      */
     private static final char ZK_PATH_SEPARATOR = ZooKeeperBufferedClient.ZK_PATH_SEPARATOR;
 
+    /**
+     * 快照文件名
+     */
+    private static final String SNAPSHOT_FILE_NAME = "zookeeper-config.snapshot";
+
     /**
      * zookeeper的包装客户端
      */
     private ZooKeeperBufferedClient zkClient;
 
+    /**
+     * 配置快照，记录已获取节点的内容及版本，仅用于持久化，事件去重由各监听自行记录
+     */
+    private ZooKeeperConfigSnapshot snapshot;
+
+    /**
+     * 未连接时延后的监听注册任务，连接成功后执行
+     */
+    private final Queue<Runnable> deferredTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 执行延后任务及快照写入，不能在zk事件线程中等待异步回调
+     */
+    private ExecutorService executor;
+
     @Override
     public void start() {
+        final File snapshotFile = CONFIG.isSnapshotEnable() ? getSnapshotFile() : null;
+        snapshot = new ZooKeeperConfigSnapshot(snapshotFile, CONFIG.getServerAddress());
+        final boolean isWaitConnect = !snapshot.load();
+        if (!isWaitConnect) {
+            LOGGER.info(String.format(Locale.ROOT, "Start with config snapshot [%s]. ", snapshotFile));
+        }
+        executor = Executors.newSingleThreadExecutor(new ThreadFactoryUtils("zookeeper-config-reconcile"));
         if (CONFIG.isEnableAuth()) {
             zkClient = new ZooKeeperBufferedClient(CONFIG.getServerAddress(), CONFIG.getTimeoutValue(),
-                    CONFIG.getUserName(), CONFIG.getPassword(), CONFIG.getPrivateKey());
+                    CONFIG.getUserName(), CONFIG.getPassword(), CONFIG.getPrivateKey(), isWaitConnect);
         } else {
-            zkClient = new ZooKeeperBufferedClient(CONFIG.getServerAddress(), CONFIG.getTimeoutValue());
+            zkClient = new ZooKeeperBufferedClient(CONFIG.getServerAddress(), CONFIG.getTimeoutValue(),
+                    isWaitConnect);
         }
+        zkClient.setConnectedHandler(() -> executor.execute(this::runDeferredTasks));
     }
 
     @Override
     public void stop() {
         zkClient.close();
+        executor.shutdown();
+        snapshot.save();
+    }
+
+    private File getSnapshotFile() {
+        final String snapshotPath = CONFIG.getSnapshotPath();
+        return snapshotPath == null || snapshotPath.isEmpty()
+                ? new File(FileUtils.getAgentPath(), SNAPSHOT_FILE_NAME) : new File(snapshotPath, SNAPSHOT_FILE_NAME);
+    }
+
+    /**
+     * 是否在未连接时延后监听注册，仅开启快照时生效
+     *
+     * @return 是否延后
+     */
+    private boolean isDeferRequired() {
+        return CONFIG.isSnapshotEnable() && !zkClient.isConnected();
+    }
+
+    private void deferTask(Runnable task) {
+        deferredTasks.add(task);
+
+        // 连接可能在入队前已建立，此时需主动触发一次
+        if (zkClient.isConnected()) {
+            executor.execute(this::runDeferredTasks);
+        }
+    }
+
+    private void runDeferredTasks() {
+        Runnable task;
+        while (zkClient.isConnected() && (task = deferredTasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                LOGGER.warning(String.format(Locale.ROOT, "Run deferred zookeeper task failed: [%s]. ",
+                        ex.getMessage()));
+            }
+        }
+        saveSnapshot();
+    }
+
+    private void saveSnapshot() {
+        if (snapshot.isDirty()) {
+            executor.execute(snapshot::save);
+        }
     }
 
     /**
@@ -90,33 +175,69 @@ public class ZooKeeperDynamicConfigService extends DynamicConfigService {
     }
 
     /**
-     * 将zk事件转换为动态配置事件
+     * 将zk事件转换为动态配置事件，节点版本及内容与该监听已分发的一致时不再分发
      *
      * @param key          配置键
      * @param group        分组
      * @param watchedEvent zk事件
-     * @return 动态配置事件
+     * @param seenNodes    该监听已分发的节点，key为节点路径
+     * @return 动态配置事件，节点未变化时返回空
      */
-    private DynamicConfigEvent transEvent(String key, String group, WatchedEvent watchedEvent) {
-        switch (watchedEvent.getType()) {
-            case NodeCreated:
-                return DynamicConfigEvent.createEvent(key, group, doGetConfig(key, group).orElse(null));
-            case NodeDeleted:
-                return DynamicConfigEvent.deleteEvent(key, group, doGetConfig(key, group).orElse(null));
-            case None:
-            case NodeDataChanged:
-            case DataWatchRemoved:
-            case ChildWatchRemoved:
-            case NodeChildrenChanged:
-            case PersistentWatchRemoved:
-            default:
-                return DynamicConfigEvent.modifyEvent(key, group, doGetConfig(key, group).orElse(null));
+    private Optional<DynamicConfigEvent> transEvent(String key, String group, WatchedEvent watchedEvent,
+            Map<String, NodeData> seenNodes) {
+        final String path = toPath(key, group);
+        if (watchedEvent.getType() == Watcher.Event.EventType.NodeDeleted) {
+            seenNodes.remove(path);
+            if (snapshot.remove(path)) {
+                saveSnapshot();
+            }
+            return Optional.of(DynamicConfigEvent.deleteEvent(key, group, ""));
+        }
+        final Optional<NodeData> node = zkClient.getNodeData(path);
+        if (node.isPresent()) {
+            if (snapshot.update(path, node.get())) {
+                saveSnapshot();
+            }
+            if (!markSeen(seenNodes, path, node.get())) {
+                LOGGER.fine(String.format(Locale.ROOT, "Skip unchanged node [%s] of version [%d]. ", path,
+                        node.get().getVersion()));
+                return Optional.empty();
+            }
+        }
+        final String content = node.map(NodeData::getContent).orElse("");
+        if (watchedEvent.getType() == Watcher.Event.EventType.NodeCreated) {
+            return Optional.of(DynamicConfigEvent.createEvent(key, group, content));
         }
+        return Optional.of(DynamicConfigEvent.modifyEvent(key, group, content));
+    }
+
+    /**
+     * 记录监听已分发的节点
+     *
+     * @param seenNodes 该监听已分发的节点
+     * @param path 节点路径
+     * @param node 节点内容及版本
+     * @return 节点相对已分发的是否变化
+     */
+    private static boolean markSeen(Map<String, NodeData> seenNodes, String path, NodeData node) {
+        final NodeData old = seenNodes.put(path, node);
+        return old == null || old.getVersion() != node.getVersion() || !old.getContent().equals(node.getContent());
     }
 
     @Override
     public Optional<String> doGetConfig(String key, String group) {
-        return Optional.ofNullable(zkClient.getNode(toPath(key, group)));
+        final String path = toPath(key, group);
+        if (isDeferRequired()) {
+            return Optional.of(snapshot.get(path).map(NodeData::getContent).orElse(""));
+        }
+        final Optional<NodeData> node = zkClient.getNodeData(path);
+        if (node.isPresent()) {
+            if (snapshot.update(path, node.get())) {
+                saveSnapshot();
+            }
+            return Optional.of(node.get().getContent());
+        }
+        return Optional.of("");
     }
 
     @Override
@@ -131,6 +252,53 @@ public class ZooKeeperDynamicConfigService extends DynamicConfigService {
 
     @Override
     public boolean doAddConfigListener(String key, String group, DynamicConfigListener listener) {
+        final Map<String, NodeData> seenNodes = new ConcurrentHashMap<>();
+        if (isDeferRequired()) {
+            final String path = toPath(key, group);
+            snapshot.get(path).ifPresent(node -> seenNodes.put(path, node));
+            deferTask(() -> {
+                if (addConfigWatch(key, group, listener, seenNodes)) {
+                    reconcileKey(key, group, listener, seenNodes);
+                }
+            });
+            return true;
+        }
+        return addConfigWatch(key, group, listener, seenNodes);
+    }
+
+    /**
+     * 连接成功后校准单个键，快照中的内容已作为初始化事件分发，这里仅分发此后的变化
+     *
+     * @param key 配置键
+     * @param group 分组
+     * @param listener 监听器
+     * @param seenNodes 该监听已分发的节点
+     */
+    private void reconcileKey(String key, String group, DynamicConfigListener listener,
+            Map<String, NodeData> seenNodes) {
+        final String path = toPath(key, group);
+        final boolean isKnown = seenNodes.containsKey(path);
+        final Optional<NodeData> node = zkClient.getNodeData(path);
+        if (node.isPresent()) {
+            if (snapshot.update(path, node.get())) {
+                saveSnapshot();
+            }
+            if (markSeen(seenNodes, path, node.get())) {
+                listener.process(isKnown ? DynamicConfigEvent.modifyEvent(key, group, node.get().getContent())
+                        : DynamicConfigEvent.createEvent(key, group, node.get().getContent()));
+            }
+        } else if (isKnown && !zkClient.ifNodeExist(path)) {
+            if (snapshot.remove(path)) {
+                saveSnapshot();
+            }
+            if (seenNodes.remove(path) != null) {
+                listener.process(DynamicConfigEvent.deleteEvent(key, group, ""));
+            }
+        }
+    }
+
+    private boolean addConfigWatch(String key, String group, DynamicConfigListener listener,
+            Map<String, NodeData> seenNodes) {
         final String fullPath = toPath(key, group);
         return zkClient.addDataLoopWatch(fullPath, new Watcher() {
             @Override
@@ -141,7 +309,7 @@ public class ZooKeeperDynamicConfigService extends DynamicConfigService {
                             watchedEvent.getPath(), fullPath));
                     return;
                 }
-                listener.process(transEvent(key, group, watchedEvent));
+                transEvent(key, group, watchedEvent, seenNodes).ifPresent(listener::process);
             }
         }, new ZooKeeperBufferedClient.BreakHandler() {
             @Override
@@ -161,6 +329,12 @@ public class ZooKeeperDynamicConfigService extends DynamicConfigService {
     public List<String> doListKeysFromGroup(String group) {
         final String groupPath = toPath(group);
         final List<String> keys = new ArrayList<>();
+        if (isDeferRequired()) {
+            for (String keyPath : snapshot.getChildren(groupPath).keySet()) {
+                keys.add(keyPath.substring(groupPath.length() + 1));
+            }
+            return keys;
+        }
         for (String keyPath : zkClient.listAllNodes(groupPath)) {
             if (keyPath.startsWith(groupPath)) {
                 keys.add(keyPath.substring(groupPath.length() + 1));
@@ -171,6 +345,10 @@ public class ZooKeeperDynamicConfigService extends DynamicConfigService {
 
     @Override
     public boolean doAddGroupListener(String group, DynamicConfigListener listener) {
+        return addGroupWatch(group, listener, new ConcurrentHashMap<>());
+    }
+
+    private boolean addGroupWatch(String group, DynamicConfigListener listener, Map<String, NodeData> seenNodes) {
         final String groupPath = toPath(group);
         return zkClient.addPersistentRecursiveWatches(groupPath, new Watcher() {
             @Override
@@ -189,11 +367,121 @@ public class ZooKeeperDynamicConfigService extends DynamicConfigService {
                             "Event path [%s] is not child of [%s]. ", eventPath, groupPath));
                     return;
                 }
-                listener.process(transEvent(eventPath.substring(groupPath.length() + 1), group, watchedEvent));
+                transEvent(eventPath.substring(groupPath.length() + 1), group, watchedEvent, seenNodes)
+                        .ifPresent(listener::process);
             }
         });
     }
 
+    /**
+     * 为组添加监听器，初始化事件通过流水线批量获取组下节点，避免逐个键的往返等待
+     * <p>开启快照且未连接时，初始化事件使用快照内容，监听在连接成功后注册，并分发快照之后的变化
+     *
+     * @param group    组名
+     * @param listener 监听器
+     * @param ifNotify 是否在添加监听器时响应初始化时间
+     * @return 是否添加成功
+     */
+    @Override
+    public boolean addGroupListener(String group, DynamicConfigListener listener, boolean ifNotify) {
+        if (listener == null) {
+            LOGGER.warning("Empty listener is not allowed. ");
+            return false;
+        }
+        final String fixedGroup = fixGroup(group);
+        final String groupPath = toPath(fixedGroup);
+        final Map<String, NodeData> seenNodes = new ConcurrentHashMap<>();
+        if (isDeferRequired()) {
+            final Map<String, NodeData> knownNodes = snapshot.getChildren(groupPath);
+            seenNodes.putAll(knownNodes);
+            if (ifNotify) {
+                notifyInit(fixedGroup, listener, knownNodes);
+            }
+            deferTask(() -> {
+                if (addGroupWatch(fixedGroup, listener, seenNodes)) {
+                    reconcileGroup(fixedGroup, listener, seenNodes);
+                }
+            });
+            return true;
+        }
+        if (!addGroupWatch(fixedGroup, listener, seenNodes)) {
+            return false;
+        }
+        if (!ifNotify) {
+            return true;
+        }
+        final Map<String, NodeData> knownNodes = snapshot.getChildren(groupPath);
+        final Optional<Map<String, NodeData>> nodes = zkClient.getAllNodeData(groupPath, knownNodes);
+        if (nodes.isPresent()) {
+            applyToSnapshot(knownNodes, nodes.get());
+            for (Map.Entry<String, NodeData> entry : nodes.get().entrySet()) {
+                seenNodes.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            notifyInit(fixedGroup, listener, nodes.get());
+        } else {
+            LOGGER.warning(String.format(Locale.ROOT, "Bulk fetch group [%s] failed, fetch keys one by one. ",
+                    groupPath));
+            for (String key : doListKeysFromGroup(fixedGroup)) {
+                listener.process(DynamicConfigEvent.initEvent(key, fixedGroup, getConfig(key, fixedGroup)));
+            }
+        }
+        return true;
+    }
+
+    private void notifyInit(String group, DynamicConfigListener listener, Map<String, NodeData> nodes) {
+        final int prefixLength = toPath(group).length() + 1;
+        for (Map.Entry<String, NodeData> entry : nodes.entrySet()) {
+            listener.process(DynamicConfigEvent.initEvent(entry.getKey().substring(prefixLength), group,
+                    entry.getValue().getContent()));
+        }
+    }
+
+    private void applyToSnapshot(Map<String, NodeData> knownNodes, Map<String, NodeData> nodes) {
+        for (Map.Entry<String, NodeData> entry : nodes.entrySet()) {
+            snapshot.update(entry.getKey(), entry.getValue());
+        }
+        for (String path : knownNodes.keySet()) {
+            if (!nodes.containsKey(path)) {
+                snapshot.remove(path);
+            }
+        }
+        saveSnapshot();
+    }
+
+    /**
+     * 连接成功后校准组，快照中的内容已作为初始化事件分发，这里仅分发相对该监听已分发内容变化的节点
+     *
+     * @param group 组名
+     * @param listener 监听器
+     * @param seenNodes 该监听已分发的节点
+     */
+    private void reconcileGroup(String group, DynamicConfigListener listener, Map<String, NodeData> seenNodes) {
+        final String groupPath = toPath(group);
+        final Map<String, NodeData> knownNodes = new HashMap<>(seenNodes);
+        final Optional<Map<String, NodeData>> nodes = zkClient.getAllNodeData(groupPath, knownNodes);
+        if (!nodes.isPresent()) {
+            LOGGER.warning(String.format(Locale.ROOT, "Reconcile group [%s] failed. ", groupPath));
+            return;
+        }
+        applyToSnapshot(snapshot.getChildren(groupPath), nodes.get());
+        final int prefixLength = groupPath.length() + 1;
+        for (Map.Entry<String, NodeData> entry : nodes.get().entrySet()) {
+            final String path = entry.getKey();
+            if (!markSeen(seenNodes, path, entry.getValue())) {
+                continue;
+            }
+            final String key = path.substring(prefixLength);
+            final String content = entry.getValue().getContent();
+            listener.process(knownNodes.containsKey(path) ? DynamicConfigEvent.modifyEvent(key, group, content)
+                    : DynamicConfigEvent.createEvent(key, group, content));
+        }
+        for (String path : knownNodes.keySet()) {
+            if (!nodes.get().containsKey(path) && seenNodes.remove(path) != null) {
+                listener.process(DynamicConfigEvent.deleteEvent(path.substring(prefixLength), group, ""));
+            }
+        }
+    }
+
     @Override
     public boolean doRemoveGroupListener(String group) {
         return zkClient.removeAllWatches(toPath(group));
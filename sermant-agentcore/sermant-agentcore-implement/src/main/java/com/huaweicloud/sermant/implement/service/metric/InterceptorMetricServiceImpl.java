@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.metric;
+
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.event.collector.FrameworkEventCollector;
+import com.huaweicloud.sermant.core.event.config.EventConfig;
+import com.huaweicloud.sermant.core.service.metric.api.InterceptorMetricService;
+import com.huaweicloud.sermant.core.service.metric.common.InterceptorMetric;
+import com.huaweicloud.sermant.core.service.metric.common.InterceptorMetricRecorder;
+import com.huaweicloud.sermant.core.utils.ThreadFactoryUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InterceptorMetricService}的实现，按事件的发送间隔将拦截器运行指标以框架事件的形式上报
+ * <p>每次仅上报自上次上报以来有调用的指标的增量，按增量调用次数降序最多上报100条，
+ * 每20条合并为一个事件，事件数量不随被增强方法的数量无限增长
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-08
+ */
+public class InterceptorMetricServiceImpl implements InterceptorMetricService {
+    /**
+     * 单次上报的最大指标条数
+     */
+    private static final int MAX_REPORT_NUM = 100;
+
+    /**
+     * 单个事件合并的指标条数
+     */
+    private static final int BATCH_SIZE = 20;
+
+    /**
+     * 指标上报定时任务
+     */
+    private static final ScheduledExecutorService EXECUTOR_SERVICE =
+            Executors.newScheduledThreadPool(1, new ThreadFactoryUtils("interceptor-metric-task"));
+
+    private final EventConfig eventConfig = ConfigManager.getConfig(EventConfig.class);
+
+    /**
+     * 各指标上次上报时的累计值，依次为调用次数、异常次数及总耗时，仅在持有当前对象锁时访问
+     */
+    private final Map<InterceptorMetric, long[]> reported = new HashMap<>();
+
+    @Override
+    public void start() {
+        if (!eventConfig.isEnable()) {
+            return;
+        }
+        EXECUTOR_SERVICE.scheduleAtFixedRate(this::report, eventConfig.getSendInterval(),
+                eventConfig.getSendInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        report();
+        EXECUTOR_SERVICE.shutdownNow();
+    }
+
+    @Override
+    public Collection<InterceptorMetric> getMetrics() {
+        return InterceptorMetricRecorder.getMetrics();
+    }
+
+    @Override
+    public synchronized void reset() {
+        InterceptorMetricRecorder.reset();
+        reported.clear();
+    }
+
+    @Override
+    public synchronized void report() {
+        final List<MetricDelta> deltas = new ArrayList<>();
+        for (InterceptorMetric metric : getMetrics()) {
+            final long[] current = {metric.getInvokeCount(), metric.getExceptionCount(), metric.getTotalNanos()};
+            final long[] last = reported.put(metric, current);
+
+            // 计数器被外部重置时，以当前值作为增量
+            final MetricDelta delta = last == null || last[0] > current[0] ? new MetricDelta(metric, current)
+                    : new MetricDelta(metric, current[0] - last[0], current[1] - last[1], current[2] - last[2]);
+            if (delta.invokeCount > 0) {
+                deltas.add(delta);
+            }
+        }
+        deltas.sort((left, right) -> Long.compare(right.invokeCount, left.invokeCount));
+        final StringBuilder batch = new StringBuilder();
+        int batchNum = 0;
+        for (int i = 0; i < Math.min(deltas.size(), MAX_REPORT_NUM); i++) {
+            if (batchNum > 0) {
+                batch.append(System.lineSeparator());
+            }
+            batch.append(deltas.get(i));
+            if (++batchNum >= BATCH_SIZE) {
+                FrameworkEventCollector.getInstance().collectInterceptorMetricEvent(batch.toString());
+                batch.setLength(0);
+                batchNum = 0;
+            }
+        }
+        if (batchNum > 0) {
+            FrameworkEventCollector.getInstance().collectInterceptorMetricEvent(batch.toString());
+        }
+    }
+
+    /**
+     * 单个指标在一个上报周期内的增量，最大耗时为累计值
+     *
+     * @since 2023-08-08
+     */
+    private static class MetricDelta {
+        private final InterceptorMetric metric;
+
+        private final long invokeCount;
+
+        private final long exceptionCount;
+
+        private final long totalNanos;
+
+        MetricDelta(InterceptorMetric metric, long[] counts) {
+            this(metric, counts[0], counts[1], counts[2]);
+        }
+
+        MetricDelta(InterceptorMetric metric, long invokeCount, long exceptionCount, long totalNanos) {
+            this.metric = metric;
+            this.invokeCount = invokeCount;
+            this.exceptionCount = exceptionCount;
+            this.totalNanos = totalNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "InterceptorMetric{"
+                    + "methodKey='" + metric.getMethodKey() + '\''
+                    + ", interceptorName='" + metric.getInterceptorName() + '\''
+                    + ", invokeCount=" + invokeCount
+                    + ", exceptionCount=" + exceptionCount
+                    + ", avgNanos=" + totalNanos / invokeCount
+                    + ", maxNanos=" + metric.getMaxNanos()
+                    + '}';
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.huaweicloud.sermant.implement.service.send.netty;
 
 import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.common.RingBuffer;
 import com.huaweicloud.sermant.core.config.ConfigManager;
 import com.huaweicloud.sermant.core.notification.NettyNotificationType;
 import com.huaweicloud.sermant.core.notification.NotificationInfo;
@@ -27,11 +28,11 @@ import com.huaweicloud.sermant.core.service.send.config.GatewayConfig;
 import com.huaweicloud.sermant.core.service.visibility.api.VisibilityService;
 import com.huaweicloud.sermant.core.utils.ThreadFactoryUtils;
 import com.huaweicloud.sermant.implement.service.send.netty.pojo.Message;
-import com.huaweicloud.sermant.implement.utils.GzipUtils;
-
-import com.google.protobuf.ByteString;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -44,12 +45,11 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.protobuf.ProtobufDecoder;
 import io.netty.handler.codec.protobuf.ProtobufEncoder;
 import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
-import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import io.netty.handler.timeout.IdleStateHandler;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.Locale;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -91,8 +91,15 @@ public class NettyClient {
      */
     private final int compareTime;
 
-    // 阻塞队列，用于缓存消息，对于非即时消息，减少消息发送的频率，设置值为100条消息
-    private final BlockingQueue<Message.ServiceData> queue = new ArrayBlockingQueue<>(100);
+    /**
+     * 无锁队列，用于缓存消息，对于非即时消息，减少消息发送的频率，容量由gateway.sendQueueCapacity配置
+     */
+    private final RingBuffer<PendingServiceData> queue;
+
+    /**
+     * 是否整体压缩一次发送的所有消息
+     */
+    private final boolean isBatchCompressEnable;
 
     private final String ip;
 
@@ -129,6 +136,8 @@ public class NettyClient {
         initReconnectInternalTime = gatewayConfig.getInitReconnectInternalTime();
         maxReconnectInternalTime = gatewayConfig.getMaxReconnectInternalTime();
         compareTime = maxReconnectInternalTime / BACKOFF_FACTOR;
+        queue = new RingBuffer<>(gatewayConfig.getSendQueueCapacity());
+        isBatchCompressEnable = gatewayConfig.isBatchCompressEnable();
         ip = serverIp;
         port = serverPort;
         reconnectInternalTime = initReconnectInternalTime;
@@ -158,7 +167,7 @@ public class NettyClient {
                                 TimeUnit.MILLISECONDS));
                         pipeline.addLast(new ProtobufVarint32FrameDecoder());
                         pipeline.addLast(new ProtobufDecoder(Message.NettyMessage.getDefaultInstance()));
-                        pipeline.addLast(new ProtobufVarint32LengthFieldPrepender());
+                        pipeline.addLast(new Varint32FramePrepender());
                         pipeline.addLast(new ProtobufEncoder());
                         pipeline.addLast(new ClientHandler(NettyClient.this));
                     }
@@ -189,7 +198,7 @@ public class NettyClient {
                 channel = channelFuture.channel();
                 if (channel.isActive()) {
                     isConnected = true;
-                    Sender sender = new Sender(channel, queue);
+                    Sender sender = new Sender(channel, queue, isBatchCompressEnable);
                     LOGGER.info("Successfully Connected to server");
                     executorService = Executors.newScheduledThreadPool(1, new ThreadFactoryUtils("netty-send-thread"));
                     executorService.scheduleAtFixedRate(sender, 0, sendInternalTime, TimeUnit.SECONDS);
@@ -235,12 +244,17 @@ public class NettyClient {
             LOGGER.warning("Message is null.");
             return;
         }
-        byte[] compressMsg = GzipUtils.compress(msg);
-        Message.ServiceData serviceData =
-                Message.ServiceData.newBuilder().setDataType(dataType).setData(ByteString.copyFrom(compressMsg))
-                        .build();
+        final PendingServiceData serviceData;
+        try {
+            serviceData = new PendingServiceData(dataType, isBatchCompressEnable ? Unpooled.wrappedBuffer(msg)
+                    : NettyMessageEncoder.compress(PooledByteBufAllocator.DEFAULT, msg));
+        } catch (IOException e) {
+            LOGGER.warning(String.format(Locale.ROOT, "Failed to compress %s message.", dataType));
+            return;
+        }
         if (!queue.offer(serviceData)) {
-            LOGGER.info(String.format(Locale.ROOT, "Message queue is full, add %s failed.", serviceData.getDataType()));
+            serviceData.getData().release();
+            LOGGER.info(String.format(Locale.ROOT, "Message queue is full, add %s failed.", dataType));
         }
     }
 
@@ -256,19 +270,20 @@ public class NettyClient {
             LOGGER.warning("Netty connection is not available.");
             return false;
         }
-        byte[] compressMsg = GzipUtils.compress(msg);
-        Message.ServiceData serviceData =
-                Message.ServiceData.newBuilder().setDataType(dataType).setData(ByteString.copyFrom(compressMsg))
-                        .build();
-        Message.NettyMessage message = Message.NettyMessage.newBuilder()
-                .setMessageType(Message.NettyMessage.MessageType.SERVICE_DATA).addServiceData(serviceData).build();
         if (channel == null) {
             LOGGER.warning("Netty channel is null, send instant data failure.");
             return false;
-        } else {
-            channel.writeAndFlush(message);
-            LOGGER.info("Sent instant data successfully by netty.");
-            return true;
         }
+        final ByteBuf message;
+        try {
+            message = NettyMessageEncoder.encode(channel.alloc(), Collections.singletonList(
+                    new PendingServiceData(dataType, NettyMessageEncoder.compress(channel.alloc(), msg))));
+        } catch (IOException e) {
+            LOGGER.warning(String.format(Locale.ROOT, "Failed to compress %s instant message.", dataType));
+            return false;
+        }
+        channel.writeAndFlush(message);
+        LOGGER.info("Sent instant data successfully by netty.");
+        return true;
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.send.netty;
+
+import com.huaweicloud.sermant.implement.service.send.netty.pojo.Message;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link Message.NettyMessage}的编码器，直接按protobuf格式写入池化的{@link ByteBuf}，避免中间字节数组和ByteString的拷贝
+ * <pre>
+ *     1.逐条压缩：每条数据流式压缩到独立的池化缓冲区，发送时与消息头组合为{@link CompositeByteBuf}
+ *     2.整体压缩：一次发送的所有数据按protobuf格式流式写入同一个压缩流，以
+ *       {@link Message.NettyMessage.MessageType#COMPRESSED_SERVICE_DATA}类型发送
+ * </pre>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-18
+ */
+public class NettyMessageEncoder {
+    /**
+     * NettyMessage.messageType字段的标签，varint类型
+     */
+    private static final int MESSAGE_TYPE_TAG = 0x08;
+
+    /**
+     * NettyMessage.serviceData字段的标签，length-delimited类型
+     */
+    private static final int SERVICE_DATA_TAG = 0x12;
+
+    /**
+     * NettyMessage.compressedServiceData字段的标签，length-delimited类型
+     */
+    private static final int COMPRESSED_SERVICE_DATA_TAG = 0x1A;
+
+    /**
+     * ServiceData.dataType字段的标签，varint类型
+     */
+    private static final int DATA_TYPE_TAG = 0x08;
+
+    /**
+     * ServiceData.data字段的标签，length-delimited类型
+     */
+    private static final int DATA_TAG = 0x12;
+
+    private static final int VARINT_MASK = 0x7F;
+
+    private static final int VARINT_CONTINUE = 0x80;
+
+    private static final int VARINT_SHIFT = 7;
+
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private static final int MAX_HEADER_SIZE = 1 + MAX_VARINT_SIZE + 1 + MAX_VARINT_SIZE + 1 + MAX_VARINT_SIZE;
+
+    private NettyMessageEncoder() {
+    }
+
+    /**
+     * 将数据流式压缩到池化缓冲区
+     *
+     * @param allocator 缓冲区分配器
+     * @param data 数据
+     * @return 压缩后的数据
+     * @throws IOException 压缩失败
+     */
+    public static ByteBuf compress(ByteBufAllocator allocator, byte[] data) throws IOException {
+        final ByteBuf buf = allocator.buffer();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(new ByteBufOutputStream(buf))) {
+            outputStream.write(data);
+        } catch (IOException e) {
+            buf.release();
+            throw e;
+        }
+        return buf;
+    }
+
+    /**
+     * 编码逐条压缩的数据，返回的缓冲区引用了数据的缓冲区，数据的所有权转移给返回值
+     *
+     * @param allocator 缓冲区分配器
+     * @param dataList 已压缩的数据
+     * @return 编码后的NettyMessage
+     */
+    public static ByteBuf encode(ByteBufAllocator allocator, List<PendingServiceData> dataList) {
+        final CompositeByteBuf message = allocator.compositeBuffer(dataList.size() * 2);
+        for (PendingServiceData data : dataList) {
+            final ByteBuf header = allocator.buffer(MAX_HEADER_SIZE);
+            writeServiceDataHeader(header, data);
+            message.addComponent(true, header);
+            message.addComponent(true, data.getData());
+        }
+        return message;
+    }
+
+    /**
+     * 将未压缩的数据整体压缩并编码，数据的缓冲区在编码后被释放
+     *
+     * @param allocator 缓冲区分配器
+     * @param dataList 未压缩的数据
+     * @return 编码后的NettyMessage
+     * @throws IOException 压缩失败
+     */
+    public static ByteBuf encodeCompressed(ByteBufAllocator allocator, List<PendingServiceData> dataList)
+            throws IOException {
+        final ByteBuf compressed = allocator.buffer();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(new ByteBufOutputStream(compressed))) {
+            final ByteBuf header = Unpooled.buffer(MAX_HEADER_SIZE);
+            for (PendingServiceData data : dataList) {
+                writeServiceDataHeader(header.clear(), data);
+                writeTo(header, outputStream);
+                writeTo(data.getData(), outputStream);
+            }
+        } catch (IOException e) {
+            compressed.release();
+            throw e;
+        } finally {
+            for (PendingServiceData data : dataList) {
+                data.getData().release();
+            }
+        }
+        final ByteBuf header = allocator.buffer(1 + 1 + 1 + MAX_VARINT_SIZE);
+        header.writeByte(MESSAGE_TYPE_TAG);
+        writeVarint(header, Message.NettyMessage.MessageType.COMPRESSED_SERVICE_DATA_VALUE);
+        header.writeByte(COMPRESSED_SERVICE_DATA_TAG);
+        writeVarint(header, compressed.readableBytes());
+        return allocator.compositeBuffer(2).addComponent(true, header).addComponent(true, compressed);
+    }
+
+    /**
+     * 写入varint32
+     *
+     * @param buf 缓冲区
+     * @param value 值
+     */
+    public static void writeVarint(ByteBuf buf, int value) {
+        int remain = value;
+        while ((remain & ~VARINT_MASK) != 0) {
+            buf.writeByte((remain & VARINT_MASK) | VARINT_CONTINUE);
+            remain >>>= VARINT_SHIFT;
+        }
+        buf.writeByte(remain);
+    }
+
+    /**
+     * 计算varint32的长度
+     *
+     * @param value 值
+     * @return 长度
+     */
+    public static int varintSize(int value) {
+        int size = 1;
+        int remain = value >>> VARINT_SHIFT;
+        while (remain != 0) {
+            size++;
+            remain >>>= VARINT_SHIFT;
+        }
+        return size;
+    }
+
+    private static void writeServiceDataHeader(ByteBuf buf, PendingServiceData data) {
+        final int dataLength = data.getData().readableBytes();
+        final int dataType = data.getDataType().getNumber();
+
+        // proto3中枚举的默认值不写入
+        final int dataTypeLength = dataType == 0 ? 0 : 1 + varintSize(dataType);
+        buf.writeByte(SERVICE_DATA_TAG);
+        writeVarint(buf, dataTypeLength + 1 + varintSize(dataLength) + dataLength);
+        if (dataType != 0) {
+            buf.writeByte(DATA_TYPE_TAG);
+            writeVarint(buf, dataType);
+        }
+        buf.writeByte(DATA_TAG);
+        writeVarint(buf, dataLength);
+    }
+
+    private static void writeTo(ByteBuf buf, OutputStream outputStream) throws IOException {
+        buf.getBytes(buf.readerIndex(), outputStream, buf.readableBytes());
+    }
+}
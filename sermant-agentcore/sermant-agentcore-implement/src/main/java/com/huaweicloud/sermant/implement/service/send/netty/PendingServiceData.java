@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.send.netty;
+
+import com.huaweicloud.sermant.implement.service.send.netty.pojo.Message;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 待发送的数据，数据保存在{@link ByteBuf}中，由发送方负责释放
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-18
+ */
+public class PendingServiceData {
+    private final Message.ServiceData.DataType dataType;
+
+    private final ByteBuf data;
+
+    /**
+     * 构造函数
+     *
+     * @param dataType 数据类型
+     * @param data 数据
+     */
+    public PendingServiceData(Message.ServiceData.DataType dataType, ByteBuf data) {
+        this.dataType = dataType;
+        this.data = data;
+    }
+
+    public Message.ServiceData.DataType getDataType() {
+        return dataType;
+    }
+
+    public ByteBuf getData() {
+        return data;
+    }
+}
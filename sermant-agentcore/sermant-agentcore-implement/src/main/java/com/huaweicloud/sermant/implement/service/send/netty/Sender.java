@@ -16,16 +16,17 @@
 
 package com.huaweicloud.sermant.implement.service.send.netty;
 
-import com.huaweicloud.sermant.implement.service.send.netty.pojo.Message;
+import com.huaweicloud.sermant.core.common.RingBuffer;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 
 /**
  * 发送数据类
@@ -37,37 +38,52 @@ import java.util.concurrent.BlockingQueue;
 public class Sender implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(Sender.class);
 
-    private final BlockingQueue<Message.ServiceData> queue;
+    private final RingBuffer<PendingServiceData> queue;
 
     private final Channel channel;
 
+    private final boolean isBatchCompressEnable;
+
     /**
      * 构造函数
      *
      * @param channel channel
      * @param queue queue
+     * @param isBatchCompressEnable 是否整体压缩，为true时队列中的数据未压缩
      */
-    public Sender(Channel channel, BlockingQueue<Message.ServiceData> queue) {
+    public Sender(Channel channel, RingBuffer<PendingServiceData> queue, boolean isBatchCompressEnable) {
         this.queue = queue;
         this.channel = channel;
+        this.isBatchCompressEnable = isBatchCompressEnable;
     }
 
     @Override
     public void run() {
-        List<Message.ServiceData> list;
-
         // 消息队列不为空时，发送消息
-        if (queue.size() > 0) {
-            list = new ArrayList<>();
-            queue.drainTo(list);
-            Message.NettyMessage message = Message.NettyMessage.newBuilder()
-                    .setMessageType(Message.NettyMessage.MessageType.SERVICE_DATA).addAllServiceData(list).build();
-            if (channel == null) {
-                LOGGER.warn("channel is null");
-            } else {
-                channel.writeAndFlush(message);
-                LOGGER.info("The message is sent to the gateway successfully. Number of messages: {}", list.size());
+        if (queue.size() <= 0) {
+            return;
+        }
+        List<PendingServiceData> list = new ArrayList<>(queue.size());
+        queue.drainTo(list);
+        if (list.isEmpty()) {
+            return;
+        }
+        if (channel == null) {
+            LOGGER.warn("channel is null");
+            for (PendingServiceData data : list) {
+                data.getData().release();
             }
+            return;
+        }
+        ByteBuf message;
+        try {
+            message = isBatchCompressEnable ? NettyMessageEncoder.encodeCompressed(channel.alloc(), list)
+                    : NettyMessageEncoder.encode(channel.alloc(), list);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to compress the message, {} messages are discarded.", list.size());
+            return;
         }
+        channel.writeAndFlush(message);
+        LOGGER.info("The message is sent to the gateway successfully. Number of messages: {}", list.size());
     }
 }
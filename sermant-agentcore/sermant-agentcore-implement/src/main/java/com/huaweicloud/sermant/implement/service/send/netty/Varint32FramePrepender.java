@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.send.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+/**
+ * 在消息前添加varint32长度头，与{@link io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder}配合使用
+ * <p>与{@link io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender}不同，消息体不会被拷贝到新的缓冲区，
+ * 长度头和消息体以{@link io.netty.buffer.CompositeByteBuf}的形式写出
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-18
+ */
+@ChannelHandler.Sharable
+public class Varint32FramePrepender extends MessageToMessageEncoder<ByteBuf> {
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        final int length = msg.readableBytes();
+        final ByteBuf header = ctx.alloc().buffer(NettyMessageEncoder.varintSize(length));
+        NettyMessageEncoder.writeVarint(header, length);
+        out.add(ctx.alloc().compositeBuffer(2).addComponent(true, header).addComponent(true, msg.retain()));
+    }
+}
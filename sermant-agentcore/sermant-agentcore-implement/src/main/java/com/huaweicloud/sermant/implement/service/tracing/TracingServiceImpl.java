@@ -23,13 +23,16 @@ import com.huaweicloud.sermant.core.service.tracing.api.TracingService;
 import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
 import com.huaweicloud.sermant.core.service.tracing.common.SpanEventContext;
 import com.huaweicloud.sermant.core.service.tracing.common.TracingRequest;
+import com.huaweicloud.sermant.implement.service.tracing.sampler.SamplingManager;
 import com.huaweicloud.sermant.implement.service.tracing.sender.TracingSender;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -53,6 +56,8 @@ public class TracingServiceImpl implements TracingService {
 
     private final TracingSender tracingSender = TracingSender.getInstance();
 
+    private final SamplingManager samplingManager = new SamplingManager(tracingSender::offerSpanEvent);
+
     private final ThreadLocal<SpanEventContext> threadLocal = new ThreadLocal<>();
 
     /**
@@ -63,6 +68,7 @@ public class TracingServiceImpl implements TracingService {
     @Override
     public void start() {
         this.isTracing = true;
+        samplingManager.start();
         tracingSender.start();
         LOGGER.info("TracingService started.");
     }
@@ -70,6 +76,7 @@ public class TracingServiceImpl implements TracingService {
     @Override
     public void stop() {
         this.isTracing = false;
+        samplingManager.stop();
         tracingSender.stop();
         LOGGER.info("TracingService stopped.");
     }
@@ -95,11 +102,14 @@ public class TracingServiceImpl implements TracingService {
         if (!filterSpanDepth(tracingRequest)) {
             return Optional.empty();
         }
-        long startTime = System.currentTimeMillis();
         SpanEventContext spanEventContext = new SpanEventContext(tracingRequest);
-        SpanEvent spanEvent = spanEventContext.getSpanEvent();
-        spanEvent.setStartTime(startTime);
         threadLocal.set(spanEventContext);
+        SpanEvent spanEvent = spanEventContext.getSpanEvent();
+        spanEvent.markStart();
+
+        // 上游已决定是否采样时沿用上游决策，否则由头部采样器决定，未采样的链路仍向下游传递链路信息
+        Boolean sampled = tracingRequest.getSampled();
+        spanEvent.setSampled(sampled == null ? samplingManager.isSampled() : sampled);
         return Optional.of(spanEvent);
     }
 
@@ -143,7 +153,7 @@ public class TracingServiceImpl implements TracingService {
         }
         spanEventContext.addChildrenSpan();
         SpanEvent spanEvent = spanEventContext.getSpanEvent();
-        spanEvent.setStartTime(System.currentTimeMillis());
+        spanEvent.markStart();
         spanEvent.setClassName(tracingRequest.getClassName());
         spanEvent.setMethod(tracingRequest.getMethod());
         return Optional.of(spanEvent);
@@ -159,7 +169,7 @@ public class TracingServiceImpl implements TracingService {
             return;
         }
         SpanEvent spanEvent = spanEventContext.getSpanEvent();
-        spanEvent.setEndTime(System.currentTimeMillis());
+        spanEvent.markEnd();
         sendSpanEvent(spanEvent);
 
         // 发送完SpanEvent数据后，需要将当前上下文中存放的SpanEvent置为当前Span的父Span
@@ -200,8 +210,16 @@ public class TracingServiceImpl implements TracingService {
     }
 
     private void sendSpanEvent(SpanEvent spanEvent) {
-        LOGGER.info(String.format(Locale.ROOT, "Add spanEvent to queue , TraceId : [%s] , SpanId [%s] . ",
-            spanEvent.getTraceId(), spanEvent.getSpanId()));
-        tracingSender.offerSpanEvent(spanEvent);
+        if (!spanEvent.isSampled()) {
+            return;
+        }
+        List<SpanEvent> spanEvents = samplingManager.onSpanFinished(spanEvent);
+        for (SpanEvent sampledSpanEvent : spanEvents) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format(Locale.ROOT, "Add spanEvent to queue , TraceId : [%s] , SpanId [%s] . ",
+                    sampledSpanEvent.getTraceId(), sampledSpanEvent.getSpanId()));
+            }
+            tracingSender.offerSpanEvent(sampledSpanEvent);
+        }
     }
 }
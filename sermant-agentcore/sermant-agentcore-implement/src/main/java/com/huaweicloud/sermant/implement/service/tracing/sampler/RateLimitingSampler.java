@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sampler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 限制每秒采样的链路数量
+ * <p>高32位记录当前秒，低32位记录当前秒内已采样的数量，通过CAS无锁更新
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-20
+ */
+public class RateLimitingSampler implements Sampler {
+    private static final int SECOND_SHIFT = 32;
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final int limit;
+
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param limit 每秒最多采样的链路数量
+     */
+    public RateLimitingSampler(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean isSampled() {
+        if (limit <= 0) {
+            return false;
+        }
+        final long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime()) & COUNT_MASK;
+        while (true) {
+            final long current = state.get();
+            if (current >>> SECOND_SHIFT != second) {
+                if (state.compareAndSet(current, second << SECOND_SHIFT | 1L)) {
+                    return true;
+                }
+            } else if ((current & COUNT_MASK) >= limit) {
+                return false;
+            } else if (state.compareAndSet(current, current + 1L)) {
+                return true;
+            }
+        }
+    }
+}
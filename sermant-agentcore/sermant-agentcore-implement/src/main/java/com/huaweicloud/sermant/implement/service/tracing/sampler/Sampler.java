@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sampler;
+
+/**
+ * 头部采样器，在链路入口决定是否采样
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-20
+ */
+public interface Sampler {
+    /**
+     * 判断新链路是否采样
+     *
+     * @return 是否采样
+     */
+    boolean isSampled();
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sampler;
+
+import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.operation.OperationManager;
+import com.huaweicloud.sermant.core.operation.converter.api.YamlConverter;
+import com.huaweicloud.sermant.core.service.ServiceConfig;
+import com.huaweicloud.sermant.core.service.ServiceManager;
+import com.huaweicloud.sermant.core.service.dynamicconfig.DynamicConfigService;
+import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigEvent;
+import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigEventType;
+import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigListener;
+import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
+import com.huaweicloud.sermant.core.service.tracing.config.TracingConfig;
+import com.huaweicloud.sermant.core.utils.StringUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * 采样管理器，负责头部采样决策和尾部采样缓存，并监听动态配置中的采样规则
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-20
+ */
+public class SamplingManager implements DynamicConfigListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger();
+
+    private final SamplingRule defaultRule;
+
+    private final String configKey;
+
+    /**
+     * 关闭尾部采样时，用于发送尾部采样缓存中尚未决定的span
+     */
+    private final Consumer<SpanEvent> flushConsumer;
+
+    private volatile Sampler sampler;
+
+    /**
+     * 尾部采样缓存，未开启尾部采样时为null
+     */
+    private volatile TailSamplingBuffer tailSamplingBuffer;
+
+    private DynamicConfigService dynamicConfigService;
+
+    /**
+     * 构造函数
+     *
+     * @param flushConsumer 关闭尾部采样时，用于发送尾部采样缓存中尚未决定的span
+     */
+    public SamplingManager(Consumer<SpanEvent> flushConsumer) {
+        this.flushConsumer = flushConsumer;
+        TracingConfig config = ConfigManager.getConfig(TracingConfig.class);
+        if (config == null) {
+            config = new TracingConfig();
+        }
+        this.defaultRule = new SamplingRule(config);
+        this.configKey = config.getSamplingConfigKey();
+        updateRule(defaultRule);
+    }
+
+    /**
+     * 开始监听动态配置中的采样规则，未开启动态配置服务时仅使用静态配置
+     */
+    public void start() {
+        final ServiceConfig serviceConfig = ConfigManager.getConfig(ServiceConfig.class);
+        if (serviceConfig == null || !serviceConfig.isDynamicConfigEnable()) {
+            return;
+        }
+        try {
+            dynamicConfigService = ServiceManager.getService(DynamicConfigService.class);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Dynamic config service is not available, sampling rule can not be updated dynamically.");
+            return;
+        }
+        dynamicConfigService.addConfigListener(configKey, this, true);
+    }
+
+    /**
+     * 停止监听动态配置
+     */
+    public void stop() {
+        if (dynamicConfigService != null) {
+            dynamicConfigService.removeConfigListener(configKey);
+            dynamicConfigService = null;
+        }
+    }
+
+    /**
+     * 头部采样决策，用于上游未传递采样决策的新链路
+     *
+     * @return 是否采样
+     */
+    public boolean isSampled() {
+        return sampler.isSampled();
+    }
+
+    /**
+     * span结束时调用，返回需要发送的span
+     *
+     * @param spanEvent 已结束的span
+     * @return 需要发送的span
+     */
+    public List<SpanEvent> onSpanFinished(SpanEvent spanEvent) {
+        final TailSamplingBuffer buffer = tailSamplingBuffer;
+        if (buffer == null) {
+            return Collections.singletonList(spanEvent);
+        }
+
+        // 当前进程的入口span没有父span，入口span结束时决定整条链路是否发送
+        if (spanEvent.getParentSpan() != null) {
+            return buffer.add(spanEvent);
+        }
+        return buffer.complete(spanEvent);
+    }
+
+    @Override
+    public void process(DynamicConfigEvent event) {
+        if (event.getEventType() == DynamicConfigEventType.DELETE || StringUtils.isBlank(event.getContent())) {
+            updateRule(defaultRule);
+            LOGGER.info("Sampling rule is empty, use the static sampling config.");
+            return;
+        }
+        final Optional<SamplingRule> rule = OperationManager.getOperation(YamlConverter.class)
+                .convert(event.getContent(), SamplingRule.class);
+        if (!rule.isPresent()) {
+            LOGGER.warning(String.format(Locale.ROOT, "Invalid sampling rule: [%s].", event.getContent()));
+            return;
+        }
+        updateRule(rule.get());
+        LOGGER.info(String.format(Locale.ROOT, "Sampling rule is updated, type: [%s], tail sampling: [%s].",
+                rule.get().getType(), rule.get().isTailEnable()));
+    }
+
+    /**
+     * 更新采样规则，尾部采样配置未变时沿用原缓存；配置变更时将未结束的链路转移到新缓存，关闭尾部采样时发送已缓存的span
+     *
+     * @param rule 采样规则
+     */
+    public final synchronized void updateRule(SamplingRule rule) {
+        sampler = rule.createSampler();
+        final TailSamplingBuffer oldBuffer = tailSamplingBuffer;
+        if (!rule.isTailEnable()) {
+            tailSamplingBuffer = null;
+            if (oldBuffer != null) {
+                oldBuffer.drain().forEach(flushConsumer);
+            }
+            return;
+        }
+        if (oldBuffer != null && oldBuffer.isSameConfig(rule.getTailBufferSize(), rule.getSlowThreshold())) {
+            return;
+        }
+        final TailSamplingBuffer newBuffer = new TailSamplingBuffer(rule.getTailBufferSize(), rule.getSlowThreshold());
+        if (oldBuffer != null) {
+            oldBuffer.transferTo(newBuffer);
+        }
+        tailSamplingBuffer = newBuffer;
+    }
+}
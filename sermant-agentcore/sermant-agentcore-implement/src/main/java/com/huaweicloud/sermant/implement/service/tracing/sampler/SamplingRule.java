@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sampler;
+
+import com.huaweicloud.sermant.core.service.tracing.config.SamplingType;
+import com.huaweicloud.sermant.core.service.tracing.config.TracingConfig;
+
+/**
+ * 采样规则，启动时取自{@link TracingConfig}，运行时可通过动态配置以yaml格式下发：
+ * <pre>
+ * type: PROBABILISTIC
+ * rate: 0.1
+ * limit: 100
+ * tailEnable: true
+ * slowThreshold: 1000
+ * tailBufferSize: 1024
+ * </pre>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-20
+ */
+public class SamplingRule {
+    private SamplingType type;
+
+    private double rate;
+
+    private int limit;
+
+    private boolean tailEnable;
+
+    private long slowThreshold;
+
+    private int tailBufferSize;
+
+    /**
+     * 无参构造，用于yaml反序列化
+     */
+    public SamplingRule() {
+        this(new TracingConfig());
+    }
+
+    /**
+     * 通过静态配置构造
+     *
+     * @param config 链路追踪配置
+     */
+    public SamplingRule(TracingConfig config) {
+        this.type = config.getSamplingType();
+        this.rate = config.getSamplingRate();
+        this.limit = config.getSamplingLimit();
+        this.tailEnable = config.isTailSamplingEnable();
+        this.slowThreshold = config.getTailSlowThreshold();
+        this.tailBufferSize = config.getTailBufferSize();
+    }
+
+    /**
+     * 根据头部采样策略创建采样器
+     *
+     * @return 采样器
+     */
+    public Sampler createSampler() {
+        if (type == SamplingType.PROBABILISTIC) {
+            return new ProbabilisticSampler(rate);
+        }
+        if (type == SamplingType.RATE_LIMITING) {
+            return new RateLimitingSampler(limit);
+        }
+        return () -> true;
+    }
+
+    public SamplingType getType() {
+        return type;
+    }
+
+    public void setType(SamplingType type) {
+        this.type = type;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isTailEnable() {
+        return tailEnable;
+    }
+
+    public void setTailEnable(boolean tailEnable) {
+        this.tailEnable = tailEnable;
+    }
+
+    public long getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getTailBufferSize() {
+        return tailBufferSize;
+    }
+
+    public void setTailBufferSize(int tailBufferSize) {
+        this.tailBufferSize = tailBufferSize;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sampler;
+
+import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 尾部采样缓存，按traceId与当前进程入口span的spanId缓存已结束的span，入口span结束时决定该段链路是否发送
+ * <p>链路中存在错误span或入口span耗时超过阈值时发送，否则丢弃。缓存的链路数量超过上限时丢弃最早的链路。
+ * 入口span结束后才结束的异步span沿用该段链路的采样结果，不再进入缓存。采样规则变更时缓存被转移或取出，
+ * 此后仍写入该缓存的span直接发送
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-20
+ */
+public class TailSamplingBuffer {
+    /**
+     * 每条链路最多缓存的span数量
+     */
+    private static final int MAX_SPAN_COUNT_PER_TRACE = 1024;
+
+    private static final char KEY_SEPARATOR = '#';
+
+    private final int capacity;
+
+    /**
+     * 慢链路阈值，单位：毫秒
+     */
+    private final long slowThreshold;
+
+    /**
+     * 慢链路阈值，单位：微秒
+     */
+    private final long slowThresholdMicros;
+
+    private final Map<String, List<SpanEvent>> traces;
+
+    /**
+     * 已结束链路的采样结果，用于处理入口span结束后才结束的异步span
+     */
+    private final Map<String, Boolean> decisions;
+
+    private final AtomicLong droppedTraceCount = new AtomicLong();
+
+    private boolean isClosed;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 最多缓存的链路数量
+     * @param slowThreshold 慢链路阈值，单位：毫秒
+     */
+    public TailSamplingBuffer(int capacity, long slowThreshold) {
+        this.capacity = capacity;
+        this.slowThreshold = slowThreshold;
+        this.slowThresholdMicros = TimeUnit.MILLISECONDS.toMicros(slowThreshold);
+        this.traces = new LinkedHashMap<String, List<SpanEvent>>() {
+            private static final long serialVersionUID = -2412658963251245867L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SpanEvent>> eldest) {
+                if (size() > capacity) {
+                    droppedTraceCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.decisions = new LinkedHashMap<String, Boolean>() {
+            private static final long serialVersionUID = 4180623538178393150L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 缓存非入口span，所属链路已决定发送时直接返回该span
+     *
+     * @param spanEvent span数据
+     * @return 需要发送的span，需要缓存或丢弃时返回空集合
+     */
+    public synchronized List<SpanEvent> add(SpanEvent spanEvent) {
+        if (isClosed) {
+            return Collections.singletonList(spanEvent);
+        }
+        final String key = getKey(spanEvent);
+        final Boolean isSent = decisions.get(key);
+        if (isSent != null) {
+            return isSent ? Collections.singletonList(spanEvent) : Collections.emptyList();
+        }
+        final List<SpanEvent> spans = traces.computeIfAbsent(key, traceKey -> new ArrayList<>());
+        if (spans.size() < MAX_SPAN_COUNT_PER_TRACE) {
+            spans.add(spanEvent);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * 入口span结束，取出该段链路并决定是否发送
+     *
+     * @param rootSpan 入口span
+     * @return 需要发送的span，不需要发送时返回空集合
+     */
+    public synchronized List<SpanEvent> complete(SpanEvent rootSpan) {
+        if (isClosed) {
+            return Collections.singletonList(rootSpan);
+        }
+        final String key = getKey(rootSpan);
+        List<SpanEvent> spans = traces.remove(key);
+        if (spans == null) {
+            spans = new ArrayList<>(1);
+        }
+        spans.add(rootSpan);
+        final boolean isSent = shouldSend(rootSpan, spans);
+        decisions.put(key, isSent);
+        if (isSent) {
+            return spans;
+        }
+        droppedTraceCount.incrementAndGet();
+        return Collections.emptyList();
+    }
+
+    /**
+     * 判断缓存的配置是否与给定配置一致
+     *
+     * @param targetCapacity 最多缓存的链路数量
+     * @param targetSlowThreshold 慢链路阈值，单位：毫秒
+     * @return 是否一致
+     */
+    public boolean isSameConfig(int targetCapacity, long targetSlowThreshold) {
+        return capacity == targetCapacity && slowThreshold == targetSlowThreshold;
+    }
+
+    /**
+     * 将未结束的链路与已结束链路的采样结果转移到新缓存，并关闭当前缓存
+     *
+     * @param target 新缓存
+     */
+    public synchronized void transferTo(TailSamplingBuffer target) {
+        isClosed = true;
+        synchronized (target) {
+            target.traces.putAll(traces);
+            target.decisions.putAll(decisions);
+        }
+        traces.clear();
+        decisions.clear();
+    }
+
+    /**
+     * 取出所有未结束链路中已缓存的span，并关闭当前缓存
+     *
+     * @return 已缓存的span
+     */
+    public synchronized List<SpanEvent> drain() {
+        isClosed = true;
+        final List<SpanEvent> spans = new ArrayList<>();
+        for (List<SpanEvent> traceSpans : traces.values()) {
+            spans.addAll(traceSpans);
+        }
+        traces.clear();
+        decisions.clear();
+        return spans;
+    }
+
+    /**
+     * 获取被丢弃的链路数量，包括未命中采样条件和缓存溢出的链路
+     *
+     * @return 链路数量
+     */
+    public long getDroppedTraceCount() {
+        return droppedTraceCount.get();
+    }
+
+    private boolean shouldSend(SpanEvent rootSpan, List<SpanEvent> spans) {
+        if (rootSpan.getDuration() >= slowThresholdMicros) {
+            return true;
+        }
+        for (SpanEvent spanEvent : spans) {
+            if (spanEvent.isError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 同一链路可能并发进入当前进程多次，以traceId与入口span的spanId区分
+     *
+     * @param spanEvent span数据
+     * @return 缓存键
+     */
+    private static String getKey(SpanEvent spanEvent) {
+        SpanEvent rootSpan = spanEvent;
+        while (rootSpan.getParentSpan() != null) {
+            rootSpan = rootSpan.getParentSpan();
+        }
+        return spanEvent.getTraceId() + KEY_SEPARATOR + rootSpan.getSpanId();
+    }
+}
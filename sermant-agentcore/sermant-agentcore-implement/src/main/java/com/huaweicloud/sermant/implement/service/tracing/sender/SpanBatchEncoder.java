@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sender;
+
+import com.huaweicloud.sermant.core.service.tracing.common.SourceInfo;
+import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
+import com.huaweicloud.sermant.core.service.tracing.common.TargetInfo;
+import com.huaweicloud.sermant.implement.service.tracing.sender.pojo.Tracing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将一批{@link SpanEvent}编码为protobuf格式的{@link Tracing.SpanBatch}
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-19
+ */
+public class SpanBatchEncoder {
+    private SpanBatchEncoder() {
+    }
+
+    /**
+     * 编码一批span
+     *
+     * @param spanEvents span数据
+     * @return 编码后的数据
+     */
+    public static byte[] encode(List<SpanEvent> spanEvents) {
+        // 节点信息待整改配置后获取
+        final Tracing.SpanBatch.Builder builder =
+                Tracing.SpanBatch.newBuilder().setHeader(Tracing.TracingHeader.getDefaultInstance());
+        for (SpanEvent spanEvent : spanEvents) {
+            builder.addSpans(toSpan(spanEvent));
+        }
+        return builder.build().toByteArray();
+    }
+
+    private static Tracing.Span toSpan(SpanEvent spanEvent) {
+        final Tracing.Span.Builder builder = Tracing.Span.newBuilder()
+                .setStartTime(spanEvent.getStartTime())
+                .setEndTime(spanEvent.getEndTime())
+                .setDuration(spanEvent.getDuration())
+                .setIsError(spanEvent.isError())
+                .setIsAsync(spanEvent.isAsync());
+
+        // proto3的string字段不接受null，为null时保持默认值
+        if (spanEvent.getTraceId() != null) {
+            builder.setTraceId(spanEvent.getTraceId());
+        }
+        if (spanEvent.getSpanId() != null) {
+            builder.setSpanId(spanEvent.getSpanId());
+        }
+        if (spanEvent.getParentSpanId() != null) {
+            builder.setParentSpanId(spanEvent.getParentSpanId());
+        }
+        if (spanEvent.getClassName() != null) {
+            builder.setClassName(spanEvent.getClassName());
+        }
+        if (spanEvent.getMethod() != null) {
+            builder.setMethod(spanEvent.getMethod());
+        }
+        if (spanEvent.getOperationDescription() != null) {
+            builder.setOperationDescription(spanEvent.getOperationDescription());
+        }
+        if (spanEvent.getType() != null) {
+            builder.setType(spanEvent.getType());
+        }
+        if (spanEvent.getErrorInfo() != null) {
+            builder.setErrorInfo(spanEvent.getErrorInfo());
+        }
+        final SourceInfo sourceInfo = spanEvent.getSourceInfo();
+        if (sourceInfo != null) {
+            builder.setSourceInfo(toNodeInfo(sourceInfo.getAddress(), sourceInfo.getClassName(),
+                    sourceInfo.getMethod()));
+        }
+        final TargetInfo targetInfo = spanEvent.getTargetInfo();
+        if (targetInfo != null) {
+            builder.setTargetInfo(toNodeInfo(targetInfo.getAddress(), targetInfo.getClassName(),
+                    targetInfo.getMethod()));
+        }
+        if (spanEvent.hasTags()) {
+            for (Map.Entry<String, String> entry : spanEvent.getTags().entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    builder.putTags(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static Tracing.NodeInfo toNodeInfo(String address, String className, String method) {
+        final Tracing.NodeInfo.Builder builder = Tracing.NodeInfo.newBuilder();
+        if (address != null) {
+            builder.setAddress(address);
+        }
+        if (className != null) {
+            builder.setClassName(className);
+        }
+        if (method != null) {
+            builder.setMethod(method);
+        }
+        return builder.build();
+    }
+}
@@ -17,24 +17,28 @@
 package com.huaweicloud.sermant.implement.service.tracing.sender;
 
 import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.common.RingBuffer;
+import com.huaweicloud.sermant.core.config.ConfigManager;
 import com.huaweicloud.sermant.core.service.ServiceManager;
 import com.huaweicloud.sermant.core.service.send.api.GatewayClient;
 import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
+import com.huaweicloud.sermant.core.service.tracing.config.TracingConfig;
 import com.huaweicloud.sermant.implement.service.send.netty.pojo.Message;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.serializer.SerializerFeature;
-
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * 链路追踪消息发送器
+ * <p>span写入无锁队列，发送线程攒满batchSize条或等待batchTimeout后，将一批span编码为protobuf格式一次发送
  *
  * @author luanwenfei
  * @since 2022-03-04
@@ -42,28 +46,56 @@ import java.util.logging.Logger;
 public class TracingSender {
     private static final Logger LOGGER = LoggerFactory.getLogger();
 
-    private static final int MAX_SPAN_EVENT_COUNT = 512;
-
-    private static final long TRACING_SENDER_MINIMAL_INTERVAL = 1000L;
-
     private static final long STOP_TIME_OUT = 3000L;
 
-    private static final ArrayBlockingQueue<SpanEvent> SPAN_EVENT_DATA_QUEUE =
-            new ArrayBlockingQueue<>(MAX_SPAN_EVENT_COUNT);
+    private static final long STOP_CHECK_INTERVAL = 10L;
 
     private static final ExecutorService EXECUTOR =
             Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "tracing-sender-thread"));
 
     private static TracingSender tracingSender = null;
 
+    private final RingBuffer<SpanEvent> spanEventQueue;
+
+    private final int batchSize;
+
+    private final long batchTimeoutNanos;
+
+    /**
+     * 因队列已满被丢弃的span数量
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * 已发送的span数量
+     */
+    private final AtomicLong sentCount = new AtomicLong();
+
+    /**
+     * 最近一次打印日志时的丢弃数量
+     */
+    private long reportedDroppedCount;
+
     private GatewayClient gatewayClient;
 
     /**
      * 当前服务开启和关闭的标记位
      */
-    private boolean isSending;
+    private volatile boolean isSending;
+
+    /**
+     * 发送线程，用于在攒满一批时唤醒
+     */
+    private volatile Thread sendThread;
 
     private TracingSender() {
+        TracingConfig config = ConfigManager.getConfig(TracingConfig.class);
+        if (config == null) {
+            config = new TracingConfig();
+        }
+        spanEventQueue = new RingBuffer<>(config.getQueueCapacity());
+        batchSize = Math.max(1, config.getBatchSize());
+        batchTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, config.getBatchTimeout()));
     }
 
     /**
@@ -99,32 +131,26 @@ public class TracingSender {
             LOGGER.info("TracingSender has stopped.");
         }
         stopSoft(STOP_TIME_OUT);
-        this.isSending = false;
     }
 
     /**
-     * 检查阻塞队列、阻塞队列为空或者等待超时后关闭
+     * 通知发送线程发送剩余的span，队列为空或者等待超时后关闭
      *
      * @param timeOut 超时时间
      */
     public void stopSoft(long timeOut) {
-        long timeDuring = 0L;
-        while (!SPAN_EVENT_DATA_QUEUE.isEmpty() && timeDuring < timeOut) {
-            try {
-                Thread.sleep(TRACING_SENDER_MINIMAL_INTERVAL);
-                timeDuring += TRACING_SENDER_MINIMAL_INTERVAL;
-            } catch (InterruptedException e) {
-                LOGGER.severe(String.format(Locale.ROOT,
-                        "Exception [%s] occurs for [%s] when waiting to stop TracingSender service. ", e.getClass(),
-                        e.getMessage()));
-            }
-        }
-        SPAN_EVENT_DATA_QUEUE.clear();
         this.isSending = false;
+        LockSupport.unpark(sendThread);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut);
+        while (spanEventQueue.size() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(STOP_CHECK_INTERVAL));
+        }
+        final List<SpanEvent> remaining = new ArrayList<>();
+        droppedCount.addAndGet(spanEventQueue.drainTo(remaining));
     }
 
     /**
-     * 向阻塞队列里添加SpanEvent 发送数据线程获取后发送到backend
+     * 向队列里添加SpanEvent 发送数据线程获取后发送到backend
      *
      * @param spanEvent span数据
      */
@@ -132,56 +158,104 @@ public class TracingSender {
         if (spanEvent == null) {
             return;
         }
-        boolean isSuccessful = SPAN_EVENT_DATA_QUEUE.offer(spanEvent);
-        if (!isSuccessful) {
-            LOGGER.warning("Failed to offer spanEvent.");
+        if (!spanEventQueue.offer(spanEvent)) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (spanEventQueue.size() >= batchSize) {
+            LockSupport.unpark(sendThread);
         }
     }
 
+    /**
+     * 获取队列中待发送的span数量
+     *
+     * @return span数量
+     */
+    public int getQueueDepth() {
+        return spanEventQueue.size();
+    }
+
+    /**
+     * 获取因队列已满被丢弃的span数量
+     *
+     * @return span数量
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 获取已发送的span数量
+     *
+     * @return span数量
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
     /**
      * 链路追踪消息发送线程
      *
      * @author luanwenfei
      * @since 2022-03-04
      */
-    private class SpanEventSendThread extends Thread {
+    private class SpanEventSendThread implements Runnable {
+        private final List<SpanEvent> batch = new ArrayList<>(batchSize);
+
         @Override
         public void run() {
             LOGGER.info("TracingSender started.");
+            sendThread = Thread.currentThread();
+            long deadline = System.nanoTime() + batchTimeoutNanos;
             while (isSending) {
-                Optional<TracingMessage> tracingMessage = buildTracingMessage();
-                if (!tracingMessage.isPresent()) {
-                    // 如果没有获取到SpanEvent,等待一段时间后再次执行
-                    try {
-                        Thread.sleep(TRACING_SENDER_MINIMAL_INTERVAL);
-                    } catch (InterruptedException e) {
-                        LOGGER.severe(String.format(Locale.ROOT, "Exception [%s] occurs for [%s] when waiting queue. ",
-                                e.getClass(), e.getMessage()));
-                    }
+                spanEventQueue.drainTo(batch, batchSize - batch.size());
+                final long waitNanos = deadline - System.nanoTime();
+                if (batch.size() < batchSize && waitNanos > 0) {
+                    // 未攒满一批时等待，攒满或停止时被唤醒
+                    LockSupport.parkNanos(this, waitNanos);
                     continue;
                 }
-                sendMessage(tracingMessage.get());
+                sendBatch();
+                deadline = System.nanoTime() + batchTimeoutNanos;
             }
+
+            // 停止时发送剩余的span
+            do {
+                spanEventQueue.drainTo(batch, batchSize - batch.size());
+                sendBatch();
+            } while (spanEventQueue.size() > 0);
+            sendThread = null;
             LOGGER.info("TracingSender stopped.");
         }
 
-        private Optional<TracingMessage> buildTracingMessage() {
-            SpanEvent spanEvent = SPAN_EVENT_DATA_QUEUE.poll();
-            if (spanEvent == null) {
-                return Optional.empty();
+        private void sendBatch() {
+            reportDroppedCount();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                gatewayClient.send(SpanBatchEncoder.encode(batch), Message.ServiceData.DataType.TRACING_DATA_VALUE);
+                sentCount.addAndGet(batch.size());
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine(String.format(Locale.ROOT, "Sent %d spans, queue depth: %d.", batch.size(),
+                            spanEventQueue.size()));
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warning(String.format(Locale.ROOT, "Exception [%s] occurs for [%s] when sending %d spans.",
+                        e.getClass(), e.getMessage(), batch.size()));
+            } finally {
+                batch.clear();
             }
-
-            // 节点信息待整改配置后获取
-            TracingMessageHeader tracingMessageHeader = new TracingMessageHeader();
-            return Optional.of(new TracingMessage(spanEvent.getTraceId(), tracingMessageHeader, spanEvent));
         }
 
-        private void sendMessage(TracingMessage tracingMessage) {
-            LOGGER.info(String.format(Locale.ROOT, "Sending tracing message traceId : [%s] , spanId : [%s] .",
-                    tracingMessage.getBody().getTraceId(), tracingMessage.getBody().getSpanId()));
-            String serializedMessage = JSON.toJSONString(tracingMessage, SerializerFeature.WriteMapNullValue);
-            gatewayClient.send(serializedMessage.getBytes(StandardCharsets.UTF_8),
-                    Message.ServiceData.DataType.TRACING_DATA_VALUE);
+        private void reportDroppedCount() {
+            final long dropped = droppedCount.get();
+            if (dropped != reportedDroppedCount) {
+                LOGGER.warning(String.format(Locale.ROOT, "Span queue is full, %d spans have been dropped.",
+                        dropped - reportedDroppedCount));
+                reportedDroppedCount = dropped;
+            }
         }
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.log;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * 异步日志处理器测试类
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-23
+ */
+public class AsyncLogHandlerTest {
+    private static final String LOGGER_NAME = "sermant.async.test";
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private Logger logger;
+
+    @Before
+    public void setUp() {
+        logger = (Logger) LoggerFactory.getLogger(LOGGER_NAME);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @After
+    public void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    public void testAsyncWrite() {
+        final AsyncLogHandler handler = new AsyncLogHandler(16, 0, true);
+        handler.publish(buildRecord(Level.INFO, "message {0}", "param"));
+        handler.publish(buildRecord(Level.FINE, "debug message"));
+        handler.close();
+        Assert.assertEquals(1, appender.list.size());
+        final ILoggingEvent event = appender.list.get(0);
+        Assert.assertEquals("message param", event.getFormattedMessage());
+        Assert.assertEquals(Thread.currentThread().getName(), event.getThreadName());
+        Assert.assertEquals(AsyncLogHandlerTest.class.getName(), event.getCallerData()[0].getClassName());
+    }
+
+    @Test
+    public void testRateLimit() {
+        final AsyncLogHandler handler = new AsyncLogHandler(16, 2, false);
+        for (int i = 0; i < 5; i++) {
+            handler.publish(buildRecord(Level.INFO, "limited {0}", i));
+        }
+        Assert.assertEquals(3L, handler.getDroppedCount());
+        handler.close();
+        long written = appender.list.stream().filter(event -> event.getMessage().startsWith("limited")).count();
+        Assert.assertEquals(2L, written);
+    }
+
+    @Test
+    public void testRateLimitFormattedMessage() {
+        final AsyncLogHandler handler = new AsyncLogHandler(16, 2, false);
+        for (int i = 0; i < 3; i++) {
+            handler.publish(buildRecord(Level.INFO, "formatted " + i));
+        }
+        handler.publish(buildRecord(Level.FINE, "formatted"));
+        Assert.assertEquals(1L, handler.getDroppedCount());
+        handler.close();
+    }
+
+    @Test
+    public void testNoCallerInference() {
+        final LogRecord limitedRecord = Mockito.spy(buildRecord(Level.INFO, "limited"));
+        final AsyncLogHandler limitedHandler = new AsyncLogHandler(16, 2, false);
+        limitedHandler.publish(limitedRecord);
+        limitedHandler.close();
+        final LogRecord unlimitedRecord = Mockito.spy(buildRecord(Level.INFO, "unlimited"));
+        final AsyncLogHandler unlimitedHandler = new AsyncLogHandler(16, 0, false);
+        unlimitedHandler.publish(unlimitedRecord);
+        unlimitedHandler.close();
+        for (LogRecord record : new LogRecord[]{limitedRecord, unlimitedRecord}) {
+            Mockito.verify(record, Mockito.never()).getSourceClassName();
+            Mockito.verify(record, Mockito.never()).getSourceMethodName();
+        }
+        Assert.assertEquals(2, appender.list.size());
+    }
+
+    @Test
+    public void testRateLimiter() {
+        final LogRateLimiter limiter = new LogRateLimiter(1);
+        Assert.assertTrue(limiter.tryAcquire("site"));
+        Assert.assertFalse(limiter.tryAcquire("site"));
+        Assert.assertTrue(new LogRateLimiter(0).tryAcquire("site"));
+    }
+
+    private LogRecord buildRecord(Level level, String message, Object... params) {
+        final LogRecord record = new LogRecord(level, message);
+        record.setLoggerName(LOGGER_NAME);
+        record.setParameters(params);
+        return record;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.dynamicconfig.kie.listener;
+
+import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.client.kie.KieConfigEntity;
+import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.client.kie.KieResponse;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 监听键响应数据测试类
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-23
+ */
+public class KvDataHolderTest {
+    @Test
+    public void testAnalyzeLatestData() {
+        final KvDataHolder holder = new KvDataHolder();
+        KvDataHolder.EventDataHolder event = holder.analyzeLatestData(buildResponse("1", "a", "1", "b", "2"), true);
+        Assert.assertEquals(2, event.getAdded().size());
+        Assert.assertEquals(2, event.getLatestData().size());
+
+        event = holder.analyzeLatestData(buildResponse("2", "a", "1", "b", "3", "c", "4"), false);
+        Assert.assertEquals("4", event.getAdded().get("c"));
+        Assert.assertEquals("3", event.getModified().get("b"));
+        Assert.assertTrue(event.getDeleted().isEmpty());
+        Assert.assertEquals(1, event.getAdded().size());
+        Assert.assertEquals(1, event.getModified().size());
+
+        event = holder.analyzeLatestData(buildResponse("3", "c", "4"), false);
+        Assert.assertEquals(2, event.getDeleted().size());
+        Assert.assertEquals("1", event.getDeleted().get("a"));
+        Assert.assertFalse(event.getModified().containsKey("c"));
+        Assert.assertEquals(1, event.getLatestData().size());
+
+        event = holder.analyzeLatestData(buildResponse("4"), false);
+        Assert.assertEquals("4", event.getDeleted().get("c"));
+        Assert.assertTrue(event.getLatestData().isEmpty());
+    }
+
+    @Test
+    public void testSkipUnchangedRevision() {
+        final KvDataHolder holder = new KvDataHolder();
+        final KvDataHolder.EventDataHolder first = holder.analyzeLatestData(buildResponse("1", "a", "1"), true);
+        final KvDataHolder.EventDataHolder same = holder.analyzeLatestData(buildResponse("1", "a", "1"), false);
+        Assert.assertFalse(same.isChanged());
+        Assert.assertSame(first.getLatestData(), same.getLatestData());
+
+        final KvDataHolder.EventDataHolder unchanged = holder.analyzeLatestData(buildResponse("2", "a", "1"), false);
+        Assert.assertFalse(unchanged.isChanged());
+        Assert.assertSame(first.getLatestData(), unchanged.getLatestData());
+    }
+
+    @Test
+    public void testDuplicateKeys() {
+        final KvDataHolder holder = new KvDataHolder();
+        holder.analyzeLatestData(buildResponse("1", "a", "1", "b", "2"), true);
+        final KvDataHolder.EventDataHolder event =
+            holder.analyzeLatestData(buildResponse("2", "a", "1", "a", "1"), false);
+        Assert.assertEquals("2", event.getDeleted().get("b"));
+        Assert.assertEquals(1, event.getDeleted().size());
+    }
+
+    private KieResponse buildResponse(String revision, String... keyValues) {
+        final List<KieConfigEntity> data = new ArrayList<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            final KieConfigEntity entity = new KieConfigEntity();
+            entity.setKey(keyValues[i]);
+            entity.setValue(keyValues[i + 1]);
+            data.add(entity);
+        }
+        final KieResponse response = new KieResponse();
+        response.setRevision(revision);
+        response.setData(data);
+        return response;
+    }
+}
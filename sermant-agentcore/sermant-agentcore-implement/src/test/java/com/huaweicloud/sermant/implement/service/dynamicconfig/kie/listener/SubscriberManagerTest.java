@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.dynamicconfig.kie.listener;
+
+import com.huaweicloud.sermant.core.utils.LabelGroupUtils;
+import com.huaweicloud.sermant.implement.service.dynamicconfig.kie.client.kie.KieConfigEntity;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 合并订阅测试类
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-22
+ */
+public class SubscriberManagerTest {
+    @Test
+    public void testResolveConditionLabels() {
+        final Map<String, String> groupLabels = new HashMap<>();
+        groupLabels.put("app", "sc");
+        groupLabels.put("service", "hello:service");
+        final String condition = LabelGroupUtils.getLabelCondition(LabelGroupUtils.createLabelGroup(groupLabels));
+        Assert.assertEquals(groupLabels, SubscriberManager.resolveConditionLabels(condition));
+        Assert.assertTrue(SubscriberManager.resolveConditionLabels(null).isEmpty());
+    }
+
+    @Test
+    public void testMergedMemberMatch() {
+        final Map<String, String> groupLabels = new HashMap<>();
+        groupLabels.put("app", "sc");
+        final SubscriberManager.MergedMemberTask task = new SubscriberManager.MergedMemberTask(groupLabels);
+
+        final Map<String, String> sameLabels = new HashMap<>(groupLabels);
+        Assert.assertTrue(task.isMatch(buildEntity(sameLabels), true));
+
+        final Map<String, String> moreLabels = new HashMap<>(groupLabels);
+        moreLabels.put("service", "helloService");
+        Assert.assertFalse(task.isMatch(buildEntity(moreLabels), true));
+        Assert.assertTrue(task.isMatch(buildEntity(moreLabels), false));
+
+        final Map<String, String> otherLabels = new HashMap<>();
+        otherLabels.put("app", "other");
+        Assert.assertFalse(task.isMatch(buildEntity(otherLabels), false));
+        Assert.assertFalse(task.isMatch(buildEntity(null), false));
+    }
+
+    private KieConfigEntity buildEntity(Map<String, String> labels) {
+        final KieConfigEntity entity = new KieConfigEntity();
+        entity.setKey("key");
+        entity.setValue("value");
+        entity.setLabels(labels);
+        return entity;
+    }
+}
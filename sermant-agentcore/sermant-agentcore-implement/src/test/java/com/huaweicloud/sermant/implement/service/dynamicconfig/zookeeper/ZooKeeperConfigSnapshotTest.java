@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.dynamicconfig.zookeeper;
+
+import com.huaweicloud.sermant.implement.service.dynamicconfig.zookeeper.ZooKeeperBufferedClient.NodeData;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * zookeeper配置快照测试类
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-22
+ */
+public class ZooKeeperConfigSnapshotTest {
+    private static final String SERVER_ADDRESS = "127.0.0.1:2181";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final File file = new File(folder.newFolder(), "snapshot");
+        final ZooKeeperConfigSnapshot snapshot = new ZooKeeperConfigSnapshot(file, SERVER_ADDRESS);
+        Assert.assertFalse(snapshot.load());
+        Assert.assertTrue(snapshot.update("/group/key1", new NodeData("content1", 1)));
+        Assert.assertTrue(snapshot.update("/group/key2", new NodeData("内容2", 3)));
+        Assert.assertTrue(snapshot.update("/other/key", new NodeData("", 0)));
+        Assert.assertTrue(snapshot.isDirty());
+        snapshot.save();
+        Assert.assertFalse(snapshot.isDirty());
+
+        final ZooKeeperConfigSnapshot loaded = new ZooKeeperConfigSnapshot(file, SERVER_ADDRESS);
+        Assert.assertTrue(loaded.load());
+        final Map<String, NodeData> children = loaded.getChildren("/group");
+        Assert.assertEquals(2, children.size());
+        Assert.assertEquals("content1", children.get("/group/key1").getContent());
+        Assert.assertEquals("内容2", children.get("/group/key2").getContent());
+        Assert.assertEquals(3, children.get("/group/key2").getVersion());
+        Assert.assertEquals("", loaded.get("/other/key").map(NodeData::getContent).orElse(null));
+
+        Assert.assertFalse(new ZooKeeperConfigSnapshot(file, "127.0.0.1:2182").load());
+    }
+
+    @Test
+    public void testUpdateByVersion() {
+        final ZooKeeperConfigSnapshot snapshot = new ZooKeeperConfigSnapshot(null, SERVER_ADDRESS);
+        Assert.assertTrue(snapshot.update("/group/key", new NodeData("content", 1)));
+        Assert.assertFalse(snapshot.update("/group/key", new NodeData("content", 1)));
+        Assert.assertTrue(snapshot.update("/group/key", new NodeData("content", 2)));
+        Assert.assertFalse(snapshot.isDirty());
+        Assert.assertTrue(snapshot.remove("/group/key"));
+        Assert.assertFalse(snapshot.remove("/group/key"));
+        Assert.assertFalse(snapshot.get("/group/key").isPresent());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.dynamicconfig.zookeeper;
+
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.config.common.BaseConfig;
+import com.huaweicloud.sermant.core.config.common.ConfigTypeKey;
+import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigEvent;
+import com.huaweicloud.sermant.core.service.dynamicconfig.common.DynamicConfigEventType;
+import com.huaweicloud.sermant.core.service.dynamicconfig.config.DynamicConfig;
+import com.huaweicloud.sermant.core.utils.ReflectUtils;
+import com.huaweicloud.sermant.implement.service.dynamicconfig.zookeeper.ZooKeeperBufferedClient.NodeData;
+
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * zookeeper动态配置服务测试类
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-22
+ */
+public class ZooKeeperDynamicConfigServiceTest {
+    private static final String KEY = "key";
+
+    private static final String GROUP = "group";
+
+    private static final String GROUP_PATH = "/group";
+
+    private static final String PATH = "/group/key";
+
+    private final ZooKeeperBufferedClient zkClient = Mockito.mock(ZooKeeperBufferedClient.class);
+
+    private final ZooKeeperDynamicConfigService service = new ZooKeeperDynamicConfigService();
+
+    @BeforeClass
+    public static void setUpConfig() {
+        Optional<?> optional = ReflectUtils.getStaticFieldValue(ConfigManager.class, "CONFIG_MAP");
+        Assert.assertTrue(optional.isPresent());
+        Map<String, BaseConfig> configMap = (Map<String, BaseConfig>) optional.get();
+        configMap.putIfAbsent(DynamicConfig.class.getAnnotation(ConfigTypeKey.class).value(), new DynamicConfig());
+    }
+
+    @Before
+    public void setUp() {
+        ReflectUtils.setFieldValue(service, "zkClient", zkClient);
+        ReflectUtils.setFieldValue(service, "snapshot", new ZooKeeperConfigSnapshot(null, "127.0.0.1:2181"));
+        ReflectUtils.setFieldValue(service, "executor", Mockito.mock(ExecutorService.class));
+        Mockito.when(zkClient.addDataLoopWatch(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(true);
+        Mockito.when(zkClient.addPersistentRecursiveWatches(Mockito.anyString(), Mockito.any())).thenReturn(true);
+    }
+
+    /**
+     * 同一节点上的多个监听均能收到变化，各监听独立去重
+     */
+    @Test
+    public void testListenersOnSamePath() {
+        final List<DynamicConfigEvent> firstEvents = new ArrayList<>();
+        final List<DynamicConfigEvent> secondEvents = new ArrayList<>();
+        Assert.assertTrue(service.addConfigListener(KEY, GROUP, firstEvents::add));
+        Assert.assertTrue(service.addConfigListener(KEY, GROUP, secondEvents::add));
+        final ArgumentCaptor<Watcher> captor = ArgumentCaptor.forClass(Watcher.class);
+        Mockito.verify(zkClient, Mockito.times(2)).addDataLoopWatch(Mockito.eq(PATH), captor.capture(),
+                Mockito.any());
+
+        Mockito.when(zkClient.getNodeData(PATH)).thenReturn(Optional.of(new NodeData("first", 1)));
+        fire(captor.getAllValues(), PATH);
+        assertModified(firstEvents, "first");
+        assertModified(secondEvents, "first");
+
+        // 版本未变化时不重复分发
+        fire(captor.getAllValues(), PATH);
+        Assert.assertEquals(1, firstEvents.size());
+        Assert.assertEquals(1, secondEvents.size());
+
+        Mockito.when(zkClient.getNodeData(PATH)).thenReturn(Optional.of(new NodeData("second", 2)));
+        fire(captor.getAllValues(), PATH);
+        assertModified(firstEvents, "second");
+        assertModified(secondEvents, "second");
+    }
+
+    /**
+     * 键监听与组监听重叠时均能收到变化
+     */
+    @Test
+    public void testKeyAndGroupListeners() {
+        final List<DynamicConfigEvent> keyEvents = new ArrayList<>();
+        final List<DynamicConfigEvent> groupEvents = new ArrayList<>();
+        Assert.assertTrue(service.addConfigListener(KEY, GROUP, keyEvents::add));
+        Assert.assertTrue(service.addGroupListener(GROUP, groupEvents::add, false));
+        final ArgumentCaptor<Watcher> keyCaptor = ArgumentCaptor.forClass(Watcher.class);
+        Mockito.verify(zkClient).addDataLoopWatch(Mockito.eq(PATH), keyCaptor.capture(), Mockito.any());
+        final ArgumentCaptor<Watcher> groupCaptor = ArgumentCaptor.forClass(Watcher.class);
+        Mockito.verify(zkClient).addPersistentRecursiveWatches(Mockito.eq(GROUP_PATH), groupCaptor.capture());
+
+        Mockito.when(zkClient.getNodeData(PATH)).thenReturn(Optional.of(new NodeData("first", 1)));
+        fire(keyCaptor.getAllValues(), PATH);
+        fire(groupCaptor.getAllValues(), PATH);
+        assertModified(keyEvents, "first");
+        assertModified(groupEvents, "first");
+    }
+
+    private void fire(List<Watcher> watchers, String path) {
+        for (Watcher watcher : watchers) {
+            watcher.process(new WatchedEvent(Watcher.Event.EventType.NodeDataChanged,
+                    Watcher.Event.KeeperState.SyncConnected, path));
+        }
+    }
+
+    private void assertModified(List<DynamicConfigEvent> events, String content) {
+        Assert.assertFalse(events.isEmpty());
+        final DynamicConfigEvent event = events.get(events.size() - 1);
+        Assert.assertEquals(DynamicConfigEventType.MODIFY, event.getEventType());
+        Assert.assertEquals(KEY, event.getKey());
+        Assert.assertEquals(content, event.getContent());
+    }
+}
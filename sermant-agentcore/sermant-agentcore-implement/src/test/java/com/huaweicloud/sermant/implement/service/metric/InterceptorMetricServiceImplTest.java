@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.metric;
+
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.event.collector.FrameworkEventCollector;
+import com.huaweicloud.sermant.core.event.config.EventConfig;
+import com.huaweicloud.sermant.core.service.metric.common.InterceptorMetric;
+import com.huaweicloud.sermant.core.service.metric.common.InterceptorMetricRecorder;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 拦截器运行指标上报测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-08
+ */
+public class InterceptorMetricServiceImplTest {
+    private final List<InterceptorMetric> metrics = new ArrayList<>();
+
+    private final FrameworkEventCollector collector = Mockito.mock(FrameworkEventCollector.class);
+
+    private MockedStatic<ConfigManager> configManagerMockedStatic;
+
+    private MockedStatic<FrameworkEventCollector> collectorMockedStatic;
+
+    private MockedStatic<InterceptorMetricRecorder> recorderMockedStatic;
+
+    /**
+     * 初始化
+     */
+    @Before
+    public void setUp() {
+        configManagerMockedStatic = Mockito.mockStatic(ConfigManager.class);
+        configManagerMockedStatic.when(() -> ConfigManager.getConfig(EventConfig.class)).thenReturn(new EventConfig());
+        collectorMockedStatic = Mockito.mockStatic(FrameworkEventCollector.class);
+        collectorMockedStatic.when(FrameworkEventCollector::getInstance).thenReturn(collector);
+        recorderMockedStatic = Mockito.mockStatic(InterceptorMetricRecorder.class);
+        recorderMockedStatic.when(InterceptorMetricRecorder::getMetrics).thenReturn(metrics);
+    }
+
+    /**
+     * 释放
+     */
+    @After
+    public void tearDown() {
+        recorderMockedStatic.close();
+        collectorMockedStatic.close();
+        configManagerMockedStatic.close();
+    }
+
+    /**
+     * 仅上报有调用的指标增量，并按批合并为事件
+     */
+    @Test
+    public void testReportDelta() {
+        final InterceptorMetricServiceImpl service = new InterceptorMetricServiceImpl();
+        final InterceptorMetric busy = new InterceptorMetric("busy", "interceptor");
+        final InterceptorMetric idle = new InterceptorMetric("idle", "interceptor");
+        metrics.add(busy);
+        metrics.add(idle);
+        busy.record(100L, false);
+        busy.record(300L, true);
+        service.report();
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(collector, Mockito.times(1)).collectInterceptorMetricEvent(captor.capture());
+        Assert.assertTrue(captor.getValue().contains("methodKey='busy'"));
+        Assert.assertTrue(captor.getValue().contains("invokeCount=2, exceptionCount=1, avgNanos=200"));
+        Assert.assertFalse(captor.getValue().contains("idle"));
+
+        // 无新增调用时不上报
+        service.report();
+        Mockito.verify(collector, Mockito.times(1)).collectInterceptorMetricEvent(Mockito.anyString());
+
+        busy.record(50L, false);
+        service.report();
+        Mockito.verify(collector, Mockito.times(2)).collectInterceptorMetricEvent(captor.capture());
+        Assert.assertTrue(captor.getValue().contains("invokeCount=1, exceptionCount=0, avgNanos=50"));
+    }
+
+    /**
+     * 活跃指标过多时按上限截断并分批上报
+     */
+    @Test
+    public void testReportCapped() {
+        for (int i = 0; i < 150; i++) {
+            final InterceptorMetric metric = new InterceptorMetric("method" + i, "interceptor");
+            metric.record(1L, false);
+            metrics.add(metric);
+        }
+        new InterceptorMetricServiceImpl().report();
+        Mockito.verify(collector, Mockito.times(5)).collectInterceptorMetricEvent(Mockito.anyString());
+    }
+}
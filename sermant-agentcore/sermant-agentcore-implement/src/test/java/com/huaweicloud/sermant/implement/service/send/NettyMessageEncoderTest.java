@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.send;
+
+import com.huaweicloud.sermant.implement.service.send.netty.NettyMessageEncoder;
+import com.huaweicloud.sermant.implement.service.send.netty.PendingServiceData;
+import com.huaweicloud.sermant.implement.service.send.netty.Varint32FramePrepender;
+import com.huaweicloud.sermant.implement.service.send.netty.pojo.Message;
+import com.huaweicloud.sermant.implement.utils.GzipUtils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.protobuf.ProtobufDecoder;
+import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * NettyMessageEncoder单元测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-18
+ */
+public class NettyMessageEncoderTest {
+    private static final PooledByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    private static final byte[] HEARTBEAT = "heartbeat".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] EVENT = buildLargeData();
+
+    /**
+     * 测试逐条压缩的编码结果与protobuf一致
+     *
+     * @throws IOException 压缩失败
+     */
+    @Test
+    public void testEncode() throws IOException {
+        final List<PendingServiceData> dataList = new ArrayList<>();
+        dataList.add(new PendingServiceData(Message.ServiceData.DataType.HEARTBEAT_DATA,
+                NettyMessageEncoder.compress(ALLOCATOR, HEARTBEAT)));
+        dataList.add(new PendingServiceData(Message.ServiceData.DataType.EVENT_DATA,
+                NettyMessageEncoder.compress(ALLOCATOR, EVENT)));
+        final ByteBuf buf = NettyMessageEncoder.encode(ALLOCATOR, dataList);
+        final Message.NettyMessage message = Message.NettyMessage.parseFrom(ByteBufUtil.getBytes(buf));
+        buf.release();
+        Assert.assertEquals(0, dataList.get(0).getData().refCnt());
+        Assert.assertEquals(Message.NettyMessage.MessageType.SERVICE_DATA, message.getMessageType());
+        Assert.assertEquals(2, message.getServiceDataCount());
+        Assert.assertEquals(Message.ServiceData.DataType.HEARTBEAT_DATA, message.getServiceData(0).getDataType());
+        Assert.assertArrayEquals(HEARTBEAT, GzipUtils.decompress(message.getServiceData(0).getData().toByteArray()));
+        Assert.assertEquals(Message.ServiceData.DataType.EVENT_DATA, message.getServiceData(1).getDataType());
+        Assert.assertArrayEquals(EVENT, GzipUtils.decompress(message.getServiceData(1).getData().toByteArray()));
+    }
+
+    /**
+     * 测试整体压缩的编码结果
+     *
+     * @throws IOException 压缩失败
+     */
+    @Test
+    public void testEncodeCompressed() throws IOException {
+        final List<PendingServiceData> dataList = new ArrayList<>();
+        dataList.add(new PendingServiceData(Message.ServiceData.DataType.HEARTBEAT_DATA,
+                Unpooled.wrappedBuffer(HEARTBEAT)));
+        dataList.add(new PendingServiceData(Message.ServiceData.DataType.EVENT_DATA, Unpooled.wrappedBuffer(EVENT)));
+        final ByteBuf buf = NettyMessageEncoder.encodeCompressed(ALLOCATOR, dataList);
+        final Message.NettyMessage message = Message.NettyMessage.parseFrom(ByteBufUtil.getBytes(buf));
+        buf.release();
+        Assert.assertEquals(0, dataList.get(1).getData().refCnt());
+        Assert.assertEquals(Message.NettyMessage.MessageType.COMPRESSED_SERVICE_DATA, message.getMessageType());
+        Assert.assertEquals(0, message.getServiceDataCount());
+        final Message.NettyMessage inner = Message.NettyMessage.parseFrom(
+                GzipUtils.decompress(message.getCompressedServiceData().toByteArray()));
+        Assert.assertEquals(2, inner.getServiceDataCount());
+        Assert.assertEquals(Message.ServiceData.DataType.HEARTBEAT_DATA, inner.getServiceData(0).getDataType());
+        Assert.assertArrayEquals(HEARTBEAT, inner.getServiceData(0).getData().toByteArray());
+        Assert.assertEquals(Message.ServiceData.DataType.EVENT_DATA, inner.getServiceData(1).getDataType());
+        Assert.assertArrayEquals(EVENT, inner.getServiceData(1).getData().toByteArray());
+    }
+
+    /**
+     * 测试添加长度头后的消息可被ProtobufVarint32FrameDecoder解析
+     *
+     * @throws IOException 压缩失败
+     */
+    @Test
+    public void testFramePrepender() throws IOException {
+        final EmbeddedChannel outChannel = new EmbeddedChannel(new Varint32FramePrepender());
+        final ByteBuf message = NettyMessageEncoder.encode(ALLOCATOR, Arrays.asList(
+                new PendingServiceData(Message.ServiceData.DataType.EVENT_DATA,
+                        NettyMessageEncoder.compress(ALLOCATOR, EVENT))));
+        Assert.assertTrue(outChannel.writeOutbound(message));
+        final ByteBuf framed = outChannel.readOutbound();
+        final EmbeddedChannel inChannel = new EmbeddedChannel(new ProtobufVarint32FrameDecoder(),
+                new ProtobufDecoder(Message.NettyMessage.getDefaultInstance()));
+        Assert.assertTrue(inChannel.writeInbound(framed));
+        final Message.NettyMessage decoded = inChannel.readInbound();
+        Assert.assertArrayEquals(EVENT, GzipUtils.decompress(decoded.getServiceData(0).getData().toByteArray()));
+        Assert.assertFalse(outChannel.finish());
+        Assert.assertFalse(inChannel.finish());
+    }
+
+    /**
+     * 测试varint长度计算
+     */
+    @Test
+    public void testVarint() {
+        final ByteBuf buf = Unpooled.buffer();
+        for (int value : new int[]{0, 127, 128, 16383, 16384, Integer.MAX_VALUE}) {
+            buf.clear();
+            NettyMessageEncoder.writeVarint(buf, value);
+            Assert.assertEquals(buf.readableBytes(), NettyMessageEncoder.varintSize(value));
+        }
+    }
+
+    private static byte[] buildLargeData() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append("event-").append(i).append(';');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
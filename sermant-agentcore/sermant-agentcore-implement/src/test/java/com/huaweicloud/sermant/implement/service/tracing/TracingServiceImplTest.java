@@ -52,6 +52,8 @@ public class TracingServiceImplTest {
 
     private static final String SPAN_ID_PREFIX = "SPAN_ID_PREFIX";
 
+    private static final String SAMPLED = "SAMPLED";
+
     private static final String INIT_PARENT_SPAN_ID = "0";
 
     private static final String INIT_SPAN_ID_PREFIX = "0-0";
@@ -82,6 +84,7 @@ public class TracingServiceImplTest {
             tracingRequest.setTraceId(carrier.get(TRACE_ID));
             tracingRequest.setParentSpanId(carrier.get(PARENT_SPAN_ID));
             tracingRequest.setSpanIdPrefix(carrier.get(SPAN_ID_PREFIX));
+            tracingRequest.setSampled(TracingUtils.parseSampledValue(carrier.get(SAMPLED)));
         };
 
         // 实现注入接口
@@ -89,6 +92,7 @@ public class TracingServiceImplTest {
             carrier.put(TRACE_ID, spanEvent.getTraceId());
             carrier.put(PARENT_SPAN_ID, spanEvent.getSpanId());
             carrier.put(SPAN_ID_PREFIX, spanEvent.getNextSpanIdPrefix());
+            carrier.put(SAMPLED, TracingUtils.toSampledValue(spanEvent.isSampled()));
         };
 
     }
@@ -223,6 +227,49 @@ public class TracingServiceImplTest {
         }
     }
 
+    /**
+     * 采样决策跨进程传递测试
+     */
+    @Test
+    public void testSampledPropagation() {
+        try (MockedStatic<ServiceManager> mockedStatic = Mockito.mockStatic(ServiceManager.class)) {
+            mockedStatic.when(() -> ServiceManager.getService(GatewayClient.class))
+                    .thenReturn(new NettyGatewayClient());
+            TracingServiceImpl tracingService = new TracingServiceImpl();
+            tracingService.start();
+            TracingRequest tracingRequest = new TracingRequest("", "", "", "", "");
+
+            // 沿用上游的不采样决策，并传递给下游
+            header.put(TRACE_ID, TracingUtils.generateTraceId());
+            header.put(PARENT_SPAN_ID, INIT_PARENT_SPAN_ID);
+            header.put(SPAN_ID_PREFIX, INIT_SPAN_ID_PREFIX);
+            header.put(SAMPLED, "0");
+            Optional<SpanEvent> spanEventOptional =
+                    tracingService.onProviderSpanStart(tracingRequest, extractService, header);
+            Assert.assertTrue(spanEventOptional.isPresent());
+            Assert.assertFalse(spanEventOptional.get().isSampled());
+            Map<String, String> downstreamHeader = new HashMap<>();
+            Assert.assertTrue(
+                    tracingService.onConsumerSpanStart(tracingRequest, injectService, downstreamHeader).isPresent());
+            Assert.assertEquals("0", downstreamHeader.get(SAMPLED));
+            tracingService.onSpanFinally();
+            tracingService.onSpanFinally();
+
+            // 上游未传递决策时由当前进程决定，默认全部采样
+            header.remove(SAMPLED);
+            tracingRequest.setSampled(null);
+            spanEventOptional = tracingService.onProviderSpanStart(tracingRequest, extractService, header);
+            Assert.assertTrue(spanEventOptional.isPresent());
+            Assert.assertTrue(spanEventOptional.get().isSampled());
+            downstreamHeader.clear();
+            tracingService.onConsumerSpanStart(tracingRequest, injectService, downstreamHeader);
+            Assert.assertEquals("1", downstreamHeader.get(SAMPLED));
+            tracingService.onSpanFinally();
+            tracingService.onSpanFinally();
+            tracingService.stop();
+        }
+    }
+
     /**
      * span中出现错误场景测试
      */
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sampler;
+
+import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
+import com.huaweicloud.sermant.core.service.tracing.config.SamplingType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 采样器单元测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-20
+ */
+public class SamplingManagerTest {
+    private static final int LIMIT = 10;
+
+    private final List<SpanEvent> flushedSpans = new ArrayList<>();
+
+    /**
+     * 测试头部采样策略
+     */
+    @Test
+    public void testHeadSampling() {
+        Assert.assertTrue(new ProbabilisticSampler(1.0d).isSampled());
+        Assert.assertFalse(new ProbabilisticSampler(0.0d).isSampled());
+        final RateLimitingSampler sampler = new RateLimitingSampler(LIMIT);
+        int sampledCount = 0;
+        for (int i = 0; i < LIMIT * 2; i++) {
+            if (sampler.isSampled()) {
+                sampledCount++;
+            }
+        }
+
+        // 跨秒时计数会重置，因此最多为两倍的限制值
+        Assert.assertTrue(sampledCount >= LIMIT && sampledCount <= LIMIT * 2);
+        Assert.assertFalse(new RateLimitingSampler(0).isSampled());
+    }
+
+    /**
+     * 测试动态更新采样规则
+     */
+    @Test
+    public void testUpdateRule() {
+        final SamplingManager samplingManager = new SamplingManager(flushedSpans::add);
+        Assert.assertTrue(samplingManager.isSampled());
+        final SamplingRule rule = new SamplingRule();
+        rule.setType(SamplingType.PROBABILISTIC);
+        rule.setRate(0.0d);
+        samplingManager.updateRule(rule);
+        Assert.assertFalse(samplingManager.isSampled());
+    }
+
+    /**
+     * 测试尾部采样仅发送错误链路和慢链路
+     */
+    @Test
+    public void testTailSampling() {
+        final SamplingManager samplingManager = new SamplingManager(flushedSpans::add);
+        final SamplingRule rule = new SamplingRule();
+        rule.setTailEnable(true);
+        rule.setSlowThreshold(100L);
+        rule.setTailBufferSize(1);
+        samplingManager.updateRule(rule);
+
+        // 正常链路被丢弃
+        SpanEvent root = buildSpan("fast", 10L);
+        Assert.assertTrue(samplingManager.onSpanFinished(new SpanEvent(root)).isEmpty());
+        Assert.assertTrue(samplingManager.onSpanFinished(root).isEmpty());
+
+        // 错误链路整条发送
+        root = buildSpan("error", 10L);
+        final SpanEvent child = new SpanEvent(root);
+        child.setError(true);
+        Assert.assertTrue(samplingManager.onSpanFinished(child).isEmpty());
+        final List<SpanEvent> errorTrace = samplingManager.onSpanFinished(root);
+        Assert.assertEquals(2, errorTrace.size());
+        Assert.assertSame(root, errorTrace.get(1));
+
+        // 慢链路发送
+        Assert.assertEquals(1, samplingManager.onSpanFinished(buildSpan("slow", 100L)).size());
+    }
+
+    /**
+     * 测试同一链路并发进入当前进程时分别采样，入口span结束后才结束的异步span沿用采样结果
+     */
+    @Test
+    public void testTailSamplingPerEntrySpan() {
+        final SamplingManager samplingManager = new SamplingManager(flushedSpans::add);
+        final SamplingRule rule = new SamplingRule();
+        rule.setTailEnable(true);
+        rule.setSlowThreshold(100L);
+        rule.setTailBufferSize(LIMIT);
+        samplingManager.updateRule(rule);
+        final SpanEvent errorRoot = buildSpan("trace", 10L);
+        errorRoot.setSpanId("0-0");
+        final SpanEvent fastRoot = buildSpan("trace", 10L);
+        fastRoot.setSpanId("0-1");
+        final SpanEvent errorChild = new SpanEvent(errorRoot);
+        errorChild.setError(true);
+        Assert.assertTrue(samplingManager.onSpanFinished(errorChild).isEmpty());
+        Assert.assertTrue(samplingManager.onSpanFinished(new SpanEvent(fastRoot)).isEmpty());
+        Assert.assertTrue(samplingManager.onSpanFinished(fastRoot).isEmpty());
+        Assert.assertEquals(2, samplingManager.onSpanFinished(errorRoot).size());
+
+        // 入口span结束后才结束的异步span
+        final SpanEvent lateChild = new SpanEvent(errorRoot);
+        Assert.assertEquals(1, samplingManager.onSpanFinished(lateChild).size());
+        Assert.assertTrue(samplingManager.onSpanFinished(new SpanEvent(fastRoot)).isEmpty());
+    }
+
+    /**
+     * 测试更新采样规则时保留尾部采样缓存中未结束的链路
+     */
+    @Test
+    public void testUpdateRuleKeepsBufferedSpans() {
+        final SamplingManager samplingManager = new SamplingManager(flushedSpans::add);
+        final SamplingRule rule = new SamplingRule();
+        rule.setTailEnable(true);
+        rule.setSlowThreshold(100L);
+        rule.setTailBufferSize(LIMIT);
+        samplingManager.updateRule(rule);
+
+        // 尾部采样配置未变，沿用原缓存
+        SpanEvent root = buildSpan("same", 10L);
+        SpanEvent child = new SpanEvent(root);
+        child.setError(true);
+        Assert.assertTrue(samplingManager.onSpanFinished(child).isEmpty());
+        samplingManager.updateRule(rule);
+        Assert.assertEquals(2, samplingManager.onSpanFinished(root).size());
+
+        // 尾部采样配置变更，未结束的链路转移到新缓存
+        root = buildSpan("changed", 10L);
+        child = new SpanEvent(root);
+        child.setError(true);
+        Assert.assertTrue(samplingManager.onSpanFinished(child).isEmpty());
+        rule.setSlowThreshold(200L);
+        samplingManager.updateRule(rule);
+        Assert.assertEquals(2, samplingManager.onSpanFinished(root).size());
+
+        // 关闭尾部采样，发送已缓存的span
+        root = buildSpan("disabled", 10L);
+        child = new SpanEvent(root);
+        Assert.assertTrue(samplingManager.onSpanFinished(child).isEmpty());
+        rule.setTailEnable(false);
+        samplingManager.updateRule(rule);
+        Assert.assertEquals(1, flushedSpans.size());
+        Assert.assertSame(child, flushedSpans.get(0));
+        Assert.assertEquals(1, samplingManager.onSpanFinished(root).size());
+    }
+
+    private SpanEvent buildSpan(String traceId, long durationMillis) {
+        final SpanEvent spanEvent = new SpanEvent();
+        spanEvent.setTraceId(traceId);
+        spanEvent.setDuration(TimeUnit.MILLISECONDS.toMicros(durationMillis));
+        return spanEvent;
+    }
+}
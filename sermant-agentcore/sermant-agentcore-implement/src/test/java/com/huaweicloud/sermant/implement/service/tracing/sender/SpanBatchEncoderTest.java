@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.implement.service.tracing.sender;
+
+import com.huaweicloud.sermant.core.service.tracing.common.SpanEvent;
+import com.huaweicloud.sermant.core.service.tracing.common.TargetInfo;
+import com.huaweicloud.sermant.implement.service.tracing.sender.pojo.Tracing;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * SpanBatchEncoder单元测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-19
+ */
+public class SpanBatchEncoderTest {
+    /**
+     * 测试一批span编码后可被解析，且null字段保持默认值
+     *
+     * @throws InvalidProtocolBufferException 解析失败
+     */
+    @Test
+    public void testEncode() throws InvalidProtocolBufferException {
+        final SpanEvent parent = new SpanEvent();
+        parent.setTraceId("trace");
+        parent.setSpanId("0");
+        parent.setStartTime(1L);
+        parent.setEndTime(2L);
+        parent.addTag("key", "value");
+        final SpanEvent child = new SpanEvent(parent);
+        child.setSpanId("0-0-1");
+        child.setError(true);
+        final TargetInfo targetInfo = new TargetInfo();
+        targetInfo.setAddress("127.0.0.1:8080");
+        child.setTargetInfo(targetInfo);
+
+        final Tracing.SpanBatch batch =
+                Tracing.SpanBatch.parseFrom(SpanBatchEncoder.encode(Arrays.asList(parent, child)));
+        Assert.assertEquals(2, batch.getSpansCount());
+        final Tracing.Span parentSpan = batch.getSpans(0);
+        Assert.assertEquals("trace", parentSpan.getTraceId());
+        Assert.assertEquals("", parentSpan.getParentSpanId());
+        Assert.assertEquals(1L, parentSpan.getStartTime());
+        Assert.assertEquals(2L, parentSpan.getEndTime());
+        Assert.assertEquals("value", parentSpan.getTagsMap().get("key"));
+        Assert.assertFalse(parentSpan.hasTargetInfo());
+        final Tracing.Span childSpan = batch.getSpans(1);
+        Assert.assertEquals("trace", childSpan.getTraceId());
+        Assert.assertEquals("0", childSpan.getParentSpanId());
+        Assert.assertTrue(childSpan.getIsError());
+        Assert.assertEquals("127.0.0.1:8080", childSpan.getTargetInfo().getAddress());
+        Assert.assertEquals("", childSpan.getTargetInfo().getMethod());
+    }
+}
@@ -79,6 +79,21 @@ public class CommonConst {
      */
     public static final String REDIS_EVENT_FIELD_SET_KEY = "sermant_event_keyset";
 
+    /**
+     * redis 事件field序号计数器key前缀
+     */
+    public static final String REDIS_EVENT_FIELD_COUNTER_PREFIX = "sermant_event_field_counter_";
+
+    /**
+     * redis 查询会话结果列表key前缀
+     */
+    public static final String REDIS_SESSION_KEY_PREFIX = "sermant_session_";
+
+    /**
+     * redis 查询会话结果统计key前缀
+     */
+    public static final String REDIS_SESSION_SIZE_KEY_PREFIX = "sermant_session_size_";
+
     /**
      * redis 全匹配字符*
      */
@@ -43,6 +43,7 @@ public abstract class BaseHandler extends SimpleChannelInboundHandler<Message.Ne
         switch (type) {
             // 如果为业务数据进行各自的处理
             case Message.NettyMessage.MessageType.SERVICE_DATA_VALUE:
+            case Message.NettyMessage.MessageType.COMPRESSED_SERVICE_DATA_VALUE:
                 handlerData(ctx, msg);
                 break;
             default:
@@ -40,6 +40,20 @@ public interface EventDao {
      */
     boolean addEvent(Event event);
 
+    /**
+     * 批量增加事件
+     *
+     * @param events 事件
+     * @return 全部写入成功返回true
+     */
+    default boolean addEvents(List<Event> events) {
+        boolean result = true;
+        for (Event event : events) {
+            result &= addEvent(event);
+        }
+        return result;
+    }
+
     /**
      * 增加agent实例
      *
@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.backend.dao.memory;
+
+import com.huaweicloud.sermant.backend.common.conf.CommonConst;
+import com.huaweicloud.sermant.backend.entity.event.EventsRequestEntity;
+import com.huaweicloud.sermant.backend.entity.event.QueryResultEventInfoEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 按时间分区的内存事件存储
+ *
+ * <p>事件按事件时间落入固定跨度的分区，分区内维护按时间排序的索引以及服务、实例、类型、级别、作用域的二级索引，
+ * 过期清理以分区为单位整体丢弃，查询仅访问与时间范围相交的分区</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class EventTimeSeriesStore {
+    /**
+     * 分区跨度，单位毫秒
+     */
+    private static final long PARTITION_SPAN = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * 过期检查的最小间隔，单位毫秒
+     */
+    private static final long EXPIRE_CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Comparator<EventRecord> TIME_ORDER =
+            Comparator.comparingLong(EventRecord::getTime).thenComparingLong(EventRecord::getSequence);
+
+    private final NavigableMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong nextExpireCheck = new AtomicLong();
+
+    private final long expireMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param expireMillis 事件保留时长，单位毫秒
+     */
+    public EventTimeSeriesStore(long expireMillis) {
+        this.expireMillis = expireMillis;
+    }
+
+    /**
+     * 写入事件
+     *
+     * @param field 事件field，同一field的多次写入以递增序号区分
+     * @param time 事件时间
+     * @param entity 事件内容
+     * @return 事件记录
+     */
+    public EventRecord add(String field, long time, QueryResultEventInfoEntity entity) {
+        expireIfNecessary(System.currentTimeMillis());
+        Partition partition = partitions.computeIfAbsent(partitionOf(time), key -> new Partition());
+        int sameFieldNum = partition.fieldCounters.computeIfAbsent(field, key -> new AtomicInteger())
+                .getAndIncrement();
+        EventRecord record = new EventRecord(field + CommonConst.JOIN_REDIS_KEY + sameFieldNum, time,
+                sequence.getAndIncrement(), entity);
+        partition.add(record);
+        return record;
+    }
+
+    /**
+     * 查询时间范围内满足条件的事件，按事件时间升序排列
+     *
+     * @param request 查询条件
+     * @return 事件记录
+     */
+    public List<EventRecord> query(EventsRequestEntity request) {
+        long startTime = request.getStartTime();
+        long endTime = request.getEndTime();
+        if (startTime > endTime) {
+            return Collections.emptyList();
+        }
+        Map<Dimension, Set<String>> conditions = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            List<String> values = dimension.requestValues.apply(request);
+            if (values != null && !values.isEmpty()) {
+                conditions.put(dimension, new HashSet<>(values));
+            }
+        }
+        List<EventRecord> result = new ArrayList<>();
+        for (Partition partition : partitions.subMap(partitionOf(startTime), true, partitionOf(endTime), true)
+                .values()) {
+            partition.collect(startTime, endTime, conditions, result);
+        }
+        result.sort(TIME_ORDER);
+        return result;
+    }
+
+    /**
+     * 丢弃已整体过期的分区
+     *
+     * @param now 当前时间
+     */
+    public void expire(long now) {
+        long expireBefore = partitionOf(now - expireMillis);
+        partitions.headMap(expireBefore, false).clear();
+    }
+
+    private void expireIfNecessary(long now) {
+        long checkTime = nextExpireCheck.get();
+        if (now >= checkTime && nextExpireCheck.compareAndSet(checkTime, now + EXPIRE_CHECK_INTERVAL)) {
+            expire(now);
+        }
+    }
+
+    private static long partitionOf(long time) {
+        return Math.floorDiv(time, PARTITION_SPAN);
+    }
+
+    /**
+     * 二级索引维度，取值与事件field中的对应段保持一致
+     *
+     * @since 2023-08-24
+     */
+    private enum Dimension {
+        SERVICE(EventsRequestEntity::getService, entity -> entity.getMeta().get("service")),
+        IP(EventsRequestEntity::getIp, entity -> entity.getMeta().get("ip")),
+        TYPE(EventsRequestEntity::getType,
+                entity -> entity.getType() == null ? null : entity.getType().toLowerCase(Locale.ROOT)),
+        LEVEL(EventsRequestEntity::getLevel, QueryResultEventInfoEntity::getLevel),
+        SCOPE(EventsRequestEntity::getScope, QueryResultEventInfoEntity::getScope);
+
+        private final Function<EventsRequestEntity, List<String>> requestValues;
+
+        private final Function<QueryResultEventInfoEntity, String> recordValue;
+
+        Dimension(Function<EventsRequestEntity, List<String>> requestValues,
+                Function<QueryResultEventInfoEntity, String> recordValue) {
+            this.requestValues = requestValues;
+            this.recordValue = recordValue;
+        }
+
+        String extract(QueryResultEventInfoEntity entity) {
+            String value = recordValue.apply(entity);
+            return value == null ? "" : value;
+        }
+    }
+
+    /**
+     * 时间分区
+     *
+     * @since 2023-08-24
+     */
+    private static class Partition {
+        private final NavigableMap<EventRecord, EventRecord> timeIndex = new ConcurrentSkipListMap<>(TIME_ORDER);
+
+        private final Map<Dimension, Map<String, Collection<EventRecord>>> indexes = new EnumMap<>(Dimension.class);
+
+        private final Map<String, AtomicInteger> fieldCounters = new ConcurrentHashMap<>();
+
+        Partition() {
+            for (Dimension dimension : Dimension.values()) {
+                indexes.put(dimension, new ConcurrentHashMap<>());
+            }
+        }
+
+        void add(EventRecord record) {
+            for (Dimension dimension : Dimension.values()) {
+                indexes.get(dimension).computeIfAbsent(record.values.get(dimension),
+                        key -> ConcurrentHashMap.newKeySet()).add(record);
+            }
+            timeIndex.put(record, record);
+        }
+
+        void collect(long startTime, long endTime, Map<Dimension, Set<String>> conditions, List<EventRecord> result) {
+            Collection<EventRecord> candidates = selectCandidates(conditions);
+            if (candidates == null) {
+                candidates = timeIndex.subMap(EventRecord.bound(startTime, Long.MIN_VALUE), true,
+                        EventRecord.bound(endTime, Long.MAX_VALUE), true).keySet();
+            }
+            for (EventRecord record : candidates) {
+                if (record.time >= startTime && record.time <= endTime && record.matches(conditions)) {
+                    result.add(record);
+                }
+            }
+        }
+
+        /**
+         * 选取候选集最小的维度作为驱动索引，未指定任何维度条件时返回null，由时间索引驱动
+         *
+         * @param conditions 查询条件
+         * @return 候选事件
+         */
+        private Collection<EventRecord> selectCandidates(Map<Dimension, Set<String>> conditions) {
+            List<EventRecord> best = null;
+            for (Map.Entry<Dimension, Set<String>> condition : conditions.entrySet()) {
+                Map<String, Collection<EventRecord>> index = indexes.get(condition.getKey());
+                List<EventRecord> candidates = new ArrayList<>();
+                for (String value : condition.getValue()) {
+                    Collection<EventRecord> records = index.get(value);
+                    if (records != null) {
+                        candidates.addAll(records);
+                    }
+                }
+                if (best == null || candidates.size() < best.size()) {
+                    best = candidates;
+                }
+                if (best.isEmpty()) {
+                    break;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * 事件记录
+     *
+     * @since 2023-08-24
+     */
+    public static final class EventRecord {
+        private final String key;
+
+        private final long time;
+
+        private final long sequence;
+
+        private final QueryResultEventInfoEntity entity;
+
+        private final Map<Dimension, String> values;
+
+        private EventRecord(String key, long time, long sequence, QueryResultEventInfoEntity entity) {
+            this.key = key;
+            this.time = time;
+            this.sequence = sequence;
+            this.entity = entity;
+            this.values = new EnumMap<>(Dimension.class);
+            if (entity != null) {
+                for (Dimension dimension : Dimension.values()) {
+                    values.put(dimension, dimension.extract(entity));
+                }
+            }
+        }
+
+        private static EventRecord bound(long time, long sequence) {
+            return new EventRecord(null, time, sequence, null);
+        }
+
+        private boolean matches(Map<Dimension, Set<String>> conditions) {
+            for (Map.Entry<Dimension, Set<String>> condition : conditions.entrySet()) {
+                if (!condition.getValue().contains(values.get(condition.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public QueryResultEventInfoEntity getEntity() {
+            return entity;
+        }
+
+        public String getLevel() {
+            return values.get(Dimension.LEVEL);
+        }
+    }
+}
@@ -18,9 +18,11 @@ package com.huaweicloud.sermant.backend.dao.memory;
 
 import com.huaweicloud.sermant.backend.common.conf.BackendConfig;
 import com.huaweicloud.sermant.backend.common.conf.CommonConst;
+import com.huaweicloud.sermant.backend.dao.memory.EventTimeSeriesStore.EventRecord;
 import com.huaweicloud.sermant.backend.dao.EventDao;
 import com.huaweicloud.sermant.backend.entity.InstanceMeta;
 import com.huaweicloud.sermant.backend.entity.event.Event;
+import com.huaweicloud.sermant.backend.entity.event.EventLevel;
 import com.huaweicloud.sermant.backend.entity.event.EventsRequestEntity;
 import com.huaweicloud.sermant.backend.entity.event.QueryCacheSizeEntity;
 import com.huaweicloud.sermant.backend.entity.event.QueryResultEventInfoEntity;
@@ -34,9 +36,8 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 /**
  * 内存客户端
@@ -46,13 +47,9 @@ import java.util.stream.Collectors;
  */
 @Component
 public class MemoryClientImpl implements EventDao {
-    private ExpiringMap<String, QueryResultEventInfoEntity> eventMap;
+    private final EventTimeSeriesStore eventStore;
     private ExpiringMap<String, InstanceMeta> agentInstanceMap;
-    private ExpiringMap<String, Long> eventTimeKeyMap;
-    private ExpiringMap<String, List<String>> sessionMap;
-    private ExpiringMap<String, String> emergency;
-    private ExpiringMap<String, String> important;
-    private ExpiringMap<String, String> normal;
+    private ExpiringMap<String, List<EventRecord>> sessionMap;
 
     /**
      * 构造函数
@@ -60,54 +57,23 @@ public class MemoryClientImpl implements EventDao {
      * @param backendConfig 配置
      */
     public MemoryClientImpl(BackendConfig backendConfig) {
-        this.eventMap = ExpiringMap.builder().expiration(
-                backendConfig.getEventExpire(), TimeUnit.DAYS)
-                .expirationPolicy(ExpirationPolicy.CREATED).build();
+        this.eventStore = new EventTimeSeriesStore(TimeUnit.DAYS.toMillis(backendConfig.getEventExpire()));
         this.agentInstanceMap = ExpiringMap.builder()
                 .expiration(backendConfig.getEventExpire(), TimeUnit.DAYS)
                 .expirationPolicy(ExpirationPolicy.CREATED).build();
-        this.eventTimeKeyMap = ExpiringMap.builder()
-                .expiration(backendConfig.getEventExpire(), TimeUnit.DAYS)
-                .expirationPolicy(ExpirationPolicy.CREATED).build();
         this.sessionMap = ExpiringMap.builder()
                 .expiration(backendConfig.getSessionTimeout(), TimeUnit.SECONDS)
                 .expirationPolicy(ExpirationPolicy.CREATED).build();
-        this.emergency = ExpiringMap.builder()
-                .expiration(backendConfig.getEventExpire(), TimeUnit.DAYS)
-                .expirationPolicy(ExpirationPolicy.CREATED).build();
-        this.important = ExpiringMap.builder()
-                .expiration(backendConfig.getEventExpire(), TimeUnit.DAYS)
-                .expirationPolicy(ExpirationPolicy.CREATED).build();
-        this.normal = ExpiringMap.builder()
-                .expiration(backendConfig.getEventExpire(), TimeUnit.DAYS)
-                .expirationPolicy(ExpirationPolicy.CREATED).build();
     }
 
     @Override
     public boolean addEvent(Event event) {
-        if (!agentInstanceMap.containsKey(event.getMetaHash())) {
-            return false;
-        }
-
         InstanceMeta instanceMeta = agentInstanceMap.get(event.getMetaHash());
-        String field = DbUtils.getEventField(instanceMeta, event);
-        field = field + CommonConst.JOIN_REDIS_KEY + getSameFieldNum(field);
-
-        eventMap.put(field, DbUtils.aggregationEvent(event, instanceMeta));
-        eventTimeKeyMap.put(field, event.getTime());
-        switch (event.getEventLevel()) {
-            case IMPORTANT:
-                important.put(field, "");
-                break;
-            case EMERGENCY:
-                emergency.put(field, "");
-                break;
-            case NORMAL:
-                normal.put(field, "");
-                break;
-            default:
-                break;
+        if (instanceMeta == null) {
+            return false;
         }
+        eventStore.add(DbUtils.getEventField(instanceMeta, event), event.getTime(),
+                DbUtils.aggregationEvent(event, instanceMeta));
         return true;
     }
 
@@ -121,30 +87,57 @@ public class MemoryClientImpl implements EventDao {
 
     @Override
     public List<QueryResultEventInfoEntity> queryEvent(EventsRequestEntity eventsRequestEntity) {
-        String pattern = DbUtils.getPattern(eventsRequestEntity);
-        List<String> queryResultKey = getQueryEventKey(
-                eventsRequestEntity.getStartTime(), eventsRequestEntity.getEndTime(), pattern);
-        Collections.reverse(queryResultKey);
-        sessionMap.put(eventsRequestEntity.getSessionId(), queryResultKey);
+        List<EventRecord> queryResult = eventStore.query(eventsRequestEntity);
+        Collections.reverse(queryResult);
+        sessionMap.put(eventsRequestEntity.getSessionId(), queryResult);
         return queryEventPage(eventsRequestEntity.getSessionId(), 1);
     }
 
     @Override
     public List<QueryResultEventInfoEntity> queryEventPage(String sessionId, int page) {
         List<QueryResultEventInfoEntity> result = new ArrayList<>();
-        List<String> keyList = sessionMap.get(sessionId);
-        int startIndex = (page - 1) * CommonConst.DEFAULT_PAGE_SIZE;
-        int endIndex = Math.min(startIndex + CommonConst.DEFAULT_PAGE_SIZE, keyList.size());
-        for (String key : keyList.subList(startIndex, endIndex)) {
-            result.add(eventMap.get(key));
+        List<EventRecord> recordList = sessionMap.get(sessionId);
+        if (recordList == null) {
+            return result;
+        }
+        int startIndex = Math.max(page - 1, 0) * CommonConst.DEFAULT_PAGE_SIZE;
+        int endIndex = Math.min(startIndex + CommonConst.DEFAULT_PAGE_SIZE, recordList.size());
+        for (int i = startIndex; i < endIndex; i++) {
+            result.add(recordList.get(i).getEntity());
         }
         return result;
     }
 
     @Override
     public QueryCacheSizeEntity getQueryCacheSize(EventsRequestEntity eventsRequestEntity) {
-        List<String> keyList = sessionMap.get(eventsRequestEntity.getSessionId());
-        return DbUtils.getQueryCacheSize(keyList);
+        QueryCacheSizeEntity queryCacheSize = new QueryCacheSizeEntity();
+        List<EventRecord> recordList = sessionMap.get(eventsRequestEntity.getSessionId());
+        if (recordList == null) {
+            return queryCacheSize;
+        }
+        int emergencyNum = 0;
+        int importantNum = 0;
+        int normalNum = 0;
+        for (EventRecord record : recordList) {
+            switch (EventLevel.valueOf(record.getLevel().toUpperCase(Locale.ROOT))) {
+                case EMERGENCY:
+                    emergencyNum++;
+                    break;
+                case IMPORTANT:
+                    importantNum++;
+                    break;
+                case NORMAL:
+                    normalNum++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        queryCacheSize.setEmergencyNum(emergencyNum);
+        queryCacheSize.setImportantNum(importantNum);
+        queryCacheSize.setNormalNum(normalNum);
+        queryCacheSize.setTotal(emergencyNum + importantNum + normalNum);
+        return queryCacheSize;
     }
 
     @Override
@@ -152,36 +145,4 @@ public class MemoryClientImpl implements EventDao {
         InstanceMeta instanceMeta = agentInstanceMap.get(event.getMetaHash());
         return DbUtils.aggregationEvent(event, instanceMeta);
     }
-
-    /**
-     * 获取查询的事件key
-     *
-     * @param startTime 开始事件
-     * @param endTime 截止事件
-     * @param pattern 匹配规则
-     * @return 事件key
-     */
-    public List<String> getQueryEventKey(long startTime, long endTime, String pattern) {
-        List<Map.Entry<String, Long>> queryResultByTime = eventTimeKeyMap.entrySet().stream().filter(
-                s -> s.getValue() >= startTime && s.getValue() <= endTime && s.getKey().matches(pattern))
-                .collect(Collectors.toList());
-        return queryResultByTime.stream().sorted(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey).collect(Collectors.toList());
-    }
-
-    /**
-     * 获取相同field 数量
-     *
-     * @param field field
-     * @return 相同field 数量
-     */
-    private int getSameFieldNum(String field) {
-        int result = 0;
-        for (String key : eventMap.keySet()) {
-            if (key.startsWith(field)) {
-                result += 1;
-            }
-        }
-        return result;
-    }
 }
@@ -68,6 +68,17 @@ public class EventDaoForRedis implements EventDao {
         return jedis.addEvent(event);
     }
 
+    /**
+     * 批量插入事件
+     *
+     * @param events 事件
+     * @return true/false
+     */
+    @Override
+    public boolean addEvents(List<Event> events) {
+        return jedis.addEvents(events);
+    }
+
     /**
      * 插入agent实例
      *
@@ -32,9 +32,12 @@ import com.alibaba.fastjson.JSONObject;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
 import redis.clients.jedis.resps.Tuple;
 
-import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -44,8 +47,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -59,8 +63,28 @@ public class RedisClientImpl implements EventDao {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisClientImpl.class);
 
+    /**
+     * 写入事件脚本：通过计数器分配field序号，写入事件并更新时间索引，返回最终field
+     */
+    private static final String ADD_EVENT_SCRIPT = "local num = redis.call('INCR', KEYS[1]) - 1\n"
+            + "redis.call('EXPIRE', KEYS[1], ARGV[2])\n"
+            + "local field = ARGV[1] .. '" + CommonConst.JOIN_REDIS_KEY + "' .. num\n"
+            + "redis.call('HSET', KEYS[2], field, ARGV[3])\n"
+            + "redis.call('ZADD', KEYS[3], ARGV[4], field)\n"
+            + "return field";
+
+    private static final int SESSION_PUSH_BATCH_SIZE = 1000;
+
+    private static final String EMERGENCY_NUM = "emergency";
+
+    private static final String IMPORTANT_NUM = "important";
+
+    private static final String NORMAL_NUM = "normal";
+
     private JedisPool jedisPool;
 
+    private volatile String addEventScriptSha;
+
     private BackendConfig backendConfig;
 
     /**
@@ -93,33 +117,81 @@ public class RedisClientImpl implements EventDao {
 
     @Override
     public boolean addEvent(Event event) {
+        return addEvents(Collections.singletonList(event));
+    }
+
+    /**
+     * 批量写入事件，实例信息通过一次MGET获取，事件写入、序号分配与时间索引更新通过一次流水线完成
+     *
+     * @param events 事件
+     * @return 全部写入成功返回true
+     */
+    @Override
+    public boolean addEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return true;
+        }
         try (Jedis jedis = jedisPool.getResource()) {
-            String instanceMeta = jedis.get(event.getMetaHash());
-            if (DbUtils.isEmpty(instanceMeta)) {
-                LOGGER.error("add event failed, event:{}, error message:[instance not exist]", event);
+            Map<String, InstanceMeta> instanceMetas = getInstanceMetas(jedis, events);
+            List<Event> validEvents = new ArrayList<>(events.size());
+            for (Event event : events) {
+                if (instanceMetas.containsKey(event.getMetaHash())) {
+                    validEvents.add(event);
+                } else {
+                    LOGGER.error("add event failed, event:{}, error message:[instance not exist]", event);
+                }
+            }
+            if (validEvents.isEmpty()) {
                 return false;
             }
-            InstanceMeta agentInstanceMeta = JSONObject.parseObject(instanceMeta, InstanceMeta.class);
-
-            // 获取事件字段
-            String field = DbUtils.getEventField(agentInstanceMeta, event);
-
-            // 检查是否有相同field
-            field = field + CommonConst.JOIN_REDIS_KEY + getSameFieldNum(field);
-
-            // 设置已有field缓存 定时过期删除
-            jedis.setex(field, backendConfig.getFieldExpire(), Strings.EMPTY);
+            if (addEventScriptSha == null) {
+                addEventScriptSha = jedis.scriptLoad(ADD_EVENT_SCRIPT);
+            }
+            try {
+                writeEvents(jedis, validEvents, instanceMetas);
+            } catch (JedisNoScriptException e) {
+                // redis重启后脚本缓存丢失，重新加载后重试
+                addEventScriptSha = jedis.scriptLoad(ADD_EVENT_SCRIPT);
+                writeEvents(jedis, validEvents, instanceMetas);
+            }
+            return validEvents.size() == events.size();
+        } catch (IllegalStateException | JedisException e) {
+            LOGGER.error("add event failed, size:{}, error message:{}", events.size(), e.getMessage());
+            return false;
+        }
+    }
 
-            // 写入事件
-            jedis.hset(CommonConst.REDIS_EVENT_KEY, field,
-                    JSONObject.toJSONString(DbUtils.aggregationEvent(event, agentInstanceMeta)));
+    private Map<String, InstanceMeta> getInstanceMetas(Jedis jedis, List<Event> events) {
+        String[] metaHashes = events.stream().map(Event::getMetaHash).distinct().toArray(String[]::new);
+        List<String> values = jedis.mget(metaHashes);
+        Map<String, InstanceMeta> instanceMetas = new HashMap<>();
+        for (int i = 0; i < metaHashes.length; i++) {
+            String value = values.get(i);
+            if (!DbUtils.isEmpty(value)) {
+                instanceMetas.put(metaHashes[i], JSONObject.parseObject(value, InstanceMeta.class));
+            }
+        }
+        return instanceMetas;
+    }
 
-            // 写入类型索引
-            jedis.zadd(CommonConst.REDIS_EVENT_FIELD_SET_KEY, event.getTime(), field);
-            return true;
-        } catch (IllegalStateException e) {
-            LOGGER.error("add event failed, event:{}, error message:{}", event, e.getMessage());
-            return false;
+    private void writeEvents(Jedis jedis, List<Event> events, Map<String, InstanceMeta> instanceMetas) {
+        String fieldExpire = String.valueOf(backendConfig.getFieldExpire());
+        Pipeline pipeline = jedis.pipelined();
+        List<Response<Object>> responses = new ArrayList<>(events.size());
+        for (Event event : events) {
+            InstanceMeta agentInstanceMeta = instanceMetas.get(event.getMetaHash());
+            String field = DbUtils.getEventField(agentInstanceMeta, event);
+            responses.add(pipeline.evalsha(addEventScriptSha,
+                    Arrays.asList(CommonConst.REDIS_EVENT_FIELD_COUNTER_PREFIX + field, CommonConst.REDIS_EVENT_KEY,
+                            CommonConst.REDIS_EVENT_FIELD_SET_KEY),
+                    Arrays.asList(field, fieldExpire,
+                            JSONObject.toJSONString(DbUtils.aggregationEvent(event, agentInstanceMeta)),
+                            String.valueOf(event.getTime()))));
+        }
+        pipeline.sync();
+        for (Response<Object> response : responses) {
+            // 存在执行失败的脚本时抛出对应异常
+            response.get();
         }
     }
 
@@ -137,38 +209,35 @@ public class RedisClientImpl implements EventDao {
         }
     }
 
-    /**
-     * 获取相同field 数量
-     *
-     * @param field field
-     * @return 相同field 数量
-     */
-    private int getSameFieldNum(String field) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.keys(field + "*").size();
-        } catch (IllegalStateException e) {
-            LOGGER.error("query same field failed, field:{}, error message:{}", field, e.getMessage());
-            return 0;
-        }
-    }
-
     @Override
     public List<QueryResultEventInfoEntity> queryEvent(EventsRequestEntity eventsRequestEntity) {
         String pattern = DbUtils.getPattern(eventsRequestEntity);
+        String sessionKey = CommonConst.REDIS_SESSION_KEY_PREFIX + eventsRequestEntity.getSessionId();
+        String sizeKey = CommonConst.REDIS_SESSION_SIZE_KEY_PREFIX + eventsRequestEntity.getSessionId();
         try (Jedis jedis = jedisPool.getResource()) {
-            List<Tuple> queryResultByTime = queryByTimeRange(CommonConst.REDIS_EVENT_FIELD_SET_KEY,
-                    eventsRequestEntity.getStartTime(),
-                    eventsRequestEntity.getEndTime());
+            List<Tuple> queryResultByTime = jedis.zrevrangeByScoreWithScores(CommonConst.REDIS_EVENT_FIELD_SET_KEY,
+                    eventsRequestEntity.getEndTime(), eventsRequestEntity.getStartTime());
             queryResultByTime = DbUtils.filterQueryResult(backendConfig, queryResultByTime, pattern);
-            List<String> eventKeys = queryResultByTime.stream().sorted(Comparator.comparing(Tuple::getScore))
-                    .map(Tuple::getElement).collect(Collectors.toList());
-            Collections.reverse(eventKeys);
-            jedis.setex(
-                    eventsRequestEntity.getSessionId(),
-                    backendConfig.getSessionTimeout(),
-                    JSONObject.toJSONString(eventKeys));
+            List<String> eventKeys = queryResultByTime.stream().map(Tuple::getElement).collect(Collectors.toList());
+            QueryCacheSizeEntity queryCacheSize = DbUtils.getQueryCacheSize(eventKeys);
+            Map<String, String> sizeMap = new HashMap<>();
+            sizeMap.put(EMERGENCY_NUM, String.valueOf(queryCacheSize.getEmergencyNum()));
+            sizeMap.put(IMPORTANT_NUM, String.valueOf(queryCacheSize.getImportantNum()));
+            sizeMap.put(NORMAL_NUM, String.valueOf(queryCacheSize.getNormalNum()));
+
+            // 查询结果以列表形式保存在redis中，翻页时按下标范围读取
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.del(sessionKey, sizeKey);
+            for (int i = 0; i < eventKeys.size(); i += SESSION_PUSH_BATCH_SIZE) {
+                pipeline.rpush(sessionKey, eventKeys.subList(i, Math.min(i + SESSION_PUSH_BATCH_SIZE,
+                        eventKeys.size())).toArray(new String[0]));
+            }
+            pipeline.hset(sizeKey, sizeMap);
+            pipeline.expire(sessionKey, backendConfig.getSessionTimeout());
+            pipeline.expire(sizeKey, backendConfig.getSessionTimeout());
+            pipeline.sync();
             return queryEventPage(eventsRequestEntity.getSessionId(), 1);
-        } catch (IllegalStateException e) {
+        } catch (IllegalStateException | JedisException e) {
             LOGGER.error("query event failed, error message:{}", e.getMessage());
             return new ArrayList<>();
         }
@@ -196,19 +265,19 @@ public class RedisClientImpl implements EventDao {
     public List<QueryResultEventInfoEntity> queryEventPage(String sessionId, int page) {
         List<QueryResultEventInfoEntity> result = new ArrayList<>();
         try (Jedis jedis = jedisPool.getResource()) {
-            String events = jedis.get(sessionId);
-            if (!DbUtils.isEmpty(events)) {
-                List<String> keyList = JSONObject.parseArray(events, String.class);
-                int startIndex = (page - 1) * CommonConst.DEFAULT_PAGE_SIZE;
-                int endIndex = Math.min(startIndex + CommonConst.DEFAULT_PAGE_SIZE, keyList.size());
-                for (String key : keyList.subList(startIndex, endIndex)) {
-                    result.add(JSONObject.parseObject(
-                            jedis.hget(CommonConst.REDIS_EVENT_KEY, key),
-                            QueryResultEventInfoEntity.class));
+            long startIndex = (long) Math.max(page - 1, 0) * CommonConst.DEFAULT_PAGE_SIZE;
+            List<String> keyList = jedis.lrange(CommonConst.REDIS_SESSION_KEY_PREFIX + sessionId, startIndex,
+                    startIndex + CommonConst.DEFAULT_PAGE_SIZE - 1);
+            if (keyList.isEmpty()) {
+                return result;
+            }
+            for (String event : jedis.hmget(CommonConst.REDIS_EVENT_KEY, keyList.toArray(new String[0]))) {
+                if (!DbUtils.isEmpty(event)) {
+                    result.add(JSONObject.parseObject(event, QueryResultEventInfoEntity.class));
                 }
             }
             return result;
-        } catch (IllegalStateException e) {
+        } catch (IllegalStateException | JedisException e) {
             LOGGER.error("query event by page failed, sessionId:{}, error message:{}",
                     sessionId, e.getMessage());
             return result;
@@ -219,11 +288,15 @@ public class RedisClientImpl implements EventDao {
     public QueryCacheSizeEntity getQueryCacheSize(EventsRequestEntity eventsRequestEntity) {
         QueryCacheSizeEntity queryCacheSize = new QueryCacheSizeEntity();
         try (Jedis jedis = jedisPool.getResource()) {
-            String events = jedis.get(eventsRequestEntity.getSessionId());
-            List<String> keyList = JSONObject.parseArray(events, String.class);
-            queryCacheSize = DbUtils.getQueryCacheSize(keyList);
+            Map<String, String> sizeMap = jedis.hgetAll(
+                    CommonConst.REDIS_SESSION_SIZE_KEY_PREFIX + eventsRequestEntity.getSessionId());
+            queryCacheSize.setEmergencyNum(DbUtils.filterStr(sizeMap.get(EMERGENCY_NUM)));
+            queryCacheSize.setImportantNum(DbUtils.filterStr(sizeMap.get(IMPORTANT_NUM)));
+            queryCacheSize.setNormalNum(DbUtils.filterStr(sizeMap.get(NORMAL_NUM)));
+            queryCacheSize.setTotal(queryCacheSize.getEmergencyNum() + queryCacheSize.getImportantNum()
+                    + queryCacheSize.getNormalNum());
             return queryCacheSize;
-        } catch (IllegalStateException e) {
+        } catch (IllegalStateException | JedisException e) {
             LOGGER.error("query event size failed, sessionId:{}, error message:{}",
                     eventsRequestEntity.getSessionId(), e.getMessage());
             return queryCacheSize;
@@ -257,7 +330,7 @@ public class RedisClientImpl implements EventDao {
     public QueryResultEventInfoEntity getDoNotifyEvent(Event event) {
         QueryResultEventInfoEntity queryResultEventInfoEntity = new QueryResultEventInfoEntity();
         try (Jedis jedis = jedisPool.getResource()) {
-            String instanceMeta = jedis.hget(CommonConst.REDIS_HASH_KEY_OF_INSTANCE_META, event.getMetaHash());
+            String instanceMeta = jedis.get(event.getMetaHash());
             if (!DbUtils.isEmpty(instanceMeta)) {
                 InstanceMeta agentInstanceMeta = JSONObject.parseObject(instanceMeta, InstanceMeta.class);
                 queryResultEventInfoEntity = DbUtils.aggregationEvent(event, agentInstanceMeta);
@@ -37,6 +37,11 @@ public class Event {
 
     private LogInfo logInfo;
 
+    /**
+     * 事件记录时间间隔内重复发生的次数，未聚合的事件为1
+     */
+    private int count = 1;
+
     public String getMetaHash() {
         return metaHash;
     }
@@ -93,10 +98,18 @@ public class Event {
         this.logInfo = logInfo;
     }
 
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
     @Override
     public String toString() {
         return "Event{" + "metaHash='" + metaHash + '\'' + ", time=" + time + ", scope='" + scope + '\''
             + ", eventLevel=" + eventLevel + ", eventType=" + eventType + ", eventInfo=" + eventInfo + ", logInfo="
-            + logInfo + '}';
+            + logInfo + ", count=" + count + '}';
     }
 }
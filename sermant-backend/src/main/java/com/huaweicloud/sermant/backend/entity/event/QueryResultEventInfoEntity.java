@@ -60,4 +60,9 @@ public class QueryResultEventInfoEntity {
      * 事件信息
      */
     private Object info;
+
+    /**
+     * 事件记录时间间隔内重复发生的次数
+     */
+    private int count = 1;
 }
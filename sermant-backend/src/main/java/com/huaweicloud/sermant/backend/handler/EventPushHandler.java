@@ -103,8 +103,8 @@ public class EventPushHandler {
 
     private List<QueryResultEventInfoEntity> writeEventAndGetPushWebHookEvent(List<Event> eventList) {
         List<QueryResultEventInfoEntity> events = new ArrayList<>();
+        eventServer.addEvents(eventList);
         for (Event event : eventList) {
-            eventServer.addEvent(event);
             if (event.getEventLevel().getLevelThreshold() >= EventLevel.valueOf(
                     backendConfig.getWebhookPushEventThreshold().toUpperCase(Locale.ROOT)).getLevelThreshold()) {
                 events.add(eventServer.getDoNotifyEvent(event));
@@ -80,6 +80,16 @@ public class EventServer {
         return daoService.addEvent(event);
     }
 
+    /**
+     * 批量增加事件
+     *
+     * @param events 事件
+     * @return true/falses
+     */
+    public boolean addEvents(List<Event> events) {
+        return daoService.addEvents(events);
+    }
+
     /**
      * 增加agent实例
      *
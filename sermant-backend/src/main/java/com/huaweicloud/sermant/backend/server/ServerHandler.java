@@ -30,7 +30,7 @@ import com.huaweicloud.sermant.backend.pojo.Message;
 import com.huaweicloud.sermant.backend.util.GzipUtils;
 
 import com.alibaba.fastjson.JSON;
-import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -88,24 +88,48 @@ public class ServerHandler extends BaseHandler {
 
     @Override
     protected void handlerData(ChannelHandlerContext ctx, Message.NettyMessage msg) {
-        List<Message.ServiceData> serviceDataList = msg.getServiceDataList();
-        for (Message.ServiceData serviceData : serviceDataList) {
-            ByteString data = serviceData.getData();
-            byte[] message = GzipUtils.decompress(data.toByteArray());
-            int dataType = serviceData.getDataTypeValue();
-            switch (dataType) {
-                case Message.ServiceData.DataType.HEARTBEAT_DATA_VALUE:
-                    handleHeartBeat(message);
-                    break;
-                case Message.ServiceData.DataType.EVENT_DATA_VALUE:
-                    handleEvent(message);
-                    break;
-                case Message.ServiceData.DataType.VISIBILITY_DATA_VALUE:
-                    handleServiceVisibility(message);
-                    break;
-                default:
-                    LOGGER.warn("Can not find the corresponding data type {}.", dataType);
-            }
+        if (msg.getMessageTypeValue() == Message.NettyMessage.MessageType.COMPRESSED_SERVICE_DATA_VALUE) {
+            handleCompressedData(msg);
+            return;
+        }
+        for (Message.ServiceData serviceData : msg.getServiceDataList()) {
+            handleServiceData(GzipUtils.decompress(serviceData.getData().toByteArray()),
+                    serviceData.getDataTypeValue());
+        }
+    }
+
+    /**
+     * 处理整体压缩的数据，解压后为NettyMessage，其中的业务数据不再单独压缩
+     *
+     * @param msg 收到的数据
+     */
+    private void handleCompressedData(Message.NettyMessage msg) {
+        Message.NettyMessage message;
+        try {
+            message = Message.NettyMessage.parseFrom(
+                    GzipUtils.decompress(msg.getCompressedServiceData().toByteArray()));
+        } catch (InvalidProtocolBufferException e) {
+            LOGGER.error("Failed to parse compressed service data. Exception info: {}", e.getMessage());
+            return;
+        }
+        for (Message.ServiceData serviceData : message.getServiceDataList()) {
+            handleServiceData(serviceData.getData().toByteArray(), serviceData.getDataTypeValue());
+        }
+    }
+
+    private void handleServiceData(byte[] message, int dataType) {
+        switch (dataType) {
+            case Message.ServiceData.DataType.HEARTBEAT_DATA_VALUE:
+                handleHeartBeat(message);
+                break;
+            case Message.ServiceData.DataType.EVENT_DATA_VALUE:
+                handleEvent(message);
+                break;
+            case Message.ServiceData.DataType.VISIBILITY_DATA_VALUE:
+                handleServiceVisibility(message);
+                break;
+            default:
+                LOGGER.warn("Can not find the corresponding data type {}.", dataType);
         }
     }
 
@@ -127,6 +127,7 @@ public class DbUtils {
         queryResultEventInfoEntity.setScope(event.getScope());
         queryResultEventInfoEntity.setLevel(event.getEventLevel().toString().toLowerCase(Locale.ROOT));
         queryResultEventInfoEntity.setType(event.getEventType().getDescription());
+        queryResultEventInfoEntity.setCount(event.getCount());
         if (event.getEventType().getDescription().equals(EventType.LOG.getDescription())) {
             queryResultEventInfoEntity.setInfo(event.getLogInfo());
         } else {
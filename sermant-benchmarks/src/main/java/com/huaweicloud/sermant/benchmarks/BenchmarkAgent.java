@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.benchmarks;
+
+import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.config.BenchmarkConfigLoader;
+import com.huaweicloud.sermant.core.config.ConfigManager;
+import com.huaweicloud.sermant.core.plugin.agent.BufferedAgentBuilder;
+import com.huaweicloud.sermant.core.plugin.agent.config.AgentConfig;
+import com.huaweicloud.sermant.core.plugin.agent.declarer.AbstractPluginDescription;
+import com.huaweicloud.sermant.core.plugin.agent.declarer.InterceptDeclarer;
+import com.huaweicloud.sermant.core.plugin.agent.declarer.PluginDescription;
+import com.huaweicloud.sermant.core.plugin.agent.declarer.SuperTypeDeclarer;
+import com.huaweicloud.sermant.core.plugin.agent.transformer.AdviceTransformer;
+
+import net.bytebuddy.agent.ByteBuddyAgent;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.utility.JavaModule;
+
+import java.util.Collections;
+import java.util.logging.Level;
+
+/**
+ * 基准测试的增强安装器，以默认配置初始化{@link ConfigManager}，并通过{@link BufferedAgentBuilder}将指定场景的增强安装到当前jvm
+ * <p>每个jvm仅能安装一次，被增强类需在安装之后才被加载
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-07
+ */
+public class BenchmarkAgent {
+    private static boolean isInstalled = false;
+
+    private BenchmarkAgent() {
+    }
+
+    /**
+     * 安装增强，拦截器数量为0时不增强任何类，作为对照基线
+     *
+     * @param scenario       基准测试场景
+     * @param interceptorNum 拦截器数量
+     * @param isReuseContext 是否复用执行上下文
+     */
+    public static synchronized void install(Scenario scenario, int interceptorNum, boolean isReuseContext) {
+        if (isInstalled) {
+            throw new IllegalStateException("Benchmark agent can only be installed once in a jvm. ");
+        }
+        isInstalled = true;
+
+        // 异常场景的错误日志不输出，只保留日志之前的处理开销
+        LoggerFactory.getLogger().setLevel(Level.OFF);
+        BenchmarkConfigLoader.loadDefaultConfig(BenchmarkAgent.class.getClassLoader());
+        ConfigManager.getConfig(AgentConfig.class).setReuseExecuteContext(isReuseContext);
+        final BufferedAgentBuilder builder = BufferedAgentBuilder.build();
+        if (interceptorNum > 0) {
+            builder.addPlugins(Collections.singletonList(createDescription(scenario, interceptorNum)));
+        }
+        builder.install(ByteBuddyAgent.install());
+    }
+
+    private static PluginDescription createDescription(Scenario scenario, int interceptorNum) {
+        final InterceptDeclarer declarer =
+                InterceptDeclarer.build(scenario.getMethodMatcher(), scenario.createInterceptors(interceptorNum));
+        return new AbstractPluginDescription() {
+            @Override
+            public boolean matches(TypeDescription target) {
+                return scenario.getEnhancedClassName().equals(target.getActualName());
+            }
+
+            @Override
+            public DynamicType.Builder<?> transform(DynamicType.Builder<?> builder, TypeDescription typeDescription,
+                    ClassLoader classLoader, JavaModule module) {
+                return new AdviceTransformer(new InterceptDeclarer[]{declarer}, new SuperTypeDeclarer[0])
+                        .transform(builder, typeDescription, classLoader, module);
+            }
+        };
+    }
+}
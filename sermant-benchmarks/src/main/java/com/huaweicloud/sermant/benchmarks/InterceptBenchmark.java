@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拦截流程的基准测试，测量成员方法、静态方法、构造函数增强以及异常处理流程在不同拦截器数量下的单次调用耗时
+ * <p>拦截器数量为0时调用目标不被增强，作为对照基线；分配速率可通过{@code -prof gc}获取
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-07
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptBenchmark {
+    @Param({"MEMBER", "STATIC", "CONSTRUCTOR", "BEFORE_ERROR", "METHOD_ERROR"})
+    private Scenario scenario;
+
+    @Param({"0", "1", "5"})
+    private int interceptorNum;
+
+    @Param({"false", "true"})
+    private boolean isReuseContext;
+
+    private BenchmarkTarget target;
+
+    private Object arg;
+
+    /**
+     * 安装增强并加载调用目标，每个参数组合在独立的jvm中执行
+     *
+     * @throws ReflectiveOperationException 加载调用目标失败
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        BenchmarkAgent.install(scenario, interceptorNum, isReuseContext);
+        target = (BenchmarkTarget) Class.forName(scenario.getTargetClassName()).newInstance();
+        arg = new Object();
+    }
+
+    /**
+     * 调用目标
+     *
+     * @return 调用结果
+     */
+    @Benchmark
+    public Object invoke() {
+        return target.invoke(arg);
+    }
+}
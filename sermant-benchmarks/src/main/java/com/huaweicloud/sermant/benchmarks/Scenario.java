@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.benchmarks;
+
+import com.huaweicloud.sermant.benchmarks.interceptor.NopInterceptor;
+import com.huaweicloud.sermant.benchmarks.interceptor.ThrowingInterceptor;
+import com.huaweicloud.sermant.core.plugin.agent.interceptor.Interceptor;
+import com.huaweicloud.sermant.core.plugin.agent.matcher.MethodMatcher;
+
+/**
+ * 基准测试场景，定义调用目标、被增强的类和方法以及拦截器的组成
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-07
+ */
+public enum Scenario {
+    /**
+     * 成员方法增强
+     */
+    MEMBER("com.huaweicloud.sermant.benchmarks.target.MemberTarget",
+            "com.huaweicloud.sermant.benchmarks.target.MemberTarget", MethodMatcher.nameEquals("invoke"), false),
+
+    /**
+     * 静态方法增强
+     */
+    STATIC("com.huaweicloud.sermant.benchmarks.target.StaticTarget",
+            "com.huaweicloud.sermant.benchmarks.target.StaticTarget", MethodMatcher.nameEquals("compute"), false),
+
+    /**
+     * 构造函数增强
+     */
+    CONSTRUCTOR("com.huaweicloud.sermant.benchmarks.target.ConstructorTarget",
+            "com.huaweicloud.sermant.benchmarks.target.ConstructorTarget$Payload", MethodMatcher.isConstructor(),
+            false),
+
+    /**
+     * 首个拦截器的before方法抛出异常，由CommonBaseAdviser的异常处理器处理
+     */
+    BEFORE_ERROR("com.huaweicloud.sermant.benchmarks.target.MemberTarget",
+            "com.huaweicloud.sermant.benchmarks.target.MemberTarget", MethodMatcher.nameEquals("invoke"), true),
+
+    /**
+     * 被增强方法抛出异常，执行拦截器的onThrow方法
+     */
+    METHOD_ERROR("com.huaweicloud.sermant.benchmarks.target.ThrowingTarget",
+            "com.huaweicloud.sermant.benchmarks.target.ThrowingTarget", MethodMatcher.nameEquals("fail"), false);
+
+    private final String targetClassName;
+
+    private final String enhancedClassName;
+
+    private final MethodMatcher methodMatcher;
+
+    private final boolean isInterceptorThrowing;
+
+    Scenario(String targetClassName, String enhancedClassName, MethodMatcher methodMatcher,
+            boolean isInterceptorThrowing) {
+        this.targetClassName = targetClassName;
+        this.enhancedClassName = enhancedClassName;
+        this.methodMatcher = methodMatcher;
+        this.isInterceptorThrowing = isInterceptorThrowing;
+    }
+
+    public String getTargetClassName() {
+        return targetClassName;
+    }
+
+    public String getEnhancedClassName() {
+        return enhancedClassName;
+    }
+
+    public MethodMatcher getMethodMatcher() {
+        return methodMatcher;
+    }
+
+    /**
+     * 创建场景的拦截器，异常场景中首个拦截器抛出异常
+     *
+     * @param interceptorNum 拦截器数量
+     * @return 拦截器数组
+     */
+    public Interceptor[] createInterceptors(int interceptorNum) {
+        final Interceptor[] interceptors = new Interceptor[interceptorNum];
+        for (int i = 0; i < interceptorNum; i++) {
+            interceptors[i] = isInterceptorThrowing && i == 0 ? new ThrowingInterceptor() : new NopInterceptor();
+        }
+        return interceptors;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.benchmarks.target;
+
+import com.huaweicloud.sermant.benchmarks.BenchmarkTarget;
+
+/**
+ * 构造函数增强的调用目标，被增强的是{@link Payload}的构造函数
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-07
+ */
+public class ConstructorTarget implements BenchmarkTarget {
+    @Override
+    public Object invoke(Object arg) {
+        return new Payload(arg);
+    }
+
+    /**
+     * 构造函数被增强的类
+     *
+     * @since 2023-08-07
+     */
+    public static class Payload {
+        private final Object value;
+
+        /**
+         * 被增强的构造函数
+         *
+         * @param value 值
+         */
+        public Payload(Object value) {
+            this.value = value;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.benchmarks.target;
+
+import com.huaweicloud.sermant.benchmarks.BenchmarkTarget;
+
+/**
+ * 静态方法增强的调用目标，被增强的方法为{@link #compute}
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-07
+ */
+public class StaticTarget implements BenchmarkTarget {
+    @Override
+    public Object invoke(Object arg) {
+        return compute(arg);
+    }
+
+    /**
+     * 被增强的静态方法
+     *
+     * @param arg 入参
+     * @return 结果
+     */
+    public static Object compute(Object arg) {
+        return arg;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.benchmarks.target;
+
+import com.huaweicloud.sermant.benchmarks.BenchmarkTarget;
+
+/**
+ * 被增强方法抛出异常的调用目标，被增强的方法为{@link #fail}，用于测试拦截器onThrow的执行路径
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-07
+ */
+public class ThrowingTarget implements BenchmarkTarget {
+    /**
+     * 预先创建的异常，避免基准测试中包含异常的创建开销
+     */
+    private static final IllegalStateException EXCEPTION = new IllegalStateException("benchmark", null) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    };
+
+    @Override
+    public Object invoke(Object arg) {
+        try {
+            return fail(arg);
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    /**
+     * 被增强的方法，总是抛出异常
+     *
+     * @param arg 入参
+     * @return 结果
+     */
+    public Object fail(Object arg) {
+        throw EXCEPTION;
+    }
+}
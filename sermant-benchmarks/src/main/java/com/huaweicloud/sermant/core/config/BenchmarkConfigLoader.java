@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huaweicloud.sermant.core.config;
+
+import com.huaweicloud.sermant.core.config.common.BaseConfig;
+
+import java.io.File;
+
+/**
+ * 基准测试的配置初始化入口，与{@link ConfigManager}同包，以默认配置加载所有配置对象，无需启动参数与配置文件
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-07
+ */
+public class BenchmarkConfigLoader {
+    private BenchmarkConfigLoader() {
+    }
+
+    /**
+     * 以默认配置加载所有配置对象
+     *
+     * @param classLoader 类加载器，该参数决定从哪个classLoader中进行spi操作
+     */
+    public static void loadDefaultConfig(ClassLoader classLoader) {
+        ConfigManager.loadConfig(new File(""), BaseConfig.class, classLoader);
+    }
+}
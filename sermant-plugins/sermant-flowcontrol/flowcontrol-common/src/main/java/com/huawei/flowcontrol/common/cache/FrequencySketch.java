@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.cache;
+
+/**
+ * 访问频率估算器, 基于4位计数的Count-Min Sketch
+ *
+ * <p>每个long存放16个4位计数器, 每个元素在4行中各占一个计数器, 估算值取最小者; 累计增长次数达到采样窗口后所有计数减半,
+ * 使频率随时间衰减。该类非线程安全, 由调用方加锁</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private static final long COUNTER_MASK = 0xfL;
+
+    private static final int MIN_TABLE_SIZE = 16;
+
+    private static final int SAMPLE_FACTOR = 10;
+
+    private static final int DEPTH = 4;
+
+    private final long[] table;
+
+    private final int tableMask;
+
+    private final int sampleSize;
+
+    private int size;
+
+    /**
+     * 构造器
+     *
+     * @param maximumSize 缓存最大容量
+     */
+    FrequencySketch(int maximumSize) {
+        int tableSize = MIN_TABLE_SIZE;
+        while (tableSize < maximumSize && tableSize < (1 << (Integer.SIZE - 2))) {
+            tableSize <<= 1;
+        }
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = (int) Math.min((long) SAMPLE_FACTOR * Math.max(maximumSize, 1), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 估算元素的访问频率
+     *
+     * @param item 元素
+     * @return 访问频率, 最大为15
+     */
+    int frequency(Object item) {
+        final int hash = spread(item.hashCode());
+        final int start = (hash & (DEPTH - 1)) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            final int offset = (start + i) << 2;
+            final int count = (int) ((table[indexOf(hash, i)] >>> offset) & COUNTER_MASK);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param item 元素
+     */
+    void increment(Object item) {
+        final int hash = spread(item.hashCode());
+        final int start = (hash & (DEPTH - 1)) << 2;
+        boolean isAdded = false;
+        for (int i = 0; i < DEPTH; i++) {
+            isAdded |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (isAdded && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        final int offset = counter << 2;
+        final long mask = COUNTER_MASK << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int oddCount = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCount += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (oddCount >>> 2);
+    }
+
+    private int indexOf(int hash, int row) {
+        long result = (hash + SEEDS[row]) * SEEDS[row];
+        result += result >>> Integer.SIZE;
+        return (int) result & tableMask;
+    }
+
+    private static int spread(int hashCode) {
+        int hash = ((hashCode >>> (Integer.SIZE / 2)) ^ hashCode) * 0x45d9f3b;
+        hash = ((hash >>> (Integer.SIZE / 2)) ^ hash) * 0x45d9f3b;
+        return (hash >>> (Integer.SIZE / 2)) ^ hash;
+    }
+}
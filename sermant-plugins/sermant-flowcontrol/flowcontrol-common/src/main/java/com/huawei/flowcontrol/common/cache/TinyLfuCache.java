@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.cache;
+
+import com.huawei.flowcontrol.common.factory.FlowControlThreadFactory;
+
+import com.huaweicloud.sermant.core.common.LoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * 基于访问频率准入的有界缓存
+ *
+ * <p>缓存满时从缓存中轮转采样若干条目, 优先淘汰已过期条目, 否则选取估算频率最低者作为候选淘汰项, 仅当新键的访问频率高于候选项时
+ * 才允许替换(TinyLFU准入), 避免低频的高基数请求冲刷热点缓存。访问时间记录在缓存内部节点上, 且按秒粒度更新, 不修改缓存键本身</p>
+ *
+ * @param <K> 键
+ * @param <V> 值
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class TinyLfuCache<K, V> implements Cache<K, V> {
+    private static final Logger LOGGER = LoggerFactory.getLogger();
+
+    /**
+     * 默认检查间隔
+     */
+    private static final long CHECK_INTERVAL = 60000L;
+
+    /**
+     * 访问时间更新粒度, 减少命中时的写操作
+     */
+    private static final long ACCESS_TIME_GRANULARITY = 1000L;
+
+    /**
+     * 每次淘汰的采样数
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final ConcurrentHashMap<K, Node<K, V>> cache = new ConcurrentHashMap<>();
+
+    private final Map<K, V> cacheView = Collections.unmodifiableMap(new ValueView());
+
+    private final int maxSize;
+
+    private final long evictTimeMs;
+
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock sketchLock = new ReentrantLock();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder rejectCount = new LongAdder();
+
+    private Iterator<Node<K, V>> sampleCursor;
+
+    private ScheduledThreadPoolExecutor scheduledThreadPoolExecutor;
+
+    /**
+     * 构造器
+     *
+     * @param maxSize 最大缓存数
+     * @param evictTimeMs 过期时间, 单位毫秒, 超过该时间未被访问的条目将被移除
+     */
+    public TinyLfuCache(int maxSize, long evictTimeMs) {
+        this.maxSize = maxSize;
+        this.evictTimeMs = evictTimeMs;
+        this.sketch = new FrequencySketch(maxSize);
+        initEvictTask();
+    }
+
+    @Override
+    public Object getCacheTarget() {
+        return cacheView;
+    }
+
+    @Override
+    public V get(K key) {
+        recordAccess(key);
+        final Node<K, V> node = cache.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        if (isExpired(node, now)) {
+            cache.remove(key, node);
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        if (now - node.accessTime >= ACCESS_TIME_GRANULARITY) {
+            node.accessTime = now;
+        }
+        return node.value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        final long now = System.currentTimeMillis();
+        final Node<K, V> existing = cache.get(key);
+        if (existing != null) {
+            existing.value = value;
+            existing.accessTime = now;
+            return;
+        }
+        if (cache.size() < maxSize) {
+            cache.put(key, new Node<>(key, value, now));
+            return;
+        }
+        evictionLock.lock();
+        try {
+            if (cache.size() >= maxSize && !evictFor(key, now)) {
+                rejectCount.increment();
+                LOGGER.fine(String.format(Locale.ENGLISH,
+                        "[TinyLfuCache] reject key, because its frequency is lower than the victim (%s)", maxSize));
+                return;
+            }
+            cache.put(key, new Node<>(key, value, now));
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public V evict(K key) {
+        final Node<K, V> node = cache.remove(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public void release() {
+        cache.clear();
+        if (scheduledThreadPoolExecutor != null) {
+            scheduledThreadPoolExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getRejectCount() {
+        return rejectCount.sum();
+    }
+
+    /**
+     * 为新键腾出空间, 需持有淘汰锁
+     *
+     * @param candidate 新键
+     * @param now 当前时间
+     * @return 是否已腾出空间
+     */
+    private boolean evictFor(K candidate, long now) {
+        final Node<K, V> victim = sampleVictim(now);
+        if (victim == null) {
+            return cache.size() < maxSize;
+        }
+        if (!isExpired(victim, now) && frequencyOf(candidate) <= frequencyOf(victim.key)) {
+            return false;
+        }
+        if (cache.remove(victim.key, victim)) {
+            evictionCount.increment();
+        }
+        return true;
+    }
+
+    private Node<K, V> sampleVictim(long now) {
+        Node<K, V> victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && !cache.isEmpty(); i++) {
+            if (sampleCursor == null || !sampleCursor.hasNext()) {
+                sampleCursor = cache.values().iterator();
+                if (!sampleCursor.hasNext()) {
+                    break;
+                }
+            }
+            final Node<K, V> node = sampleCursor.next();
+            if (isExpired(node, now)) {
+                return node;
+            }
+            final int frequency = frequencyOf(node.key);
+            if (victim == null || frequency < victimFrequency
+                    || (frequency == victimFrequency && node.accessTime < victim.accessTime)) {
+                victim = node;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    private void recordAccess(K key) {
+        // 竞争激烈时丢弃本次记录, 不阻塞请求线程
+        if (sketchLock.tryLock()) {
+            try {
+                sketch.increment(key);
+            } finally {
+                sketchLock.unlock();
+            }
+        }
+    }
+
+    private int frequencyOf(K key) {
+        sketchLock.lock();
+        try {
+            return sketch.frequency(key);
+        } finally {
+            sketchLock.unlock();
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return now - node.accessTime >= evictTimeMs;
+    }
+
+    private void initEvictTask() {
+        scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(1, new FlowControlThreadFactory(
+                "TinyLfuCache-thread"));
+        scheduledThreadPoolExecutor.scheduleAtFixedRate(this::removeEvictedCache, 0, Math.min(CHECK_INTERVAL,
+                evictTimeMs), TimeUnit.MILLISECONDS);
+    }
+
+    private void removeEvictedCache() {
+        final long now = System.currentTimeMillis();
+        cache.values().removeIf(node -> isExpired(node, now));
+        LOGGER.fine(String.format(Locale.ENGLISH,
+                "[TinyLfuCache] size: %s, hit: %s, miss: %s, eviction: %s, reject: %s", cache.size(),
+                getHitCount(), getMissCount(), getEvictionCount(), getRejectCount()));
+    }
+
+    /**
+     * 缓存节点
+     *
+     * @param <K> 键
+     * @param <V> 值
+     * @since 2023-08-24
+     */
+    private static class Node<K, V> {
+        private final K key;
+
+        private volatile V value;
+
+        private volatile long accessTime;
+
+        Node(K key, V value, long accessTime) {
+            this.key = key;
+            this.value = value;
+            this.accessTime = accessTime;
+        }
+    }
+
+    /**
+     * 以键值形式暴露缓存内容的只读视图
+     *
+     * @since 2023-08-24
+     */
+    private class ValueView extends AbstractMap<K, V> {
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    final Iterator<Node<K, V>> iterator = cache.values().iterator();
+                    return new Iterator<Entry<K, V>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            final Node<K, V> node = iterator.next();
+                            return new SimpleImmutableEntry<>(node.key, node.value);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return cache.size();
+                }
+            };
+        }
+
+        @Override
+        public V get(Object key) {
+            final Node<K, V> node = cache.get(key);
+            return node == null ? null : node.value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return cache.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
+    }
+}
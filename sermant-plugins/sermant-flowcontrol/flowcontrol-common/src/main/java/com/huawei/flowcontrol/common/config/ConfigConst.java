@@ -239,6 +239,16 @@ public class ConfigConst {
      */
     public static final long SOCKET_READ_TIMEOUT_MS = 1000L;
 
+    /**
+     * 系统规则统计窗口默认的桶数
+     */
+    public static final int DEFAULT_SYSTEM_WINDOW_SAMPLE_COUNT = 10;
+
+    /**
+     * 系统规则统计窗口默认时长, 单位毫秒
+     */
+    public static final long DEFAULT_SYSTEM_WINDOW_INTERVAL_MS = 1000L;
+
     /**
      * rest template OKHTTP 协议
      */
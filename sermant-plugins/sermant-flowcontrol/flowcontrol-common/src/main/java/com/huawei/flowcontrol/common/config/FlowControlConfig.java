@@ -296,6 +296,18 @@ public class FlowControlConfig implements PluginConfig {
     @ConfigFieldKey("enable-system-rule")
     private boolean enableSystemRule;
 
+    /**
+     * 系统规则统计窗口的桶数, 窗口时长需为其整数倍
+     */
+    @ConfigFieldKey("system-window-sample-count")
+    private int systemWindowSampleCount = ConfigConst.DEFAULT_SYSTEM_WINDOW_SAMPLE_COUNT;
+
+    /**
+     * 系统规则统计窗口时长, 单位毫秒
+     */
+    @ConfigFieldKey("system-window-interval-ms")
+    private long systemWindowIntervalMs = ConfigConst.DEFAULT_SYSTEM_WINDOW_INTERVAL_MS;
+
     public boolean isUseOriginInvoker() {
         return useOriginInvoker;
     }
@@ -711,4 +723,20 @@ public class FlowControlConfig implements PluginConfig {
     public boolean isEnableSystemRule() {
         return enableSystemRule;
     }
+
+    public int getSystemWindowSampleCount() {
+        return systemWindowSampleCount;
+    }
+
+    public void setSystemWindowSampleCount(int systemWindowSampleCount) {
+        this.systemWindowSampleCount = systemWindowSampleCount;
+    }
+
+    public long getSystemWindowIntervalMs() {
+        return systemWindowIntervalMs;
+    }
+
+    public void setSystemWindowIntervalMs(long systemWindowIntervalMs) {
+        this.systemWindowIntervalMs = systemWindowIntervalMs;
+    }
 }
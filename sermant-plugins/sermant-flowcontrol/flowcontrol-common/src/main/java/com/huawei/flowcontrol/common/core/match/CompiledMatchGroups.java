@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.core.match;
+
+import com.huawei.flowcontrol.common.core.match.operator.Operator;
+import com.huawei.flowcontrol.common.core.match.operator.OperatorManager;
+import com.huawei.flowcontrol.common.entity.RequestEntity;
+import com.huawei.flowcontrol.common.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的业务场景匹配结构
+ *
+ * <p>规则更新后将所有业务场景的{@link RequestMatcher}编译为按服务名、方法分桶的索引, 每个桶内再按请求路径建立精确匹配表与前缀树,
+ * 请求头与路径的匹配条件预先绑定到{@link Operator}实例, 单次匹配的开销与路径长度相关而与业务场景数量无关</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+final class CompiledMatchGroups {
+    private static final String EXACT_OPERATOR = "exact";
+
+    private static final String PREFIX_OPERATOR = "prefix";
+
+    private static final int DEFAULT_BUSINESS_SIZE = 4;
+
+    private final long version;
+
+    private final Map<String, MethodBuckets> serviceBuckets = new HashMap<>();
+
+    private final MethodBuckets anyServiceBuckets = new MethodBuckets();
+
+    private CompiledMatchGroups(long version) {
+        this.version = version;
+    }
+
+    /**
+     * 编译业务场景
+     *
+     * @param version 业务场景规则版本
+     * @param matchGroups 业务场景
+     * @return 编译结果
+     */
+    static CompiledMatchGroups compile(long version, Map<String, BusinessMatcher> matchGroups) {
+        final CompiledMatchGroups compiled = new CompiledMatchGroups(version);
+        for (Map.Entry<String, BusinessMatcher> entry : matchGroups.entrySet()) {
+            final List<RequestMatcher> matches = entry.getValue().getMatches();
+            if (matches == null) {
+                continue;
+            }
+            for (RequestMatcher matcher : matches) {
+                compiled.add(entry.getKey(), matcher);
+            }
+        }
+        return compiled;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * 匹配所有业务场景
+     *
+     * @param request 请求信息
+     * @return 匹配的业务场景名
+     */
+    Set<String> match(RequestEntity request) {
+        if (request.getMethod() == null) {
+            return Collections.emptySet();
+        }
+        final Set<String> result = new HashSet<>(DEFAULT_BUSINESS_SIZE);
+        final MethodBuckets buckets = request.getServiceName() == null ? null
+                : serviceBuckets.get(request.getServiceName());
+        if (buckets != null) {
+            buckets.collect(request, result);
+        }
+        anyServiceBuckets.collect(request, result);
+        return result;
+    }
+
+    private void add(String businessName, RequestMatcher matcher) {
+        if (matcher.getMethod() != null && matcher.getMethod().isEmpty()) {
+            // 方法列表为空, 任何请求都无法匹配
+            return;
+        }
+        final BoundOperator apiPath;
+        if (matcher.getApiPath() == null) {
+            apiPath = null;
+        } else {
+            apiPath = BoundOperator.bind(matcher.getApiPath());
+            if (apiPath == null) {
+                return;
+            }
+        }
+        final List<BoundHeader> headers = new ArrayList<>();
+        if (matcher.getHeaders() != null) {
+            for (Map.Entry<String, RawOperator> header : matcher.getHeaders().entrySet()) {
+                final BoundOperator operator = BoundOperator.bind(header.getValue());
+                if (operator == null) {
+                    return;
+                }
+                headers.add(new BoundHeader(header.getKey(), operator));
+            }
+        }
+        final CompiledEntry entry = new CompiledEntry(businessName, apiPath, headers.toArray(new BoundHeader[0]));
+        final MethodBuckets buckets = matcher.getServiceName() == null ? anyServiceBuckets
+                : serviceBuckets.computeIfAbsent(matcher.getServiceName(), key -> new MethodBuckets());
+        buckets.add(matcher.getMethod(), matcher.getApiPath(), entry);
+    }
+
+    /**
+     * 按请求方法分桶
+     *
+     * @since 2023-08-24
+     */
+    private static class MethodBuckets {
+        private final Map<String, PathIndex> methodIndexes = new HashMap<>();
+
+        private final PathIndex anyMethodIndex = new PathIndex();
+
+        void add(List<String> methods, RawOperator apiPath, CompiledEntry entry) {
+            if (methods == null) {
+                anyMethodIndex.add(apiPath, entry);
+                return;
+            }
+            for (String method : new HashSet<>(methods)) {
+                methodIndexes.computeIfAbsent(method, key -> new PathIndex()).add(apiPath, entry);
+            }
+        }
+
+        void collect(RequestEntity request, Set<String> result) {
+            final PathIndex index = methodIndexes.get(request.getMethod());
+            if (index != null) {
+                index.collect(request, result);
+            }
+            anyMethodIndex.collect(request, result);
+        }
+    }
+
+    /**
+     * 请求路径索引, 精确匹配与前缀匹配的条件分别落入哈希表与前缀树, 其余条件逐条校验
+     *
+     * @since 2023-08-24
+     */
+    private static class PathIndex {
+        private final Map<String, List<CompiledEntry>> exactEntries = new HashMap<>();
+
+        private final TrieNode prefixRoot = new TrieNode();
+
+        private final List<CompiledEntry> otherEntries = new ArrayList<>();
+
+        void add(RawOperator apiPath, CompiledEntry entry) {
+            if (apiPath != null && apiPath.containsKey(EXACT_OPERATOR)) {
+                exactEntries.computeIfAbsent(String.valueOf(apiPath.get(EXACT_OPERATOR)), key -> new ArrayList<>())
+                        .add(entry);
+            } else if (apiPath != null && apiPath.containsKey(PREFIX_OPERATOR)) {
+                prefixRoot.insert(String.valueOf(apiPath.get(PREFIX_OPERATOR))).entries.add(entry);
+            } else {
+                otherEntries.add(entry);
+            }
+        }
+
+        void collect(RequestEntity request, Set<String> result) {
+            final String path = request.getApiPath();
+            if (path != null) {
+                collect(exactEntries.get(path), request, result);
+                TrieNode node = prefixRoot;
+                collect(node.entries, request, result);
+                for (int i = 0; i < path.length() && node != null; i++) {
+                    node = node.children.get(path.charAt(i));
+                    if (node != null) {
+                        collect(node.entries, request, result);
+                    }
+                }
+            }
+            collect(otherEntries, request, result);
+        }
+
+        private void collect(List<CompiledEntry> entries, RequestEntity request, Set<String> result) {
+            if (entries == null) {
+                return;
+            }
+            for (CompiledEntry entry : entries) {
+                if (!result.contains(entry.businessName) && entry.match(request)) {
+                    result.add(entry.businessName);
+                }
+            }
+        }
+    }
+
+    /**
+     * 前缀树节点
+     *
+     * @since 2023-08-24
+     */
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+
+        private final List<CompiledEntry> entries = new ArrayList<>();
+
+        TrieNode insert(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), key -> new TrieNode());
+            }
+            return node;
+        }
+    }
+
+    /**
+     * 单个请求匹配器的编译结果, 方法与服务名已由分桶保证, 此处仅校验请求头与路径
+     *
+     * @since 2023-08-24
+     */
+    private static class CompiledEntry {
+        private final String businessName;
+
+        private final BoundOperator apiPath;
+
+        private final BoundHeader[] headers;
+
+        CompiledEntry(String businessName, BoundOperator apiPath, BoundHeader[] headers) {
+            this.businessName = businessName;
+            this.apiPath = apiPath;
+            this.headers = headers;
+        }
+
+        boolean match(RequestEntity request) {
+            if (headers.length > 0) {
+                final Map<String, String> requestHeaders = request.getHeaders();
+                if (requestHeaders == null) {
+                    return false;
+                }
+                for (BoundHeader header : headers) {
+                    final String headerValue = requestHeaders.get(header.name);
+                    if (StringUtils.isEmpty(headerValue) || !header.operator.match(headerValue)) {
+                        return false;
+                    }
+                }
+            }
+            return apiPath == null || apiPath.match(request.getApiPath());
+        }
+    }
+
+    /**
+     * 预先绑定的请求头匹配条件
+     *
+     * @since 2023-08-24
+     */
+    private static class BoundHeader {
+        private final String name;
+
+        private final BoundOperator operator;
+
+        BoundHeader(String name, BoundOperator operator) {
+            this.name = name;
+            this.operator = operator;
+        }
+    }
+
+    /**
+     * 预先绑定到比较器实例的匹配条件, 所有条件均满足才算匹配
+     *
+     * @since 2023-08-24
+     */
+    private static class BoundOperator {
+        private final Operator[] operators;
+
+        private final String[] patterns;
+
+        private BoundOperator(Operator[] operators, String[] patterns) {
+            this.operators = operators;
+            this.patterns = patterns;
+        }
+
+        /**
+         * 绑定比较器, 条件为空或存在未知比较器时该条件永远无法匹配, 返回null
+         *
+         * @param rawOperator 原始匹配条件
+         * @return 绑定结果
+         */
+        static BoundOperator bind(RawOperator rawOperator) {
+            if (rawOperator == null || rawOperator.isEmpty()) {
+                return null;
+            }
+            final Operator[] operators = new Operator[rawOperator.size()];
+            final String[] patterns = new String[rawOperator.size()];
+            int index = 0;
+            for (Map.Entry<String, String> entry : rawOperator.entrySet()) {
+                final Operator operator = OperatorManager.INSTANCE.getOperator(entry.getKey());
+                if (operator == null) {
+                    return null;
+                }
+                operators[index] = operator;
+                patterns[index] = String.valueOf(entry.getValue());
+                index++;
+            }
+            return new BoundOperator(operators, patterns);
+        }
+
+        boolean match(String target) {
+            for (int i = 0; i < operators.length; i++) {
+                if (!operators[i].match(target, patterns[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
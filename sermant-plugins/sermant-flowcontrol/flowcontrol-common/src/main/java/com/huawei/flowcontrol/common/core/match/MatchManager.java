@@ -43,6 +43,8 @@ public enum MatchManager {
 
     private MatchGroupResolver matchGroupResolver;
 
+    private volatile CompiledMatchGroups compiledMatchGroups;
+
     /**
      * 匹配所有业务场景
      *
@@ -61,12 +63,13 @@ public enum MatchManager {
      * @return 匹配的业务场景
      */
     public Set<String> matchWithCache(RequestEntity request, String businessName) {
-        final Set<String> businesses = matchedCache.getDelegate().get(request);
+        final Set<String> businesses = matchedCache.get(request);
         if (businesses != null) {
             return businesses;
         }
+        final long generation = matchedCache.getGeneration();
         final Set<String> result = match(request, businessName);
-        matchedCache.getDelegate().put(request, result);
+        matchedCache.put(request, result, generation);
         return result;
     }
 
@@ -78,6 +81,10 @@ public enum MatchManager {
      * @return 匹配的业务场景
      */
     public Set<String> match(RequestEntity request, String businessName) {
+        if (businessName == null) {
+            return filterMatchedRule(getCompiledMatchGroups().match(request));
+        }
+
         // 匹配规则
         final Map<String, BusinessMatcher> matchGroups = getMatchGroups(businessName);
         final Set<String> result = new HashSet<>(DEFAULT_BUSINESS_SIZE);
@@ -94,6 +101,33 @@ public enum MatchManager {
         return result.isEmpty() ? Collections.emptySet() : result;
     }
 
+    private Set<String> filterMatchedRule(Set<String> businesses) {
+        businesses.removeIf(business -> !ResolverManager.INSTANCE.hasMatchedRule(business));
+        return businesses.isEmpty() ? Collections.emptySet() : businesses;
+    }
+
+    /**
+     * 获取编译后的业务场景, 业务场景规则版本变化后重新编译
+     *
+     * @return 编译后的业务场景
+     */
+    private CompiledMatchGroups getCompiledMatchGroups() {
+        final MatchGroupResolver resolver = getMatchGroupResolver();
+        CompiledMatchGroups compiled = compiledMatchGroups;
+        if (compiled != null && compiled.getVersion() == resolver.getVersion()) {
+            return compiled;
+        }
+        synchronized (this) {
+            compiled = compiledMatchGroups;
+            final long version = resolver.getVersion();
+            if (compiled == null || compiled.getVersion() != version) {
+                compiled = CompiledMatchGroups.compile(version, resolver.getRules());
+                compiledMatchGroups = compiled;
+            }
+            return compiled;
+        }
+    }
+
     private Map<String, BusinessMatcher> getMatchGroups(String businessName) {
         final Map<String, BusinessMatcher> matchGroups = getMatchGroupResolver().getRules();
         if (businessName == null) {
@@ -18,7 +18,7 @@
 package com.huawei.flowcontrol.common.core.match;
 
 import com.huawei.flowcontrol.common.cache.Cache;
-import com.huawei.flowcontrol.common.cache.TimedConcurrentMapCache;
+import com.huawei.flowcontrol.common.cache.TinyLfuCache;
 import com.huawei.flowcontrol.common.config.CommonConst;
 import com.huawei.flowcontrol.common.config.FlowControlConfig;
 import com.huawei.flowcontrol.common.core.ResolverManager;
@@ -28,21 +28,37 @@ import com.huawei.flowcontrol.common.entity.RequestEntity;
 
 import com.huaweicloud.sermant.core.plugin.config.PluginConfigManager;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * 匹配缓存, 针对已经匹配的请求体进行缓存
  *
+ * <p>规则变更时不再重新匹配全部缓存, 仅记录变更的业务场景名并递增代数; 缓存条目记录计算时的代数, 读取到过期条目时只针对期间变更的业务场景
+ * 重新匹配, 变更记录超出窗口时整条失效, 由请求线程重新完整匹配</p>
+ *
  * @author zhouss
  * @since 2022-07-21
  */
 public class MatchedCache {
-    private Cache<RequestEntity, Set<String>> cache;
+    /**
+     * 变更记录窗口大小
+     */
+    private static final int CHANGE_LOG_SIZE = 256;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 变更记录, 下标为代数对窗口取模, 值为null代表全部失效
+     */
+    private final AtomicReferenceArray<String> changeLog = new AtomicReferenceArray<>(CHANGE_LOG_SIZE);
+
+    private Cache<RequestEntity, MatchedEntry> cache;
 
     /**
      * 构造器
@@ -55,19 +71,68 @@ public class MatchedCache {
         }
     }
 
+    /**
+     * 获取当前代数, 需在匹配前获取并随匹配结果一同写入缓存
+     *
+     * @return 代数
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * 获取缓存的匹配结果, 条目过期时仅重新匹配期间变更的业务场景
+     *
+     * @param request 请求体
+     * @return 匹配的业务场景, 未命中返回null
+     */
+    public Set<String> get(RequestEntity request) {
+        final MatchedEntry entry = getDelegate().get(request);
+        if (entry == null) {
+            return null;
+        }
+        final long curGeneration = generation.get();
+        if (entry.generation == curGeneration) {
+            return entry.businesses;
+        }
+        final Set<String> changedBusinesses = getChangedBusinesses(entry.generation, curGeneration);
+        if (changedBusinesses == null) {
+            return null;
+        }
+        final Set<String> businesses = new HashSet<>(entry.businesses);
+        for (String businessName : changedBusinesses) {
+            businesses.remove(businessName);
+            businesses.addAll(MatchManager.INSTANCE.match(request, businessName));
+        }
+        final Set<String> result = businesses.isEmpty() ? Collections.emptySet() : businesses;
+        getDelegate().put(request, new MatchedEntry(result, curGeneration));
+        return result;
+    }
+
+    /**
+     * 写入匹配结果
+     *
+     * @param request 请求体
+     * @param businesses 匹配的业务场景
+     * @param matchedGeneration 匹配前获取的代数
+     */
+    public void put(RequestEntity request, Set<String> businesses, long matchedGeneration) {
+        getDelegate().put(request, new MatchedEntry(businesses, matchedGeneration));
+    }
+
     /**
      * 获取缓存代理类
      *
      * @return Cache
      */
-    public Cache<RequestEntity, Set<String>> getDelegate() {
+    private Cache<RequestEntity, MatchedEntry> getDelegate() {
         if (cache != null) {
             return cache;
         }
         synchronized (MatchManager.INSTANCE) {
             if (cache == null) {
                 final FlowControlConfig config = PluginConfigManager.getPluginConfig(FlowControlConfig.class);
-                cache = new TimedConcurrentMapCache<>(config.getMaxCacheSize(),
+                cache = new TinyLfuCache<>(config.getMaxCacheSize(),
                         config.getTimedCheckInterval() * CommonConst.S_MS_UNIT);
             }
         }
@@ -83,6 +148,57 @@ public class MatchedCache {
         }
     }
 
+    /**
+     * 记录业务场景变更
+     *
+     * @param businessName 业务场景名, 为null时代表全部失效
+     */
+    synchronized void recordChange(String businessName) {
+        final long next = generation.get() + 1;
+        changeLog.set((int) (next % CHANGE_LOG_SIZE), businessName);
+        generation.set(next);
+    }
+
+    /**
+     * 获取两代之间变更的业务场景
+     *
+     * @param from 起始代数(不含)
+     * @param to 截止代数(含)
+     * @return 变更的业务场景, 超出记录窗口或存在全部失效的变更时返回null
+     */
+    private Set<String> getChangedBusinesses(long from, long to) {
+        if (to - from >= CHANGE_LOG_SIZE) {
+            return null;
+        }
+        final Set<String> changedBusinesses = new HashSet<>();
+        for (long i = from + 1; i <= to; i++) {
+            final String businessName = changeLog.get((int) (i % CHANGE_LOG_SIZE));
+            if (businessName == null) {
+                return null;
+            }
+            changedBusinesses.add(businessName);
+        }
+
+        // 读取期间记录被覆盖则视为超出窗口
+        return generation.get() - from >= CHANGE_LOG_SIZE ? null : changedBusinesses;
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @since 2023-08-24
+     */
+    private static final class MatchedEntry {
+        private final Set<String> businesses;
+
+        private final long generation;
+
+        MatchedEntry(Set<String> businesses, long generation) {
+            this.businesses = businesses;
+            this.generation = generation;
+        }
+    }
+
     /**
      * 缓存监听器, 监听所有策略变更
      *
@@ -91,30 +207,7 @@ public class MatchedCache {
     class CacheListener implements ConfigUpdateListener {
         @Override
         public void notify(String updateKey, Map rules) {
-            if (cache == null) {
-                return;
-            }
-            final Object cacheTarget = cache.getCacheTarget();
-            if (!(cacheTarget instanceof Map)) {
-                return;
-            }
-            Map<RequestEntity, Set<String>> curCache = (Map<RequestEntity, Set<String>>) cacheTarget;
-            updateAllBusinessCache(curCache);
-        }
-
-        private void updateAllBusinessCache(Map<RequestEntity, Set<String>> curCache) {
-            final List<RequestEntity> needRemoveEntity = new ArrayList<>();
-            for (Entry<RequestEntity, Set<String>> entry : curCache.entrySet()) {
-                final RequestEntity requestEntity = entry.getKey();
-                final Set<String> match = MatchManager.INSTANCE.match(requestEntity, null);
-                if (!match.isEmpty()) {
-                    cache.put(requestEntity, match);
-                } else {
-                    needRemoveEntity.add(entry.getKey());
-                }
-            }
-            needRemoveEntity.forEach(requestEntity -> cache.evict(requestEntity));
-            needRemoveEntity.clear();
+            recordChange(updateKey);
         }
     }
 }
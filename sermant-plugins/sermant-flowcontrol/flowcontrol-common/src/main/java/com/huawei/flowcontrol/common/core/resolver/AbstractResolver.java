@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
@@ -60,6 +61,11 @@ public abstract class AbstractResolver<T extends Configurable> {
      */
     private final List<ConfigUpdateListener<T>> listeners = new ArrayList<>();
 
+    /**
+     * 规则版本号, 规则数据每次变更后递增
+     */
+    private final AtomicLong version = new AtomicLong();
+
     /**
      * 解析器构造器
      *
@@ -108,6 +114,14 @@ public abstract class AbstractResolver<T extends Configurable> {
         if (StringUtils.isEmpty(businessKey)) {
             return Optional.empty();
         }
+        try {
+            return updateRule(businessKey, value, isOverride, isForDelete);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    private Optional<T> updateRule(String businessKey, String value, boolean isOverride, boolean isForDelete) {
         if (isForDelete) {
             rules.remove(businessKey);
             return Optional.empty();
@@ -199,4 +213,13 @@ public abstract class AbstractResolver<T extends Configurable> {
     public Map<String, T> getRules() {
         return rules;
     }
+
+    /**
+     * 获取规则版本号, 可用于判断基于规则构建的派生数据是否过期
+     *
+     * @return 规则版本号
+     */
+    public long getVersion() {
+        return version.get();
+    }
 }
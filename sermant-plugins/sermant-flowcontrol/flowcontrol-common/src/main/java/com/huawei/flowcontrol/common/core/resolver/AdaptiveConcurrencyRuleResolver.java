@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.core.resolver;
+
+import com.huawei.flowcontrol.common.core.rule.AdaptiveConcurrencyRule;
+
+/**
+ * 自适应并发限流规则解析
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyRuleResolver extends AbstractResolver<AdaptiveConcurrencyRule> {
+    /**
+     * 自适应并发限流配置键
+     */
+    public static final String CONFIG_KEY = "servicecomb.adaptiveConcurrency";
+
+    /**
+     * 自适应并发限流解析构造器
+     */
+    public AdaptiveConcurrencyRuleResolver() {
+        super(CONFIG_KEY);
+    }
+
+    @Override
+    protected Class<AdaptiveConcurrencyRule> getRuleClass() {
+        return AdaptiveConcurrencyRule.class;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.core.rule;
+
+/**
+ * 自适应并发限流规则
+ *
+ * <p>并发上限不再人工配置, 而是根据观测到的响应时间与并发数按梯度算法动态调整: 短期响应时间相对长期基线上升时收缩上限,
+ * 持平时在当前上限基础上预留排队余量缓慢增长</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyRule extends AbstractRule {
+    /**
+     * 默认初始并发上限
+     */
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    /**
+     * 默认最小并发上限
+     */
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    /**
+     * 默认最大并发上限
+     */
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    /**
+     * 默认响应时间容忍倍数
+     */
+    public static final double DEFAULT_RTT_TOLERANCE = 1.5D;
+
+    /**
+     * 默认平滑系数
+     */
+    public static final double DEFAULT_SMOOTHING = 0.2D;
+
+    /**
+     * 默认每次调整所需的样本数
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 10;
+
+    /**
+     * 默认长期响应时间基线的样本窗口数
+     */
+    public static final int DEFAULT_LONG_WINDOW = 600;
+
+    /**
+     * 初始并发上限
+     */
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+
+    /**
+     * 最小并发上限
+     */
+    private int minLimit = DEFAULT_MIN_LIMIT;
+
+    /**
+     * 最大并发上限
+     */
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+
+    /**
+     * 响应时间容忍倍数, 短期响应时间超过长期基线的该倍数时开始收缩并发上限
+     */
+    private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+
+    /**
+     * 平滑系数, 取值(0, 1], 越大则调整越激进
+     */
+    private double smoothing = DEFAULT_SMOOTHING;
+
+    /**
+     * 每次调整所需的样本数
+     */
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    /**
+     * 长期响应时间基线的样本窗口数
+     */
+    private int longWindow = DEFAULT_LONG_WINDOW;
+
+    @Override
+    public boolean isInValid() {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            return true;
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            return true;
+        }
+        if (rttTolerance < 1D) {
+            return true;
+        }
+        if (smoothing <= 0D || smoothing > 1D) {
+            return true;
+        }
+        if (windowSize <= 0 || longWindow <= 0) {
+            return true;
+        }
+        return super.isInValid();
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+}
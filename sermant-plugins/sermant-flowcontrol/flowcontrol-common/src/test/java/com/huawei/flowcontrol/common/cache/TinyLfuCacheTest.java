@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.huaweicloud.sermant.core.utils.ReflectUtils;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ * 频率准入缓存测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class TinyLfuCacheTest {
+    private static final String VALUE = "val";
+
+    /**
+     * 基本读写测试
+     */
+    @Test
+    public void testBasic() {
+        final TinyLfuCache<String, String> cache = new TinyLfuCache<>(3, 60000L);
+        assertNull(cache.get("a"));
+        cache.put("a", VALUE);
+        assertEquals(VALUE, cache.get("a"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertTrue(cache.getCacheTarget() instanceof Map);
+        assertEquals(VALUE, ((Map<?, ?>) cache.getCacheTarget()).get("a"));
+        assertEquals(VALUE, cache.evict("a"));
+        assertNull(cache.get("a"));
+        cache.put("b", VALUE);
+        assertEquals(1, cache.size());
+        cache.release();
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * 缓存满时, 低频新键被拒绝, 高频新键替换低频旧键
+     */
+    @Test
+    public void testAdmission() {
+        int maxSize = 16;
+        final TinyLfuCache<String, String> cache = new TinyLfuCache<>(maxSize, 60000L);
+        for (int i = 0; i < maxSize; i++) {
+            final String key = "hot" + i;
+            cache.put(key, VALUE);
+            for (int j = 0; j < 5; j++) {
+                cache.get(key);
+            }
+        }
+
+        // 仅访问一次的新键不会冲刷热点
+        for (int i = 0; i < maxSize * 2; i++) {
+            final String key = "cold" + i;
+            if (cache.get(key) == null) {
+                cache.put(key, VALUE);
+            }
+        }
+        assertEquals(maxSize, cache.size());
+        for (int i = 0; i < maxSize; i++) {
+            assertEquals(VALUE, cache.get("hot" + i));
+        }
+        assertTrue(cache.getRejectCount() > 0);
+
+        // 频繁访问的新键可以被准入
+        for (int i = 0; i < 10; i++) {
+            cache.get("newHot");
+        }
+        cache.put("newHot", VALUE);
+        assertEquals(VALUE, cache.get("newHot"));
+        assertEquals(maxSize, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.release();
+    }
+
+    /**
+     * 过期测试
+     *
+     * @throws InterruptedException 线程中断
+     */
+    @Test
+    public void testExpire() throws InterruptedException {
+        long evictMs = 200L;
+        final TinyLfuCache<String, String> cache = new TinyLfuCache<>(2, evictMs);
+        cache.put("a", VALUE);
+        cache.put("b", VALUE);
+        Thread.sleep(evictMs);
+
+        // 已过期的条目优先被淘汰, 新键无需比较频率
+        cache.put("c", VALUE);
+        assertEquals(VALUE, cache.get("c"));
+        assertNull(cache.get("a"));
+        ReflectUtils.invokeMethod(cache, "removeEvictedCache", null, null);
+        assertTrue(cache.size() <= 1);
+        cache.release();
+    }
+}
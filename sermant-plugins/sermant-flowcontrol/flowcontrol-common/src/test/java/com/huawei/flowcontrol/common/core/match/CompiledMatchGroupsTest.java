@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.core.match;
+
+import com.huawei.flowcontrol.common.entity.HttpRequestEntity;
+import com.huawei.flowcontrol.common.entity.RequestEntity;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的业务场景匹配测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class CompiledMatchGroupsTest {
+    private final Map<String, BusinessMatcher> matchGroups = new HashMap<>();
+
+    /**
+     * 测试路径精确、前缀及其他比较器的匹配
+     */
+    @Test
+    public void testApiPath() {
+        addGroup("exact", buildMatcher(operator("exact", "/api/user"), null, null, null));
+        addGroup("prefix", buildMatcher(operator("prefix", "/api/"), null, null, null));
+        addGroup("suffix", buildMatcher(operator("suffix", "/order"), null, null, null));
+        addGroup("any", buildMatcher(null, null, null, null));
+        addGroup("unknown", buildMatcher(operator("regex", ".*"), null, null, null));
+        addGroup("empty", buildMatcher(new RawOperator(), null, null, null));
+        assertMatch(request("/api/user", "GET", null, null), "exact", "prefix", "any");
+        assertMatch(request("/api/order", "GET", null, null), "prefix", "suffix", "any");
+        assertMatch(request("/v2/order", "GET", null, null), "suffix", "any");
+        assertMatch(request("/api", "GET", null, null), "any");
+        assertMatch(request("/api/user", null, null, null));
+    }
+
+    /**
+     * 测试方法、服务名与请求头的匹配
+     */
+    @Test
+    public void testMethodServiceAndHeaders() {
+        addGroup("method", buildMatcher(operator("prefix", "/api"), Arrays.asList("GET", "POST"), null, null));
+        addGroup("service", buildMatcher(operator("prefix", "/api"), null, "provider", null));
+        addGroup("header", buildMatcher(null, null, null,
+                Collections.singletonMap("version", operator("compare", ">=2"))));
+        addGroup("noMethod", buildMatcher(null, Collections.emptyList(), null, null));
+        assertMatch(request("/api/a", "GET", "provider", null), "method", "service");
+        assertMatch(request("/api/a", "PUT", "consumer", null));
+        assertMatch(request("/api/a", "PUT", "consumer", Collections.singletonMap("version", "3")), "header");
+        assertMatch(request("/api/a", "POST", null, Collections.singletonMap("version", "1")), "method");
+        assertMatch(request("/api/a", "POST", null, Collections.singletonMap("version", "")), "method");
+    }
+
+    /**
+     * 测试同一业务场景存在多个匹配器时任意一个匹配即可
+     */
+    @Test
+    public void testMultiMatchers() {
+        final BusinessMatcher businessMatcher = new BusinessMatcher();
+        businessMatcher.setMatches(Arrays.asList(buildMatcher(operator("exact", "/a"), null, null, null),
+                buildMatcher(operator("contains", "b"), null, null, null)));
+        matchGroups.put("multi", businessMatcher);
+        assertMatch(request("/a", "GET", null, null), "multi");
+        assertMatch(request("/cbc", "GET", null, null), "multi");
+        assertMatch(request("/c", "GET", null, null));
+    }
+
+    private void assertMatch(RequestEntity request, String... expected) {
+        final Set<String> result = CompiledMatchGroups.compile(0L, matchGroups).match(request);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)), result);
+
+        // 与逐条匹配的结果保持一致
+        final Set<String> bruteForce = new HashSet<>();
+        for (Map.Entry<String, BusinessMatcher> entry : matchGroups.entrySet()) {
+            if (entry.getValue().match(request)) {
+                bruteForce.add(entry.getKey());
+            }
+        }
+        Assert.assertEquals(bruteForce, result);
+    }
+
+    private void addGroup(String name, RequestMatcher matcher) {
+        final BusinessMatcher businessMatcher = new BusinessMatcher();
+        businessMatcher.setName(name);
+        businessMatcher.setMatches(Collections.singletonList(matcher));
+        matchGroups.put(name, businessMatcher);
+    }
+
+    private RequestMatcher buildMatcher(RawOperator apiPath, List<String> method, String serviceName,
+            Map<String, RawOperator> headers) {
+        final RequestMatcher matcher = new RequestMatcher();
+        matcher.setApiPath(apiPath);
+        matcher.setMethod(method);
+        matcher.setServiceName(serviceName);
+        matcher.setHeaders(headers);
+        return matcher;
+    }
+
+    private RawOperator operator(String id, String pattern) {
+        final RawOperator rawOperator = new RawOperator();
+        rawOperator.put(id, pattern);
+        return rawOperator;
+    }
+
+    private RequestEntity request(String apiPath, String method, String serviceName, Map<String, String> headers) {
+        return new HttpRequestEntity.Builder().setApiPath(apiPath).setMethod(method).setServiceName(serviceName)
+                .setHeaders(headers == null ? Collections.emptyMap() : headers).build();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.core.match;
+
+import com.huawei.flowcontrol.common.config.FlowControlConfig;
+import com.huawei.flowcontrol.common.core.ResolverManager;
+import com.huawei.flowcontrol.common.core.resolver.AbstractResolver;
+import com.huawei.flowcontrol.common.core.resolver.RateLimitingRuleResolver;
+import com.huawei.flowcontrol.common.entity.HttpRequestEntity;
+import com.huawei.flowcontrol.common.entity.RequestEntity;
+
+import com.huaweicloud.sermant.core.operation.OperationManager;
+import com.huaweicloud.sermant.core.operation.converter.api.YamlConverter;
+import com.huaweicloud.sermant.core.plugin.config.PluginConfigManager;
+import com.huaweicloud.sermant.implement.operation.converter.YamlConverterImpl;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 匹配缓存增量失效测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class MatchedCacheTest {
+    private static final String MATCH_GROUP_KEY = MatchGroupResolver.CONFIG_KEY + ".";
+
+    private static final String RATE_LIMITING_KEY = RateLimitingRuleResolver.CONFIG_KEY + ".";
+
+    private static final String RATE_LIMITING_VALUE = "limitRefreshPeriod: \"1000\"\nrate: \"999\"";
+
+    private MockedStatic<OperationManager> operationManagerMockedStatic;
+
+    private MockedStatic<PluginConfigManager> pluginConfigManagerMockedStatic;
+
+    private MatchedCache matchedCache;
+
+    @Before
+    public void init() {
+        operationManagerMockedStatic = Mockito.mockStatic(OperationManager.class);
+        operationManagerMockedStatic.when(() -> OperationManager.getOperation(YamlConverter.class))
+                .thenReturn(new YamlConverterImpl());
+        pluginConfigManagerMockedStatic = Mockito.mockStatic(PluginConfigManager.class);
+        pluginConfigManagerMockedStatic.when(() -> PluginConfigManager.getPluginConfig(FlowControlConfig.class))
+                .thenReturn(new FlowControlConfig());
+        final Map<String, AbstractResolver<?>> resolversMap = ResolverManager.INSTANCE.getResolversMap();
+        resolversMap.putIfAbsent(MATCH_GROUP_KEY, new MatchGroupResolver());
+        resolversMap.putIfAbsent(RATE_LIMITING_KEY, new RateLimitingRuleResolver());
+        matchedCache = new MatchedCache();
+    }
+
+    @After
+    public void tearDown() {
+        ResolverManager.INSTANCE.resolve(MATCH_GROUP_KEY + "demo", null, true);
+        ResolverManager.INSTANCE.resolve(MATCH_GROUP_KEY + "demo2", null, true);
+        ResolverManager.INSTANCE.resolve(RATE_LIMITING_KEY + "demo", null, true);
+        ResolverManager.INSTANCE.resolve(RATE_LIMITING_KEY + "demo2", null, true);
+        matchedCache.release();
+        pluginConfigManagerMockedStatic.close();
+        operationManagerMockedStatic.close();
+    }
+
+    /**
+     * 规则变更后仅针对变更的业务场景重新匹配
+     */
+    @Test
+    public void testIncrementalRefresh() {
+        updateMatchGroup("demo", "/api");
+        ResolverManager.INSTANCE.resolve(RATE_LIMITING_KEY + "demo", RATE_LIMITING_VALUE, false);
+        final RequestEntity request = buildRequest();
+        final long generation = matchedCache.getGeneration();
+        matchedCache.put(request, MatchManager.INSTANCE.match(request, null), generation);
+        Assert.assertEquals(Collections.singleton("demo"), matchedCache.get(request));
+
+        // 新增业务场景, 缓存条目增量获得该业务场景
+        updateMatchGroup("demo2", "/api/");
+        ResolverManager.INSTANCE.resolve(RATE_LIMITING_KEY + "demo2", RATE_LIMITING_VALUE, false);
+        Set<String> businesses = matchedCache.get(request);
+        Assert.assertEquals(2, businesses.size());
+        Assert.assertTrue(businesses.contains("demo2"));
+
+        // 业务场景不再匹配时从缓存条目中移除
+        updateMatchGroup("demo", "/other");
+        Assert.assertEquals(Collections.singleton("demo2"), matchedCache.get(request));
+    }
+
+    /**
+     * 变更超出记录窗口或全部失效时, 条目视为未命中
+     */
+    @Test
+    public void testInvalidate() {
+        final RequestEntity request = buildRequest();
+        matchedCache.put(request, Collections.emptySet(), matchedCache.getGeneration());
+        Assert.assertEquals(Collections.emptySet(), matchedCache.get(request));
+        for (int i = 0; i < 1000; i++) {
+            matchedCache.recordChange("unknown");
+        }
+        Assert.assertNull(matchedCache.get(request));
+
+        matchedCache.put(request, Collections.emptySet(), matchedCache.getGeneration());
+        matchedCache.recordChange(null);
+        Assert.assertNull(matchedCache.get(request));
+    }
+
+    private void updateMatchGroup(String businessName, String prefix) {
+        ResolverManager.INSTANCE.resolve(MATCH_GROUP_KEY + businessName,
+                "matches:\n  - apiPath:\n      prefix: " + prefix + "\n    name: " + businessName, false);
+    }
+
+    private RequestEntity buildRequest() {
+        return new HttpRequestEntity.Builder().setApiPath("/api/test").setMethod("GET").setServiceName("demo")
+                .setHeaders(Collections.emptyMap()).build();
+    }
+}
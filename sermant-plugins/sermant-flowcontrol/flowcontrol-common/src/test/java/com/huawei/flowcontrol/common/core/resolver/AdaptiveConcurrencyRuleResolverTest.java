@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.common.core.resolver;
+
+import com.huawei.flowcontrol.common.core.rule.AdaptiveConcurrencyRule;
+
+import org.junit.Assert;
+
+/**
+ * 自适应并发限流规则解析测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyRuleResolverTest extends AbstractRuleResolverTest<AdaptiveConcurrencyRule> {
+    private static final int INITIAL_LIMIT = 50;
+
+    private static final int MIN_LIMIT = 5;
+
+    private static final int MAX_LIMIT = 200;
+
+    private static final double RTT_TOLERANCE = 2.0D;
+
+    private static final double SMOOTHING = 0.5D;
+
+    private static final int WINDOW_SIZE = 20;
+
+    private static final int LONG_WINDOW = 100;
+
+    private static final double DELTA = 1e-6d;
+
+    @Override
+    public AbstractResolver<AdaptiveConcurrencyRule> getResolver() {
+        return new AdaptiveConcurrencyRuleResolver();
+    }
+
+    @Override
+    public String getConfigKey() {
+        return AdaptiveConcurrencyRuleResolver.CONFIG_KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return "initialLimit: 50\n"
+                + "minLimit: 5\n"
+                + "maxLimit: 200\n"
+                + "rttTolerance: 2.0\n"
+                + "smoothing: 0.5\n"
+                + "windowSize: 20\n"
+                + "longWindow: 100";
+    }
+
+    @Override
+    public void checkAttrs(AdaptiveConcurrencyRule rule) {
+        Assert.assertEquals(INITIAL_LIMIT, rule.getInitialLimit());
+        Assert.assertEquals(MIN_LIMIT, rule.getMinLimit());
+        Assert.assertEquals(MAX_LIMIT, rule.getMaxLimit());
+        Assert.assertEquals(RTT_TOLERANCE, rule.getRttTolerance(), DELTA);
+        Assert.assertEquals(SMOOTHING, rule.getSmoothing(), DELTA);
+        Assert.assertEquals(WINDOW_SIZE, rule.getWindowSize());
+        Assert.assertEquals(LONG_WINDOW, rule.getLongWindow());
+    }
+}
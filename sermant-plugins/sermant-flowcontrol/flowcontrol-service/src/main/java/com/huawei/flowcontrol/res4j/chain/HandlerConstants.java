@@ -49,6 +49,11 @@ public class HandlerConstants {
      */
     public static final int BULK_HEAD_ORDER = 5000;
 
+    /**
+     * 自适应并发限流优先级
+     */
+    public static final int ADAPTIVE_CONCURRENCY_ORDER = 6000;
+
     /**
      * 实例隔离优先级, 该优先级必须大于熔断优先级
      */
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.chain.handler;
+
+import com.huawei.flowcontrol.common.entity.RequestEntity.RequestType;
+import com.huawei.flowcontrol.res4j.chain.HandlerConstants;
+import com.huawei.flowcontrol.res4j.chain.context.ChainContext;
+import com.huawei.flowcontrol.res4j.chain.context.RequestContext;
+import com.huawei.flowcontrol.res4j.exceptions.AdaptiveConcurrencyException;
+import com.huawei.flowcontrol.res4j.handler.AdaptiveConcurrencyHandler;
+import com.huawei.flowcontrol.res4j.handler.AdaptiveConcurrencyLimiter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 自适应并发限流服务端处理器
+ *
+ * <p>请求前按业务场景获取并发许可, 任一场景超出当前动态上限则释放已获取的许可并拒绝; 请求成功后以响应时间作为样本调整上限,
+ * 被后续处理器拒绝的请求未执行业务方法, 仅释放许可</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyServerReqHandler extends FlowControlHandler<AdaptiveConcurrencyLimiter> {
+    private final AdaptiveConcurrencyHandler adaptiveConcurrencyHandler = new AdaptiveConcurrencyHandler();
+
+    private final String contextName = AdaptiveConcurrencyServerReqHandler.class.getName();
+
+    private final String startTimeKey = contextName + "_START_TIME";
+
+    @Override
+    public void onBefore(RequestContext context, Set<String> businessNames) {
+        final List<AdaptiveConcurrencyLimiter> limiters = adaptiveConcurrencyHandler.createOrGetHandlers(businessNames);
+        if (!limiters.isEmpty()) {
+            acquire(limiters);
+            context.save(getContextName(), limiters);
+            context.save(startTimeKey, System.nanoTime());
+        }
+        super.onBefore(context, businessNames);
+    }
+
+    @Override
+    public void onThrow(RequestContext context, Set<String> businessNames, Throwable throwable) {
+        final List<AdaptiveConcurrencyLimiter> limiters = getHandlersFromCache(context.getSourceName(),
+                getContextName());
+        if (limiters != null) {
+            limiters.forEach(AdaptiveConcurrencyLimiter::onIgnore);
+            context.remove(getContextName());
+            context.remove(startTimeKey);
+        }
+        super.onThrow(context, businessNames, throwable);
+    }
+
+    @Override
+    public void onResult(RequestContext context, Set<String> businessNames, Object result) {
+        try {
+            final List<AdaptiveConcurrencyLimiter> limiters = getHandlersFromCache(context.getSourceName(),
+                    getContextName());
+            if (limiters != null) {
+                if (isOccurFlowLimit(context.getSourceName())) {
+                    limiters.forEach(AdaptiveConcurrencyLimiter::onIgnore);
+                } else {
+                    final long rttNanos = System.nanoTime() - context.get(startTimeKey, long.class);
+                    limiters.forEach(limiter -> limiter.onSuccess(rttNanos));
+                }
+            }
+        } finally {
+            context.remove(getContextName());
+            context.remove(startTimeKey);
+        }
+        super.onResult(context, businessNames, result);
+    }
+
+    /**
+     * 是否被流控拒绝, 被拒绝的请求未执行业务方法, 其响应时间不能作为样本
+     *
+     * @param sourceName 发起源
+     * @return 是否被流控拒绝
+     */
+    private boolean isOccurFlowLimit(String sourceName) {
+        return ChainContext.getThreadLocalContext(sourceName)
+                .get(HandlerConstants.OCCURRED_FLOW_EXCEPTION, Exception.class) != null;
+    }
+
+    /**
+     * 获取全部场景的许可, 失败时释放已获取的许可
+     *
+     * @param limiters 限流器
+     * @throws AdaptiveConcurrencyException 超出并发上限时抛出
+     */
+    private void acquire(List<AdaptiveConcurrencyLimiter> limiters) {
+        for (int i = 0; i < limiters.size(); i++) {
+            final AdaptiveConcurrencyLimiter limiter = limiters.get(i);
+            if (!limiter.tryAcquire()) {
+                for (int j = 0; j < i; j++) {
+                    limiters.get(j).onIgnore();
+                }
+                throw new AdaptiveConcurrencyException(String.format(Locale.ENGLISH,
+                        "Adaptive concurrency limit exceeded, limit: %s", limiter.getLimit()), limiter.getRule());
+            }
+        }
+    }
+
+    @Override
+    protected RequestType direct() {
+        return RequestType.SERVER;
+    }
+
+    @Override
+    public int getOrder() {
+        return HandlerConstants.ADAPTIVE_CONCURRENCY_ORDER;
+    }
+
+    @Override
+    public String getContextName() {
+        return contextName;
+    }
+}
@@ -26,6 +26,7 @@ import com.huawei.flowcontrol.res4j.exceptions.SystemRuleFault;
 import com.huawei.flowcontrol.res4j.handler.SystemRuleHandler;
 import com.huawei.flowcontrol.res4j.util.SystemRuleUtils;
 import com.huawei.flowcontrol.res4j.windows.WindowsArray;
+import com.huawei.flowcontrol.res4j.windows.WindowsClock;
 
 import java.util.List;
 import java.util.Set;
@@ -52,8 +53,8 @@ public class SystemServerReqHandler extends FlowControlHandler<Fault> {
             }
 
             // 记录请求时间
-            context.save(CommonConst.REQUEST_START_TIME, System.currentTimeMillis());
-            WindowsArray.INSTANCE.addThreadNum(context.get(CommonConst.REQUEST_START_TIME, long.class));
+            context.save(CommonConst.REQUEST_START_TIME, WindowsClock.INSTANCE.currentTimeMillis());
+            WindowsArray.INSTANCE.addThreadNum();
         }
         super.onBefore(context, businessNames);
     }
@@ -61,7 +62,12 @@ public class SystemServerReqHandler extends FlowControlHandler<Fault> {
     @Override
     public void onThrow(RequestContext context, Set<String> businessNames, Throwable throwable) {
         context.remove(getContextName());
-        context.remove(CommonConst.REQUEST_START_TIME);
+
+        // 异常调用不计入成功数, 但需释放并发数
+        if (context.hasKey(CommonConst.REQUEST_START_TIME)) {
+            WindowsArray.INSTANCE.decreaseThreadNum();
+            context.remove(CommonConst.REQUEST_START_TIME);
+        }
         super.onThrow(context, businessNames, throwable);
     }
 
@@ -69,9 +75,9 @@ public class SystemServerReqHandler extends FlowControlHandler<Fault> {
     public void onResult(RequestContext context, Set<String> businessNames, Object result) {
         if (SystemRuleUtils.isEnableSystemRule() && context.hasKey(CommonConst.REQUEST_START_TIME)) {
             long startTime = context.get(CommonConst.REQUEST_START_TIME, long.class);
-            WindowsArray.INSTANCE.addSuccess(startTime);
-            WindowsArray.INSTANCE.decreaseThreadNum(startTime);
-            WindowsArray.INSTANCE.addRt(startTime, System.currentTimeMillis() - startTime);
+            long now = WindowsClock.INSTANCE.currentTimeMillis();
+            WindowsArray.INSTANCE.decreaseThreadNum();
+            WindowsArray.INSTANCE.addSuccess(now, now - startTime);
             context.remove(CommonConst.REQUEST_START_TIME);
         }
         context.remove(getContextName());
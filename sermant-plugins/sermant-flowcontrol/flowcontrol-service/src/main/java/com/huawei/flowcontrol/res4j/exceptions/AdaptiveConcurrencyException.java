@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.exceptions;
+
+import com.huawei.flowcontrol.common.core.rule.AdaptiveConcurrencyRule;
+
+/**
+ * 自适应并发限流异常
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyException extends RuntimeException {
+    private final String msg;
+
+    private final AdaptiveConcurrencyRule rule;
+
+    /**
+     * 自适应并发限流异常
+     *
+     * @param msg 异常信息
+     * @param rule 自适应并发限流规则
+     */
+    public AdaptiveConcurrencyException(String msg, AdaptiveConcurrencyRule rule) {
+        super(msg, null, false, false);
+        this.msg = msg;
+        this.rule = rule;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+
+    public AdaptiveConcurrencyRule getRule() {
+        return rule;
+    }
+}
@@ -76,11 +76,22 @@ public class SystemRuleFault implements Fault {
      * @return 是否流控
      */
     private boolean checkHistoryData() {
-        long threadNum = SystemRuleUtils.getThreadNum();
-        if (threadNum > 1 && threadNum > SystemRuleUtils.getMaxThreadNum()
-                * SystemRuleUtils.getMinRt() / CommonConst.S_MS_UNIT) {
-            return true;
+        return isOverHistoryCapacity(SystemRuleUtils.getThreadNum(), SystemRuleUtils.getMaxThreadNum(),
+                SystemRuleUtils.getMinRt());
+    }
+
+    /**
+     * 当前并发数是否超过按历史窗口估算的系统容量, 即最大qps与最小响应时间的乘积; 历史窗口内没有完成的调用时无法估算, 不流控
+     *
+     * @param threadNum 当前并发数
+     * @param maxThreadNum 历史窗口内的最大qps
+     * @param minRt 历史窗口内的最小响应时间
+     * @return 是否流控
+     */
+    static boolean isOverHistoryCapacity(long threadNum, double maxThreadNum, double minRt) {
+        if (threadNum <= 1 || maxThreadNum <= 0 || minRt == Double.MAX_VALUE) {
+            return false;
         }
-        return false;
+        return threadNum > maxThreadNum * minRt / CommonConst.S_MS_UNIT;
     }
 }
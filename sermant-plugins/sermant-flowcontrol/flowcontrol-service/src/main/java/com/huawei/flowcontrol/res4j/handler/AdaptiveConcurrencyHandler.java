@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.handler;
+
+import com.huawei.flowcontrol.common.core.resolver.AdaptiveConcurrencyRuleResolver;
+import com.huawei.flowcontrol.common.core.rule.AdaptiveConcurrencyRule;
+import com.huawei.flowcontrol.common.handler.AbstractRequestHandler;
+
+import java.util.Optional;
+
+/**
+ * 自适应并发限流处理器, 按业务场景维护限流器, 规则变更后重新创建
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyHandler extends AbstractRequestHandler<AdaptiveConcurrencyLimiter,
+        AdaptiveConcurrencyRule> {
+    @Override
+    protected Optional<AdaptiveConcurrencyLimiter> createProcessor(String businessName, AdaptiveConcurrencyRule rule) {
+        return Optional.of(new AdaptiveConcurrencyLimiter(rule));
+    }
+
+    @Override
+    protected String configKey() {
+        return AdaptiveConcurrencyRuleResolver.CONFIG_KEY;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.handler;
+
+import com.huawei.flowcontrol.common.core.rule.AdaptiveConcurrencyRule;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 自适应并发限流器, 基于梯度算法动态计算并发上限
+ *
+ * <p>每累计windowSize个样本调整一次上限: 以样本平均响应时间作为短期响应时间, 以其指数移动平均作为长期基线,
+ * 梯度 = 容忍倍数 * 长期基线 / 短期响应时间, 取值限定在[0.5, 1]; 新上限 = 当前上限 * 梯度 + sqrt(当前上限)的排队余量,
+ * 再按平滑系数与当前上限加权。窗口内并发未达上限一半时不调整, 避免空闲时上限无限增长</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyLimiter {
+    /**
+     * 梯度下限, 单次调整最多收缩一半
+     */
+    private static final double MIN_GRADIENT = 0.5D;
+
+    /**
+     * 长期基线明显高于短期响应时间时的衰减系数, 使基线在负载下降后回落
+     */
+    private static final double LONG_RTT_DECAY = 0.95D;
+
+    /**
+     * 触发长期基线衰减的比值
+     */
+    private static final double LONG_RTT_DECAY_THRESHOLD = 2D;
+
+    private static final double HALF = 0.5D;
+
+    private final AdaptiveConcurrencyRule rule;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder windowRtt = new LongAdder();
+
+    private final LongAdder windowCount = new LongAdder();
+
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+
+    /**
+     * 长期响应时间基线, 仅在持有updateLock时访问
+     */
+    private double longRtt;
+
+    /**
+     * 已计入长期基线的窗口数, 仅在持有updateLock时访问
+     */
+    private long longRttCount;
+
+    /**
+     * 构造器
+     *
+     * @param rule 自适应并发限流规则
+     */
+    public AdaptiveConcurrencyLimiter(AdaptiveConcurrencyRule rule) {
+        this.rule = rule;
+        this.limit = rule.getInitialLimit();
+    }
+
+    /**
+     * 尝试获取并发许可
+     *
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 调用成功, 释放许可并记录样本
+     *
+     * @param rttNanos 响应时间, 单位纳秒
+     */
+    public void onSuccess(long rttNanos) {
+        final int current = inFlight.getAndDecrement();
+        windowMaxInFlight.accumulateAndGet(current, Math::max);
+        windowRtt.add(rttNanos);
+        windowCount.increment();
+        if (windowCount.sum() >= rule.getWindowSize() && updateLock.tryLock()) {
+            try {
+                updateLimit();
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 调用异常, 仅释放许可, 异常调用的响应时间不作为样本
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 获取当前并发上限
+     *
+     * @return 并发上限
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public AdaptiveConcurrencyRule getRule() {
+        return rule;
+    }
+
+    private void updateLimit() {
+        final long count = windowCount.sumThenReset();
+        final long rttSum = windowRtt.sumThenReset();
+        final int maxInFlight = windowMaxInFlight.getAndSet(0);
+        if (count <= 0 || rttSum <= 0) {
+            return;
+        }
+        final double shortRtt = (double) rttSum / count;
+        updateLongRtt(shortRtt);
+        final double curLimit = limit;
+        if (maxInFlight < curLimit * HALF) {
+            return;
+        }
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1D, rule.getRttTolerance() * longRtt / shortRtt));
+        final double newLimit = curLimit * gradient + Math.sqrt(curLimit);
+        final double smoothed = curLimit * (1 - rule.getSmoothing()) + newLimit * rule.getSmoothing();
+        limit = Math.max(rule.getMinLimit(), Math.min(rule.getMaxLimit(), smoothed));
+    }
+
+    private void updateLongRtt(double shortRtt) {
+        if (longRttCount < rule.getLongWindow()) {
+            // 预热阶段取算术平均, 避免初始样本权重过大
+            longRttCount++;
+            longRtt += (shortRtt - longRtt) / longRttCount;
+        } else {
+            final double factor = 2D / (rule.getLongWindow() + 1);
+            longRtt = longRtt * (1 - factor) + shortRtt * factor;
+        }
+        if (longRtt / shortRtt > LONG_RTT_DECAY_THRESHOLD) {
+            longRtt *= LONG_RTT_DECAY;
+        }
+    }
+}
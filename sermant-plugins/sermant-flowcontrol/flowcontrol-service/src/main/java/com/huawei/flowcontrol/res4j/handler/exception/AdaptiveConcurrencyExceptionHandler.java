@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.handler.exception;
+
+import com.huawei.flowcontrol.common.config.CommonConst;
+import com.huawei.flowcontrol.common.entity.FlowControlResponse;
+import com.huawei.flowcontrol.common.entity.FlowControlResult;
+import com.huawei.flowcontrol.res4j.exceptions.AdaptiveConcurrencyException;
+
+/**
+ * 自适应并发限流异常处理
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyExceptionHandler extends AbstractExceptionHandler<AdaptiveConcurrencyException> {
+    @Override
+    protected FlowControlResponse getFlowControlResponse(AdaptiveConcurrencyException ex,
+            FlowControlResult flowControlResult) {
+        return new FlowControlResponse(ex.getMsg(), CommonConst.TOO_MANY_REQUEST_CODE);
+    }
+
+    @Override
+    public Class<AdaptiveConcurrencyException> targetException() {
+        return AdaptiveConcurrencyException.class;
+    }
+}
@@ -15,9 +15,9 @@
 
 package com.huawei.flowcontrol.res4j.service;
 
-import com.huawei.flowcontrol.common.config.CommonConst;
 import com.huawei.flowcontrol.res4j.windows.SystemStatusTask;
 import com.huawei.flowcontrol.res4j.windows.WindowsArray;
+import com.huawei.flowcontrol.res4j.windows.WindowsClock;
 
 import com.huaweicloud.sermant.core.plugin.service.PluginService;
 
@@ -42,13 +42,14 @@ public class SystemStatusSlidingWindow implements PluginService {
         WindowsArray.INSTANCE.initWindowsArray();
 
         /**
-         * 定时任务 更新系统状态
+         * 定时任务 按桶长刷新系统状态, 窗口本身无需定时重置
          */
-        systemStatus.scheduleAtFixedRate(systemStatusTask, getDelay(), CommonConst.S_MS_UNIT);
+        final long period = WindowsArray.INSTANCE.getWindow().getBucketLengthMs();
+        systemStatus.scheduleAtFixedRate(systemStatusTask, getDelay(period), period);
     }
 
-    private long getDelay() {
-        return CommonConst.S_MS_UNIT - System.currentTimeMillis() % CommonConst.S_MS_UNIT;
+    private long getDelay(long period) {
+        return period - WindowsClock.INSTANCE.currentTimeMillis() % period;
     }
 
     @Override
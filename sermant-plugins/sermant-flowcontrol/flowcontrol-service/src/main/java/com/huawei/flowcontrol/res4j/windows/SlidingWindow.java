@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.windows;
+
+import com.huawei.flowcontrol.common.config.CommonConst;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 环形滑动窗口(LeapArray)
+ *
+ * <p>窗口由sampleCount个等长的桶组成, 时间点按桶长换算为纪元后映射到环形数组。桶记录自身的纪元, 访问时若发现桶的纪元落后,
+ * 则通过CAS以新桶整体替换, 过期桶的重置由访问线程惰性完成, 无需定时任务与锁; 统计时仅累计仍处于窗口内的桶</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class SlidingWindow {
+    private final int sampleCount;
+
+    private final long intervalMs;
+
+    private final long bucketLengthMs;
+
+    private final AtomicReferenceArray<WindowsBucket> buckets;
+
+    /**
+     * 构造器
+     *
+     * @param sampleCount 桶数
+     * @param intervalMs 窗口时长, 单位毫秒, 需为桶数的整数倍
+     * @throws IllegalArgumentException 参数非法时抛出
+     */
+    public SlidingWindow(int sampleCount, long intervalMs) {
+        if (sampleCount <= 0 || intervalMs <= 0 || intervalMs % sampleCount != 0) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Invalid sliding window, sampleCount: %s, intervalMs: %s", sampleCount, intervalMs));
+        }
+        this.sampleCount = sampleCount;
+        this.intervalMs = intervalMs;
+        this.bucketLengthMs = intervalMs / sampleCount;
+        this.buckets = new AtomicReferenceArray<>(sampleCount);
+    }
+
+    /**
+     * 记录一次成功调用
+     *
+     * @param now 完成时间
+     * @param responseTime 响应时间
+     */
+    public void addSuccess(long now, long responseTime) {
+        final WindowsBucket bucket = currentBucket(now);
+        if (bucket == null) {
+            return;
+        }
+        bucket.success.increment();
+        bucket.rt.add(responseTime);
+    }
+
+    /**
+     * 窗口内的成功数
+     *
+     * @param now 当前时间
+     * @return 成功数
+     */
+    public long getSuccess(long now) {
+        long success = 0L;
+        for (int i = 0; i < sampleCount; i++) {
+            final WindowsBucket bucket = buckets.get(i);
+            if (isValid(bucket, now)) {
+                success += bucket.success.sum();
+            }
+        }
+        return success;
+    }
+
+    /**
+     * 窗口内的qps
+     *
+     * @param now 当前时间
+     * @return qps
+     */
+    public double getQps(long now) {
+        return (double) getSuccess(now) * CommonConst.S_MS_UNIT / intervalMs;
+    }
+
+    /**
+     * 窗口内的平均响应时间
+     *
+     * @param now 当前时间
+     * @return 平均响应时间, 无调用时为0
+     */
+    public double getAveRt(long now) {
+        long success = 0L;
+        long rt = 0L;
+        for (int i = 0; i < sampleCount; i++) {
+            final WindowsBucket bucket = buckets.get(i);
+            if (isValid(bucket, now)) {
+                success += bucket.success.sum();
+                rt += bucket.rt.sum();
+            }
+        }
+        return success == 0L ? 0D : (double) rt / success;
+    }
+
+    /**
+     * 窗口内各桶平均响应时间的最小值
+     *
+     * @param now 当前时间
+     * @return 最小响应时间, 无调用时为{@link Double#MAX_VALUE}
+     */
+    public double getMinRt(long now) {
+        double minRt = Double.MAX_VALUE;
+        for (int i = 0; i < sampleCount; i++) {
+            final WindowsBucket bucket = buckets.get(i);
+            if (isValid(bucket, now)) {
+                final long success = bucket.success.sum();
+                if (success > 0L) {
+                    minRt = Math.min(minRt, (double) bucket.rt.sum() / success);
+                }
+            }
+        }
+        return minRt;
+    }
+
+    /**
+     * 窗口内单个桶的最大成功数, 按桶长折算为每秒
+     *
+     * @param now 当前时间
+     * @return 最大qps
+     */
+    public double getMaxQps(long now) {
+        long maxSuccess = 0L;
+        for (int i = 0; i < sampleCount; i++) {
+            final WindowsBucket bucket = buckets.get(i);
+            if (isValid(bucket, now)) {
+                maxSuccess = Math.max(maxSuccess, bucket.success.sum());
+            }
+        }
+        return (double) maxSuccess * CommonConst.S_MS_UNIT / bucketLengthMs;
+    }
+
+    public long getBucketLengthMs() {
+        return bucketLengthMs;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * 获取时间点所在的桶, 桶已过期时以新桶替换
+     *
+     * @param now 时间点
+     * @return 桶, 若该时间点已滑出窗口则返回null
+     */
+    private WindowsBucket currentBucket(long now) {
+        final long epoch = now / bucketLengthMs;
+        final long windowStart = epoch * bucketLengthMs;
+        final int index = (int) (epoch % sampleCount);
+        while (true) {
+            final WindowsBucket old = buckets.get(index);
+            if (old != null) {
+                if (old.windowStart == windowStart) {
+                    return old;
+                }
+                if (old.windowStart > windowStart) {
+                    // 线程取得时间后被长时间挂起, 其所属的桶已被后续纪元复用
+                    return null;
+                }
+            }
+            final WindowsBucket bucket = new WindowsBucket(windowStart);
+            if (buckets.compareAndSet(index, old, bucket)) {
+                return bucket;
+            }
+        }
+    }
+
+    private boolean isValid(WindowsBucket bucket, long now) {
+        return bucket != null && now - bucket.windowStart < intervalMs;
+    }
+}
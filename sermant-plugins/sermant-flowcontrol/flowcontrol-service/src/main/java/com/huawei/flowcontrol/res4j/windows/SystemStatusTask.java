@@ -25,98 +25,41 @@ import java.lang.management.ManagementFactory;
 import java.util.TimerTask;
 
 /**
- * 滑动窗口定时任务
+ * 系统状态刷新任务, 按实时窗口的桶长执行, 将滑动窗口的统计结果刷新至{@link SystemStatus}
  *
  * @author xuezechao1
  * @since 2022-12-07
  */
 public class SystemStatusTask extends TimerTask {
-
     private final SystemStatus systemStatus = SystemStatus.getInstance();
 
+    private final OperatingSystemMXBean operatingSystemMxBean =
+            ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+
+    private long lastSystemSampleTime;
+
     @Override
     public void run() {
-        // 新一轮窗口初始化数据
-        if (WindowsArray.INSTANCE.calculateCurrentWindowsIndex() == 0) {
-            initMinRtAndMaxThreadNum();
+        final SlidingWindow window = WindowsArray.INSTANCE.getWindow();
+        final SlidingWindow historyWindow = WindowsArray.INSTANCE.getHistoryWindow();
+        if (window == null || historyWindow == null) {
+            return;
         }
+        final long now = WindowsClock.INSTANCE.currentTimeMillis();
 
-        // 更新系统负载和CPU使用率
-        OperatingSystemMXBean operatingSystemMxBean = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
-        systemStatus.setCurrentLoad(operatingSystemMxBean.getSystemLoadAverage());
-        systemStatus.setCurrentCpuUsage(operatingSystemMxBean.getSystemCpuLoad());
-
-        // 更新最小响应时间 最大线程数
-        updateMinRtAndMaxThreadNum();
-
-        // 更新qps 平均响应时间
-        updateQpsAndAveRt();
-
-        // 重置下一秒数据
-        WindowsArray.INSTANCE.resetNextWindows();
-    }
-
-    /**
-     * 检查数据项
-     *
-     * @param windowsBucket 数据窗口
-     * @return 窗口是否有效
-     */
-    private boolean checkBucket(WindowsBucket windowsBucket) {
-        if (windowsBucket == null || windowsBucket.success.sum() == 0
-                || windowsBucket.rt.sum() == 0) {
-            return false;
+        // 系统负载与CPU使用率每秒采样一次, 过于频繁的采样CPU使用率波动较大
+        if (now - lastSystemSampleTime >= CommonConst.S_MS_UNIT) {
+            systemStatus.setCurrentLoad(operatingSystemMxBean.getSystemLoadAverage());
+            systemStatus.setCurrentCpuUsage(operatingSystemMxBean.getSystemCpuLoad());
+            lastSystemSampleTime = now;
         }
-        return true;
-    }
 
-    /**
-     * 初始化最小响应时间 最大线程数
-     */
-    private void initMinRtAndMaxThreadNum() {
-        systemStatus.setMinRt(Double.MAX_VALUE);
-        systemStatus.setMaxThreadNum(Long.MIN_VALUE);
-    }
-
-    /**
-     * 更新最小响应时间 最大线程数
-     */
-    private void updateMinRtAndMaxThreadNum() {
-        WindowsBucket windowsBucket = WindowsArray.INSTANCE.getCurrentWindow();
-
-        // 调用成功总数
-        long successNum = windowsBucket.success.sum();
-
-        // 响应时间总数
-        double rt = windowsBucket.rt.sum();
-
-        // 现存线程数
-        double threadNum = windowsBucket.threadNum.sum();
-        if (0 != successNum) {
-            systemStatus.setMinRt(Math.min(systemStatus.getMinRt(), rt / successNum));
-        }
-        systemStatus.setMaxThreadNum((long) Math.max(systemStatus.getMaxThreadNum(), threadNum + successNum));
-    }
+        // 更新qps 平均响应时间
+        systemStatus.setQps(window.getQps(now));
+        systemStatus.setAveRt(window.getAveRt(now));
 
-    /**
-     * 更新qps 平均响应时间
-     */
-    private void updateQpsAndAveRt() {
-        WindowsBucket previousWindowsBucket = WindowsArray.INSTANCE.getPreviousWindow();
-        if (checkBucket(previousWindowsBucket)) {
-            systemStatus.setQps(previousWindowsBucket.success.sum());
-            systemStatus.setAveRt(previousWindowsBucket.rt.sum() / systemStatus.getQps());
-            return;
-        }
-        WindowsBucket currentWindowsBucket = WindowsArray.INSTANCE.getCurrentWindow();
-        if (checkBucket(currentWindowsBucket)) {
-            long currentMillis = System.currentTimeMillis() % CommonConst.S_MS_UNIT;
-            if (currentMillis != 0) {
-                systemStatus.setQps(
-                        (double) CommonConst.S_MS_UNIT * currentWindowsBucket.success.sum() / currentMillis);
-                systemStatus.setAveRt(
-                        (double) currentWindowsBucket.rt.sum() / currentWindowsBucket.success.sum());
-            }
-        }
+        // 更新最小响应时间 最大线程数, 最大线程数取历史窗口内的最大qps
+        systemStatus.setMinRt(historyWindow.getMinRt(now));
+        systemStatus.setMaxThreadNum((long) historyWindow.getMaxQps(now));
     }
 }
@@ -18,181 +18,136 @@
 package com.huawei.flowcontrol.res4j.windows;
 
 import com.huawei.flowcontrol.common.config.CommonConst;
+import com.huawei.flowcontrol.common.config.ConfigConst;
+import com.huawei.flowcontrol.common.config.FlowControlConfig;
 
-import java.util.Calendar;
-import java.util.concurrent.atomic.AtomicReferenceArray;
-import java.util.stream.Stream;
+import com.huaweicloud.sermant.core.common.LoggerFactory;
+import com.huaweicloud.sermant.core.plugin.config.PluginConfigManager;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
 
 /**
  * 滑动窗口
  *
+ * <p>系统规则使用的统计窗口, 包括按配置分辨率统计qps与平均响应时间的实时窗口, 以及按秒统计最小响应时间与最大qps的历史窗口;
+ * 当前并发数与时间无关, 单独计数</p>
+ *
  * @author xuezechao1
  * @since 2022-12-07
  */
 public enum WindowsArray {
-
     /**
      * 单例
      */
     INSTANCE;
 
     /**
-     * 默认窗口大小
-     */
-    private static final int DEFAULT_WINDOWS_SIZE = 60;
-
-    /**
-     * 滑动窗口数组
+     * 历史窗口的桶数, 每个桶一秒
      */
-    private static AtomicReferenceArray<WindowsBucket> windowsArray = null;
+    private static final int HISTORY_SAMPLE_COUNT = 60;
 
-    /**
-     * 初始化
-     */
-    public void initWindowsArray() {
-        windowsArray = new AtomicReferenceArray<>(DEFAULT_WINDOWS_SIZE);
-        Stream.iterate(0, n -> n + 1).limit(DEFAULT_WINDOWS_SIZE)
-                .forEach(a -> windowsArray.set(a, new WindowsBucket()));
-    }
+    private static final Logger LOGGER = LoggerFactory.getLogger();
 
     /**
-     * 获取当前时间点窗口
-     *
-     * @return 当前时间点窗口
+     * 当前并发数
      */
-    public WindowsBucket getCurrentWindow() {
-        return windowsArray.get(calculateCurrentWindowsIndex());
-    }
+    private final LongAdder threadNum = new LongAdder();
 
     /**
-     * 获取当前时间点前一个窗口
-     *
-     * @return 当前时间点前一个窗口
+     * 实时窗口
      */
-    public WindowsBucket getPreviousWindow() {
-        return windowsArray.get(calculatePreviousWindowsIndex());
-    }
+    private volatile SlidingWindow window;
 
     /**
-     * 获取指定索引窗口
-     *
-     * @param index 索引
-     * @return 指定索引窗口
+     * 历史窗口
      */
-    public WindowsBucket getWindow(int index) {
-        return windowsArray.get(index);
-    }
+    private volatile SlidingWindow historyWindow;
 
     /**
-     * 获取当前线程数
-     *
-     * @return 当前线程数
+     * 按插件配置初始化
      */
-    public long getThreadNum() {
-        return getCurrentWindow().threadNum.sum();
-    }
-
-    /**
-     * 增加成功数
-     *
-     * @param startTime 请求时间
-     */
-    public void addSuccess(long startTime) {
-        windowsArray.get(calculateWindowsIndex(startTime)).success.increment();
-    }
-
-    /**
-     * 增加响应时间
-     *
-     * @param startTime 请求时间
-     * @param responseTime 响应时间
-     */
-    public void addRt(long startTime, long responseTime) {
-        windowsArray.get(calculateWindowsIndex(startTime)).rt.add(responseTime);
-    }
-
-    /**
-     * 增加线程数
-     *
-     * @param startTime 请求时间
-     */
-    public void addThreadNum(long startTime) {
-        windowsArray.get(calculateWindowsIndex(startTime)).threadNum.increment();
+    public void initWindowsArray() {
+        final FlowControlConfig config = PluginConfigManager.getPluginConfig(FlowControlConfig.class);
+        final int sampleCount = config.getSystemWindowSampleCount();
+        final long intervalMs = config.getSystemWindowIntervalMs();
+        if (sampleCount <= 0 || intervalMs <= 0 || intervalMs % sampleCount != 0) {
+            LOGGER.warning(String.format(Locale.ENGLISH, "Invalid system window config, sampleCount: %s, "
+                    + "intervalMs: %s, default config will be used", sampleCount, intervalMs));
+            initWindowsArray(ConfigConst.DEFAULT_SYSTEM_WINDOW_SAMPLE_COUNT,
+                    ConfigConst.DEFAULT_SYSTEM_WINDOW_INTERVAL_MS);
+            return;
+        }
+        initWindowsArray(sampleCount, intervalMs);
     }
 
     /**
-     * 减少线程数
+     * 初始化
      *
-     * @param startTime 请求时间
+     * @param sampleCount 实时窗口桶数
+     * @param intervalMs 实时窗口时长, 单位毫秒
      */
-    public void decreaseThreadNum(long startTime) {
-        windowsArray.get(calculateWindowsIndex(startTime)).threadNum.decrement();
+    public void initWindowsArray(int sampleCount, long intervalMs) {
+        window = new SlidingWindow(sampleCount, intervalMs);
+        historyWindow = new SlidingWindow(HISTORY_SAMPLE_COUNT, HISTORY_SAMPLE_COUNT * CommonConst.S_MS_UNIT);
+        threadNum.reset();
     }
 
     /**
-     * 计算当前时间点窗口索引
-     *
-     * @return 当前时间点窗口索引
+     * 请求开始, 增加并发数
      */
-    public int calculateCurrentWindowsIndex() {
-        return Calendar.getInstance().get(Calendar.SECOND) % DEFAULT_WINDOWS_SIZE;
+    public void addThreadNum() {
+        threadNum.increment();
     }
 
     /**
-     * 重置下一个窗口数据
+     * 请求结束, 减少并发数
      */
-    public void resetNextWindows() {
-        WindowsBucket windowsBucket = getWindow(calculateNextWindowsIndex());
-        windowsBucket.success.reset();
-        windowsBucket.rt.reset();
-        windowsBucket.threadNum.reset();
+    public void decreaseThreadNum() {
+        threadNum.decrement();
     }
 
     /**
-     * 计算当前时间点下一个窗口索引
+     * 记录一次成功调用
      *
-     * @return 当前时间点下一个窗口索引
+     * @param now 完成时间
+     * @param responseTime 响应时间
      */
-    public int calculateNextWindowsIndex() {
-        int nextIndex = calculateCurrentWindowsIndex() + 1;
-        if (nextIndex >= DEFAULT_WINDOWS_SIZE) {
-            nextIndex = 0;
+    public void addSuccess(long now, long responseTime) {
+        final SlidingWindow curWindow = window;
+        final SlidingWindow curHistoryWindow = historyWindow;
+        if (curWindow == null || curHistoryWindow == null) {
+            return;
         }
-        return nextIndex;
+        curWindow.addSuccess(now, responseTime);
+        curHistoryWindow.addSuccess(now, responseTime);
     }
 
     /**
-     * 计算窗口索引
+     * 获取当前并发数
      *
-     * @param startTime 请求时间
-     * @return 窗口索引
+     * @return 当前并发数
      */
-    public int calculateWindowsIndex(long startTime) {
-        if (System.currentTimeMillis() - startTime > DEFAULT_WINDOWS_SIZE * CommonConst.S_MS_UNIT) {
-            return -1;
-        }
-        return (int) (startTime / CommonConst.S_MS_UNIT % DEFAULT_WINDOWS_SIZE);
+    public long getThreadNum() {
+        return threadNum.sum();
     }
 
     /**
-     * 计算当前时间前一个窗口索引
+     * 获取实时窗口
      *
-     * @return 当前时间前一个窗口索引
+     * @return 实时窗口, 未初始化时为null
      */
-    public int calculatePreviousWindowsIndex() {
-        int previousIndex = calculateCurrentWindowsIndex() - 1;
-        if (previousIndex < 0) {
-            previousIndex = DEFAULT_WINDOWS_SIZE - 1;
-        }
-        return previousIndex;
+    public SlidingWindow getWindow() {
+        return window;
     }
 
     /**
-     * 获取滑动窗口数组
+     * 获取历史窗口
      *
-     * @return 滑动窗口
+     * @return 历史窗口, 未初始化时为null
      */
-    public AtomicReferenceArray<WindowsBucket> getWindowsArray() {
-        return windowsArray;
+    public SlidingWindow getHistoryWindow() {
+        return historyWindow;
     }
 }
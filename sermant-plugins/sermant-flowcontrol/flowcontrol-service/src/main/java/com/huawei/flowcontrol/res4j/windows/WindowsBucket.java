@@ -22,23 +22,33 @@ import java.util.concurrent.atomic.LongAdder;
 /**
  * 滑动窗口元素
  *
+ * <p>桶创建后其起始时间不再变化, 过期的桶由新桶整体替换而非原地重置</p>
+ *
  * @author xuezechao1
  * @since 2022-12-07
  */
 class WindowsBucket {
+    /**
+     * 桶起始时间, 即该桶所属的纪元
+     */
+    final long windowStart;
 
     /**
      * 响应时间
      */
-    LongAdder rt = new LongAdder();
+    final LongAdder rt = new LongAdder();
 
     /**
-     * 线程数
+     * 成功数
      */
-    LongAdder threadNum = new LongAdder();
+    final LongAdder success = new LongAdder();
 
     /**
-     * 成功数
+     * 构造器
+     *
+     * @param windowStart 桶起始时间
      */
-    LongAdder success = new LongAdder();
+    WindowsBucket(long windowStart) {
+        this.windowStart = windowStart;
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.windows;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 滑动窗口使用的单调时钟
+ *
+ * <p>以启动时的系统时间为基准, 叠加{@link System#nanoTime()}的增量, 不受系统时间回拨影响; 响应时间需要毫秒精度,
+ * 每次调用时直接计算, 不使用后台线程刷新缓存值</p>
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public enum WindowsClock {
+    /**
+     * 单例
+     */
+    INSTANCE;
+
+    private final long baseMillis = System.currentTimeMillis();
+
+    private final long baseNanos = System.nanoTime();
+
+    /**
+     * 获取当前时间
+     *
+     * @return 当前时间, 单位毫秒
+     */
+    public long currentTimeMillis() {
+        return baseMillis + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - baseNanos);
+    }
+}
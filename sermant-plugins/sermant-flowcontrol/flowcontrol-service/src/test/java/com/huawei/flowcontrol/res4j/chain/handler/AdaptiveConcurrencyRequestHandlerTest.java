@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.chain.handler;
+
+import com.huawei.flowcontrol.common.core.ResolverManager;
+import com.huawei.flowcontrol.common.core.resolver.AdaptiveConcurrencyRuleResolver;
+import com.huawei.flowcontrol.common.core.resolver.SystemRuleResolver;
+import com.huawei.flowcontrol.common.entity.FlowControlResult;
+import com.huawei.flowcontrol.res4j.chain.HandlerChainEntry;
+import com.huawei.flowcontrol.res4j.windows.SystemStatus;
+
+import org.junit.Assert;
+
+/**
+ * 自适应并发限流测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyRequestHandlerTest extends BaseEntityTest implements RequestTest {
+    private static final int REJECTED_REQUEST_COUNT = 5;
+
+    private HandlerChainEntry entry;
+
+    private String sourceName;
+
+    /**
+     * 被后续处理器拒绝的请求仅释放许可, 其响应时间不作为样本调整并发上限
+     */
+    @Override
+    public void test(HandlerChainEntry entry, String sourceName) {
+        this.entry = entry;
+        this.sourceName = sourceName;
+
+        // 获取许可后被系统规则拒绝
+        SystemStatus.getInstance().setQps(20D);
+        for (int i = 0; i < REJECTED_REQUEST_COUNT; i++) {
+            final FlowControlResult result = onBefore(sourceName);
+            entry.onResult(sourceName, new Object());
+            Assert.assertEquals("Trigger qps flow control", result.buildResponseMsg());
+        }
+
+        // 并发上限仍为初始值1, 第二个并发请求被拒绝
+        SystemStatus.getInstance().setQps(0D);
+        final String otherSourceName = sourceName + "#other";
+        Assert.assertEquals("", onBefore(sourceName).buildResponseMsg());
+        Assert.assertTrue(onBefore(otherSourceName).buildResponseMsg()
+                .startsWith("Adaptive concurrency limit exceeded"));
+        entry.onResult(otherSourceName, new Object());
+        entry.onResult(sourceName, new Object());
+    }
+
+    private FlowControlResult onBefore(String name) {
+        final FlowControlResult flowControlResult = new FlowControlResult();
+        entry.onBefore(name, httpServerEntity, flowControlResult);
+        return flowControlResult;
+    }
+
+    @Override
+    public void publishRule() {
+        ResolverManager.INSTANCE.resolve(buildKey(AdaptiveConcurrencyRuleResolver.CONFIG_KEY), getRule(), false);
+        ResolverManager.INSTANCE.resolve(buildKey(SystemRuleResolver.CONFIG_KEY), "qps: 10", false);
+    }
+
+    @Override
+    public void clear() {
+        ResolverManager.INSTANCE.resolve(buildKey(AdaptiveConcurrencyRuleResolver.CONFIG_KEY), null, true);
+        ResolverManager.INSTANCE.resolve(buildKey(SystemRuleResolver.CONFIG_KEY), null, true);
+    }
+
+    private String getRule() {
+        return "initialLimit: 1\n"
+                + "minLimit: 1\n"
+                + "maxLimit: 100\n"
+                + "rttTolerance: 2.0\n"
+                + "smoothing: 1.0\n"
+                + "windowSize: 1\n"
+                + "longWindow: 10";
+    }
+}
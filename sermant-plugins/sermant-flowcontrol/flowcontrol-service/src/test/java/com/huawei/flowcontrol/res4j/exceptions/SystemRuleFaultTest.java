@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.exceptions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 系统规则自适应检测测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class SystemRuleFaultTest {
+    /**
+     * 并发数超过最大qps与最小响应时间估算的容量时流控
+     */
+    @Test
+    public void testOverHistoryCapacity() {
+        Assert.assertTrue(SystemRuleFault.isOverHistoryCapacity(11L, 100D, 100D));
+        Assert.assertFalse(SystemRuleFault.isOverHistoryCapacity(10L, 100D, 100D));
+        Assert.assertFalse(SystemRuleFault.isOverHistoryCapacity(1L, 100D, 0D));
+    }
+
+    /**
+     * 历史窗口内没有完成的调用时, 如刚启动或调用耗时超过窗口, 不流控
+     */
+    @Test
+    public void testWithoutHistory() {
+        Assert.assertFalse(SystemRuleFault.isOverHistoryCapacity(10L, 0D, Double.MAX_VALUE));
+        Assert.assertFalse(SystemRuleFault.isOverHistoryCapacity(10L, 0D, 10D));
+        Assert.assertFalse(SystemRuleFault.isOverHistoryCapacity(10L, 100D, Double.MAX_VALUE));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.handler;
+
+import com.huawei.flowcontrol.common.core.rule.AdaptiveConcurrencyRule;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应并发限流器测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class AdaptiveConcurrencyLimiterTest {
+    private static final int INITIAL_LIMIT = 20;
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    /**
+     * 超过上限的请求被拒绝, 释放后可再次获取
+     */
+    @Test
+    public void testAcquire() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(buildRule());
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+        }
+        Assert.assertFalse(limiter.tryAcquire());
+        Assert.assertEquals(INITIAL_LIMIT, limiter.getInFlight());
+        limiter.onIgnore();
+        Assert.assertTrue(limiter.tryAcquire());
+    }
+
+    /**
+     * 响应时间平稳且并发饱和时上限增长, 响应时间上升时上限收缩
+     */
+    @Test
+    public void testGradient() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(buildRule());
+        for (int i = 0; i < 20; i++) {
+            runSaturated(limiter, BASE_RTT);
+        }
+        final int grownLimit = limiter.getLimit();
+        Assert.assertTrue(grownLimit > INITIAL_LIMIT);
+
+        for (int i = 0; i < 10; i++) {
+            runSaturated(limiter, BASE_RTT * 5);
+        }
+        Assert.assertTrue(limiter.getLimit() < grownLimit);
+        Assert.assertTrue(limiter.getLimit() >= buildRule().getMinLimit());
+    }
+
+    /**
+     * 并发未达上限一半时不调整上限
+     */
+    @Test
+    public void testAppLimited() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(buildRule());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(BASE_RTT);
+        }
+        Assert.assertEquals(INITIAL_LIMIT, limiter.getLimit());
+        Assert.assertEquals(0, limiter.getInFlight());
+    }
+
+    private void runSaturated(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.onSuccess(rttNanos);
+        }
+    }
+
+    private AdaptiveConcurrencyRule buildRule() {
+        final AdaptiveConcurrencyRule rule = new AdaptiveConcurrencyRule();
+        rule.setName("test");
+        rule.setInitialLimit(INITIAL_LIMIT);
+        rule.setMinLimit(5);
+        rule.setMaxLimit(100);
+        return rule;
+    }
+}
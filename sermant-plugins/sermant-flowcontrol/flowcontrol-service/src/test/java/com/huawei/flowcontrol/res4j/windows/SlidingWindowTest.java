@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2023-2023 Huawei Technologies Co., Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.flowcontrol.res4j.windows;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 环形滑动窗口测试
+ *
+ * @author HapThorin
+ * @version 1.0.0
+ * @since 2023-08-24
+ */
+public class SlidingWindowTest {
+    private static final double DELTA = 0.0001D;
+
+    /**
+     * 窗口内统计与过期桶的惰性重置
+     */
+    @Test
+    public void testSlide() {
+        final SlidingWindow window = new SlidingWindow(10, 1000L);
+        Assert.assertEquals(100L, window.getBucketLengthMs());
+        final long start = 100000L;
+        window.addSuccess(start, 10L);
+        window.addSuccess(start + 50L, 30L);
+        window.addSuccess(start + 950L, 5L);
+        Assert.assertEquals(3L, window.getSuccess(start + 999L));
+        Assert.assertEquals(3D, window.getQps(start + 999L), DELTA);
+        Assert.assertEquals(15D, window.getAveRt(start + 999L), DELTA);
+        Assert.assertEquals(5D, window.getMinRt(start + 999L), DELTA);
+        Assert.assertEquals(20D, window.getMaxQps(start + 999L), DELTA);
+
+        // 首个桶滑出窗口, 仅剩最后一个桶
+        Assert.assertEquals(1L, window.getSuccess(start + 1000L));
+
+        // 复用首个桶所在的槽位, 旧数据被替换
+        window.addSuccess(start + 1010L, 20L);
+        Assert.assertEquals(2L, window.getSuccess(start + 1010L));
+        Assert.assertEquals(12.5D, window.getAveRt(start + 1010L), DELTA);
+
+        // 整个窗口过期
+        Assert.assertEquals(0L, window.getSuccess(start + 5000L));
+        Assert.assertEquals(0D, window.getAveRt(start + 5000L), DELTA);
+        Assert.assertEquals(Double.MAX_VALUE, window.getMinRt(start + 5000L), DELTA);
+    }
+
+    /**
+     * 最小响应时间取各桶平均响应时间的最小值, 而非单次调用的最小值
+     */
+    @Test
+    public void testMinRtOfBucketAverage() {
+        final SlidingWindow window = new SlidingWindow(2, 2000L);
+        window.addSuccess(1000L, 0L);
+        window.addSuccess(1000L, 40L);
+        window.addSuccess(2000L, 10L);
+        Assert.assertEquals(10D, window.getMinRt(2999L), DELTA);
+    }
+
+    /**
+     * 已被后续纪元复用的桶不再接收过期时间点的数据
+     */
+    @Test
+    public void testStaleWrite() {
+        final SlidingWindow window = new SlidingWindow(2, 200L);
+        window.addSuccess(1200L, 1L);
+        window.addSuccess(1000L, 1L);
+        Assert.assertEquals(1L, window.getSuccess(1200L));
+    }
+
+    /**
+     * 并发写入不丢失
+     *
+     * @throws InterruptedException 线程中断
+     */
+    @Test
+    public void testConcurrentAdd() throws InterruptedException {
+        final SlidingWindow window = new SlidingWindow(10, 1000L);
+        int threads = 8;
+        int perThread = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    window.addSuccess(1000L + j % 1000, 1L);
+                }
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertEquals(threads * perThread, window.getSuccess(1999L));
+    }
+
+    /**
+     * 非法参数
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        new SlidingWindow(3, 1000L);
+    }
+}